@@ -27,19 +27,29 @@ package info.gameboxx.gameboxx;
 
 import com.zaxxer.hikari.HikariDataSource;
 import info.gameboxx.gameboxx.commands.*;
+import info.gameboxx.gameboxx.commands.api.CmdMetrics;
 import info.gameboxx.gameboxx.commands.api.CmdRegistration;
 import info.gameboxx.gameboxx.commands.api.exception.CmdAlreadyRegisteredException;
 import info.gameboxx.gameboxx.commands.test.*;
 import info.gameboxx.gameboxx.config.PluginCfg;
+import info.gameboxx.gameboxx.config.internal.ConfigWriter;
 import info.gameboxx.gameboxx.game.GameManager;
+import info.gameboxx.gameboxx.hud.HudManager;
 import info.gameboxx.gameboxx.listeners.MainListener;
 import info.gameboxx.gameboxx.menu.Menu;
+import info.gameboxx.gameboxx.messages.Broadcaster;
 import info.gameboxx.gameboxx.messages.Language;
 import info.gameboxx.gameboxx.messages.MessageConfig;
+import info.gameboxx.gameboxx.messages.MessageWatcher;
+import info.gameboxx.gameboxx.messages.Msg;
 import info.gameboxx.gameboxx.nms.NMS;
 import info.gameboxx.gameboxx.nms.NMSVersion;
+import info.gameboxx.gameboxx.system.database.Database;
 import info.gameboxx.gameboxx.system.points.CurrencyManager;
+import info.gameboxx.gameboxx.system.points.concurrent.BatchSaver;
+import info.gameboxx.gameboxx.system.points.concurrent.LeaderboardLoader;
 import info.gameboxx.gameboxx.system.points.model.Currency;
+import info.gameboxx.gameboxx.user.NameDirectory;
 import info.gameboxx.gameboxx.user.UserManager;
 import info.gameboxx.gameboxx.util.Parse;
 import info.gameboxx.gameboxx.util.cuboid.Cuboid;
@@ -49,11 +59,14 @@ import info.gameboxx.gameboxx.util.item.GlowEnchant;
 import info.gameboxx.gameboxx.util.item.ItemTag;
 import net.milkbowl.vault.Vault;
 import net.milkbowl.vault.economy.Economy;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -68,17 +81,50 @@ public class GameBoxx extends JavaPlugin {
     private Language language = null;
 
     private UserManager um;
+    private Broadcaster broadcaster;
+    private MessageWatcher messageWatcher;
+    private HudManager hud;
+    private NameDirectory names;
     private SelectionManager sm;
     private GameManager gm;
     private CurrencyManager cm;
 
     private PluginCfg cfg;
+    private ConfigWriter configWriter;
 
     private final Logger log = Logger.getLogger("GameBoxx");
-    private final HikariDataSource hikariDataSource = new HikariDataSource();
+    private Database db;
 
     @Override
     public void onDisable() {
+        if (configWriter != null) {
+            configWriter.close();
+            configWriter = null;
+        }
+        if (db != null) {
+            db.submit("points.save", new BatchSaver());
+            db.shutdown();
+            db = null;
+        }
+        if (messageWatcher != null) {
+            messageWatcher.close();
+            messageWatcher = null;
+        }
+        if (hud != null) {
+            hud.shutdown();
+            hud = null;
+        }
+        if (broadcaster != null) {
+            broadcaster.flush();
+            broadcaster = null;
+        }
+        if (um != null) {
+            um.shutdown();
+        }
+        if (names != null) {
+            names.close();
+            names = null;
+        }
         CmdRegistration.unregister(this);
         GlowEnchant.unregister();
         instance = null;
@@ -104,6 +150,8 @@ public class GameBoxx extends JavaPlugin {
         }
 
         cfg = new PluginCfg("plugins/GameBoxx/GameBoxx.yml");
+        CmdMetrics.setSlowMillis(cfg.commands__slowMillis);
+        configWriter = new ConfigWriter(this);
 
         if (!setupLanguage()) {
             warn("Invalid language specified in the config. Falling back to " + language.getName() + " [" + language.getID() + "]!");
@@ -111,16 +159,41 @@ public class GameBoxx extends JavaPlugin {
             log("Using " + language.getName() + " [" + language.getID() + "] as language!");
         }
         loadMessages();
+        if (cfg.messages__watch) {
+            try {
+                messageWatcher = new MessageWatcher(this);
+            } catch (IOException e) {
+                warn("Failed to watch the message files for changes: " + e.getMessage());
+            }
+        }
+        broadcaster = new Broadcaster(this);
+        hud = new HudManager(this, cfg);
 
         loadPoints();
         if (cfg.sql) {
-            loadHikari();
+            loadDatabase();
         }
 
         ItemTag.registerDefaults();
         EntityTag.registerDefaults();
 
-        um = new UserManager();
+        names = new NameDirectory(new File(getDataFolder(), "names.dat"));
+        int imported = names.importUserCache(new File(getServer().getWorldContainer(), "usercache.json"));
+        if (imported > 0) {
+            log("Imported " + imported + " player names from the server usercache!");
+        }
+        um = new UserManager(cfg, names);
+        for (Player player : getServer().getOnlinePlayers()) {
+            um.join(player);
+        }
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                for (Player player : getServer().getOnlinePlayers()) {
+                    um.updateDisplayName(player);
+                }
+            }
+        }.runTaskTimer(this, 20, 20);
         sm = new SelectionManager();
         gm = new GameManager();
         cm = new CurrencyManager();
@@ -128,6 +201,18 @@ public class GameBoxx extends JavaPlugin {
         registerCommands();
         registerListeners();
 
+        if (db != null) {
+            db.submit("points.leaderboards", new LeaderboardLoader());
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    if (db != null) {
+                        db.submit("points.save", new BatchSaver());
+                    }
+                }
+            }.runTaskTimer(this, 100, 100);
+        }
+
         log("loaded successfully");
     }
 
@@ -205,18 +290,12 @@ public class GameBoxx extends JavaPlugin {
         return economy != null;
     }
 
-    private void loadHikari() {
-        hikariDataSource.setMaximumPoolSize(10);
-        hikariDataSource.setDataSourceClassName("com.mysql.jdbc.jdbc2.optional.MysqlDataSource");
-        hikariDataSource.addDataSourceProperty("serverName", cfg.database__server);
-        hikariDataSource.addDataSourceProperty("port", cfg.database__port);
-        hikariDataSource.addDataSourceProperty("databaseName", cfg.database__databaseName);
-        hikariDataSource.addDataSourceProperty("user", cfg.database__username);
-        hikariDataSource.addDataSourceProperty("password", cfg.database__password);
+    private void loadDatabase() {
+        db = new Database(this, cfg);
 
         Connection connection = null;
         try {
-            connection = hikariDataSource.getConnection();
+            connection = db.getDataSource().getConnection();
             for (Currency currency : Currency.values()) {
                 PreparedStatement preparedStatement = connection.prepareStatement("CREATE TABLE IF NOT EXISTS '" + currency.getName().toLowerCase() + "' ('uuid' VARCHAR(36) NOT NULL , 'name' VARCHAR(16) NOT NULL , 'amount' DOUBLE(12) NOT NULL , PRIMARY KEY ('uuid'))");
                 preparedStatement.execute();
@@ -300,6 +379,36 @@ public class GameBoxx extends JavaPlugin {
         return um;
     }
 
+    /**
+     * Get the {@link NameDirectory} with all known player names and UUIDs.
+     * Use this to resolve player names without doing a blocking profile lookup.
+     *
+     * @return The {@link NameDirectory}
+     */
+    public NameDirectory getNames() {
+        return names;
+    }
+
+    /**
+     * Get the {@link Broadcaster} for sending messages to many players at once.
+     * Prefer using {@link Msg#broadcast(java.util.Collection)} which uses this.
+     *
+     * @return The {@link Broadcaster}
+     */
+    public Broadcaster getBroadcaster() {
+        return broadcaster;
+    }
+
+    /**
+     * Get the {@link HudManager} for displaying action bars, titles and boss bars.
+     * Use this for HUD elements that update frequently.
+     *
+     * @return The {@link HudManager}
+     */
+    public HudManager getHud() {
+        return hud;
+    }
+
     public CurrencyManager getCM() {
         return cm;
     }
@@ -308,7 +417,33 @@ public class GameBoxx extends JavaPlugin {
         return cfg;
     }
 
+    /**
+     * Get the {@link ConfigWriter} that saves option configs in the background.
+     * This is {@code null} while the plugin is disabled in which case configs are saved right away.
+     *
+     * @return The {@link ConfigWriter}
+     */
+    public ConfigWriter getConfigWriter() {
+        return configWriter;
+    }
+
+    /**
+     * Get the {@link Database} executor for running queries asynchronously.
+     * This is {@code null} when SQL is disabled in the config.
+     *
+     * @return The {@link Database} executor or {@code null} when SQL is disabled.
+     */
+    public Database getDB() {
+        return db;
+    }
+
+    /**
+     * Get the connection pool of the {@link Database}.
+     * Prefer submitting queries with {@link Database#submit(String, info.gameboxx.gameboxx.system.database.Query)}.
+     *
+     * @return The {@link HikariDataSource} or {@code null} when SQL is disabled.
+     */
     public HikariDataSource getHikariDataSource() {
-        return hikariDataSource;
+        return db == null ? null : db.getDataSource();
     }
 }
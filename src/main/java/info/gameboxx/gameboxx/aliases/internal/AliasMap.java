@@ -26,6 +26,8 @@
 package info.gameboxx.gameboxx.aliases.internal;
 
 import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.util.CompletionIndex;
+import info.gameboxx.gameboxx.util.FuzzyIndex;
 import info.gameboxx.gameboxx.util.Str;
 import info.gameboxx.gameboxx.util.Utils;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -45,6 +47,9 @@ public abstract class AliasMap<T> {
     protected Map<T, Alias<T>> map = new HashMap<>();
     protected Map<String, T> search = new HashMap<>();
     protected Map<String, List<String>> aliasMap = new HashMap<>();
+    private FuzzyIndex<T> index = null;
+    private CompletionIndex nameCompletions = null;
+    private CompletionIndex completions = null;
 
     private YamlConfiguration config;
     private File file;
@@ -69,6 +74,9 @@ public abstract class AliasMap<T> {
         search.clear();
         aliasMap.clear();
         map.clear();
+        index = null;
+        nameCompletions = null;
+        completions = null;
 
         config = YamlConfiguration.loadConfiguration(file);
         onLoad();
@@ -119,12 +127,63 @@ public abstract class AliasMap<T> {
         for (String alias : aliasList) {
             search.put(alias.toLowerCase().replace(" ", ""), key);
         }
+        index = null;
+        nameCompletions = null;
+        completions = null;
     }
 
     public T _get(String string) {
         return search.get(string.toLowerCase().replace(" ", "").replace("_", ""));
     }
 
+    /**
+     * Get the key with the alias closest to the specified string.
+     * Use this to suggest a value when {@link #_get(String)} didn't find a match.
+     * <p/>
+     * The aliases are indexed in a {@link FuzzyIndex} the first time this is called after loading.
+     *
+     * @param string The string to find a match for.
+     * @return The key with the closest alias or {@code null} when no alias is close enough.
+     */
+    public T _getBestMatch(String string) {
+        if (index == null) {
+            FuzzyIndex<T> index = new FuzzyIndex<>();
+            for (Map.Entry<String, T> entry : search.entrySet()) {
+                index.add(entry.getKey(), entry.getValue());
+            }
+            this.index = index;
+        }
+        return index.bestMatch(string.toLowerCase().replace(" ", "").replace("_", ""));
+    }
+
+    /**
+     * Get the names and aliases that start with the specified input for tab completion.
+     * When the input is empty only the names are returned.
+     * <p/>
+     * The names and aliases are indexed in a {@link CompletionIndex} the first time this is called after loading.
+     *
+     * @param input The input to complete. (Casing doesn't matter)
+     * @return List with matching names and aliases without spaces. (Empty when there are no matches)
+     */
+    public List<String> _complete(String input) {
+        if (completions == null) {
+            CompletionIndex.Builder names = CompletionIndex.builder();
+            CompletionIndex.Builder all = CompletionIndex.builder();
+            for (String name : aliasMap.keySet()) {
+                names.add(name.replace(" ", ""));
+                all.add(name.replace(" ", ""));
+            }
+            for (List<String> aliases : aliasMap.values()) {
+                for (String alias : aliases) {
+                    all.add(alias.replace(" ", ""));
+                }
+            }
+            nameCompletions = names.build();
+            completions = all.build();
+        }
+        return input.isEmpty() ? nameCompletions.complete(input) : completions.complete(input);
+    }
+
     public String _getName(T key) {
         if (key == null) {
             return null;
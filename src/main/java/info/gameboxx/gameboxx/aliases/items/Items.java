@@ -25,6 +25,8 @@
 
 package info.gameboxx.gameboxx.aliases.items;
 
+import info.gameboxx.gameboxx.util.CompletionIndex;
+import info.gameboxx.gameboxx.util.FuzzyIndex;
 import org.apache.commons.lang.WordUtils;
 import org.bukkit.Material;
 import org.bukkit.material.MaterialData;
@@ -32,6 +34,7 @@ import org.bukkit.material.MaterialData;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Item aliases and display names for items.
@@ -44,6 +47,9 @@ public class Items {
     private static final List<ItemData> items = new ArrayList<>();
     private static final HashMap<String, ItemData> itemLookup = new HashMap<>();
     private static final HashMap<String, String> matchLookup = new HashMap<>();
+    private static FuzzyIndex<String> matchIndex = null;
+    private static CompletionIndex itemCompletions = null;
+    private static CompletionIndex blockCompletions = null;
 
     /**
      * Get all the registered items.
@@ -151,6 +157,53 @@ public class Items {
         return null;
     }
 
+    /**
+     * Get the {@link ItemData} with the match string closest to the specified string.
+     * Use this to suggest an item when {@link #getItem(String)} didn't find a match.
+     * <p/>
+     * The match strings are indexed in a {@link FuzzyIndex} the first time this is called after items have been registered.
+     *
+     * @param string The string to find the closest item for. Data values are ignored.
+     * @return The {@link ItemData} with the closest match string. (Will be {@code null} when no item is close enough!)
+     */
+    public static ItemData getBestMatch(String string) {
+        if (matchIndex == null) {
+            FuzzyIndex<String> index = new FuzzyIndex<>();
+            for (Map.Entry<String, String> entry : matchLookup.entrySet()) {
+                index.add(entry.getKey(), entry.getValue());
+            }
+            matchIndex = index;
+        }
+        String key = matchIndex.bestMatch(string.toLowerCase().trim().split("[\\-#.:]")[0]);
+        return key == null ? null : itemLookup.get(key);
+    }
+
+    /**
+     * Get the names of all items that start with the specified input for tab completion.
+     * <p/>
+     * The names are indexed in a {@link CompletionIndex} the first time this is called after items have been registered.
+     *
+     * @param input The input to complete. (Casing doesn't matter)
+     * @param blocks When true only the names of items that are blocks will be returned.
+     * @return List with the matching item names without spaces. (Empty when there are no matches)
+     */
+    public static List<String> complete(String input, boolean blocks) {
+        if (itemCompletions == null) {
+            CompletionIndex.Builder itemIndex = CompletionIndex.builder();
+            CompletionIndex.Builder blockIndex = CompletionIndex.builder();
+            for (ItemData item : items) {
+                String name = item.getName().replace(" ", "");
+                itemIndex.add(name);
+                if (item.getType().isBlock()) {
+                    blockIndex.add(name);
+                }
+            }
+            blockCompletions = blockIndex.build();
+            itemCompletions = itemIndex.build();
+        }
+        return blocks ? blockCompletions.complete(input) : itemCompletions.complete(input);
+    }
+
     /**
      * Find matching {@link MaterialData} for the specified string.
      * See {@link #getItem(String)} to know what strings will match.
@@ -253,6 +306,9 @@ public class Items {
                 matchLookup.put(match, key);
             }
         }
+        matchIndex = null;
+        itemCompletions = null;
+        blockCompletions = null;
     }
 
     //Register all the items.
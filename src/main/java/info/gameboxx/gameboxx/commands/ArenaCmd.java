@@ -60,7 +60,7 @@ public class ArenaCmd implements CommandExecutor {
     @Override
     public boolean onCommand(final CommandSender sender, Command command, String label, String[] args) {
         if (args.length < 1 || args[0].equalsIgnoreCase("help")) {
-            Msg.get("arena.help", Param.P("cmd", label)).send(sender);
+            Msg.get(sender, "arena.help", Param.P("cmd", label)).send(sender);
             return true;
         }
         args = Utils.fixCommandArgs(args);
@@ -68,19 +68,19 @@ public class ArenaCmd implements CommandExecutor {
         //arena create {game} {name} {type} [world gen data]
         if (args[0].equalsIgnoreCase("create") || args[0].equalsIgnoreCase("generate") || args[0].equalsIgnoreCase("new")) {
             if (args.length < 4) {
-                Msg.get("invalid-usage", Param.P("usage", "/" + label + " " + args[0] + " {game} {name} {type} [world data]")).send(sender);
+                Msg.get(sender, "invalid-usage", Param.P("usage", "/" + label + " " + args[0] + " {game} {name} {type} [world data]")).send(sender);
                 return true;
             }
 
             Game game = gb.getGM().getGame(args[1]);
             if (game == null) {
-                Msg.get("game.invalid", Param.P("input", args[1]), Param.P("games", Str.implode(gb.getGM().getGameNames(), ", ", " & "))).send(sender);
+                Msg.get(sender, "game.invalid", Param.P("input", args[1]), Param.P("games", Str.implode(gb.getGM().getGameNames(), ", ", " & "))).send(sender);
                 return true;
             }
 
             ArenaType type = ArenaType.fromName(args[3]);
             if (type == null) {
-                Msg.get("arena.type.invalid", Param.P("input", args[3]), Param.P("types", Utils.getAliasesString("arena.type.entry", ArenaType.getAliasesMap()))).send(sender);
+                Msg.get(sender, "arena.type.invalid", Param.P("input", args[3]), Param.P("types", Utils.getAliasesString("arena.type.entry", ArenaType.getAliasesMap()))).send(sender);
                 return true;
             }
 
@@ -88,15 +88,15 @@ public class ArenaCmd implements CommandExecutor {
             try {
                 Arena arena = game.createArena(type, name);
             } catch (ArenaAlreadyExistsException e) {
-                Msg.get("arena.create.exists", Param.P("name", name), Param.P("arenas", Str.implode(game.getArenaNames(), ", ", " & "))).send(sender);
+                Msg.get(sender, "arena.create.exists", Param.P("name", name), Param.P("arenas", Str.implode(game.getArenaNames(), ", ", " & "))).send(sender);
                 return true;
             } catch (IOException e) {
-                Msg.get("arena.create.error", Param.P("name", name), Param.P("error", e.getMessage())).send(sender);
+                Msg.get(sender, "arena.create.error", Param.P("name", name), Param.P("error", e.getMessage())).send(sender);
                 return true;
             }
 
             if (type == ArenaType.DEFAULT) {
-                Msg.get("arena.create.default", Param.P("name", name)).send(sender);
+                Msg.get(sender, "arena.create.default", Param.P("name", name)).send(sender);
                 return true;
             }
 
@@ -106,11 +106,11 @@ public class ArenaCmd implements CommandExecutor {
             //TODO: Save world creator data to arena.
 
             if (type == ArenaType.GENERATE_WORLD) {
-                Msg.get("arena.create.generate", Param.P("name", name)).send(sender);
+                Msg.get(sender, "arena.create.generate", Param.P("name", name)).send(sender);
                 return true;
             }
 
-            Msg.get("arena.create.creating", Param.P("name", name)).send(sender);
+            Msg.get(sender, "arena.create.creating", Param.P("name", name)).send(sender);
             //Create the template world and set spawn location at the center
             new BukkitRunnable() {
                 @Override
@@ -128,7 +128,7 @@ public class ArenaCmd implements CommandExecutor {
                                 ((Player)sender).teleport(block.getLocation());
                             }
 
-                            Msg.get("arena.create.world", Param.P("name", name)).send(sender);
+                            Msg.get(sender, "arena.create.world", Param.P("name", name)).send(sender);
                         }
                     }.runTaskLater(gb, 1);
                 }
@@ -139,7 +139,7 @@ public class ArenaCmd implements CommandExecutor {
         //Get/validate the arena selection.
         Arena arena = ArenaSelection.getSel(sender, args);
         if (arena == null) {
-            Msg.get("no-selection").send(sender);
+            Msg.get(sender, "no-selection").send(sender);
             return true;
         }
 
@@ -34,6 +34,11 @@ import info.gameboxx.gameboxx.options.single.StringO;
 import info.gameboxx.gameboxx.util.Str;
 
 import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 public class GameBoxxCmd extends BaseCmd {
@@ -43,7 +48,7 @@ public class GameBoxxCmd extends BaseCmd {
         file(file);
         desc("Main GameBoxx command.");
 
-        addArgument("action", ArgRequirement.REQUIRED, new SubCmdO(new Info(this), new Reload(this), new Lang(this))).desc("A sub command.");
+        addArgument("action", ArgRequirement.REQUIRED, new SubCmdO(new Info(this), new Reload(this), new Lang(this), new Metrics(this))).desc("A sub command.");
     }
 
     @Override
@@ -77,6 +82,7 @@ public class GameBoxxCmd extends BaseCmd {
         @Override
         public void onCommand(CmdData data) {
             getGB().getCfg().load();
+            CmdMetrics.setSlowMillis(getGB().getCfg().commands__slowMillis);
 
             getGB().setupLanguage();
             for (MessageConfig cfg : MessageConfig.getConfigs()) {
@@ -90,7 +96,7 @@ public class GameBoxxCmd extends BaseCmd {
                 }
             }
 
-            Msg.get("gameboxx.reloaded", Param.P("type", "all")).send(data.getSender());
+            Msg.get(data.getSender(), "gameboxx.reloaded", Param.P("type", "all")).send(data.getSender());
         }
     }
 
@@ -117,11 +123,96 @@ public class GameBoxxCmd extends BaseCmd {
                     config.loadFull();
                 }
 
-                Msg.get("gameboxx.language.set", Param.P("language", lang.getName())).send(data.getSender());
+                Msg.get(data.getSender(), "gameboxx.language.set", Param.P("language", lang.getName())).send(data.getSender());
                 return;
             }
 
-            Msg.get("gameboxx.language.get", Param.P("language", getGB().getLanguage().getName())).send(data.getSender());
+            Msg.get(data.getSender(), "gameboxx.language.get", Param.P("language", getGB().getLanguage().getName())).send(data.getSender());
+        }
+    }
+
+
+    public class Metrics extends SubCmd<GameBoxxCmd> {
+        private Metrics(GameBoxxCmd gameBoxxCmd) {
+            super(gameBoxxCmd, "metrics", "stats", "timings");
+            desc("Display, export or reset the execution metrics of commands.");
+            perm("gameboxx.cmd.metrics");
+
+            addArgument("type", ArgRequirement.OPTIONAL, new StringO().match("commands", "slow", "export", "reset")).desc("Display the commands or the slow commands, export or reset the metrics.");
+        }
+
+        @Override
+        public void onCommand(CmdData data) {
+            String type = data.hasArg("type") ? (String)data.getArg("type") : "commands";
+
+            if (type.equals("export")) {
+                File folder = new File(getGB().getDataFolder(), "metrics");
+                try {
+                    CmdMetrics.export(folder);
+                    Msg.get(data.getSender(), "gameboxx.metrics.exported", Param.P("folder", folder.getPath())).send(data.getSender());
+                } catch (IOException e) {
+                    Msg.get(data.getSender(), "gameboxx.metrics.export-failed", Param.P("error", e.getMessage())).send(data.getSender());
+                }
+                return;
+            }
+
+            if (type.equals("reset")) {
+                CmdMetrics.reset();
+                Msg.get(data.getSender(), "gameboxx.metrics.reset").send(data.getSender());
+                return;
+            }
+
+            if (type.equals("slow")) {
+                List<CmdMetrics.SlowCmd> slowCmds = CmdMetrics.getSlowCommands();
+                if (slowCmds.isEmpty()) {
+                    Msg.get(data.getSender(), "gameboxx.metrics.slow-none", Param.P("threshold", CmdMetrics.getSlowMillis())).send(data.getSender());
+                    return;
+                }
+                SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss");
+                StringBuilder msg = new StringBuilder(Msg.getString(data.getSender(), "gameboxx.metrics.slow-header", Param.P("threshold", CmdMetrics.getSlowMillis())));
+                for (int i = 0; i < slowCmds.size() && i < 10; i++) {
+                    CmdMetrics.SlowCmd slow = slowCmds.get(i);
+                    msg.append("\n").append(Msg.getString(data.getSender(), "gameboxx.metrics.slow-entry",
+                            Param.P("time", format.format(new Date(slow.getTime()))),
+                            Param.P("sender", slow.getSender()),
+                            Param.P("input", slow.getInput()),
+                            Param.P("millis", millis(slow.getTotalMillis())),
+                            Param.P("parse", millis(slow.getParseMillis())),
+                            Param.P("execute", millis(slow.getExecuteMillis()))
+                    ));
+                }
+                Msg.fromString(msg.toString()).send(data.getSender());
+                return;
+            }
+
+            List<CmdStats> stats = CmdMetrics.getStats();
+            if (stats.isEmpty()) {
+                Msg.get(data.getSender(), "gameboxx.metrics.none").send(data.getSender());
+                return;
+            }
+            StringBuilder msg = new StringBuilder(Msg.getString(data.getSender(), "gameboxx.metrics.header"));
+            for (int i = 0; i < stats.size() && i < 10; i++) {
+                CmdStats cmd = stats.get(i);
+                msg.append("\n").append(Msg.getString(data.getSender(), "gameboxx.metrics.entry",
+                        Param.P("cmd", cmd.getName()),
+                        Param.P("count", cmd.getCount()),
+                        Param.P("errors", cmd.getErrors()),
+                        Param.P("exceptions", cmd.getExceptions()),
+                        Param.P("avg", millis(cmd.getParse().getAverageMillis() + cmd.getExecute().getAverageMillis())),
+                        Param.P("max", millis(Math.max(cmd.getParse().getMaxMillis(), cmd.getExecute().getMaxMillis()))),
+                        Param.P("parse-avg", millis(cmd.getParse().getAverageMillis())),
+                        Param.P("parse-p95", millis(cmd.getParse().getPercentileMillis(0.95))),
+                        Param.P("parse-max", millis(cmd.getParse().getMaxMillis())),
+                        Param.P("execute-avg", millis(cmd.getExecute().getAverageMillis())),
+                        Param.P("execute-p95", millis(cmd.getExecute().getPercentileMillis(0.95))),
+                        Param.P("execute-max", millis(cmd.getExecute().getMaxMillis()))
+                ));
+            }
+            Msg.fromString(msg.toString()).send(data.getSender());
+        }
+
+        private String millis(double millis) {
+            return String.format(Locale.ENGLISH, "%.2f", millis);
         }
     }
 }
@@ -50,12 +50,12 @@ public class OptionCmd implements CommandExecutor {
         //Get/validate the arena selection.
         Arena arena = ArenaSelection.getSel(sender, args);
         if (arena == null) {
-            Msg.get("no-selection").send(sender);
+            Msg.get(sender, "no-selection").send(sender);
             return true;
         }
 
         if (args.length < 1) {
-            Msg.get("invalid-usage", Param.P("usage", "/" + label + " {name}")).send(sender);
+            Msg.get(sender, "invalid-usage", Param.P("usage", "/" + label + " {name}")).send(sender);
             return true;
         }
 
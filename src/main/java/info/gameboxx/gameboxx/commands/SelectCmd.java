@@ -54,17 +54,17 @@ public class SelectCmd extends BaseCmd {
     public void onCommand(CmdData data) {
         Game game = getGB().getGM().getGame((String)data.getArg("game"));
         if (game == null) {
-            Msg.get("game.invalid", Param.P("input", data.getArg("game")), Param.P("games", Str.implode(getGB().getGM().getGameNames()))).send(data.getSender());
+            Msg.get(data.getSender(), "game.invalid", Param.P("input", data.getArg("game")), Param.P("games", Str.implode(getGB().getGM().getGameNames()))).send(data.getSender());
             return;
         }
 
         Arena arena = game.getArena((String)data.getArg("arena"));
         if (arena == null) {
-            Msg.get("arena.invalid", Param.P("input", data.getArg("arena")), Param.P("game", game.getName()), Param.P("arenas", Str.implode(game.getArenaNames()))).send(data.getSender());
+            Msg.get(data.getSender(), "arena.invalid", Param.P("input", data.getArg("arena")), Param.P("game", game.getName()), Param.P("arenas", Str.implode(game.getArenaNames()))).send(data.getSender());
             return;
         }
 
         ArenaSelection.setSel(data.getSender(), arena);
-        Msg.get("select.selected", Param.P("arena", arena.getName()), Param.P("game", game.getName())).send(data.getSender());
+        Msg.get(data.getSender(), "select.selected", Param.P("arena", arena.getName()), Param.P("game", game.getName())).send(data.getSender());
     }
 }
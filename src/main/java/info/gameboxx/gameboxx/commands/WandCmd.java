@@ -48,6 +48,6 @@ public class WandCmd extends BaseCmd {
     @Override
     public void onCommand(CmdData data) {
         ItemUtil.add(data.getPlayer("player").getInventory(), getGB().getSM().getWand(), true);
-        Msg.get("wand.given").send(data.getSender());
+        Msg.get(data.getSender(), "wand.given").send(data.getSender());
     }
 }
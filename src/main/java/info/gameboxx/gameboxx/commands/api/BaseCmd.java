@@ -26,9 +26,11 @@
 package info.gameboxx.gameboxx.commands.api;
 
 import info.gameboxx.gameboxx.commands.api.data.*;
+import info.gameboxx.gameboxx.commands.api.parse.CmdCompleter;
 import info.gameboxx.gameboxx.commands.api.parse.CmdParser;
 import info.gameboxx.gameboxx.commands.api.parse.SubCmdO;
 import info.gameboxx.gameboxx.messages.Msg;
+import info.gameboxx.gameboxx.messages.Param;
 import info.gameboxx.gameboxx.options.SingleOption;
 import info.gameboxx.gameboxx.options.single.IntO;
 import org.bukkit.command.CommandSender;
@@ -41,6 +43,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Base custom command.
@@ -126,6 +129,7 @@ public abstract class BaseCmd extends Cmd {
 
         config.options().copyDefaults(true);
         loadData(config, this);
+        invalidateGrammar();
 
         try {
             config.save(configFile);
@@ -161,6 +165,14 @@ public abstract class BaseCmd extends Cmd {
         cmd.setDescription((String)loadValue(cfg, name + ".description", cmd.getDescription()));
         cmd.setPermission((String)loadValue(cfg, name + ".permission", cmd.getPermission()));
 
+        //Command - rate limit/cooldown
+        CmdLimit rateLimit = cmd.rateLimit();
+        cmd.rateLimit(((Number)loadValue(cfg, name + ".rate-limit.uses", rateLimit == null ? 0 : rateLimit.getUses())).intValue(),
+                ((Number)loadValue(cfg, name + ".rate-limit.period-millis", rateLimit == null ? 0L : rateLimit.getPeriod())).longValue());
+        CmdLimit cooldown = cmd.cooldown();
+        cmd.cooldown(((Number)loadValue(cfg, name + ".cooldown-millis", cooldown == null ? 0L : cooldown.getPeriod())).longValue());
+        cmd.limitBypass((String)loadValue(cfg, name + ".limit-bypass-permission", cmd.limitBypass()));
+
         //Flag - description/permission
         List<Flag> flags = new ArrayList<>(cmd.getFlags().values());
         for (Flag flag : flags) {
@@ -222,6 +234,11 @@ public abstract class BaseCmd extends Cmd {
      * It will be put all the results in the {@link CmdData} which is passed on in {@link #onCommand(CmdData)}
      * <p/>
      * If there are errors parsing the input the error message will be sent to the sender.
+     * <p/>
+     * The rate limits and cooldowns of the command and the sub command are checked before the input is parsed.
+     * See {@link #rateLimit(int, long)} and {@link #cooldown(long)}
+     * <p/>
+     * The parse and execution time are recorded in the {@link CmdStats} of the command. See {@link CmdMetrics}
      *
      * @param sender The {@link CommandSender} who executed the command.
      * @param label The command label/name.
@@ -230,7 +247,28 @@ public abstract class BaseCmd extends Cmd {
      */
     @Override
     public boolean execute(CommandSender sender, String label, String[] args) {
+        //Rate limits and cooldowns
+        Cmd target = CmdParser.getSub(this, args);
+        long wait = checkLimits(sender);
+        if (target != this) {
+            wait = Math.max(wait, target.checkLimits(sender));
+        }
+        if (wait == 0) {
+            wait = acquireLimits(sender);
+            if (wait == 0 && target != this) {
+                wait = target.acquireLimits(sender);
+            }
+        }
+        if (wait > 0) {
+            Msg.get(sender, "command.rate-limited", Param.P("seconds", String.format(Locale.ROOT, "%.1f", wait / 1000d))).send(sender);
+            return true;
+        }
+
+        long start = System.nanoTime();
         CmdParser parser = new CmdParser(this, sender, label, args);
+        long parseNanos = System.nanoTime() - start;
+        CmdStats stats = CmdMetrics.getStats(parser.getCmd());
+        stats.recordParse(parseNanos, !parser.success() && !parser.getData().hasFlag("?") && !parser.getData().hasFlag("l"));
 
         //Show help
         if (parser.getData().hasFlag("?")) {
@@ -246,9 +284,19 @@ public abstract class BaseCmd extends Cmd {
 
         //Execute command or show error.
         if (parser.success()) {
-            parser.getCmd().onCommand(parser.getData());
+            boolean exception = true;
+            start = System.nanoTime();
+            try {
+                parser.getCmd().onCommand(parser.getData());
+                exception = false;
+            } finally {
+                long executeNanos = System.nanoTime() - start;
+                stats.recordExecute(executeNanos, exception);
+                CmdMetrics.logSlow(parser.getCmd(), sender, label, args, parseNanos, executeNanos);
+            }
         } else {
             Msg.fromString(parser.getError()).send(sender);
+            CmdMetrics.logSlow(parser.getCmd(), sender, label, args, parseNanos, 0);
         }
 
         return true;
@@ -256,41 +304,6 @@ public abstract class BaseCmd extends Cmd {
 
     @Override
     public List<String> tabComplete(CommandSender sender, String alias, String[] args) {
-        //No arguments
-        if (getAllArguments().size() == 0) {
-            return new ArrayList<>();
-        }
-
-        TabCompleteData data = null;
-
-        if (args.length == 0 || args.length == 1 && args[0].trim().isEmpty()) {
-            //Get option from first argument if nothing is specified yet.
-            Argument arg = new ArrayList<>(getArguments().values()).get(0);
-            data = new TabCompleteData(arg.name(), arg.option(), "");
-        } else {
-            //Parse the input
-            CmdParser parser = new CmdParser(getBaseCmd(), sender, alias, args, false);
-            data = parser.getTabCompleteData();
-
-            //Get the first unparsed argument for blank input
-            if (data == null) {
-                String lastArg = args[args.length - 1];
-                if (lastArg.trim().isEmpty()) {
-                    List<Argument> arguments = new ArrayList<>(parser.getCmd().getAllArguments().values());
-                    for (Argument arg : arguments) {
-                        String argName = arg.name().toLowerCase();
-                        if (!parser.getData().hasArg(argName) || parser.getData().getArg(argName) == null) {
-                            data = new TabCompleteData(arg.name().toLowerCase(), arg.option(), lastArg);
-                            break;
-                        }
-                    }
-                }
-            }
-        }
-
-        if (data == null) {
-            return new ArrayList<>();
-        }
-        return data.getOption().onComplete(sender, data.getInput());
+        return CmdCompleter.complete(this, sender, args);
     }
 }
\ No newline at end of file
@@ -25,10 +25,13 @@
 
 package info.gameboxx.gameboxx.commands.api;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import info.gameboxx.gameboxx.GameBoxx;
 import info.gameboxx.gameboxx.commands.api.data.*;
 import info.gameboxx.gameboxx.commands.api.data.link.*;
 import info.gameboxx.gameboxx.commands.api.exception.CmdAlreadyRegisteredException;
+import info.gameboxx.gameboxx.commands.api.parse.CmdGrammar;
 import info.gameboxx.gameboxx.commands.api.parse.CmdParser;
 import info.gameboxx.gameboxx.commands.api.parse.CmdUsageParser;
 import info.gameboxx.gameboxx.commands.api.parse.SubCmdO;
@@ -63,6 +66,15 @@ public abstract class Cmd extends BukkitCommand {
     private Map<String, Flag> flags = new HashMap<>();
     private List<Link> links = new ArrayList<>();
 
+    private volatile CmdGrammar grammar = null;
+
+    private final Cache<String, String> rendered = CacheBuilder.newBuilder().maximumSize(64).build();
+    private volatile int renderedRevision = -1;
+
+    private volatile CmdLimit rateLimit = null;
+    private volatile CmdLimit cooldown = null;
+    private String limitBypass = "gameboxx.bypass.limits";
+
     /**
      * Construct a new command with the given name and aliases.
      *
@@ -116,6 +128,139 @@ public abstract class Cmd extends BukkitCommand {
         setPermission(permission == null ? "" : permission);
     }
 
+    /**
+     * Get the rate limit of the command.
+     *
+     * @return The limit set with {@link #rateLimit(int, long)} (May be {@code null} if the command isn't rate limited)
+     */
+    public CmdLimit rateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Set the rate limit of the command.
+     * <p/>
+     * Players can use the command the specified amount of times within the period.
+     * The uses refill gradually so a player can't use the command more often than the rate limit allows.
+     * <p/>
+     * Limits of a base command apply to all sub commands and are checked before the input is parsed.
+     * Players with the {@link #limitBypass()} permission are never limited.
+     *
+     * @param uses The amount of times the command can be used within the period. (Use 0 to remove the limit)
+     * @param periodMillis The period in milliseconds.
+     */
+    public void rateLimit(int uses, long periodMillis) {
+        rateLimit = getLimit(rateLimit, uses, periodMillis);
+    }
+
+    /**
+     * Get the cooldown of the command.
+     *
+     * @return The limit set with {@link #cooldown(long)} (May be {@code null} if the command has no cooldown)
+     */
+    public CmdLimit cooldown() {
+        return cooldown;
+    }
+
+    /**
+     * Set the cooldown of the command.
+     * <p/>
+     * Players have to wait the specified amount of time after using the command before they can use it again.
+     * See {@link #rateLimit(int, long)} for details.
+     *
+     * @param millis The cooldown in milliseconds. (Use 0 to remove the cooldown)
+     */
+    public void cooldown(long millis) {
+        cooldown = getLimit(cooldown, millis > 0 ? 1 : 0, millis);
+    }
+
+    /**
+     * Get the permission node that bypasses the rate limit and cooldown of the command.
+     *
+     * @return The permission set with {@link #limitBypass(String)}
+     */
+    public String limitBypass() {
+        return limitBypass;
+    }
+
+    /**
+     * Set the permission node that bypasses the rate limit and cooldown of the command.
+     * <p/>
+     * By default this is gameboxx.bypass.limits
+     *
+     * @param permission The permission node to set for the command.
+     */
+    public void limitBypass(String permission) {
+        limitBypass = permission == null ? "" : permission;
+    }
+
+    private CmdLimit getLimit(CmdLimit current, int uses, long periodMillis) {
+        if (uses <= 0 || periodMillis <= 0) {
+            return null;
+        }
+        if (current != null && current.getUses() == uses && current.getPeriod() == periodMillis) {
+            return current;
+        }
+        return new CmdLimit(uses, periodMillis);
+    }
+
+    /**
+     * Check the rate limit and cooldown of the command for the specified sender.
+     * <p/>
+     * This doesn't use up any uses, use {@link #acquireLimits(CommandSender)} once all limits have been checked.
+     * Only players and other entities are limited and senders with the {@link #limitBypass()} permission are never limited.
+     *
+     * @param sender The {@link CommandSender} that uses the command.
+     * @return The amount of milliseconds the sender has to wait before the command can be used. (0 when the command can be used)
+     */
+    public long checkLimits(CommandSender sender) {
+        CmdLimit rateLimit = this.rateLimit;
+        CmdLimit cooldown = this.cooldown;
+        UUID uuid = getLimitedId(sender, rateLimit, cooldown);
+        if (uuid == null) {
+            return 0;
+        }
+        long wait = cooldown == null ? 0 : cooldown.check(uuid);
+        if (rateLimit != null) {
+            wait = Math.max(wait, rateLimit.check(uuid));
+        }
+        return wait;
+    }
+
+    /**
+     * Use up one use of both the rate limit and cooldown of the command for the specified sender.
+     * <p/>
+     * Check the limits of all commands that are used with {@link #checkLimits(CommandSender)} first,
+     * so nothing is used up when one of the commands is limited.
+     *
+     * @param sender The {@link CommandSender} that uses the command.
+     * @return The amount of milliseconds the sender has to wait before the command can be used. (0 when the uses have been taken)
+     */
+    public long acquireLimits(CommandSender sender) {
+        CmdLimit rateLimit = this.rateLimit;
+        CmdLimit cooldown = this.cooldown;
+        UUID uuid = getLimitedId(sender, rateLimit, cooldown);
+        if (uuid == null) {
+            return 0;
+        }
+        long wait = cooldown == null ? 0 : cooldown.tryAcquire(uuid);
+        if (wait == 0 && rateLimit != null) {
+            wait = rateLimit.tryAcquire(uuid);
+        }
+        return wait;
+    }
+
+    /** Get the UUID the limits are tracked with or {@code null} when the sender isn't limited. */
+    private UUID getLimitedId(CommandSender sender, CmdLimit rateLimit, CmdLimit cooldown) {
+        if ((rateLimit == null && cooldown == null) || !(sender instanceof Entity)) {
+            return null;
+        }
+        if (!limitBypass.isEmpty() && sender.hasPermission(limitBypass)) {
+            return null;
+        }
+        return ((Entity)sender).getUniqueId();
+    }
+
 
     /**
      * Get the {@link Plugin} that registered this command.
@@ -322,6 +467,7 @@ public abstract class Cmd extends BukkitCommand {
         }
 
         arguments.put(name.toLowerCase(), argument);
+        invalidateGrammar();
         return argument;
     }
 
@@ -387,6 +533,7 @@ public abstract class Cmd extends BukkitCommand {
         }
 
         modifiers.put(name.toLowerCase(), modifier);
+        invalidateGrammar();
         return modifier;
     }
 
@@ -446,6 +593,7 @@ public abstract class Cmd extends BukkitCommand {
         }
 
         flags.put(name.toLowerCase(), flag);
+        invalidateGrammar();
         return flag;
     }
 
@@ -492,6 +640,7 @@ public abstract class Cmd extends BukkitCommand {
      */
     public Link addLink(Link link) {
         links.add(link);
+        invalidateGrammar();
         return link;
     }
 
@@ -599,10 +748,53 @@ public abstract class Cmd extends BukkitCommand {
 
 
 
+    /**
+     * Get the compiled {@link CmdGrammar} used by the {@link CmdParser} to parse input for this command.
+     * <p/>
+     * The grammar is compiled the first time this is called after the command changed.
+     * For sub commands the grammar includes the arguments, modifiers, flags and links of the parent.
+     *
+     * @return The compiled {@link CmdGrammar} for this command.
+     */
+    public CmdGrammar getGrammar() {
+        CmdGrammar grammar = this.grammar;
+        if (grammar == null) {
+            grammar = CmdGrammar.compile(this);
+            this.grammar = grammar;
+        }
+        return grammar;
+    }
+
+    /**
+     * Discard the compiled {@link CmdGrammar} so it will be compiled again the next time it's used.
+     * <p/>
+     * This is called automatically when arguments, modifiers, flags or links are added and when the command config is loaded.
+     * For base commands the grammar of all sub commands is discarded too.
+     * <p/>
+     * The cached usage and help of the command is discarded as well.
+     * For sub commands the cached usage and help of the parent is discarded too because it includes the sub command usage.
+     */
+    public void invalidateGrammar() {
+        grammar = null;
+        rendered.invalidateAll();
+        Cmd base = getBaseCmd();
+        if (base != null && base != this) {
+            base.rendered.invalidateAll();
+        }
+        SubCmd[] subCmds = getSubCmds();
+        if (subCmds != null) {
+            for (SubCmd sub : subCmds) {
+                sub.invalidateGrammar();
+            }
+        }
+    }
+
+
+
     /**
      * Get the usage string for the specified {@link CommandSender}
      * <p/>
-     * The string is generated using the {@link CmdUsageParser}
+     * The string is generated using the {@link CmdUsageParser} and cached per type of sender and language until the command or the messages change.
      * <p/>
      * Can be used for both specific sub commands and base commands.
      * If it's a base command it will list all the sub command options.
@@ -611,13 +803,19 @@ public abstract class Cmd extends BukkitCommand {
      * @return The usage string for the specified sender.
      */
     public String getUsage(CommandSender sender, String label) {
-        return new CmdUsageParser(this, sender, label, new String[0], "").getString();
+        String key = "usage:" + SenderType.getType(sender) + ":" + Msg.getLanguage(sender) + ":" + label;
+        String usage = getRendered(key);
+        if (usage == null) {
+            usage = new CmdUsageParser(this, sender, label, new String[0], "").getString();
+            rendered.put(key, usage);
+        }
+        return usage;
     }
 
     /**
      * Get the usage string for the specified {@link CommandSender}
      * <p/>
-     * The string is generated using the {@link CmdUsageParser}
+     * The string is generated using the {@link CmdUsageParser} and cached per type of sender and language until the command or the messages change.
      * <p/>
      * Can be used for both specific sub commands and base commands.
      * If it's a base command it will list all the sub command options.
@@ -626,7 +824,7 @@ public abstract class Cmd extends BukkitCommand {
      * @return The usage string for the specified sender.
      */
     public String getUsage(CommandSender sender, String label, String[] args) {
-        return new CmdUsageParser(this, sender, label, args, "").getString();
+        return CmdParser.getSub(this, args).getUsage(sender, label);
     }
 
     /**
@@ -654,8 +852,19 @@ public abstract class Cmd extends BukkitCommand {
             Msg.fromString(getUsage(sender, label, args)).send(sender);
             return;
         }
-        String none = Msg.getString("command.none");
-        String noDesc = Msg.getString("command.no-description");
+
+        String key = "help:" + SenderType.getType(sender) + ":" + Msg.getLanguage(sender) + ":" + label + ":" + CmdParser.getSub(this, args).getName();
+        String msg = getRendered(key);
+        if (msg == null) {
+            msg = renderHelp(sender, label, args);
+            rendered.put(key, msg);
+        }
+        Msg.fromString(msg).send(sender);
+    }
+
+    private String renderHelp(CommandSender sender, String label, String[] args) {
+        String none = Msg.getString(sender, "command.none");
+        String noDesc = Msg.getString(sender, "command.no-description");
 
         List<String> blacklisted = new ArrayList<>();
         for (SenderType type : getSenderBlacklist()) {
@@ -673,7 +882,7 @@ public abstract class Cmd extends BukkitCommand {
                 if (!perm.isEmpty()) {
                     perm += " ";
                 }
-                perm += Msg.getString("command.permission-inherit", Param.P("permission", getBaseCmd().perm()));
+                perm += Msg.getString(sender, "command.permission-inherit", Param.P("permission", getBaseCmd().perm()));
             }
         }
 
@@ -706,8 +915,8 @@ public abstract class Cmd extends BukkitCommand {
             }
         }
 
-        String argClr = Msg.getString("command.argument-name-color");
-        String msg = Msg.getString("command.help",
+        String argClr = Msg.getString(sender, "command.argument-name-color");
+        return Msg.getString(sender, "command.help",
                 Param.P("label", label),
                 Param.P("cmd", getBaseCmd().getName()),
                 Param.P("usage", sender instanceof ConsoleCommandSender ? new CmdUsageParser(this, sender, label, args, argClr).getString() : new CmdUsageParser(this, sender, label, args, argClr).getJSON()),
@@ -717,14 +926,12 @@ public abstract class Cmd extends BukkitCommand {
                 Param.P("flags", flagFormats.isEmpty() ? none : Str.implode(flagFormats, " ")),
                 Param.P("modifiers", modifierFormats.isEmpty() ? none : Str.implode(modifierFormats))
         );
-
-        Msg.fromString(msg).send(sender);
     }
 
     public void showSubCmds(CommandSender sender, String label, int page) {
         SubCmd[] subCmds = getBaseCmd().getSubCmds();
         if (subCmds == null) {
-            Msg.get("command.no-subcmd").send(sender);
+            Msg.get(sender, "command.no-subcmd").send(sender);
             return;
         }
 
@@ -732,31 +939,42 @@ public abstract class Cmd extends BukkitCommand {
         int pages = subCmds.length / commandsPerPage + 1;
 
         if (page > pages) {
-            Msg.get("command.page-number-high", Param.P("pages", pages)).send(sender);
+            Msg.get(sender, "command.page-number-high", Param.P("pages", pages)).send(sender);
             return;
         }
 
+        String key = "list:" + SenderType.getType(sender) + ":" + Msg.getLanguage(sender) + ":" + label + ":" + page;
+        Cmd base = getBaseCmd();
+        String msg = base.getRendered(key);
+        if (msg == null) {
+            msg = renderSubCmds(subCmds, sender, label, page, pages, commandsPerPage);
+            base.rendered.put(key, msg);
+        }
+        Msg.fromString(msg).send(sender);
+    }
+
+    private String renderSubCmds(SubCmd[] subCmds, CommandSender sender, String label, int page, int pages, int commandsPerPage) {
         List<String> lines = new ArrayList<>();
         int start = (page-1) * commandsPerPage;
         for (int i = start; i < start + commandsPerPage && i < subCmds.length; i++) {
-            String usage = new CmdUsageParser(subCmds[i], sender, label, new String[0], Msg.getString("command.list-argument-name-color")).getJSON();
-            lines.add(Msg.getString("command.list-entry", Param.P("cmd", label), Param.P("subcmd", subCmds[i].getSubName()), Param.P("usage", usage)));
+            String usage = new CmdUsageParser(subCmds[i], sender, label, new String[0], Msg.getString(sender, "command.list-argument-name-color")).getJSON();
+            lines.add(Msg.getString(sender, "command.list-entry", Param.P("cmd", label), Param.P("subcmd", subCmds[i].getSubName()), Param.P("usage", usage)));
         }
 
         String prev;
         if (page == 1) {
-            prev = Msg.getString("command.list-no-prev");
+            prev = Msg.getString(sender, "command.list-no-prev");
         } else {
-            prev = Msg.getString("command.list-prev", Param.P("cmd", label), Param.P("prevpage", page-1));
+            prev = Msg.getString(sender, "command.list-prev", Param.P("cmd", label), Param.P("prevpage", page-1));
         }
         String next;
         if (page == pages) {
-            next = Msg.getString("command.list-no-next");
+            next = Msg.getString(sender, "command.list-no-next");
         } else {
-            next = Msg.getString("command.list-next", Param.P("cmd", label), Param.P("nextpage", page+1));
+            next = Msg.getString(sender, "command.list-next", Param.P("cmd", label), Param.P("nextpage", page+1));
         }
 
-        String msg = Msg.getString("command.list",
+        return Msg.getString(sender, "command.list",
                 Param.P("cmd", label),
                 Param.P("page", page),
                 Param.P("pages", pages),
@@ -764,7 +982,19 @@ public abstract class Cmd extends BukkitCommand {
                 Param.P("next", next),
                 Param.P("commands", Str.implode(lines, "\n"))
         );
-        Msg.fromString(msg).send(sender);
+    }
+
+    /**
+     * Get the cached usage or help text with the specified key.
+     * All cached text is discarded when the messages changed since it was rendered.
+     */
+    private String getRendered(String key) {
+        int revision = Msg.getRevision();
+        if (revision != renderedRevision) {
+            rendered.invalidateAll();
+            renderedRevision = revision;
+        }
+        return rendered.getIfPresent(key);
     }
 
 
@@ -0,0 +1,155 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.commands.api;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang.Validate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket that limits how often a sender can use a command.
+ * <p/>
+ * Each sender gets a bucket with the specified amount of uses which refills one use per period divided by the amount of uses.
+ * A cooldown is a limit with a single use.
+ * <p/>
+ * The bucket of a sender is stored as a single timestamp at which the bucket is full again (the generic cell rate algorithm).
+ * Using the command only moves this timestamp with a compare and set so checking limits never locks.
+ * Buckets that have been idle for longer than the period are full again and are evicted from the table.
+ */
+public class CmdLimit {
+
+    private final int uses;
+    private final long periodMillis;
+    private final long interval;
+    private final long tolerance;
+    private final Cache<UUID, AtomicLong> buckets;
+
+    /**
+     * Create a new limit.
+     *
+     * @param uses The amount of times the command can be used within the period. (must be positive)
+     * @param periodMillis The period in milliseconds. (must be positive)
+     */
+    public CmdLimit(int uses, long periodMillis) {
+        Validate.isTrue(uses > 0, "Uses must be positive!");
+        Validate.isTrue(periodMillis > 0, "Period must be positive!");
+        this.uses = uses;
+        this.periodMillis = periodMillis;
+        this.interval = TimeUnit.MILLISECONDS.toNanos(periodMillis) / uses;
+        this.tolerance = interval * (uses - 1);
+        this.buckets = CacheBuilder.newBuilder().expireAfterAccess(periodMillis, TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * Check if the specified sender can use the command without taking a use from the bucket.
+     *
+     * @param uuid The {@link UUID} of the sender.
+     * @return The amount of milliseconds the sender has to wait before the command can be used again. (0 when the command can be used)
+     */
+    public long check(UUID uuid) {
+        AtomicLong bucket = buckets.getIfPresent(uuid);
+        if (bucket == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        return getWait(getStart(bucket.get(), now), now);
+    }
+
+    /**
+     * Try to use the command for the specified sender.
+     * When the sender has a use left it's taken from the bucket.
+     *
+     * @param uuid The {@link UUID} of the sender.
+     * @return The amount of milliseconds the sender has to wait before the command can be used again. (0 when the command can be used)
+     */
+    public long tryAcquire(UUID uuid) {
+        AtomicLong bucket = buckets.getIfPresent(uuid);
+        if (bucket == null) {
+            bucket = new AtomicLong(Long.MIN_VALUE);
+            AtomicLong existing = buckets.asMap().putIfAbsent(uuid, bucket);
+            if (existing != null) {
+                bucket = existing;
+            }
+        }
+
+        long now = System.nanoTime();
+        while (true) {
+            long full = bucket.get();
+            long start = getStart(full, now);
+            long wait = getWait(start, now);
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /** The time from which the next use is counted, an empty or idle bucket starts now. */
+    private static long getStart(long full, long now) {
+        return full == Long.MIN_VALUE || full - now < 0 ? now : full;
+    }
+
+    private long getWait(long start, long now) {
+        long wait = start - now - tolerance;
+        return wait > 0 ? Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)) : 0;
+    }
+
+    /**
+     * Refill the bucket of the specified sender.
+     *
+     * @param uuid The {@link UUID} of the sender.
+     */
+    public void reset(UUID uuid) {
+        buckets.invalidate(uuid);
+    }
+
+    /**
+     * @return The amount of times the command can be used within the period.
+     */
+    public int getUses() {
+        return uses;
+    }
+
+    /**
+     * @return The period in milliseconds.
+     */
+    public long getPeriod() {
+        return periodMillis;
+    }
+
+    /**
+     * @return The amount of senders with a bucket that isn't full yet.
+     */
+    public long size() {
+        return buckets.size();
+    }
+}
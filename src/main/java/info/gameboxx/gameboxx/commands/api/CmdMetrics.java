@@ -0,0 +1,266 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.commands.api;
+
+import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.util.Str;
+import org.bukkit.command.CommandSender;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution metrics of all commands.
+ * <p/>
+ * {@link BaseCmd#execute(CommandSender, String, String[])} records the parse and execution time of each command in the {@link CmdStats} of the command that was used.
+ * Sub commands have their own {@link CmdStats}.
+ * <p/>
+ * Commands that take longer than the slow threshold are logged with the full input and the most recent ones are kept in memory.
+ * The metrics can be viewed with /gameboxx metrics and exported to CSV files with {@link #export(File)}
+ */
+public class CmdMetrics {
+
+    /** The amount of slow commands that are kept in memory. */
+    public static final int SLOW_LOG_SIZE = 50;
+
+    private static final ConcurrentMap<String, CmdStats> stats = new ConcurrentHashMap<>();
+    private static final Deque<SlowCmd> slowCmds = new ArrayDeque<>();
+    private static volatile long slowMillis = 50;
+
+    /**
+     * Set the threshold for logging slow commands.
+     *
+     * @param millis The amount of milliseconds parsing and executing a command can take before it's logged. (0 or less to disable)
+     */
+    public static void setSlowMillis(long millis) {
+        slowMillis = millis;
+    }
+
+    /**
+     * @return The amount of milliseconds parsing and executing a command can take before it's logged.
+     */
+    public static long getSlowMillis() {
+        return slowMillis;
+    }
+
+    /**
+     * Get the {@link CmdStats} for the specified command.
+     * The stats are created when the command hasn't been used yet.
+     *
+     * @param cmd The base command or sub command to get the stats from.
+     * @return The {@link CmdStats} of the command.
+     */
+    public static CmdStats getStats(Cmd cmd) {
+        CmdStats cmdStats = stats.get(cmd.getName());
+        if (cmdStats == null) {
+            cmdStats = new CmdStats(cmd.getName());
+            CmdStats existing = stats.putIfAbsent(cmd.getName(), cmdStats);
+            if (existing != null) {
+                cmdStats = existing;
+            }
+        }
+        return cmdStats;
+    }
+
+    /**
+     * Get the {@link CmdStats} for all commands that have been used.
+     *
+     * @return List with {@link CmdStats} sorted by the total time spent in the commands with the most expensive command first.
+     */
+    public static List<CmdStats> getStats() {
+        List<CmdStats> list = new ArrayList<>(stats.values());
+        Collections.sort(list, new Comparator<CmdStats>() {
+            @Override
+            public int compare(CmdStats a, CmdStats b) {
+                return Double.compare(getTotalMillis(b), getTotalMillis(a));
+            }
+        });
+        return list;
+    }
+
+    private static double getTotalMillis(CmdStats stats) {
+        return stats.getParse().getAverageMillis() * stats.getParse().getCount() + stats.getExecute().getAverageMillis() * stats.getExecute().getCount();
+    }
+
+    /**
+     * Get the most recent commands that took longer than the slow threshold.
+     *
+     * @return List with the slow commands with the most recent command first.
+     */
+    public static List<SlowCmd> getSlowCommands() {
+        synchronized (slowCmds) {
+            return new ArrayList<>(slowCmds);
+        }
+    }
+
+    /**
+     * Remove all the recorded stats and slow commands.
+     */
+    public static void reset() {
+        stats.clear();
+        synchronized (slowCmds) {
+            slowCmds.clear();
+        }
+    }
+
+    /**
+     * Log the command when it took longer than the slow threshold.
+     */
+    static void logSlow(Cmd cmd, CommandSender sender, String label, String[] args, long parseNanos, long executeNanos) {
+        if (slowMillis <= 0 || TimeUnit.NANOSECONDS.toMillis(parseNanos + executeNanos) < slowMillis) {
+            return;
+        }
+        SlowCmd slow = new SlowCmd(System.currentTimeMillis(), cmd.getName(), sender.getName(), label + (args.length > 0 ? " " + Str.implode(args, " ") : ""), parseNanos, executeNanos);
+        synchronized (slowCmds) {
+            slowCmds.addFirst(slow);
+            while (slowCmds.size() > SLOW_LOG_SIZE) {
+                slowCmds.removeLast();
+            }
+        }
+        if (GameBoxx.get() != null) {
+            GameBoxx.get().warn(String.format("Slow command '/%s' by %s took %.1fms! (parse: %.1fms execute: %.1fms)",
+                    slow.getInput(), slow.getSender(), slow.getTotalMillis(), slow.getParseMillis(), slow.getExecuteMillis()));
+        }
+    }
+
+    /**
+     * Export the stats of all commands and the slow commands to CSV files.
+     * The stats are written to commands.csv and the slow commands to slow-commands.csv
+     *
+     * @param folder The folder to write the files in. Will be created when it doesn't exist.
+     * @throws IOException When the files can't be written.
+     */
+    public static void export(File folder) throws IOException {
+        folder.mkdirs();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(folder, "commands.csv")))) {
+            writer.write("command,count,errors,exceptions,parse_avg_ms,parse_p95_ms,parse_max_ms,execute_avg_ms,execute_p95_ms,execute_max_ms,parse_histogram,execute_histogram");
+            writer.newLine();
+            for (CmdStats cmd : getStats()) {
+                writer.write(String.format(Locale.ENGLISH, "%s,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%s,%s", csv(cmd.getName()), cmd.getCount(), cmd.getErrors(), cmd.getExceptions(),
+                        cmd.getParse().getAverageMillis(), cmd.getParse().getPercentileMillis(0.95), cmd.getParse().getMaxMillis(),
+                        cmd.getExecute().getAverageMillis(), cmd.getExecute().getPercentileMillis(0.95), cmd.getExecute().getMaxMillis(),
+                        histogram(cmd.getParse()), histogram(cmd.getExecute())));
+                writer.newLine();
+            }
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(folder, "slow-commands.csv")))) {
+            writer.write("time,command,sender,input,parse_ms,execute_ms");
+            writer.newLine();
+            for (SlowCmd slow : getSlowCommands()) {
+                writer.write(String.format(Locale.ENGLISH, "%s,%s,%s,%s,%.3f,%.3f", format.format(new Date(slow.getTime())), csv(slow.getCmd()), csv(slow.getSender()), csv(slow.getInput()),
+                        slow.getParseMillis(), slow.getExecuteMillis()));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String histogram(CmdStats.Timer timer) {
+        StringBuilder sb = new StringBuilder();
+        for (long value : timer.getHistogram()) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    private static String csv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+
+    /**
+     * A command that took longer than the slow threshold.
+     */
+    public static class SlowCmd {
+        private final long time;
+        private final String cmd;
+        private final String sender;
+        private final String input;
+        private final long parseNanos;
+        private final long executeNanos;
+
+        private SlowCmd(long time, String cmd, String sender, String input, long parseNanos, long executeNanos) {
+            this.time = time;
+            this.cmd = cmd;
+            this.sender = sender;
+            this.input = input;
+            this.parseNanos = parseNanos;
+            this.executeNanos = executeNanos;
+        }
+
+        /**
+         * @return The time the command was used in milliseconds since epoch.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return The full name of the command.
+         */
+        public String getCmd() {
+            return cmd;
+        }
+
+        /**
+         * @return The name of the sender that used the command.
+         */
+        public String getSender() {
+            return sender;
+        }
+
+        /**
+         * @return The full input with the label and all arguments.
+         */
+        public String getInput() {
+            return input;
+        }
+
+        public double getParseMillis() {
+            return parseNanos / 1000000D;
+        }
+
+        public double getExecuteMillis() {
+            return executeNanos / 1000000D;
+        }
+
+        public double getTotalMillis() {
+            return (parseNanos + executeNanos) / 1000000D;
+        }
+    }
+}
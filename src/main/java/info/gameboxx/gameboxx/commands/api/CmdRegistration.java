@@ -83,6 +83,14 @@ public class CmdRegistration {
 
         command.load();
 
+        //Compile the grammar of the command and all sub commands so the first command doesn't have to.
+        command.getGrammar();
+        if (command.hasSubCmds()) {
+            for (SubCmd sub : command.getSubCmds()) {
+                sub.getGrammar();
+            }
+        }
+
         commands.put(plugin.getClass(), pluginCommands);
     }
 
@@ -0,0 +1,211 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.commands.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Execution statistics for a base command or sub command.
+ * Parse and execution times are recorded in fixed bucket histograms so recording never allocates.
+ * <p/>
+ * Get the statistics of commands from {@link CmdMetrics}
+ */
+public class CmdStats {
+
+    /** Upper bounds of the histogram buckets in microseconds. The last bucket has no upper bound. */
+    public static final long[] BUCKETS = new long[] {50, 100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000, 250000};
+
+    private final String name;
+    private final Timer parse = new Timer();
+    private final Timer execute = new Timer();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong exceptions = new AtomicLong();
+
+    public CmdStats(String name) {
+        this.name = name;
+    }
+
+    void recordParse(long nanos, boolean error) {
+        parse.record(nanos);
+        if (error) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void recordExecute(long nanos, boolean exception) {
+        execute.record(nanos);
+        if (exception) {
+            exceptions.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return The full name of the command. (For sub commands the name of the base command and the sub command)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The amount of times the command has been used. (including input with errors)
+     */
+    public long getCount() {
+        return parse.getCount();
+    }
+
+    /**
+     * @return The amount of times the input for the command couldn't be parsed.
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * @return The amount of times executing the command threw an exception.
+     */
+    public long getExceptions() {
+        return exceptions.get();
+    }
+
+    /**
+     * @return The {@link Timer} with the times it took to parse the input.
+     */
+    public Timer getParse() {
+        return parse;
+    }
+
+    /**
+     * @return The {@link Timer} with the times it took to execute the command.
+     */
+    public Timer getExecute() {
+        return execute;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d errors=%d exceptions=%d parse=[%s] execute=[%s]", name, getCount(), getErrors(), getExceptions(), parse, execute);
+    }
+
+
+    /**
+     * Histogram with execution times.
+     */
+    public static class Timer {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS.length + 1);
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            long max;
+            while (nanos > (max = maxNanos.get())) {
+                if (maxNanos.compareAndSet(max, nanos)) {
+                    break;
+                }
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            int bucket = 0;
+            while (bucket < BUCKETS.length && micros >= BUCKETS[bucket]) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        /**
+         * @return The amount of recorded times.
+         */
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * @return The average time in milliseconds.
+         */
+        public double getAverageMillis() {
+            long count = getCount();
+            return count == 0 ? 0 : totalNanos.get() / (double)count / 1000000D;
+        }
+
+        /**
+         * @return The longest time in milliseconds.
+         */
+        public double getMaxMillis() {
+            return maxNanos.get() / 1000000D;
+        }
+
+        /**
+         * Get the estimated time in milliseconds that the specified percentage of the recorded times is below.
+         * The estimate is the upper bound of the histogram bucket that contains the percentile.
+         * When the percentile is in the last bucket the longest time is returned.
+         *
+         * @param percentile The percentile between 0 and 1. (e.g. 0.95 for the 95th percentile)
+         * @return The estimated time in milliseconds.
+         */
+        public double getPercentileMillis(double percentile) {
+            long[] values = getHistogram();
+            long total = 0;
+            for (long value : values) {
+                total += value;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long)Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                seen += values[i];
+                if (seen >= target) {
+                    return Math.min(BUCKETS[i] / 1000D, getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        /**
+         * Get the amount of recorded times in each histogram bucket.
+         * The value at index {@code i} is the amount of times that were less than {@code BUCKETS[i]} microseconds.
+         * The last value is the amount of times that were longer than the last bucket.
+         *
+         * @return Array with the count for each bucket.
+         */
+        public long[] getHistogram() {
+            long[] values = new long[histogram.length()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = histogram.get(i);
+            }
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("avg=%.3fms p95=%.3fms max=%.3fms", getAverageMillis(), getPercentileMillis(0.95), getMaxMillis());
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.commands.api.parse;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import info.gameboxx.gameboxx.commands.api.BaseCmd;
+import info.gameboxx.gameboxx.commands.api.Cmd;
+import info.gameboxx.gameboxx.commands.api.SubCmd;
+import info.gameboxx.gameboxx.commands.api.data.Argument;
+import info.gameboxx.gameboxx.commands.api.data.Flag;
+import info.gameboxx.gameboxx.commands.api.data.Modifier;
+import info.gameboxx.gameboxx.options.SingleOption;
+import info.gameboxx.gameboxx.util.CompletionIndex;
+import org.bukkit.command.CommandSender;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tab completes command input using the compiled {@link CmdGrammar} without parsing it with the {@link CmdParser}.
+ * <p/>
+ * The argument that is being completed is found from the position of the last input argument.
+ * Only that argument's option is asked for completions so options of the other arguments aren't parsed.
+ * The only exception are skippable optional arguments which are parsed to know if the input belongs to them.
+ * Links aren't applied because they can only be resolved by parsing the input.
+ * <p/>
+ * The sub commands, modifiers and flags a sender has permission for are cached per sender for a few seconds.
+ * This way completing the next keystroke doesn't have to check all the permissions again.
+ */
+public final class CmdCompleter {
+
+    private static final Cache<CommandSender, Map<CmdGrammar, Permitted>> permitted = CacheBuilder.newBuilder().weakKeys().expireAfterWrite(10, TimeUnit.SECONDS).build();
+
+    private CmdCompleter() {}
+
+    /**
+     * Get the completions for the last input argument.
+     *
+     * @param baseCmd The command that is being completed.
+     * @param sender The sender that is completing the command.
+     * @param inputArgs The input arguments where the last argument is the one that is being completed.
+     * @return List with completions for the last input argument. (Empty when there are no completions)
+     */
+    public static List<String> complete(BaseCmd baseCmd, CommandSender sender, String[] inputArgs) {
+        String input = inputArgs.length == 0 ? "" : inputArgs[inputArgs.length - 1];
+        String[] args = inputArgs.length <= 1 ? new String[0] : CmdParser.splitArgs(Arrays.copyOf(inputArgs, inputArgs.length - 1));
+
+        Cmd cmd = CmdParser.getSub(baseCmd, args, baseCmd.getGrammar());
+        CmdGrammar grammar = cmd.getGrammar();
+        Permitted perms = getPermitted(sender, cmd, grammar);
+        if (!perms.cmd) {
+            return new ArrayList<>();
+        }
+
+        //Complete modifier values.
+        int split = input.indexOf(':');
+        if (split >= 0) {
+            String name = input.substring(0, split).toLowerCase();
+            Modifier mod = grammar.getModifier(name);
+            if (mod != null) {
+                if (!perms.modifiers.contains(name)) {
+                    return new ArrayList<>();
+                }
+                return mod.option().onComplete(sender, input.substring(0, split + 1), input.substring(split + 1));
+            }
+        }
+
+        List<String> suggestions = new ArrayList<>();
+        if (input.startsWith("-")) {
+            suggestions.addAll(perms.flagCompletions.complete(input));
+        }
+
+        Argument argument = getArgument(sender, grammar, args);
+        if (argument != null && !perms.arguments.contains(argument.name().toLowerCase())) {
+            if (argument.option() instanceof SubCmdO) {
+                suggestions.addAll(perms.subCmdCompletions.complete(input));
+            } else {
+                suggestions.addAll(argument.option().onComplete(sender, input));
+            }
+        }
+
+        if (!input.isEmpty()) {
+            suggestions.addAll(perms.modifierCompletions.complete(input));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Get the argument the next input argument belongs to.
+     * Flags and modifiers are skipped and arguments with a span consume multiple input arguments.
+     */
+    private static Argument getArgument(CommandSender sender, CmdGrammar grammar, String[] args) {
+        Argument[] arguments = grammar.getArguments();
+        int index = 0;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("-") && grammar.getFlag(arg.substring(1).toLowerCase()) != null) {
+                continue;
+            }
+            int split = arg.indexOf(':');
+            if (split >= 0 && grammar.getModifier(arg.substring(0, split).toLowerCase()) != null) {
+                continue;
+            }
+
+            while (index < arguments.length) {
+                Argument argument = arguments[index++];
+
+                //The argument spans the input that is being completed.
+                int span = argument.span();
+                if (span == -1 || (span > 1 && i + span > args.length)) {
+                    return argument;
+                }
+
+                //Skip optional arguments when the input doesn't match.
+                if (argument.skippable() && !argument.required(sender) && !((SingleOption)argument.option().clone()).parse(sender, arg)) {
+                    continue;
+                }
+                if (span > 1) {
+                    i += span - 1;
+                }
+                break;
+            }
+        }
+        return index < arguments.length ? arguments[index] : null;
+    }
+
+    private static Permitted getPermitted(CommandSender sender, Cmd cmd, CmdGrammar grammar) {
+        Map<CmdGrammar, Permitted> grammars = permitted.getIfPresent(sender);
+        if (grammars == null) {
+            grammars = new ConcurrentHashMap<>();
+            permitted.put(sender, grammars);
+        }
+        Permitted perms = grammars.get(grammar);
+        if (perms == null) {
+            perms = new Permitted(sender, cmd, grammar);
+            grammars.put(grammar, perms);
+        }
+        return perms;
+    }
+
+
+    /**
+     * The parts of a command grammar that a sender has permission for.
+     */
+    private static class Permitted {
+        private final boolean cmd;
+        private final Set<String> arguments = new HashSet<>();
+        private final Set<String> modifiers = new HashSet<>();
+        private final CompletionIndex modifierCompletions;
+        private final CompletionIndex flagCompletions;
+        private final CompletionIndex subCmdCompletions;
+
+        private Permitted(CommandSender sender, Cmd cmd, CmdGrammar grammar) {
+            this.cmd = hasPerm(sender, cmd.perm()) && (!cmd.isSub() || hasPerm(sender, cmd.getBaseCmd().perm()));
+
+            //Arguments are stored when the sender doesn't have permission as most arguments don't have a permission.
+            for (Argument argument : grammar.getArguments()) {
+                if (!hasPerm(sender, argument.perm())) {
+                    arguments.add(argument.name().toLowerCase());
+                }
+            }
+
+            CompletionIndex.Builder modifierIndex = CompletionIndex.builder();
+            for (Map.Entry<String, Modifier> entry : grammar.getModifiers().entrySet()) {
+                if (hasPerm(sender, entry.getValue().perm())) {
+                    modifiers.add(entry.getKey());
+                    modifierIndex.add(entry.getKey() + ":");
+                }
+            }
+            modifierCompletions = modifierIndex.build();
+
+            CompletionIndex.Builder flagIndex = CompletionIndex.builder();
+            for (Map.Entry<String, Flag> entry : grammar.getFlags().entrySet()) {
+                if (hasPerm(sender, entry.getValue().perm())) {
+                    flagIndex.add("-" + entry.getKey());
+                }
+            }
+            flagCompletions = flagIndex.build();
+
+            CompletionIndex.Builder subCmdIndex = CompletionIndex.builder();
+            for (Map.Entry<String, SubCmd> entry : grammar.getSubCmds().entrySet()) {
+                if (hasPerm(sender, entry.getValue().perm())) {
+                    subCmdIndex.add(entry.getKey(), entry.getValue().getSubName());
+                }
+            }
+            subCmdCompletions = subCmdIndex.build();
+        }
+
+        private static boolean hasPerm(CommandSender sender, String perm) {
+            return perm.isEmpty() || sender.hasPermission(perm);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.commands.api.parse;
+
+import com.google.common.collect.ImmutableMap;
+import info.gameboxx.gameboxx.commands.api.Cmd;
+import info.gameboxx.gameboxx.commands.api.SubCmd;
+import info.gameboxx.gameboxx.commands.api.data.ArgRequirement;
+import info.gameboxx.gameboxx.commands.api.data.Argument;
+import info.gameboxx.gameboxx.commands.api.data.Flag;
+import info.gameboxx.gameboxx.commands.api.data.Modifier;
+import info.gameboxx.gameboxx.commands.api.data.link.Link;
+import info.gameboxx.gameboxx.options.SingleOption;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The compiled arguments, modifiers, flags and links of a {@link Cmd} used by the {@link CmdParser}.
+ * <p/>
+ * A grammar is compiled once per command and includes everything from the parent for sub commands.
+ * Arguments are stored in an indexed array and modifiers and flags in hash tables.
+ * All the names that can be specified get a slot so links are checked with a {@link BitSet} instead of comparing lists of names.
+ * The slots also hold a spare option for each argument and modifier so failed parse attempts don't need a new option each time.
+ * <p/>
+ * Get the grammar with {@link Cmd#getGrammar()} which compiles it when the command changed.
+ */
+public final class CmdGrammar {
+
+    private final Argument[] arguments;
+    private final Map<String, Modifier> modifiers;
+    private final Map<String, Flag> flags;
+    private final Link[] links;
+    private final int[][] linkSlots;
+    private final Map<String, Integer> slots;
+    private final AtomicReferenceArray<SingleOption> spares;
+
+    private final int subCmdIndex;
+    private final Map<String, SubCmd> subCmds;
+
+    private CmdGrammar(Argument[] arguments, Map<String, Modifier> modifiers, Map<String, Flag> flags, Link[] links, int[][] linkSlots,
+                       Map<String, Integer> slots, AtomicReferenceArray<SingleOption> spares, int subCmdIndex, Map<String, SubCmd> subCmds) {
+        this.arguments = arguments;
+        this.modifiers = modifiers;
+        this.flags = flags;
+        this.links = links;
+        this.linkSlots = linkSlots;
+        this.slots = slots;
+        this.spares = spares;
+        this.subCmdIndex = subCmdIndex;
+        this.subCmds = subCmds;
+    }
+
+    /**
+     * Compile the grammar for the specified command.
+     * <p/>
+     * Use {@link Cmd#getGrammar()} instead which caches the compiled grammar.
+     *
+     * @param cmd The command to compile.
+     * @return The compiled {@link CmdGrammar}
+     */
+    public static CmdGrammar compile(Cmd cmd) {
+        Argument[] arguments = cmd.getAllArguments().values().toArray(new Argument[0]);
+        Map<String, Modifier> modifiers = ImmutableMap.copyOf(cmd.getAllModifiers());
+        Map<String, Flag> flags = ImmutableMap.copyOf(cmd.getAllFlags());
+
+        Map<String, Integer> slots = new HashMap<>();
+        for (Argument argument : arguments) {
+            addSlot(slots, argument.name().toLowerCase());
+        }
+        for (String name : modifiers.keySet()) {
+            addSlot(slots, name);
+        }
+        for (String name : flags.keySet()) {
+            addSlot(slots, name);
+        }
+
+        Link[] links = cmd.getAllLinks().toArray(new Link[0]);
+        int[][] linkSlots = new int[links.length][];
+        for (int i = 0; i < links.length; i++) {
+            String[] names = links[i].names();
+            linkSlots[i] = new int[names.length];
+            for (int n = 0; n < names.length; n++) {
+                Integer slot = slots.get(names[n]);
+                linkSlots[i][n] = slot == null ? -1 : slot;
+            }
+        }
+
+        //Sub command names and aliases of the first sub command argument. (Only base commands have sub commands)
+        int subCmdIndex = -1;
+        Map<String, SubCmd> subCmds = new HashMap<>();
+        if (cmd.isBase()) {
+            for (int i = 0; i < arguments.length; i++) {
+                if (arguments[i].option() instanceof SubCmdO) {
+                    SubCmd[] subs = ((SubCmdO)arguments[i].option()).getSubCmds();
+                    if (subs != null && subs.length > 0) {
+                        subCmdIndex = i;
+                        for (SubCmd<?> sub : subs) {
+                            addSubCmd(subCmds, sub.getSubName().toLowerCase(), sub);
+                            for (String alias : sub.getSubAliases()) {
+                                addSubCmd(subCmds, alias.toLowerCase(), sub);
+                            }
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+
+        return new CmdGrammar(arguments, modifiers, flags, links, linkSlots, slots, new AtomicReferenceArray<SingleOption>(slots.size()), subCmdIndex, subCmds);
+    }
+
+    private static void addSlot(Map<String, Integer> slots, String name) {
+        if (!slots.containsKey(name)) {
+            slots.put(name, slots.size());
+        }
+    }
+
+    private static void addSubCmd(Map<String, SubCmd> subCmds, String name, SubCmd sub) {
+        if (!subCmds.containsKey(name)) {
+            subCmds.put(name, sub);
+        }
+    }
+
+    /**
+     * Get a copy of this grammar with the changes from links applied.
+     * <p/>
+     * Arguments, modifiers and flags with a removed name are left out and the requirements of arguments are overridden.
+     * The arguments with a new requirement are cloned so this grammar isn't modified.
+     *
+     * @param removed Names of the arguments, modifiers and flags to remove. (May be {@code null})
+     * @param requirements New requirements by argument name. (May be {@code null})
+     * @return A new {@link CmdGrammar} with the links applied.
+     */
+    public CmdGrammar link(Set<String> removed, Map<String, ArgRequirement> requirements) {
+        if (removed == null) {
+            removed = Collections.emptySet();
+        }
+        if (requirements == null) {
+            requirements = Collections.emptyMap();
+        }
+
+        List<Argument> arguments = new ArrayList<>(this.arguments.length);
+        for (Argument argument : this.arguments) {
+            String name = argument.name().toLowerCase();
+            if (removed.contains(name)) {
+                continue;
+            }
+            ArgRequirement requirement = requirements.get(name);
+            arguments.add(requirement == null ? argument : argument.clone().requirement(requirement));
+        }
+
+        Map<String, Modifier> modifiers = new HashMap<>(this.modifiers);
+        Map<String, Flag> flags = new HashMap<>(this.flags);
+        modifiers.keySet().removeAll(removed);
+        flags.keySet().removeAll(removed);
+
+        return new CmdGrammar(arguments.toArray(new Argument[arguments.size()]), modifiers, flags, links, linkSlots, slots, spares, subCmdIndex, subCmds);
+    }
+
+    /**
+     * Get all the arguments in the order they have to be specified.
+     * For sub commands the arguments of the parent come first.
+     * <p/>
+     * <b>Do not modify the returned array!</b>
+     *
+     * @return Array with all arguments.
+     */
+    public Argument[] getArguments() {
+        return arguments;
+    }
+
+    /**
+     * Get the argument with the specified name.
+     *
+     * @param name The lower case name of the argument.
+     * @return The {@link Argument} or {@code null} when there is no argument with the name.
+     */
+    public Argument getArgument(String name) {
+        for (Argument argument : arguments) {
+            if (argument.name().toLowerCase().equals(name)) {
+                return argument;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the modifier with the specified name.
+     *
+     * @param name The lower case name of the modifier.
+     * @return The {@link Modifier} or {@code null} when there is no modifier with the name.
+     */
+    public Modifier getModifier(String name) {
+        return modifiers.get(name);
+    }
+
+    /**
+     * Get the flag with the specified name.
+     *
+     * @param name The lower case name of the flag without the '-'
+     * @return The {@link Flag} or {@code null} when there is no flag with the name.
+     */
+    public Flag getFlag(String name) {
+        return flags.get(name);
+    }
+
+    /**
+     * Get all the modifiers by their lower case name.
+     *
+     * @return Immutable map with all modifiers.
+     */
+    public Map<String, Modifier> getModifiers() {
+        return modifiers;
+    }
+
+    /**
+     * Get all the flags by their lower case name without the '-'
+     *
+     * @return Immutable map with all flags.
+     */
+    public Map<String, Flag> getFlags() {
+        return flags;
+    }
+
+    /**
+     * Get all the links in the order they have been added.
+     * <p/>
+     * <b>Do not modify the returned array!</b>
+     *
+     * @return Array with all links.
+     */
+    public Link[] getLinks() {
+        return links;
+    }
+
+    /**
+     * Get an option to parse the input for the argument or modifier with the specified name.
+     * <p/>
+     * This is the spare option given back with {@link #release(String, SingleOption)} or a clone of the definition when there is none.
+     * Each spare option is only handed out once so parsers on different threads never share an option.
+     *
+     * @param name The lower case name of the argument or modifier.
+     * @param definition The option of the argument or modifier.
+     * @return An option of the same type as the definition that can be parsed.
+     */
+    public SingleOption take(String name, SingleOption definition) {
+        Integer slot = slots.get(name);
+        if (slot != null) {
+            SingleOption option = spares.getAndSet(slot, null);
+            if (option != null) {
+                return option;
+            }
+        }
+        return (SingleOption)definition.clone();
+    }
+
+    /**
+     * Give back an option from {@link #take(String, SingleOption)} that isn't used anymore so the next parse can use it.
+     * Options that are stored in the command data must never be released.
+     *
+     * @param name The lower case name of the argument or modifier.
+     * @param option The option to reuse. It will be reset.
+     */
+    public void release(String name, SingleOption option) {
+        Integer slot = slots.get(name);
+        if (slot != null) {
+            option.reset();
+            spares.set(slot, option);
+        }
+    }
+
+    /**
+     * Mark the argument, modifier or flag with the specified name as specified.
+     *
+     * @param specified The set of specified slots.
+     * @param name The lower case name that has been specified.
+     */
+    public void specify(BitSet specified, String name) {
+        Integer slot = slots.get(name);
+        if (slot != null) {
+            specified.set(slot);
+        }
+    }
+
+    /**
+     * Get the amount of names from the link at the specified index that have been specified.
+     *
+     * @param link The index of the link in {@link #getLinks()}
+     * @param specified The set of specified slots.
+     * @return The amount of names from the link that are specified.
+     */
+    public int countSpecified(int link, BitSet specified) {
+        int count = 0;
+        for (int slot : linkSlots[link]) {
+            if (slot >= 0 && specified.get(slot)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Check whether or not all the names from the link at the specified index have been specified.
+     *
+     * @param link The index of the link in {@link #getLinks()}
+     * @param specified The set of specified slots.
+     * @return True when all the names of the link are specified.
+     */
+    public boolean isSpecified(int link, BitSet specified) {
+        return countSpecified(link, specified) == linkSlots[link].length;
+    }
+
+    /**
+     * Get the index of the sub command argument.
+     *
+     * @return The index of the sub command argument or -1 when the command doesn't have sub commands.
+     */
+    public int getSubCmdIndex() {
+        return subCmdIndex;
+    }
+
+    /**
+     * Get the sub command with the specified name or alias.
+     *
+     * @param name The name or alias of the sub command. (Case insensitive)
+     * @return The {@link SubCmd} or {@code null} when there is no sub command with the name.
+     */
+    public SubCmd getSubCmd(String name) {
+        return subCmds.get(name.toLowerCase());
+    }
+
+    /**
+     * Get all the sub commands by their lower case names and aliases.
+     * <p/>
+     * <b>Do not modify the returned map!</b>
+     *
+     * @return Map with the sub commands by name and alias. (Empty when the command doesn't have sub commands)
+     */
+    public Map<String, SubCmd> getSubCmds() {
+        return subCmds;
+    }
+}
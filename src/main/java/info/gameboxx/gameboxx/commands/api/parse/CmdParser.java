@@ -36,6 +36,12 @@ import org.bukkit.command.CommandSender;
 
 import java.util.*;
 
+/**
+ * Parses the user input for a command using the compiled {@link CmdGrammar} of the command.
+ * <p/>
+ * The input is parsed in a single pass where each input argument is consumed by index.
+ * Only when a {@link RemoveLink} or {@link RequirementLink} changes the grammar the input is parsed again with the links applied.
+ */
 public class CmdParser {
 
     private Cmd cmd = null;
@@ -43,10 +49,12 @@ public class CmdParser {
     private TabCompleteData tabCompleteData;
     private String error = "";
 
-    private int state = 0;
     private boolean showHelp = false;
+    private boolean showSubCmds = false;
 
-    List<String> argsList;
+    private final String[] args;
+    private boolean[] consumed;
+    private BitSet specified;
 
     public CmdParser(BaseCmd baseCmd, CommandSender sender, String label, String[] inputArgs) {
         this(baseCmd, sender, label, inputArgs, true);
@@ -55,78 +63,62 @@ public class CmdParser {
     public CmdParser(BaseCmd baseCmd, CommandSender sender, String label, String[] inputArgs, boolean showHelp) {
         this.showHelp = showHelp;
 
-        //Combine quoted arguments
-        String input = Str.implode(inputArgs, " ");
-        argsList = Str.splitQuotes(input, ' ', true);
-        for (int i = 0; i < argsList.size(); i++) {
-            argsList.set(i, Str.removeQuotes(argsList.get(i)));
-        }
-
-        cmd = getSub(baseCmd, inputArgs);
+        args = splitArgs(inputArgs);
+        cmd = getSub(baseCmd, args, baseCmd.getGrammar());
         cmdData = new CmdData(sender, inputArgs);
 
         //Check basic command permission.
         if (cmd.isSub() && !cmd.getBaseCmd().perm().isEmpty() && !sender.hasPermission(cmd.getBaseCmd().perm())) {
-            error = Msg.getString("no-permission", Param.P("node", cmd.getPermission()));
+            error = Msg.getString(sender, "no-permission", Param.P("node", cmd.getPermission()));
             return;
         }
         if (!cmd.perm().isEmpty() && !sender.hasPermission(cmd.perm())) {
-            error = Msg.getString("no-permission", Param.P("node", cmd.getPermission()));
+            error = Msg.getString(sender, "no-permission", Param.P("node", cmd.getPermission()));
             return;
         }
 
-        //Create ParseData with the data from the command.
-        ParseData data = new ParseData();
-        data.arguments = cmd.getAllArguments();
-        data.modifiers = cmd.getAllModifiers();
-        data.flags = cmd.getAllFlags();
-
-        //First time parsing to get most data.
-        state = 1;
-        data = parse(sender, label, data);
+        CmdGrammar grammar = cmd.getGrammar();
+        parse(sender, grammar);
 
         //Parse links
-        List<Link> links = cmd.getAllLinks();
-        for (Link link : links) {
-            List<String> names = Arrays.asList(link.names());
-            boolean specified = data.specifiedNames.containsAll(names);
+        Set<String> removed = null;
+        Map<String, ArgRequirement> requirements = null;
+        List<Cmd.SenderType> blacklist = cmd.getSenderBlacklist();
+        Link[] links = grammar.getLinks();
+        for (int i = 0; i < links.length; i++) {
+            Link link = links[i];
+            boolean specified = grammar.isSpecified(i, this.specified);
 
             if (link instanceof RemoveLink) {
                 if (specified) {
-                    data.arguments.remove(((RemoveLink)link).removeName());
-                    data.modifiers.remove(((RemoveLink)link).removeName());
-                    data.flags.remove(((RemoveLink)link).removeName());
+                    if (removed == null) {
+                        removed = new HashSet<>();
+                    }
+                    removed.add(((RemoveLink)link).removeName());
                 }
             } else if (link instanceof RequirementLink) {
-                if (specified) {
-                    if (data.arguments.get(((RequirementLink)link).argName()) != null) {
-                        data.arguments.get(((RequirementLink)link).argName()).requirement(((RequirementLink)link).requirement());
+                String argName = ((RequirementLink)link).argName();
+                if (specified && grammar.getArgument(argName) != null && (removed == null || !removed.contains(argName))) {
+                    if (requirements == null) {
+                        requirements = new HashMap<>();
                     }
+                    requirements.put(argName, ((RequirementLink)link).requirement());
                 }
             } else if (link instanceof BlacklistLink) {
                 if (specified) {
-                    cmd.clearSenderBlacklist();
-                    cmd.blacklistSenders(((BlacklistLink)link).blacklist());
+                    blacklist = Arrays.asList(((BlacklistLink)link).blacklist());
                 }
-            } else if (link instanceof ConflictLink || link instanceof ForceLink) {
-                List<String> linkNames = new ArrayList<>();
-                for (String name : link.names()) {
-                    if (data.specifiedNames.contains(name)) {
-                        linkNames.add(name);
-                    }
+            } else if (link instanceof ConflictLink) {
+                if (grammar.countSpecified(i, this.specified) > 1) {
+                    //TODO: set error
+                    error = "ConflictLink Conflicting names have been specified!";
+                    return;
                 }
-                if (link instanceof ConflictLink) {
-                    if (linkNames.size() > 1) {
-                        //TODO: set error
-                        error = "ConflictLink Conflicting names have been specified!";
-                        return;
-                    }
-                } else {
-                    if (linkNames.size() > 0 && !specified) {
-                        //TODO: set error
-                        error = "ForceLink not all names have been specified!";
-                        return;
-                    }
+            } else if (link instanceof ForceLink) {
+                if (grammar.countSpecified(i, this.specified) > 0 && !specified) {
+                    //TODO: set error
+                    error = "ForceLink not all names have been specified!";
+                    return;
                 }
             }
         }
@@ -134,59 +126,80 @@ public class CmdParser {
         //Check if sender is blacklisted.
         Cmd.SenderType senderType = Cmd.SenderType.getType(sender);
         if (senderType != null) {
-            if (cmd.getSenderBlacklist().contains(senderType)) {
-                error = Msg.getString("cmdparser.sender-blacklisted", Param.P("type", Msg.getString("cmdparser.sender-blacklist." + senderType.toString().toLowerCase())));
+            if (blacklist.contains(senderType)) {
+                error = Msg.getString(sender, "cmdparser.sender-blacklisted", Param.P("type", Msg.getString(sender, "cmdparser.sender-blacklist." + senderType.toString().toLowerCase())));
                 return;
             }
         }
 
-        //Parse again with all the links applied.
-        state = 2;
-        data = parse(sender, label, data);
-        if (data == null) {
+        //Parse again when links changed the arguments, modifiers or flags.
+        if (removed != null || requirements != null) {
+            grammar = grammar.link(removed, requirements);
+            cmdData = new CmdData(sender, inputArgs);
+            tabCompleteData = null;
+            error = "";
+            showSubCmds = false;
+            parse(sender, grammar);
+        }
+
+        if (showSubCmds) {
+            cmd.showSubCmds(sender, label, cmdData.hasMod("page") ? (int)cmdData.getMod("page") : 1);
             error = "";
             return;
         }
 
         //Check if all the required arguments have been parsed.
-        for (Argument arg : data.arguments.values()) {
+        for (Argument arg : grammar.getArguments()) {
             if (arg.required(sender) && !cmdData.getArgs().containsKey(arg.name().toLowerCase())) {
                 if (showHelp && arg.option() instanceof SubCmdO) {
                     cmd.showSubCmds(sender, label, cmdData.hasMod("page") ? (int)cmdData.getMod("page") : 1);
                     error = "";
                     return;
                 }
-                setError(Msg.getString("cmdparser.missing-arg", Param.P("arg", arg.name()),
-                        Param.P("desc", arg.desc().isEmpty() ? Msg.getString("cmdparser.no-desc") : arg.desc()),
-                        Param.P("type", arg.option().getTypeName()), Param.P("usage", cmd.getUsage(sender, label, inputArgs)), Param.P("cmd", cmd.getName())));
+                if (error.isEmpty()) {
+                    setError(Msg.getString(sender, "cmdparser.missing-arg", Param.P("arg", arg.name()),
+                            Param.P("desc", arg.desc().isEmpty() ? Msg.getString(sender, "cmdparser.no-desc") : arg.desc()),
+                            Param.P("type", arg.option().getTypeName()), Param.P("usage", cmd.getUsage(sender, label, inputArgs)), Param.P("cmd", cmd.getName())));
+                }
             }
         }
 
         //Check if all the user input has been parsed
-        if (data.argsToParse.size() > 0) {
-            setError(Msg.getString("cmdparser.unknown-arg", Param.P("input", data.argsToParse.get(0)), Param.P("usage", baseCmd.getUsage(sender, label, inputArgs)), Param.P("cmd", baseCmd.getName())));
+        if (error.isEmpty()) {
+            for (int i = 0; i < args.length; i++) {
+                if (!consumed[i]) {
+                    setError(Msg.getString(sender, "cmdparser.unknown-arg", Param.P("input", args[i]), Param.P("usage", baseCmd.getUsage(sender, label, inputArgs)), Param.P("cmd", baseCmd.getName())));
+                    break;
+                }
+            }
         }
     }
 
-    private ParseData parse(CommandSender sender, String label, ParseData data) {
-        data.argsToParse = new ArrayList<>(argsList);
-
-        //Go through all the arguments from the input.
+    /**
+     * Parse all the input arguments with the specified grammar.
+     * Each input argument is consumed at most once and the arguments of the grammar are matched in order.
+     */
+    private void parse(CommandSender sender, CmdGrammar grammar) {
+        consumed = new boolean[args.length];
+        specified = new BitSet();
+
+        Argument[] arguments = grammar.getArguments();
+        //Options of failed attempts that can be given back to the grammar.
+        Map<String, SingleOption> unused = null;
         int index = 0;
-        List<String> args = new ArrayList<>(data.argsToParse);
-        for (int i = 0; i < args.size(); i++) {
-            String arg = args.get(i);
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
 
             //Parse - Flags
             if (arg.startsWith("-")) {
                 String name = arg.substring(1).toLowerCase();
-                if (data.flags.containsKey(name)) {
+                Flag flag = grammar.getFlag(name);
+                if (flag != null) {
                     tabCompleteData = null;
-                    data.argsToParse.remove(arg);
-                    data.specifiedNames.add(name);
-                    Flag flag = data.flags.get(name);
+                    consumed[i] = true;
+                    grammar.specify(specified, name);
                     if (!flag.perm().isEmpty() && !sender.hasPermission(flag.perm())) {
-                        setError(Msg.getString("no-permission", Param.P("node", flag.perm())));
+                        setError(Msg.getString(sender, "no-permission", Param.P("node", flag.perm())));
                         continue;
                     }
                     cmdData.getFlags().add(name);
@@ -195,27 +208,26 @@ public class CmdParser {
             }
 
             //Parse - Modifiers
-            if (arg.contains(":")) {
-                String[] split = arg.split(":");
-                String name = split[0].toLowerCase();
-                String value = "";
-                if (split.length > 1) {
-                    value = split[1];
-                }
-
-                if (data.modifiers.containsKey(name)) {
-                    data.argsToParse.remove(arg);
-                    data.specifiedNames.add(name);
-                    Modifier mod = data.modifiers.get(name);
+            int split = arg.indexOf(':');
+            if (split >= 0) {
+                String name = arg.substring(0, split).toLowerCase();
+                Modifier mod = grammar.getModifier(name);
+                if (mod != null) {
+                    int valueEnd = arg.indexOf(':', split + 1);
+                    String value = arg.substring(split + 1, valueEnd < 0 ? arg.length() : valueEnd);
+
+                    consumed[i] = true;
+                    grammar.specify(specified, name);
                     if (!mod.perm().isEmpty() && !sender.hasPermission(mod.perm())) {
-                        setError(Msg.getString("no-permission", Param.P("node", mod.perm())));
+                        setError(Msg.getString(sender, "no-permission", Param.P("node", mod.perm())));
                         continue;
                     }
 
-                    SingleOption option = (SingleOption)mod.option().clone();
+                    SingleOption option = grammar.take(name, mod.option());
                     tabCompleteData = new TabCompleteData(name, option, arg);
                     if (!option.parse(sender, value)) {
                         setError(option.getError());
+                        unused = addUnused(unused, name, option);
                         continue;
                     }
 
@@ -224,70 +236,53 @@ public class CmdParser {
                 }
             }
 
-
             //Look for regular arguments that matches the current argument input.
             //This loop is here for skippable arguments to parse the same input again with the next argument if the previous one was skipped.
-            while (true) {
-                if (index >= data.arguments.size()) {
-                    break;
-                }
-
-                Argument argument = new ArrayList<>(data.arguments.values()).get(index);
-                SingleOption option = (SingleOption)argument.option().clone();
-                index++;
+            int start = i;
+            while (index < arguments.length) {
+                Argument argument = arguments[index++];
+                String name = argument.name().toLowerCase();
+                SingleOption option = grammar.take(name, argument.option());
 
                 //Argument span. (merge multiple arguments together)
-                List<String> argStrings = new ArrayList<>();
+                int end = start;
+                arg = args[start];
                 int span = argument.span();
                 if (span > 1 || span == -1) {
-                    if (span == -1) {
-                        span = args.size()+1;
-                    }
-                    argStrings.add(arg);
-                    while (argStrings.size() < span) {
-                        i++;
-                        if (i >= args.size()) {
-                            break;
-                        }
-                        argStrings.add(args.get(i));
-                    }
-                    arg = Str.implode(argStrings, " ");
+                    end = span == -1 ? args.length - 1 : Math.min(args.length - 1, start + span - 1);
+                    arg = Str.implode(args, " ", " ", start, end);
                 }
 
                 //parse the argument.
                 tabCompleteData = new TabCompleteData(argument.name(), option, arg);
                 if (!option.parse(sender, arg)) {
                     if (!argument.skippable() || argument.required(sender)) {
-                        if (showHelp && state == 2 && option instanceof SubCmdO) {
-                            cmd.showSubCmds(sender, label, cmdData.hasMod("page") ? (int)cmdData.getMod("page") : 1);
-                            return null;
+                        if (showHelp && option instanceof SubCmdO) {
+                            showSubCmds = true;
                         }
                         setError(option.getError());
+                        unused = addUnused(unused, name, option);
+                        i = end;
                         break;
                     }
                     //If parsing fails and the argument is a skippable optional argument ignore it and try parse the next one.
-                    if (argStrings.size() > 0) {
-                        i -= (argStrings.size() - 1);
-                    }
+                    unused = addUnused(unused, name, option);
                     continue;
                 }
+                i = end;
 
                 //Permission check to specify the argument.
                 if (!argument.perm().isEmpty() && !sender.hasPermission(argument.perm())) {
-                    setError(Msg.getString("no-permission", Param.P("node", argument.perm())));
+                    setError(Msg.getString(sender, "no-permission", Param.P("node", argument.perm())));
+                    unused = addUnused(unused, name, option);
                     break;
                 }
 
-                if (argStrings.size() > 1) {
-                    for (String a : argStrings) {
-                        data.argsToParse.remove(a);
-                    }
-                } else {
-                    data.argsToParse.remove(arg);
+                for (int c = start; c <= end; c++) {
+                    consumed[c] = true;
                 }
-
-                data.specifiedNames.add(argument.name().toLowerCase());
-                cmdData.getArgs().put(argument.name().toLowerCase(), option);
+                grammar.specify(specified, name);
+                cmdData.getArgs().put(name, option);
                 break;
             }
 
@@ -296,7 +291,22 @@ public class CmdParser {
             }
         }
 
-        return data;
+        //The option of the tab complete data is still used after parsing.
+        if (unused != null) {
+            for (Map.Entry<String, SingleOption> entry : unused.entrySet()) {
+                if (tabCompleteData == null || tabCompleteData.getOption() != entry.getValue()) {
+                    grammar.release(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static Map<String, SingleOption> addUnused(Map<String, SingleOption> unused, String name, SingleOption option) {
+        if (unused == null) {
+            unused = new HashMap<>(4);
+        }
+        unused.put(name, option);
+        return unused;
     }
 
     private void setError(String error) {
@@ -305,71 +315,51 @@ public class CmdParser {
         }
     }
 
+    /**
+     * Combine quoted input arguments and remove the quotes.
+     */
+    static String[] splitArgs(String[] inputArgs) {
+        List<String> argList = Str.splitQuotes(Str.implode(inputArgs, " "), ' ', true);
+        String[] args = new String[argList.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = Str.removeQuotes(argList.get(i));
+        }
+        return args;
+    }
+
     public static Cmd getSub(Cmd cmd, String[] inputArgs) {
         //Sub command
         if (cmd.isSub()) {
             return cmd;
         }
+        return getSub(cmd, splitArgs(inputArgs), cmd.getGrammar());
+    }
 
-        //Get sub commands and the argument index of it.
-        SubCmd[] subCmds = null;
-        int subCmdIndex = -1;
-        List<Argument> args = new ArrayList<>(cmd.getArguments().values());
-        for (int i = 0; i < args.size(); i++) {
-            Argument arg = args.get(i);
-            if (arg.option() instanceof SubCmdO) {
-                subCmds = ((SubCmdO)arg.option()).getSubCmds();
-                subCmdIndex = i;
-                break;
-            }
-        }
+    static Cmd getSub(Cmd cmd, String[] args, CmdGrammar grammar) {
         //No sub commands
-        if (subCmds == null || subCmds.length < 1) {
+        int subCmdIndex = grammar.getSubCmdIndex();
+        if (subCmdIndex < 0) {
             return cmd;
         }
 
-        //Combine quoted arguments.
-        String input = Str.implode(inputArgs, " ");
-        List<String> argList = Str.splitQuotes(input, ' ', true);
-        for (int i = 0; i < argList.size(); i++) {
-            argList.set(i, Str.removeQuotes(argList.get(i)));
-        }
-
-        //Get all the matching sub commands.
-        Map<Integer, SubCmd> matches = new HashMap<>();
+        //Get the first matching sub command at or after the index of the sub command argument.
+        //When there is none use the last match before it.
+        SubCmd backupMatch = null;
         int index = 0;
-        for (String arg : argList) {
+        for (String arg : args) {
             //Skip flags and modifiers for indexing.
             if (arg.startsWith("-") || arg.contains(":")) {
                 continue;
             }
-            //Try to get a match
-            for (SubCmd sub : cmd.getSubCmds()) {
-                if (sub.getSubName().equalsIgnoreCase(arg.toLowerCase()) || sub.getSubAliases().contains(arg.toLowerCase())) {
-                    matches.put(index, sub);
-                    break;
+            SubCmd match = grammar.getSubCmd(arg);
+            if (match != null) {
+                if (index >= subCmdIndex) {
+                    return match;
                 }
+                backupMatch = match;
             }
             index++;
         }
-
-        //No matches
-        if (matches.size() < 0) {
-            return cmd;
-        }
-
-        //Get best match from matches
-        matches = new TreeMap<>(matches);
-        SubCmd backupMatch = null;
-        for (Map.Entry<Integer, SubCmd> match : matches.entrySet()) {
-            //Sub command index must be at least at the same index.
-            if (match.getKey() < subCmdIndex) {
-                backupMatch = match.getValue();
-                continue;
-            }
-            //Return the sub command argument with the lowest index for best match.
-            return match.getValue();
-        }
         if (backupMatch != null) {
             return backupMatch;
         }
@@ -397,13 +387,4 @@ public class CmdParser {
     public Cmd getCmd() {
         return cmd;
     }
-
-    private class ParseData {
-        public LinkedHashMap<String, Argument> arguments = new LinkedHashMap<>();
-        public Map<String, Modifier> modifiers = new HashMap<>();
-        public Map<String, Flag> flags = new HashMap<>();
-
-        public List<String> argsToParse;
-        public List<String> specifiedNames = new ArrayList<>();
-    }
 }
@@ -52,8 +52,8 @@ public class CmdUsageParser {
     public CmdUsageParser(Cmd cmd, CommandSender sender, String label, String[] args, String argumentColor) {
         cmd = CmdParser.getSub(cmd, args);
 
-        usage.add(Msg.getString("command.label-entry", Param.P("label", label)));
-        JSON.add(Msg.getString("command.label-entry", Param.P("label", label)));
+        usage.add(Msg.getString(sender, "command.label-entry", Param.P("label", label)));
+        JSON.add(Msg.getString(sender, "command.label-entry", Param.P("label", label)));
 
         Collection<Argument> arguments = cmd.getAllArguments().values();
         for (Argument arg : arguments) {
@@ -73,12 +73,12 @@ public class CmdUsageParser {
                     }
 
                     usage.add(sub.getSubName());
-                    JSON.add(Msg.getString("command.subcmd-sub-entry",
+                    JSON.add(Msg.getString(sender, "command.subcmd-sub-entry",
                             Param.P("name", argumentColor + sub.getSubName()),
-                            Param.P("description", sub.getDescription().isEmpty() ? Msg.getString("command.no-description") : sub.getDescription()),
-                            Param.P("permission", permissions.isEmpty() ? Msg.getString("command.none") : Str.implode(permissions)),
+                            Param.P("description", sub.getDescription().isEmpty() ? Msg.getString(sender, "command.no-description") : sub.getDescription()),
+                            Param.P("permission", permissions.isEmpty() ? Msg.getString(sender, "command.none") : Str.implode(permissions)),
                             Param.P("type", arg.option().getTypeName()),
-                            Param.P("aliases", sub.getSubAliases().isEmpty() ? Msg.getString("command.none") : Str.implode(sub.getSubAliases()))
+                            Param.P("aliases", sub.getSubAliases().isEmpty() ? Msg.getString(sender, "command.none") : Str.implode(sub.getSubAliases()))
                     ));
                 } else {
                     //No sub command specified try to display all the options
@@ -94,30 +94,30 @@ public class CmdUsageParser {
                     List<String> subCmdFormats = new ArrayList<>();
                     if (subCmds.length <= MIN_SUB_COMMANDS) {
                         for (SubCmd sub : subCmds) {
-                            subCmdFormats.add(Msg.getString("command.subcmd-general-entry-desc",
+                            subCmdFormats.add(Msg.getString(sender, "command.subcmd-general-entry-desc",
                                     Param.P("name", argumentColor + sub.getSubName()),
                                     Param.P("usage", new CmdUsageParser(sub, sender, label, new String[0], argumentColor).getString()),
-                                    Param.P("description", sub.getDescription().isEmpty() ? Msg.getString("command.no-description") : sub.getDescription()),
-                                    Param.P("permission", sub.getPermission().isEmpty() ? Msg.getString("command.none") : sub.getPermission()),
-                                    Param.P("aliases", sub.getSubAliases().isEmpty() ? Msg.getString("command.none") : Str.implode(sub.getSubAliases()))
+                                    Param.P("description", sub.getDescription().isEmpty() ? Msg.getString(sender, "command.no-description") : sub.getDescription()),
+                                    Param.P("permission", sub.getPermission().isEmpty() ? Msg.getString(sender, "command.none") : sub.getPermission()),
+                                    Param.P("aliases", sub.getSubAliases().isEmpty() ? Msg.getString(sender, "command.none") : Str.implode(sub.getSubAliases()))
                             ));
                         }
                     } else {
                         for (int i = 0; i < subCmds.length && i < MAX_SUB_COMMANDS; i++) {
-                            subCmdFormats.add(Msg.getString("command.subcmd-general-entry-desc-simple",
+                            subCmdFormats.add(Msg.getString(sender, "command.subcmd-general-entry-desc-simple",
                                     Param.P("name", argumentColor + subCmds[i].getSubName()),
                                     Param.P("usage", new CmdUsageParser(subCmds[i], sender, label, new String[0], argumentColor).getString())
                             ));
                         }
                     }
                     if (subCmds.length >= MAX_SUB_COMMANDS) {
-                        subCmdFormats.add(Msg.getString("command.subcmd-more", Param.P("amt", subCmds.length - MAX_SUB_COMMANDS)));
+                        subCmdFormats.add(Msg.getString(sender, "command.subcmd-more", Param.P("amt", subCmds.length - MAX_SUB_COMMANDS)));
                     }
 
-                    JSON.add(Msg.getString("command.subcmd-general-entry",
+                    JSON.add(Msg.getString(sender, "command.subcmd-general-entry",
                             Param.P("name", argumentColor + arg.usage(sender).replace(arg.name(), usageDisplay)),
-                            Param.P("description", arg.desc().isEmpty() ? Msg.getString("command.no-description") : arg.desc()),
-                            Param.P("permission", arg.perm().isEmpty() ? Msg.getString("command.none") : arg.perm()),
+                            Param.P("description", arg.desc().isEmpty() ? Msg.getString(sender, "command.no-description") : arg.desc()),
+                            Param.P("permission", arg.perm().isEmpty() ? Msg.getString(sender, "command.none") : arg.perm()),
                             Param.P("type", arg.option().getTypeName()),
                             Param.P("subcmds", Str.implode(subCmdFormats, "\n"))
                     ));
@@ -128,10 +128,10 @@ public class CmdUsageParser {
 
             //Regular argument
             usage.add(arg.usage(sender));
-            JSON.add(Msg.getString("command.argument-entry",
+            JSON.add(Msg.getString(sender, "command.argument-entry",
                     Param.P("name", argumentColor + arg.usage(sender)),
-                    Param.P("description", arg.desc().isEmpty() ? Msg.getString("command.no-description") : arg.desc()),
-                    Param.P("permission", arg.perm().isEmpty() ? Msg.getString("command.none") : arg.perm()),
+                    Param.P("description", arg.desc().isEmpty() ? Msg.getString(sender, "command.no-description") : arg.desc()),
+                    Param.P("permission", arg.perm().isEmpty() ? Msg.getString(sender, "command.none") : arg.perm()),
                     Param.P("type", arg.option().getTypeName())
             ));
         }
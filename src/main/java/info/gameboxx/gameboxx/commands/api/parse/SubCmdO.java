@@ -62,7 +62,7 @@ public class SubCmdO extends SingleOption<SubCmd, SubCmdO> {
             }
         }
 
-        error = Msg.getString("subcmd.invalid", Param.P("input", input), Param.P("subcmds", Utils.getAliasesString("subcmd.entry", aliasMap)));
+        error = Msg.getString(sender, "subcmd.invalid", Param.P("input", input), Param.P("subcmds", Utils.getAliasesString("subcmd.entry", aliasMap)));
         return false;
     }
 
@@ -43,6 +43,7 @@ public class GiveCmd extends BaseCmd {
         file(file);
         desc("Spawn an item and give it to a player.");
         perm("gameboxx.cmd.give");
+        rateLimit(10, 10000);
 
         addArgument("player", ArgRequirement.REQUIRED_NON_PLAYER, new PlayerO()).desc("The player to give the item to").perm("gameboxx.cmd.give.others").skippable(true);
         addArgument("item", ArgRequirement.REQUIRED, new ItemO()).desc("The full item string which may contain meta and such.").span(-1);
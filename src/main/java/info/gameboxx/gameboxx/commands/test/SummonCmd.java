@@ -39,6 +39,7 @@ public class SummonCmd extends BaseCmd {
         file(file);
         desc("Summon an entity.");
         perm("gameboxx.cmd.summon");
+        rateLimit(10, 10000);
 
         addArgument("entity", ArgRequirement.REQUIRED, new EntityStackO()).desc("The full entity string which may contain meta and such.").span(-1);
     }
@@ -31,9 +31,7 @@ import info.gameboxx.gameboxx.game.GameSession;
 import info.gameboxx.gameboxx.messages.Msg;
 import info.gameboxx.gameboxx.options.single.IntO;
 import info.gameboxx.gameboxx.util.SoundEffect;
-import info.gameboxx.gameboxx.util.Str;
 import org.bukkit.Sound;
-import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
 /**
@@ -179,9 +177,7 @@ public class CountdownCP extends GameComponent {
                 sound.play(getDependency(PlayersCP.class).getOnlinePlayers());
             }
             //TODO: Have a message component or put this somewhere else.
-            for (Player player : getDependency(PlayersCP.class).getOnlinePlayers()) {
-                player.sendMessage(Str.color(getMessage()));
-            }
+            new Msg(getMessage()).broadcast(getDependency(PlayersCP.class).getOnlinePlayers());
         }
         countdown--;
     }
@@ -73,7 +73,7 @@ public class MaxPlayersCP extends GameComponent {
      * @return The maximum player amount allowed.
      */
     public int getMax() {
-        return arenaOptions().<IntO>getOption(path("max-players")).getValue();
+        return arenaOptions().getInt(path("max-players"));
     }
 
     private static class Events extends ComponentListener {
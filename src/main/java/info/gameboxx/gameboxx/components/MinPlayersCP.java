@@ -67,7 +67,7 @@ public class MinPlayersCP extends GameComponent {
      * @return The minimum player amount required to start.
      */
     public int getMin() {
-        return arenaOptions().<IntO>getOption(path("min-players")).getValue();
+        return arenaOptions().getInt(path("min-players"));
     }
 
     /**
@@ -36,9 +36,27 @@ public class PluginCfg extends EasyConfig {
     public String database__databaseName = "default";
     public String database__username = "root";
     public String database__password = "password";
+    public String database__dataSourceClass = "com.mysql.jdbc.jdbc2.optional.MysqlDataSource";
+    public int database__poolSize = 10;
+    public int database__queuePerConnection = 16;
+    public long database__connectionTimeout = 5000;
+    public int database__maxRetries = 3;
+    public long database__retryDelay = 100;
+    public long database__slowQueryMillis = 250;
     public boolean sql = false;
 
+    public int users__cacheSize = 1000;
+    public int users__expireMinutes = 10;
+    public int users__unknownNameExpireMinutes = 5;
+
+    public boolean messages__watch = true;
+
+    public long commands__slowMillis = 50;
+
+    public int hud__interval = 1;
+
     public int saveDelay__arena = 5000;
+    public boolean cache__arena = true;
 
     public PluginCfg(String fileName) {
         this.setFile(fileName);
@@ -0,0 +1,218 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.config.internal;
+
+import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import info.gameboxx.gameboxx.GameBoxx;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes {@link OptionCfg} files in the background.
+ * <p/>
+ * Configs with a save delay are marked dirty when they're saved and all changes within the delay are written at once.
+ * The options are serialized on the main thread when the delay has passed and only writing the file is done on the writer thread.
+ * <p/>
+ * Files are written to a temporary file first which then replaces the config file so a crash never leaves a half written config behind.
+ * When multiple snapshots of the same file are queued only the latest one is written.
+ * Configs that use the binary {@link OptionCache} get their cache written after the config file.
+ * <p/>
+ * Call {@link #close()} on shutdown to write all dirty configs and wait for the queued writes.
+ */
+public class ConfigWriter {
+
+    /** Maximum time to wait for the queued writes on shutdown. */
+    private static final long CLOSE_TIMEOUT = 10000;
+
+    private final GameBoxx gb;
+    private final ExecutorService executor;
+    private final Map<OptionCfg, BukkitTask> dirty = new HashMap<>();
+    private final ConcurrentMap<File, Write> queued = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    /**
+     * Start the config writer thread.
+     *
+     * @param gb The plugin used to schedule the delayed saves on the main thread.
+     */
+    public ConfigWriter(GameBoxx gb) {
+        this.gb = gb;
+        executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("GameBoxx-ConfigWriter").setDaemon(true).build());
+    }
+
+    /**
+     * Mark the config dirty so it will be saved after the specified delay.
+     * <p/>
+     * When the config is already dirty the save that has been scheduled will include the new changes.
+     * This must be called from the main thread.
+     *
+     * @param config The config to save.
+     * @param delay The delay in milliseconds.
+     */
+    public void markDirty(final OptionCfg config, long delay) {
+        if (closed) {
+            write(config, config.snapshot());
+            return;
+        }
+        if (dirty.containsKey(config)) {
+            return;
+        }
+        dirty.put(config, new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (dirty.remove(config) != null) {
+                    write(config, config.snapshot());
+                }
+            }
+        }.runTaskLater(gb, Math.max(1, delay / 50)));
+    }
+
+    /**
+     * Check whether or not the config has changes that haven't been written to disk yet.
+     * <p/>
+     * The config in memory is newer than the file while this is true so it shouldn't be reloaded from disk.
+     *
+     * @param config The config to check.
+     * @return True when the config is dirty or when a snapshot of the config is still queued to be written.
+     */
+    public boolean isPending(OptionCfg config) {
+        return dirty.containsKey(config) || (config.getFile() != null && queued.containsKey(config.getFile()));
+    }
+
+    /**
+     * Queue the serialized config to be written to the file.
+     * <p/>
+     * When the config was marked dirty the scheduled save is cancelled as the data includes all changes.
+     * After the writer has been closed the file is written right away.
+     *
+     * @param config The config that has been serialized.
+     * @param data The serialized config.
+     */
+    public void write(OptionCfg config, String data) {
+        BukkitTask task = dirty.remove(config);
+        if (task != null) {
+            task.cancel();
+        }
+        final File file = config.getFile();
+        Write write = new Write(data, config.useCache(), config.useCache() ? OptionCache.encode(config) : null);
+        if (closed) {
+            writeFile(file, write);
+            return;
+        }
+        if (queued.put(file, write) == null) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Write write = queued.remove(file);
+                    if (write != null) {
+                        writeFile(file, write);
+                    }
+                }
+            });
+        }
+    }
+
+    private void writeFile(File file, Write write) {
+        File folder = file.getAbsoluteFile().getParentFile();
+        try {
+            folder.mkdirs();
+            byte[] data = write.data.getBytes(Charsets.UTF_8);
+            Path temp = Files.createTempFile(folder.toPath(), file.getName(), ".tmp");
+            try {
+                Files.write(temp, data);
+                try {
+                    Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            if (write.cache) {
+                OptionCache.write(file, data, write.snapshot);
+            }
+        } catch (IOException e) {
+            gb.error("Failed to save the config file '" + file.getAbsolutePath() + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Save all dirty configs and wait for all queued writes to finish.
+     * <p/>
+     * Configs saved after closing the writer are written right away on the calling thread.
+     * This must be called from the main thread.
+     */
+    public void close() {
+        List<OptionCfg> configs = new ArrayList<>(dirty.keySet());
+        for (OptionCfg config : configs) {
+            write(config, config.snapshot());
+        }
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                gb.warn("Timed out while waiting for " + queued.size() + " config file(s) to be saved!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Map.Entry<File, Write> entry : queued.entrySet()) {
+            if (queued.remove(entry.getKey(), entry.getValue())) {
+                writeFile(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+
+    private static class Write {
+        private final String data;
+        private final boolean cache;
+        private final byte[] snapshot;
+
+        private Write(String data, boolean cache, byte[] snapshot) {
+            this.data = data;
+            this.cache = cache;
+            this.snapshot = snapshot;
+        }
+    }
+}
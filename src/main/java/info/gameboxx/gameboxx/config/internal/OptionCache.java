@@ -0,0 +1,406 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.config.internal;
+
+import com.google.common.base.Charsets;
+import info.gameboxx.gameboxx.options.ListOption;
+import info.gameboxx.gameboxx.options.Option;
+import info.gameboxx.gameboxx.options.SingleOption;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.util.Vector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of an {@link OptionCfg} that is stored next to the config file.
+ * <p/>
+ * The snapshot contains all the values from the YAML config and the resolved values of location and vector options.
+ * Loading a valid snapshot rebuilds the config without parsing YAML and sets the resolved values without parsing them from strings.
+ * Other options are still parsed from the config values.
+ * <p/>
+ * A snapshot is only valid when the modification time, size and hash of the config file and the registered options match the snapshot.
+ * When it's stale the config is loaded from YAML like usual and a new snapshot is written the next time the config is saved.
+ * <p/>
+ * Configs with values that can't be stored in the snapshot like serialized items don't get a snapshot.
+ */
+class OptionCache {
+
+    private static final int MAGIC = 0x47424F43;
+    private static final byte VERSION = 1;
+    /** Snapshots larger than this are memory mapped and smaller snapshots are read in to memory. */
+    private static final int MAP_THRESHOLD = 16 * 1024;
+
+    private static final byte SECTION = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte LIST = 6;
+    private static final byte LOCATION = 7;
+    private static final byte VECTOR = 8;
+
+    private OptionCache() {}
+
+    /**
+     * Get the snapshot file for the specified config file.
+     *
+     * @param file The config file.
+     * @return The snapshot file. (May not exist)
+     */
+    static File getFile(File file) {
+        return new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".cache");
+    }
+
+    /**
+     * Encode the config values and the resolved option values of the config.
+     * <p/>
+     * This must be called from the main thread after the option values have been saved in the config.
+     * The header which validates the snapshot is added by {@link #write(File, byte[], byte[])} once the config file has been written.
+     *
+     * @param config The config to encode.
+     * @return The encoded snapshot or {@code null} when the config has values that can't be stored in a snapshot.
+     */
+    static byte[] encode(OptionCfg config) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(fingerprint(config));
+
+            Map<String, Object> values = config.getConfig().getValues(true);
+            out.writeInt(values.size());
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                writeString(out, entry.getKey());
+                if (entry.getValue() instanceof ConfigurationSection) {
+                    out.writeByte(SECTION);
+                } else if (!writeValue(out, entry.getValue())) {
+                    return null;
+                }
+            }
+
+            List<Map.Entry<String, List<Object>>> resolved = new ArrayList<>();
+            for (String path : config.getPaths()) {
+                List<Object> resolvedValues = getResolved(config.getValue(path));
+                if (resolvedValues != null) {
+                    resolved.add(new AbstractMap.SimpleEntry<>(path, resolvedValues));
+                }
+            }
+            out.writeInt(resolved.size());
+            for (Map.Entry<String, List<Object>> entry : resolved) {
+                writeString(out, entry.getKey());
+                out.writeBoolean(config.getDefinition(entry.getKey()) instanceof ListOption);
+                out.writeInt(entry.getValue().size());
+                for (Object value : entry.getValue()) {
+                    writeValue(out, value);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write the snapshot for the config file that has just been written.
+     * <p/>
+     * The modification time and size are taken from the config file and the hash is calculated from the written data.
+     * This may be called from any thread.
+     *
+     * @param file The config file.
+     * @param data The data that has been written to the config file.
+     * @param snapshot The snapshot from {@link #encode(OptionCfg)} (When {@code null} the previous snapshot is removed)
+     * @throws IOException When writing the snapshot failed.
+     */
+    static void write(File file, byte[] data, byte[] snapshot) throws IOException {
+        Path cacheFile = getFile(file).toPath();
+        if (snapshot == null) {
+            Files.deleteIfExists(cacheFile);
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(29);
+        header.putInt(MAGIC).put(VERSION).putLong(file.lastModified()).putLong(file.length()).putLong(hash(data));
+
+        Path temp = Files.createTempFile(cacheFile.getParent(), file.getName(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                header.flip();
+                channel.write(new ByteBuffer[] {header, ByteBuffer.wrap(snapshot)});
+            }
+            try {
+                Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Load the config from the snapshot when the snapshot is valid.
+     * <p/>
+     * The config values are replaced with the values from the snapshot.
+     * Options with a resolved value in the snapshot are set directly and all other options are loaded from the config values.
+     * When the snapshot is stale or invalid the config isn't modified.
+     *
+     * @param config The config to load.
+     * @return True when the config was loaded from the snapshot.
+     */
+    static boolean load(OptionCfg config) {
+        File file = config.getFile();
+        File cacheFile = getFile(file);
+        if (!cacheFile.isFile() || !file.isFile()) {
+            return false;
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        Map<String, Object> resolved = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 29 || size > Integer.MAX_VALUE) {
+                return false;
+            }
+            ByteBuffer in;
+            if (size > MAP_THRESHOLD) {
+                in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                in = ByteBuffer.allocate((int)size);
+                while (in.hasRemaining() && channel.read(in) >= 0) {}
+                in.flip();
+            }
+
+            if (in.getInt() != MAGIC || in.get() != VERSION) {
+                return false;
+            }
+            if (in.getLong() != file.lastModified() || in.getLong() != file.length()) {
+                return false;
+            }
+            if (in.getLong() != hash(Files.readAllBytes(file.toPath()))) {
+                return false;
+            }
+            if (in.getInt() != fingerprint(config)) {
+                return false;
+            }
+
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                values.put(readString(in), readValue(in));
+            }
+
+            count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                String path = readString(in);
+                boolean list = in.get() != 0;
+                Object[] resolvedValues = new Object[in.getInt()];
+                for (int v = 0; v < resolvedValues.length; v++) {
+                    resolvedValues[v] = readValue(in);
+                }
+                resolved.put(path, list ? resolvedValues : resolvedValues[0]);
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            return false;
+        }
+
+        YamlConfiguration yaml = config.getConfig();
+        for (String key : yaml.getKeys(false)) {
+            yaml.set(key, null);
+        }
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getValue() == null) {
+                yaml.createSection(entry.getKey());
+            } else {
+                yaml.set(entry.getKey(), entry.getValue());
+            }
+        }
+
+        for (String path : config.getPaths()) {
+            Object value = resolved.get(path);
+            Option option = config.getDefinition(path);
+            boolean list = value instanceof Object[] && option instanceof ListOption && !Arrays.asList((Object[])value).contains(null);
+            boolean single = value != null && !(value instanceof Object[]) && option instanceof SingleOption;
+            if (list || single) {
+                config.setResolvedValue(path, value);
+            } else {
+                config.loadOption(path, false);
+            }
+        }
+        return true;
+    }
+
+    /** Get the resolved values of location and vector options or {@code null} when the option doesn't have resolved values. */
+    private static List<Object> getResolved(Object value) {
+        List<Object> values = new ArrayList<>();
+        if (value instanceof List) {
+            values.addAll((List<?>)value);
+        } else if (value != null) {
+            values.add(value);
+        }
+        if (values.isEmpty()) {
+            return null;
+        }
+        for (Object resolved : values) {
+            if (!(resolved instanceof Vector) && !(resolved instanceof Location && ((Location)resolved).getWorld() != null)) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    /** Hash of the paths and types of the registered options so snapshots are stale when the options change. */
+    private static int fingerprint(OptionCfg config) {
+        List<String> options = new ArrayList<>();
+        for (String path : config.getPaths()) {
+            options.add(path + ":" + config.getDefinition(path).getClass().getName());
+        }
+        Collections.sort(options);
+        return options.hashCode();
+    }
+
+    private static long hash(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    private static boolean writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String)value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer)value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long)value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double)value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean)value);
+        } else if (value instanceof Location) {
+            Location loc = (Location)value;
+            out.writeByte(LOCATION);
+            writeString(out, loc.getWorld().getName());
+            out.writeDouble(loc.getX());
+            out.writeDouble(loc.getY());
+            out.writeDouble(loc.getZ());
+            out.writeFloat(loc.getYaw());
+            out.writeFloat(loc.getPitch());
+        } else if (value instanceof Vector) {
+            Vector vec = (Vector)value;
+            out.writeByte(VECTOR);
+            out.writeDouble(vec.getX());
+            out.writeDouble(vec.getY());
+            out.writeDouble(vec.getZ());
+        } else if (value instanceof List) {
+            List<?> list = (List<?>)value;
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                if (element instanceof List || element instanceof Location || element instanceof Vector || !writeValue(out, element)) {
+                    return false;
+                }
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static Object readValue(ByteBuffer in) {
+        byte type = in.get();
+        switch (type) {
+            case SECTION:
+                return null;
+            case STRING:
+                return readString(in);
+            case INT:
+                return in.getInt();
+            case LONG:
+                return in.getLong();
+            case DOUBLE:
+                return in.getDouble();
+            case BOOLEAN:
+                return in.get() != 0;
+            case LOCATION:
+                World world = Bukkit.getWorld(readString(in));
+                Location loc = new Location(world, in.getDouble(), in.getDouble(), in.getDouble(), in.getFloat(), in.getFloat());
+                return world == null ? null : loc;
+            case VECTOR:
+                return new Vector(in.getDouble(), in.getDouble(), in.getDouble());
+            case LIST:
+                int size = in.getInt();
+                List<Object> list = new ArrayList<>(Math.min(size, in.remaining()));
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            default:
+                throw new IllegalArgumentException("Invalid value type " + type + "!");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = str.getBytes(Charsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (in.hasArray()) {
+            String str = new String(in.array(), in.arrayOffset() + in.position(), length, Charsets.UTF_8);
+            in.position(in.position() + length);
+            return str;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, Charsets.UTF_8);
+    }
+}
@@ -32,6 +32,7 @@ import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.*;
 
 /**
@@ -40,6 +41,10 @@ import java.util.*;
  * The path is name the same as the name of the option.
  * Use {@link #save()} and {@link #load()} to save/load the added options.
  * It will not load options that haven't been set.
+ * <p/>
+ * Configs that share the same options like arena configs can use an {@link OptionSchema} set with {@link #setSchema(OptionSchema)}
+ * The options in the schema aren't cloned for each config and only their values are stored in the config.
+ * Use {@link #getValue(String)} and the primitive getters to get the values without creating option instances.
  */
 public class OptionCfg {
 
@@ -47,10 +52,16 @@ public class OptionCfg {
     private YamlConfiguration config = new YamlConfiguration();
 
     private Long saveDelay = 0l;
-    private Long lastSave = 0l;
+    private boolean cache = false;
 
     private Map<String, Option> options = new HashMap<>();
 
+    private OptionSchema schema = null;
+    private long[] primitives = null;
+    private Object[] objects = null;
+    private BitSet present = null;
+    private Map<Integer, Option> materialized = null;
+
     /**
      * Create a new options config for the specified string file path.
      * The path must be absolute from the server directory like: 'plugins/GameBoxx/Example.yml'
@@ -82,6 +93,9 @@ public class OptionCfg {
      * It just loads the yaml config from disk.
      */
     private void loadConfig() {
+        if (isPending()) {
+            return;
+        }
         createFile();
         try {
             config.load(file);
@@ -93,19 +107,30 @@ public class OptionCfg {
     /**
      * Save the {@link YamlConfiguration} file.
      * This does not set the option values in the config it just saves the config file from memory to disk.
-     * If this config has a delay set and force is false it will first check the delay.
+     * <p/>
+     * The file is written in the background by the {@link ConfigWriter}.
+     * If this config has a delay set and force is false the config is marked dirty and all changes within the delay are saved at once.
      *
      * @param force Whether or not to ignore the delay when the config has a delay.
-     * @return Whether or not the config file was saved. (false when delayed or failed)
+     * @return Whether or not the config file was saved or queued to be saved. (false when delayed or failed)
      */
     private boolean saveConfig(boolean force) {
-        if (!force && saveDelay > 0 && lastSave + saveDelay > System.currentTimeMillis()) {
-            return false;
+        ConfigWriter writer = getWriter();
+        if (writer != null) {
+            if (!force && saveDelay > 0) {
+                writer.markDirty(this, saveDelay);
+                return false;
+            }
+            writer.write(this, config.saveToString());
+            return true;
         }
-        lastSave = System.currentTimeMillis();
+
         createFile();
         try {
             config.save(file);
+            if (cache) {
+                OptionCache.write(file, Files.readAllBytes(file.toPath()), OptionCache.encode(this));
+            }
             return true;
         } catch (Exception e) {
             e.printStackTrace();
@@ -113,6 +138,38 @@ public class OptionCfg {
         return false;
     }
 
+    /**
+     * Serialize all the option values and the config for the {@link ConfigWriter}.
+     * This must be called from the main thread.
+     *
+     * @return The serialized config.
+     */
+    String snapshot() {
+        saveOptions();
+        return config.saveToString();
+    }
+
+    private void saveOptions() {
+        for (String path : options.keySet()) {
+            saveOption(path, false);
+        }
+        if (materialized != null) {
+            for (Map.Entry<Integer, Option> entry : materialized.entrySet()) {
+                setValue(schema.getPath(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
+    private boolean isPending() {
+        ConfigWriter writer = getWriter();
+        return writer != null && writer.isPending(this);
+    }
+
+    private ConfigWriter getWriter() {
+        GameBoxx gb = GameBoxx.get();
+        return gb == null ? null : gb.getConfigWriter();
+    }
+
     /**
      * Creates the config file if it doesn't exist yet.
      * If there are exceptions the stacktrace will be printed.
@@ -147,25 +204,36 @@ public class OptionCfg {
      * Load all the option values from config.
      * <b>This does not load options that haven't been added!</b>
      * If there are exceptions the stacktrace will be printed.
+     * <p/>
+     * When the config uses the binary cache and the cache is valid the values are loaded from the cache and the config isn't saved.
+     * See {@link #setCache(boolean)}
      *
      * @param save Whether or not to save the config after loading the values to save the defaults.
-     * @return Whether or not the config file was saved. (false when save is false or it failed)
+     * @return Whether or not the config file was saved. (false when save is false, delayed or it failed)
      */
     public boolean load(boolean save) {
+        if (cache && !isPending() && OptionCache.load(this)) {
+            return false;
+        }
         loadConfig();
         for (String path : options.keySet()) {
             loadOption(path, false);
         }
+        if (schema != null) {
+            for (int slot = 0; slot < schema.size(); slot++) {
+                loadOption(schema.getPath(slot), false);
+            }
+        }
         if (save) {
-            return saveConfig(true);
+            return saveConfig(false);
         }
         return false;
     }
 
     /**
      * Save all the option values to config.
-     * If a delay is set it will check if the saving is still delayed and if so, it will not save.
-     * Use {@link #save(boolean)} with force set to true to ignore the save delay and force save the config.
+     * If a delay is set the config is marked dirty and it will be saved when the delay has passed.
+     * Use {@link #save(boolean)} with force set to true to ignore the save delay and save the config right away.
      *
      * @return Whether or not the config file was saved. (false when delayed or failed)
      */
@@ -175,16 +243,18 @@ public class OptionCfg {
 
     /**
      * Save all the option values to config.
-     * If a delay is set it will check if the saving is still delayed and if so, it will not save unless force is set to true.
+     * If a delay is set the config is marked dirty and it will be saved when the delay has passed unless force is set to true.
+     * The option values are serialized when the config is actually saved so all changes within the delay are only serialized once.
      *
      * @param force Whether or not to ignore the delay when the config has a delay.
-     * @return Whether or not the config file was saved. (false when delayed or failed)
+     * @return Whether or not the config file was saved or queued to be saved. (false when delayed or failed)
      */
     public boolean save(boolean force) {
-        for (String path : options.keySet()) {
-            saveOption(path, false);
+        if (!force && saveDelay > 0 && getWriter() != null) {
+            return saveConfig(false);
         }
-        return saveConfig(force);
+        saveOptions();
+        return saveConfig(true);
     }
 
     /**
@@ -200,23 +270,23 @@ public class OptionCfg {
      * @return Whether or not the option was loaded successful.
      */
     public boolean loadOption(String path, boolean loadConfig) {
-        Option option = getOption(path);
+        int slot = getSlot(path);
+        Option option = slot < 0 || isMaterialized(slot) ? (Option)getOption(path) : schema.getDefinition(slot);
         if (option == null) {
             return false;
         }
         //Load config if specified.
         if (loadConfig) {
-            createFile();
-            try {
-                config.load(file);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+            loadConfig();
         }
 
         //If config doesn't have the option save the default.
         if (!config.isSet(path)) {
-            saveOption(path, loadConfig);
+            if (isDefinition(slot, option)) {
+                setValue(path, option);
+            } else {
+                saveOption(path, loadConfig);
+            }
         }
 
         //If the option doesn't have a default it may not be in the config still.
@@ -224,7 +294,20 @@ public class OptionCfg {
             return false;
         }
 
-        //Parse options.
+        //Options from the schema are parsed with the shared parser and only the value is stored.
+        if (isDefinition(slot, option)) {
+            Option parser = schema.getParser(slot);
+            if (!parseOption(path, parser)) {
+                clearValue(slot);
+                return false;
+            }
+            storeValue(slot, parser);
+            return true;
+        }
+        return parseOption(path, option);
+    }
+
+    private boolean parseOption(String path, Option option) {
         if (option instanceof SingleOption) {
             SingleOption singleOption = (SingleOption)option;
             String value = config.getString(path);
@@ -266,26 +349,35 @@ public class OptionCfg {
      *
      * @param path The full path of the option to save.
      * @param saveConfig When true it will save the config after setting the value.
-     * It will not force save, so if the saving is on delay it won't save.
+     * It will not force save, so if the config has a delay it will be saved when the delay has passed.
      * @return Whether or not the config was saved. (will be false if you specify save as false or if saving is on delay)
      */
     public boolean saveOption(String path, boolean saveConfig) {
+        int slot = getSlot(path);
+        if (slot >= 0 && !isMaterialized(slot)) {
+            //The config value of schema options is set when the value changes.
+            return saveConfig && saveConfig(false);
+        }
         Option option = getOption(path);
         if (option == null) {
             return false;
         }
+        setValue(path, option);
+
+        if (saveConfig) {
+            return saveConfig(false);
+        }
+        return false;
+    }
+
+    private void setValue(String path, Option option) {
         if (option instanceof SingleOption) {
             config.set(path, ((SingleOption)option).serialize());
         } else if (option instanceof ListOption) {
             config.set(path, ((ListOption)option).serialize());
-        } else if (option instanceof ListOption) {
+        } else if (option instanceof MapOption) {
             config.set(path, ((MapOption)option).serialize());
         }
-
-        if (saveConfig) {
-            return saveConfig(false);
-        }
-        return false;
     }
 
     /**
@@ -352,9 +444,10 @@ public class OptionCfg {
 
     /**
      * Set the save delay in milliseconds.
-     * Every time the {@link #save()} method is called it will check this delay.
-     * For example with a delay of 5000 it would not save the file when it was saved 3 seconds ago.
-     * <b>This is not a scheduled delay it just puts the saving on cooldown for this duration!</b>
+     * Every time the {@link #save()} method is called the config is marked dirty instead of being saved right away.
+     * For example with a delay of 5000 all changes within 5 seconds after the first change are saved at once.
+     * <p/>
+     * Dirty configs are always saved when the plugin is disabled.
      *
      * @param saveDelay The delay in milliseconds.
      */
@@ -379,14 +472,313 @@ public class OptionCfg {
     }
 
 
+    /**
+     * Set whether or not the config uses a binary cache to load faster.
+     * <p/>
+     * The cache is stored next to the config file and contains all the config values and resolved location and vector values.
+     * It's updated each time the config is saved and it's only used when the config file hasn't been modified since.
+     * See {@link OptionCache} for details.
+     *
+     * @param cache True to use the binary cache.
+     */
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Check whether or not the config uses a binary cache.
+     *
+     * @return True when the config uses the binary cache set with {@link #setCache(boolean)}
+     */
+    public boolean useCache() {
+        return cache;
+    }
+
+
+    /**
+     * Get the {@link OptionSchema} set with {@link #setSchema(OptionSchema)}
+     *
+     * @return The schema of the config. (May be {@code null})
+     */
+    public OptionSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Set the shared {@link OptionSchema} for the config.
+     * <p/>
+     * The config will have all the options from the schema without cloning them.
+     * Only the values are stored in the config and previously loaded schema values are cleared.
+     * Call {@link #load()} after setting the schema to load the values.
+     *
+     * @param schema The schema with the option definitions. (May be {@code null} to remove the schema)
+     */
+    public void setSchema(OptionSchema schema) {
+        this.schema = schema;
+        primitives = schema == null ? null : new long[schema.size()];
+        objects = schema == null ? null : new Object[schema.size()];
+        present = schema == null ? null : new BitSet(schema.size());
+        materialized = null;
+    }
+
+    /**
+     * Get the value of the option at the specified path.
+     * <p/>
+     * For options in the {@link OptionSchema} this reads the stored value without creating an option instance.
+     * For list options this returns a {@link List} with the values and for map options a {@link Map}.
+     * Lists and maps of options in the schema are unmodifiable, use {@link #getOption(String)} to change the values.
+     * When there is no value the default value of the option is returned.
+     *
+     * @param path The path of the option.
+     * @return The value or the default value. ({@code null} when there is no option at the path or no value)
+     */
+    public <T> T getValue(String path) {
+        int slot = getSlot(path);
+        if (slot < 0 || isMaterialized(slot)) {
+            return (T)getValue((Option)getOption(path));
+        }
+        if (!present.get(slot)) {
+            return (T)getValue(schema.getDefinition(slot));
+        }
+        switch (schema.getType(slot)) {
+            case OptionSchema.INT:
+                return (T)Integer.valueOf((int)primitives[slot]);
+            case OptionSchema.DOUBLE:
+                return (T)Double.valueOf(Double.longBitsToDouble(primitives[slot]));
+            case OptionSchema.BOOLEAN:
+                return (T)Boolean.valueOf(primitives[slot] != 0);
+            default:
+                //Stored lists and maps are shared with the option so they can't be modified.
+                Object value = objects[slot];
+                if (value instanceof List) {
+                    return (T)Collections.unmodifiableList((List<?>)value);
+                }
+                if (value instanceof Map) {
+                    return (T)Collections.unmodifiableMap((Map<?, ?>)value);
+                }
+                return (T)value;
+        }
+    }
+
+    private Object getValue(Option option) {
+        if (option instanceof SingleOption) {
+            return ((SingleOption)option).getValue();
+        } else if (option instanceof ListOption) {
+            return new ArrayList<>(((ListOption)option).getValues());
+        } else if (option instanceof MapOption) {
+            return new LinkedHashMap<>(((MapOption)option).getValues());
+        }
+        return null;
+    }
+
+    /**
+     * Get the integer value of the option at the specified path.
+     * Values of {@link info.gameboxx.gameboxx.options.single.IntO}s in the {@link OptionSchema} are read without boxing.
+     *
+     * @param path The path of the option.
+     * @return The value or 0 when there is no value.
+     */
+    public int getInt(String path) {
+        int slot = getSlot(path);
+        if (slot >= 0 && present.get(slot) && schema.getType(slot) == OptionSchema.INT) {
+            return (int)primitives[slot];
+        }
+        Object value = getValue(path);
+        return value instanceof Number ? ((Number)value).intValue() : 0;
+    }
+
+    /**
+     * Get the double value of the option at the specified path.
+     * Values of {@link info.gameboxx.gameboxx.options.single.DoubleO}s in the {@link OptionSchema} are read without boxing.
+     *
+     * @param path The path of the option.
+     * @return The value or 0 when there is no value.
+     */
+    public double getDouble(String path) {
+        int slot = getSlot(path);
+        if (slot >= 0 && present.get(slot) && schema.getType(slot) == OptionSchema.DOUBLE) {
+            return Double.longBitsToDouble(primitives[slot]);
+        }
+        Object value = getValue(path);
+        return value instanceof Number ? ((Number)value).doubleValue() : 0;
+    }
+
+    /**
+     * Get the boolean value of the option at the specified path.
+     * Values of {@link info.gameboxx.gameboxx.options.single.BoolO}s in the {@link OptionSchema} are read without boxing.
+     *
+     * @param path The path of the option.
+     * @return The value or false when there is no value.
+     */
+    public boolean getBoolean(String path) {
+        int slot = getSlot(path);
+        if (slot >= 0 && present.get(slot) && schema.getType(slot) == OptionSchema.BOOLEAN) {
+            return primitives[slot] != 0;
+        }
+        Object value = getValue(path);
+        return value instanceof Boolean && (Boolean)value;
+    }
+
+    /**
+     * Check whether or not the option at the specified path has a value.
+     * Lists and maps must have at least one value.
+     *
+     * @param path The path of the option.
+     * @return True when the option has a value or a default value.
+     */
+    public boolean hasValue(String path) {
+        Object value = getValue(path);
+        if (value instanceof Collection) {
+            return !((Collection)value).isEmpty();
+        }
+        if (value instanceof Map) {
+            return !((Map)value).isEmpty();
+        }
+        return value != null;
+    }
+
+    /**
+     * Get the paths of all the options in this config.
+     * This includes the options from the {@link OptionSchema} and the options set with {@link #setOption(String, Option)}
+     *
+     * @return Set with option paths.
+     */
+    public Set<String> getPaths() {
+        Set<String> paths = new LinkedHashSet<>();
+        if (schema != null) {
+            for (int slot = 0; slot < schema.size(); slot++) {
+                paths.add(schema.getPath(slot));
+            }
+        }
+        paths.addAll(options.keySet());
+        return paths;
+    }
+
+    /**
+     * Get the option definition at the specified path.
+     * For options in the {@link OptionSchema} this is the shared definition which should not be modified.
+     */
+    Option getDefinition(String path) {
+        int slot = getSlot(path);
+        return slot < 0 ? (Option)getOption(path) : schema.getDefinition(slot);
+    }
+
+    /**
+     * Set a value that has been resolved already like a value from the {@link OptionCache}
+     * For list options the value must be an array with the values.
+     */
+    void setResolvedValue(String path, Object value) {
+        int slot = getSlot(path);
+        if (slot < 0 || isMaterialized(slot)) {
+            Option option = getOption(path);
+            if (option instanceof ListOption) {
+                ((ListOption)option).parse(false, (Object[])value);
+            } else if (option instanceof SingleOption) {
+                ((SingleOption)option).parse(value);
+            }
+            return;
+        }
+        storeValue(slot, value instanceof Object[] ? new ArrayList<>(Arrays.asList((Object[])value)) : value);
+    }
+
+    /** Get the slot of the option in the schema or -1 when the option isn't in the schema or when it has been overridden with {@link #setOption(String, Option)} */
+    private int getSlot(String path) {
+        return schema == null || options.containsKey(path) ? -1 : schema.getSlot(path);
+    }
+
+    private boolean isDefinition(int slot, Option option) {
+        return slot >= 0 && schema.getDefinition(slot) == option;
+    }
+
+    private boolean isMaterialized(int slot) {
+        return materialized != null && materialized.containsKey(slot);
+    }
+
+    private void storeValue(int slot, Option parser) {
+        Object value = null;
+        if (parser instanceof SingleOption) {
+            value = ((SingleOption)parser).getValue();
+        } else if (parser instanceof ListOption) {
+            value = new ArrayList<>(((ListOption)parser).getValues());
+        } else if (parser instanceof MapOption) {
+            value = new LinkedHashMap<>(((MapOption)parser).getValues());
+        }
+        storeValue(slot, value);
+    }
+
+    private void storeValue(int slot, Object value) {
+        if (value == null) {
+            clearValue(slot);
+            return;
+        }
+        switch (schema.getType(slot)) {
+            case OptionSchema.INT:
+                primitives[slot] = ((Number)value).intValue();
+                break;
+            case OptionSchema.DOUBLE:
+                primitives[slot] = Double.doubleToRawLongBits(((Number)value).doubleValue());
+                break;
+            case OptionSchema.BOOLEAN:
+                primitives[slot] = (Boolean)value ? 1 : 0;
+                break;
+            default:
+                objects[slot] = value;
+        }
+        present.set(slot);
+    }
+
+    private void clearValue(int slot) {
+        objects[slot] = null;
+        primitives[slot] = 0;
+        present.clear(slot);
+    }
+
+    /**
+     * Create an option instance with the value of the config for an option in the {@link OptionSchema}
+     * The instance is kept so changes to the option are saved with the config.
+     */
+    private Option materialize(int slot) {
+        if (materialized == null) {
+            materialized = new HashMap<>();
+        }
+        Option option = materialized.get(slot);
+        if (option != null) {
+            return option;
+        }
+        option = schema.getDefinition(slot).clone();
+        if (present.get(slot)) {
+            Object value = getValue(schema.getPath(slot));
+            if (option instanceof SingleOption) {
+                ((SingleOption)option).parse(value);
+            } else if (option instanceof ListOption) {
+                List<?> values = (List<?>)value;
+                ((ListOption)option).parse(false, values.toArray(new Object[values.size()]));
+            } else if (option instanceof MapOption) {
+                ((MapOption)option).parse(false, (Map<String, Object>)value);
+            }
+        }
+        clearValue(slot);
+        materialized.put(slot, option);
+        return option;
+    }
+
+
     /**
      * Get the option at the specified path.
      * If there is no option set at the specified path this will be {@code null}!
+     * <p/>
+     * For options in the {@link OptionSchema} this creates an option instance with the value of this config.
+     * Changes to this option are saved with the config.
+     * Use {@link #getValue(String)} when you only need the value.
      *
      * @param path The path of the option to return.
      * @return The option at the specified path or {@code null} when there is no option at the specified path.
      */
     public <T> T getOption(String path) {
+        int slot = getSlot(path);
+        if (slot >= 0) {
+            return (T)materialize(slot);
+        }
         if (!hasOption(path)) {
             for (Option option : options.values()) {
                 if (option.getName() != null && option.getName().equalsIgnoreCase(path)) {
@@ -401,22 +793,40 @@ public class OptionCfg {
     /**
      * Get a collection with all the options in this config.
      * This does not contain all the options in the config file itself.
-     * It only contains options that have been set with {@link #setOption(String, Option)}
+     * It only contains options that have been set with {@link #setOption(String, Option)} and the options from the {@link OptionSchema}
+     * <p/>
+     * <b>This is a slow path meant for debugging!</b>
+     * It creates option instances for all the options in the schema and those options keep their own value from then on,
+     * so reading values of this config will no longer use the compact schema storage.
+     * Use {@link #getPaths()} and {@link #getValue(String)} to iterate the values instead.
      *
      * @return {@link Collection<Option>} with options.
      */
     public Collection<Option> getOptions() {
-        return options.values();
+        return getOptionMap().values();
     }
 
     /**
      * Get the map with all the options with the path of the option as key.
      * This does not contain all the options in the config file itself.
-     * It only contains options that have been set with {@link #setOption(String, Option)}
+     * It only contains options that have been set with {@link #setOption(String, Option)} and the options from the {@link OptionSchema}
+     * <p/>
+     * <b>This is a slow path meant for debugging!</b>
+     * It creates option instances for all the options in the schema and those options keep their own value from then on,
+     * so reading values of this config will no longer use the compact schema storage.
+     * Use {@link #getPaths()} and {@link #getValue(String)} to iterate the values instead.
      *
      * @return {@link Map<String, Option>} with the path as key and the option as value.
      */
     public Map<String, Option> getOptionMap() {
+        if (schema == null) {
+            return options;
+        }
+        Map<String, Option> options = new LinkedHashMap<>();
+        for (int slot = 0; slot < schema.size(); slot++) {
+            options.put(schema.getPath(slot), materialize(slot));
+        }
+        options.putAll(this.options);
         return options;
     }
 
@@ -474,7 +884,7 @@ public class OptionCfg {
      * @return Whether or not the config has a option for the specified path.
      */
     public boolean hasOption(String path, boolean checkConfig) {
-        if (options.containsKey(path)) {
+        if (options.containsKey(path) || (schema != null && schema.getSlot(path) >= 0)) {
             return true;
         }
         if (config.isSet(path)) {
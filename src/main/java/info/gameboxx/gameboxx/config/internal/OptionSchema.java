@@ -0,0 +1,149 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.config.internal;
+
+import com.google.common.collect.ImmutableMap;
+import info.gameboxx.gameboxx.options.Option;
+import info.gameboxx.gameboxx.options.single.BoolO;
+import info.gameboxx.gameboxx.options.single.DoubleO;
+import info.gameboxx.gameboxx.options.single.IntO;
+
+import java.util.Map;
+
+/**
+ * Shared option definitions for configs with the same options like arena configs.
+ * <p/>
+ * Each option in the schema has a slot and an {@link OptionCfg} created with the schema only stores the values for each slot.
+ * The option instances are shared by all the configs and are only used as definitions.
+ * They're never parsed so they should not be modified after the schema has been created.
+ * <p/>
+ * Values of {@link IntO}, {@link DoubleO} and {@link BoolO} options are stored as primitives.
+ * Use {@link OptionCfg#getOption(String)} to get an option instance with the value of a config when the value has to be modified.
+ */
+public final class OptionSchema {
+
+    static final byte OBJECT = 0;
+    static final byte INT = 1;
+    static final byte DOUBLE = 2;
+    static final byte BOOLEAN = 3;
+
+    private final String[] paths;
+    private final Option[] definitions;
+    private final byte[] types;
+    private final Option[] parsers;
+    private final Map<String, Integer> slots;
+
+    /**
+     * Create a schema for the specified options.
+     * The slots are assigned in the iteration order of the map.
+     *
+     * @param options Map with the path as key and the option definition as value.
+     */
+    public OptionSchema(Map<String, Option> options) {
+        paths = new String[options.size()];
+        definitions = new Option[options.size()];
+        types = new byte[options.size()];
+        parsers = new Option[options.size()];
+
+        ImmutableMap.Builder<String, Integer> slots = ImmutableMap.builder();
+        int slot = 0;
+        for (Map.Entry<String, Option> entry : options.entrySet()) {
+            Option option = entry.getValue();
+            paths[slot] = entry.getKey();
+            definitions[slot] = option;
+            types[slot] = option instanceof IntO ? INT : option instanceof DoubleO ? DOUBLE : option instanceof BoolO ? BOOLEAN : OBJECT;
+            slots.put(entry.getKey(), slot);
+            slot++;
+        }
+        this.slots = slots.build();
+    }
+
+    /**
+     * Get the amount of options in the schema.
+     *
+     * @return The amount of slots.
+     */
+    public int size() {
+        return paths.length;
+    }
+
+    /**
+     * Get the slot of the option at the specified path.
+     * <p/>
+     * Just like {@link OptionCfg#getOption(String)} the path may also be the name of the option.
+     *
+     * @param path The path or name of the option.
+     * @return The slot of the option or -1 when the schema doesn't have the option.
+     */
+    public int getSlot(String path) {
+        Integer slot = slots.get(path);
+        if (slot != null) {
+            return slot;
+        }
+        for (int i = 0; i < definitions.length; i++) {
+            if (definitions[i].getName() != null && definitions[i].getName().equalsIgnoreCase(path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the path of the option in the specified slot.
+     *
+     * @param slot The slot of the option.
+     * @return The path of the option.
+     */
+    public String getPath(int slot) {
+        return paths[slot];
+    }
+
+    /**
+     * Get the definition of the option in the specified slot.
+     * <b>The definition is shared and should not be modified!</b>
+     *
+     * @param slot The slot of the option.
+     * @return The option definition.
+     */
+    public Option getDefinition(int slot) {
+        return definitions[slot];
+    }
+
+    byte getType(int slot) {
+        return types[slot];
+    }
+
+    /**
+     * Get the option used to parse config values for the specified slot.
+     * The parser is a clone of the definition which is shared by all the configs so this may only be used on the main thread.
+     */
+    Option getParser(int slot) {
+        if (parsers[slot] == null) {
+            parsers[slot] = definitions[slot].clone();
+        }
+        return parsers[slot];
+    }
+}
@@ -25,12 +25,13 @@
 
 package info.gameboxx.gameboxx.game;
 
+import info.gameboxx.gameboxx.GameBoxx;
 import info.gameboxx.gameboxx.components.internal.GameComponent;
 import info.gameboxx.gameboxx.config.internal.OptionCfg;
+import info.gameboxx.gameboxx.config.internal.OptionSchema;
 import info.gameboxx.gameboxx.exceptions.MissingArenaWorldException;
 import info.gameboxx.gameboxx.exceptions.SessionLimitException;
 import info.gameboxx.gameboxx.nms.NMS;
-import info.gameboxx.gameboxx.options.*;
 import org.apache.commons.io.FileUtils;
 import org.bukkit.WorldCreator;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -71,13 +72,15 @@ public class Arena {
         this.name = name;
 
         config = new OptionCfg(configFile);
+        config.setSaveDelay((long)GameBoxx.get().getCfg().saveDelay__arena);
+        config.setCache(GameBoxx.get().getCfg().cache__arena);
 
         loadOptions();
         config.load(false);
         config.getConfig().set("general.name", name);
         config.getConfig().set("general.type", type.toString());
         config.getConfig().set("general.world-settings", "");
-        config.save(true);
+        config.save();
     }
 
     /**
@@ -90,6 +93,8 @@ public class Arena {
         this.game = game;
 
         config = new OptionCfg(configFile);
+        config.setSaveDelay((long)GameBoxx.get().getCfg().saveDelay__arena);
+        config.setCache(GameBoxx.get().getCfg().cache__arena);
         loadOptions();
         config.load();
 
@@ -99,13 +104,11 @@ public class Arena {
 
     /**
      * Load all the arena options from the game.
-     * Creates a copy of all the options.
-     * The arena options in the game are used as templates only.
+     * The arena options in the game are shared by all arenas using the {@link OptionSchema} of the game.
+     * The arena config only stores the values.
      */
     public void loadOptions() {
-        for (Map.Entry<String, Option> entry : game.getArenaOptions().entrySet()) {
-            config.setOption(entry.getKey(), entry.getValue().clone());
-        }
+        config.setSchema(game.getArenaSchema());
     }
 
     /**
@@ -114,25 +117,10 @@ public class Arena {
      * @return True when all setup options have been set up.
      */
     public boolean isSetupCorrectly() {
-        for (Option option : config.getOptions()) {
-            if (option == null) {
+        for (String path : config.getPaths()) {
+            if (!config.hasValue(path)) {
                 return false;
             }
-            if (option instanceof SingleOption) {
-                if (!((SingleOption)option).hasValue()) {
-                    return false;
-                }
-            }
-            if (option instanceof ListOption) {
-                if (((ListOption)option).getValues().isEmpty()) {
-                    return false;
-                }
-            }
-            if (option instanceof MapOption) {
-                if (((MapOption)option).getValues().isEmpty()) {
-                    return false;
-                }
-            }
         }
         return true;
     }
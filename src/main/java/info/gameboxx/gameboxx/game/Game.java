@@ -29,15 +29,19 @@ import info.gameboxx.gameboxx.GameBoxx;
 import info.gameboxx.gameboxx.components.internal.ComponentHolder;
 import info.gameboxx.gameboxx.components.internal.GameComponent;
 import info.gameboxx.gameboxx.config.internal.OptionCfg;
+import info.gameboxx.gameboxx.config.internal.OptionSchema;
 import info.gameboxx.gameboxx.exceptions.*;
 import info.gameboxx.gameboxx.options.Option;
 import info.gameboxx.gameboxx.options.single.IntO;
+import info.gameboxx.gameboxx.util.Leaderboard;
 import info.gameboxx.gameboxx.util.Utils;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Represents a game instance.
@@ -54,11 +58,14 @@ public abstract class Game extends ComponentHolder {
     private File gameFolder;
 
     private OptionCfg config;
-    private Map<String, Option> arenaOptions = new HashMap<>();
+    private Map<String, Option> arenaOptions = new LinkedHashMap<>();
+    private OptionSchema arenaSchema = null;
 
     private File arenaFolder;
     private Map<String, Arena> arenas = new HashMap<>();
 
+    private ConcurrentMap<String, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+
     /**
      * <b>Make sure you register your game class using the {@link GameManager#register(Game)} method!</b>
      *
@@ -249,6 +256,7 @@ public abstract class Game extends ComponentHolder {
      */
     public void registerArenaOption(String path, Option option) {
         arenaOptions.put(path, option);
+        arenaSchema = null;
     }
 
     /**
@@ -300,13 +308,60 @@ public abstract class Game extends ComponentHolder {
 
     /**
      * Get a map with all the arena options.
-     * These options are used as a template only as each {@link Arena} stores a copy of these options.
+     * These options are used as definitions only as each {@link Arena} only stores the values of these options.
      *
-     * @return Map with arena options where the key is the path and the value is the option instance (template).
+     * @return Map with arena options where the key is the path and the value is the option instance (definition).
      */
     public Map<String, Option> getArenaOptions() {
         return arenaOptions;
     }
+
+    /**
+     * Get the {@link OptionSchema} with all the arena options.
+     * The schema is shared by all the arena configs of this game.
+     *
+     * @return The arena option schema.
+     */
+    public OptionSchema getArenaSchema() {
+        if (arenaSchema == null) {
+            arenaSchema = new OptionSchema(arenaOptions);
+        }
+        return arenaSchema;
+    }
+    //endregion
+
+
+    //region Stats
+
+    /**
+     * Get the {@link Leaderboard} for the specified game statistic like 'wins' or 'kills'.
+     * The leaderboard will be created when it doesn't exist yet.
+     * Use {@link Leaderboard#update(java.util.UUID, double)} to update the statistic for a player when it changes.
+     *
+     * @param stat The name of the statistic. (case insensitive)
+     * @return The {@link Leaderboard} for the statistic.
+     */
+    public Leaderboard getLeaderboard(String stat) {
+        String key = stat.trim().toLowerCase();
+        Leaderboard leaderboard = leaderboards.get(key);
+        if (leaderboard == null) {
+            leaderboard = new Leaderboard();
+            Leaderboard existing = leaderboards.putIfAbsent(key, leaderboard);
+            if (existing != null) {
+                leaderboard = existing;
+            }
+        }
+        return leaderboard;
+    }
+
+    /**
+     * Get all the statistic leaderboards for this game.
+     *
+     * @return Map with leaderboards where the key is the lowercase statistic name.
+     */
+    public Map<String, Leaderboard> getLeaderboards() {
+        return leaderboards;
+    }
     //endregion
 
 
@@ -0,0 +1,368 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.hud;
+
+import com.google.common.base.Objects;
+import info.gameboxx.gameboxx.aliases.BarColors;
+import info.gameboxx.gameboxx.aliases.BarStyles;
+import info.gameboxx.gameboxx.messages.Msg;
+import info.gameboxx.gameboxx.nms.NMS;
+import org.apache.commons.lang.Validate;
+import org.bukkit.Bukkit;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+/**
+ * The HUD of a single player with an action bar, title and boss bar slot.
+ * <p/>
+ * Setting a value doesn't send anything right away.
+ * Only the latest value for each slot is kept and the {@link HudManager} sends the changes at most once per update interval.
+ * Values that are the same as what the player is already seeing aren't sent again.
+ * <p/>
+ * Get the HUD for a player with {@link HudManager#get(Player)}
+ * All methods must be called on the main thread.
+ */
+public class Hud {
+
+    /** The amount of ticks an action bar message stays visible before it starts fading. */
+    private static final long BAR_DURATION = 40;
+    /** The amount of ticks a title stays visible with the default fade times. */
+    private static final long TITLE_DURATION = 100;
+
+    private final HudManager manager;
+    private final Player player;
+
+    private String bar;
+    private String shownBar;
+    private long barSentTick = Long.MIN_VALUE;
+
+    private String title;
+    private String subtitle;
+    private boolean titlePending = false;
+    private boolean titleClear = false;
+    private String shownTitle;
+    private String shownSubtitle;
+    private long titleSentTick = Long.MIN_VALUE;
+
+    private String bossTitle;
+    private double bossProgress = 1;
+    private BarColor bossColor = BarColor.PINK;
+    private BarStyle bossStyle = BarStyle.SOLID;
+    private boolean bossVisible = false;
+    private BossBar bossBar;
+
+    private boolean dirty = false;
+
+    Hud(HudManager manager, Player player) {
+        this.manager = manager;
+        this.player = player;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    //region Action bar
+
+    /**
+     * Set the action bar message.
+     * The message will be kept visible by resending it before it fades until it's changed or cleared.
+     *
+     * @param message The message to display. The JSON form of the message is used.
+     * @return This hud instance.
+     */
+    public Hud setBar(Msg message) {
+        return setBar(message.isValidJSON() ? message.get() : message.getRaw());
+    }
+
+    /**
+     * Set the action bar message.
+     * The message will be kept visible by resending it before it fades until it's changed or cleared.
+     *
+     * @param message A JSON or regular text message to display.
+     * @return This hud instance.
+     */
+    public Hud setBar(String message) {
+        Validate.notNull(message, "Action bar message can't be null!");
+        bar = message;
+        markDirty();
+        return this;
+    }
+
+    /**
+     * Stop displaying the action bar message.
+     * The message that is already visible will fade out.
+     *
+     * @return This hud instance.
+     */
+    public Hud clearBar() {
+        bar = null;
+        shownBar = null;
+        markDirty();
+        return this;
+    }
+    //endregion
+
+
+    //region Title
+
+    /**
+     * Set the title and subtitle.
+     * When the same title is still visible it won't be sent again.
+     *
+     * @param title The title to display. (may be empty)
+     * @param subtitle The subtitle to display. (may be empty)
+     * @return This hud instance.
+     */
+    public Hud setTitle(String title, String subtitle) {
+        this.title = title == null ? "" : title;
+        this.subtitle = subtitle == null ? "" : subtitle;
+        titlePending = true;
+        titleClear = false;
+        markDirty();
+        return this;
+    }
+
+    /**
+     * Set the title and subtitle.
+     * When the same title is still visible it won't be sent again.
+     *
+     * @param title The title to display. (may be {@code null})
+     * @param subtitle The subtitle to display. (may be {@code null})
+     * @return This hud instance.
+     */
+    public Hud setTitle(Msg title, Msg subtitle) {
+        return setTitle(title == null ? null : title.getRaw(), subtitle == null ? null : subtitle.getRaw());
+    }
+
+    /**
+     * Remove the title from the screen of the player.
+     *
+     * @return This hud instance.
+     */
+    public Hud clearTitle() {
+        titlePending = false;
+        titleClear = true;
+        markDirty();
+        return this;
+    }
+    //endregion
+
+
+    //region Boss bar
+
+    /**
+     * Set the boss bar title and progress and make it visible.
+     *
+     * @param title The title displayed above the bar.
+     * @param progress The progress of the bar between 0 and 1.
+     * @return This hud instance.
+     */
+    public Hud setBoss(String title, double progress) {
+        Validate.notNull(title, "Boss bar title can't be null!");
+        bossTitle = title;
+        bossProgress = Math.max(0, Math.min(1, progress));
+        bossVisible = true;
+        markDirty();
+        return this;
+    }
+
+    /**
+     * Set the progress of the boss bar.
+     *
+     * @param progress The progress of the bar between 0 and 1.
+     * @return This hud instance.
+     */
+    public Hud setBossProgress(double progress) {
+        bossProgress = Math.max(0, Math.min(1, progress));
+        markDirty();
+        return this;
+    }
+
+    /**
+     * Set the color of the boss bar.
+     *
+     * @param color The {@link BarColor} for the bar.
+     * @return This hud instance.
+     */
+    public Hud setBossColor(BarColor color) {
+        Validate.notNull(color, "Boss bar color can't be null!");
+        bossColor = color;
+        markDirty();
+        return this;
+    }
+
+    /**
+     * Set the color of the boss bar.
+     *
+     * @param color The name or alias of a color from {@link BarColors}
+     * @return This hud instance.
+     */
+    public Hud setBossColor(String color) {
+        return setBossColor(BarColors.get(color));
+    }
+
+    /**
+     * Set the style of the boss bar.
+     *
+     * @param style The {@link BarStyle} for the bar.
+     * @return This hud instance.
+     */
+    public Hud setBossStyle(BarStyle style) {
+        Validate.notNull(style, "Boss bar style can't be null!");
+        bossStyle = style;
+        markDirty();
+        return this;
+    }
+
+    /**
+     * Set the style of the boss bar.
+     *
+     * @param style The name or alias of a style from {@link BarStyles}
+     * @return This hud instance.
+     */
+    public Hud setBossStyle(String style) {
+        return setBossStyle(BarStyles.get(style));
+    }
+
+    /**
+     * Hide the boss bar.
+     *
+     * @return This hud instance.
+     */
+    public Hud hideBoss() {
+        bossVisible = false;
+        markDirty();
+        return this;
+    }
+    //endregion
+
+
+    /**
+     * Remove everything from the HUD.
+     * The changes are sent right away.
+     */
+    public void clear() {
+        clearBar();
+        clearTitle();
+        hideBoss();
+        update(manager.getTick());
+        if (bossBar != null) {
+            bossBar.removeAll();
+            bossBar = null;
+        }
+    }
+
+    private void markDirty() {
+        if (!dirty) {
+            dirty = true;
+            manager.markDirty(this);
+        }
+    }
+
+    /**
+     * Mark the HUD dirty when the action bar has to be resent before it fades.
+     * Called by the {@link HudManager} at the tick that was scheduled when the action bar was sent.
+     *
+     * @param tick The current tick of the {@link HudManager}
+     */
+    void refresh(long tick) {
+        if (bar != null && tick - barSentTick >= BAR_DURATION) {
+            markDirty();
+        }
+    }
+
+    /**
+     * Send all the changes to the player.
+     *
+     * @param tick The current tick of the {@link HudManager}
+     */
+    void update(long tick) {
+        dirty = false;
+
+        if (bar != null) {
+            if (!bar.equals(shownBar) || tick - barSentTick >= BAR_DURATION) {
+                NMS.get().getChat().sendBar(bar, player);
+                shownBar = bar;
+                barSentTick = tick;
+                //Check the action bar again when it starts fading so it can be refreshed.
+                manager.scheduleRefresh(this, tick + BAR_DURATION);
+            }
+        }
+
+        boolean titleVisible = shownTitle != null && tick - titleSentTick < TITLE_DURATION;
+        if (titleClear) {
+            if (titleVisible) {
+                player.resetTitle();
+            }
+            shownTitle = null;
+            shownSubtitle = null;
+            titleClear = false;
+        } else if (titlePending) {
+            if (!titleVisible || !title.equals(shownTitle) || !subtitle.equals(shownSubtitle)) {
+                player.sendTitle(title, subtitle);
+                shownTitle = title;
+                shownSubtitle = subtitle;
+                titleSentTick = tick;
+            }
+            titlePending = false;
+        }
+
+        updateBoss();
+    }
+
+    private void updateBoss() {
+        if (bossBar == null) {
+            if (!bossVisible) {
+                return;
+            }
+            bossBar = Bukkit.createBossBar(bossTitle, bossColor, bossStyle);
+            bossBar.setProgress(bossProgress);
+            bossBar.addPlayer(player);
+            return;
+        }
+        if (bossBar.isVisible() != bossVisible) {
+            bossBar.setVisible(bossVisible);
+        }
+        if (!bossVisible) {
+            return;
+        }
+        if (!Objects.equal(bossBar.getTitle(), bossTitle)) {
+            bossBar.setTitle(bossTitle);
+        }
+        if (bossBar.getProgress() != bossProgress) {
+            bossBar.setProgress(bossProgress);
+        }
+        if (bossBar.getColor() != bossColor) {
+            bossBar.setColor(bossColor);
+        }
+        if (bossBar.getStyle() != bossStyle) {
+            bossBar.setStyle(bossStyle);
+        }
+    }
+}
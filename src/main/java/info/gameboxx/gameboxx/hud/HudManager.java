@@ -0,0 +1,149 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.hud;
+
+import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.config.PluginCfg;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Manages the {@link Hud} of all online players.
+ * <p/>
+ * Changes to a HUD are collected and sent at most once every update interval. (hud.interval in the config, in ticks)
+ * This way components that update a progress bar or action bar many times per tick only send the latest state once.
+ * HUDs without changes are only checked again when their action bar has to be refreshed.
+ */
+public class HudManager {
+
+    private final Map<UUID, Hud> huds = new HashMap<>();
+    private List<Hud> dirty = new ArrayList<>();
+    private final TreeMap<Long, List<Hud>> refreshes = new TreeMap<>();
+    private final long interval;
+    private long tick = 0;
+    private BukkitRunnable task;
+
+    public HudManager(GameBoxx gb, PluginCfg cfg) {
+        this.interval = Math.max(1, cfg.hud__interval);
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick += interval;
+                while (!refreshes.isEmpty() && refreshes.firstKey() <= tick) {
+                    for (Hud hud : refreshes.pollFirstEntry().getValue()) {
+                        hud.refresh(tick);
+                    }
+                }
+                update();
+            }
+        };
+        task.runTaskTimer(gb, interval, interval);
+    }
+
+    /**
+     * Get the {@link Hud} for the specified player.
+     * A new HUD is created when the player doesn't have one yet.
+     *
+     * @param player The player to get the HUD from.
+     * @return The {@link Hud} of the player.
+     */
+    public Hud get(Player player) {
+        Hud hud = huds.get(player.getUniqueId());
+        if (hud == null) {
+            hud = new Hud(this, player);
+            huds.put(player.getUniqueId(), hud);
+        }
+        return hud;
+    }
+
+    /**
+     * Remove the HUD of the specified player.
+     * Should be called when the player quits.
+     *
+     * @param player The player to remove the HUD from.
+     */
+    public void remove(Player player) {
+        Hud hud = huds.remove(player.getUniqueId());
+        if (hud != null) {
+            hud.clear();
+            dirty.remove(hud);
+            for (List<Hud> scheduled : refreshes.values()) {
+                scheduled.remove(hud);
+            }
+        }
+    }
+
+    /**
+     * Send all pending changes of all HUDs right away.
+     */
+    public void update() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Hud> updating = dirty;
+        dirty = new ArrayList<>();
+        for (Hud hud : updating) {
+            hud.update(tick);
+        }
+    }
+
+    /**
+     * Clear all HUDs and stop updating.
+     */
+    public void shutdown() {
+        task.cancel();
+        for (Hud hud : huds.values()) {
+            hud.clear();
+        }
+        huds.clear();
+        dirty.clear();
+        refreshes.clear();
+    }
+
+    void markDirty(Hud hud) {
+        dirty.add(hud);
+    }
+
+    void scheduleRefresh(Hud hud, long tick) {
+        List<Hud> scheduled = refreshes.get(tick);
+        if (scheduled == null) {
+            scheduled = new ArrayList<>();
+            refreshes.put(tick, scheduled);
+        }
+        scheduled.add(hud);
+    }
+
+    long getTick() {
+        return tick;
+    }
+}
@@ -25,6 +25,7 @@
 
 package info.gameboxx.gameboxx.listeners;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import info.gameboxx.gameboxx.GameBoxx;
 import info.gameboxx.gameboxx.system.points.concurrent.Loader;
 import info.gameboxx.gameboxx.system.points.concurrent.Saver;
@@ -35,22 +36,33 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
 public class MainListener implements Listener {
 
     private GameBoxx gb;
 
+    /** The points load of each online player per currency index, used to only save balances that have been loaded. */
+    private final Map<UUID, List<ListenableFuture<Void>>> loads = new HashMap<>();
+
     public MainListener(GameBoxx gb) {
         this.gb = gb;
     }
 
     @EventHandler
     public void on(PlayerJoinEvent event) {
+        User user = gb.getUM().join(event.getPlayer());
         if (gb.getCfg().sql) {
-            User user = new User(event.getPlayer());
-            gb.getUM().register(user);
+            List<ListenableFuture<Void>> futures = new ArrayList<>();
             for (Currency currency : Currency.values()) {
-                new Loader(user, currency).runTaskAsynchronously(gb);
+                futures.add(gb.getDB().submit("points.load", new Loader(user, currency)));
             }
+            loads.put(user.getUuid(), futures);
         }
     }
 
@@ -58,10 +70,30 @@ public class MainListener implements Listener {
     public void on(PlayerQuitEvent event) {
         if (gb.getCfg().sql) {
             User user = gb.getUM().getUser(event.getPlayer().getUniqueId());
+            List<ListenableFuture<Void>> futures = loads.remove(user.getUuid());
             for (Currency currency : Currency.values()) {
-                new Saver(user, currency).runTaskAsynchronously(gb);
+                //Saving a balance that never got loaded would overwrite the stored balance.
+                if (futures == null || !isLoaded(futures.get(currency.getIndex()))) {
+                    gb.warn("Not saving " + currency.getName() + " of " + user.getName() + " because the balance wasn't loaded!");
+                    continue;
+                }
+                gb.getDB().submit("points.save-user", new Saver(user, currency));
             }
         }
+        gb.getHud().remove(event.getPlayer());
+        gb.getUM().quit(event.getPlayer());
+    }
+
+    private static boolean isLoaded(ListenableFuture<Void> future) {
+        if (!future.isDone()) {
+            return false;
+        }
+        try {
+            future.get();
+            return true;
+        } catch (InterruptedException | ExecutionException e) {
+            return false;
+        }
     }
 
 }
@@ -0,0 +1,161 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.messages;
+
+import com.google.common.collect.ImmutableList;
+import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.nms.NMS;
+import info.gameboxx.gameboxx.nms.chat.Chat;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces broadcasted messages and sends them once per tick.
+ * <p/>
+ * Messages are written to the player connections without flushing and each connection is flushed once after all messages have been written.
+ * Consecutive broadcasts to the same audience are written together and only the last action bar message for an audience is sent as it would replace the others anyway.
+ * The serialized packets are cached by the {@link Chat} implementation so broadcasting the same message every second doesn't serialize it again.
+ * <p/>
+ * Use {@link Msg#broadcast(Collection)} and {@link Msg#broadcastBar(Collection)} instead of using this directly.
+ */
+public class Broadcaster {
+
+    private final GameBoxx gb;
+    private final Queue<Broadcast> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public Broadcaster(GameBoxx gb) {
+        this.gb = gb;
+    }
+
+    /**
+     * Queue a chat message for the specified players.
+     * The message will be sent at the end of the current tick.
+     *
+     * @param message The JSON or regular text message.
+     * @param players The players to send the message to.
+     */
+    public void broadcast(String message, Collection<? extends Player> players) {
+        queue(new Broadcast(message, false, players));
+    }
+
+    /**
+     * Queue an action bar message for the specified players.
+     * The message will be sent at the end of the current tick.
+     *
+     * @param message The JSON or regular text message.
+     * @param players The players to send the message to.
+     */
+    public void broadcastBar(String message, Collection<? extends Player> players) {
+        queue(new Broadcast(message, true, players));
+    }
+
+    private void queue(Broadcast broadcast) {
+        if (broadcast.players.isEmpty()) {
+            return;
+        }
+        queue.add(broadcast);
+        if (scheduled.compareAndSet(false, true)) {
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }.runTask(gb);
+        }
+    }
+
+    /**
+     * Send all queued messages right away.
+     * <p/>
+     * There is no need to call this as queued messages are flushed automatically each tick.
+     * Must be called on the main thread.
+     */
+    public void flush() {
+        scheduled.set(false);
+        Chat chat = NMS.get().getChat();
+        Set<Player> written = new LinkedHashSet<>();
+
+        List<Broadcast> group = new ArrayList<>();
+        Broadcast broadcast;
+        while ((broadcast = queue.poll()) != null) {
+            if (!group.isEmpty() && !group.get(0).players.equals(broadcast.players)) {
+                write(chat, group);
+                written.addAll(group.get(0).players);
+                group.clear();
+            }
+            group.add(broadcast);
+        }
+        if (!group.isEmpty()) {
+            write(chat, group);
+            written.addAll(group.get(0).players);
+        }
+
+        chat.flush(written);
+    }
+
+    /**
+     * Write a group of broadcasts with the same audience.
+     * Action bar messages followed by another action bar message are skipped.
+     */
+    private void write(Chat chat, List<Broadcast> group) {
+        Collection<Player> players = group.get(0).players;
+        int lastBar = -1;
+        for (int i = 0; i < group.size(); i++) {
+            if (group.get(i).bar) {
+                lastBar = i;
+            }
+        }
+        for (int i = 0; i < group.size(); i++) {
+            Broadcast broadcast = group.get(i);
+            if (!broadcast.bar || i == lastBar) {
+                chat.write(broadcast.message, broadcast.bar, players);
+            }
+        }
+    }
+
+
+    private static class Broadcast {
+        private final String message;
+        private final boolean bar;
+        private final List<Player> players;
+
+        private Broadcast(String message, boolean bar, Collection<? extends Player> players) {
+            this.message = message;
+            this.bar = bar;
+            this.players = ImmutableList.copyOf(players);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.messages;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.util.text.TextParser;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * The JSON form of a formatted message together with whether or not the JSON is valid.
+ * <p/>
+ * Parsed messages are cached by their formatted text so sending the same message again doesn't have to run the {@link TextParser} and validate the JSON again.
+ * Compiled messages without placeholders are parsed once by their {@link MsgTemplate}.
+ */
+class JsonMessage {
+
+    private static final int CACHE_SIZE = 2000;
+    private static final Cache<String, JsonMessage> cache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    private final String json;
+    private final boolean valid;
+
+    private JsonMessage(String json, boolean valid) {
+        this.json = json;
+        this.valid = valid;
+    }
+
+    /**
+     * Get the JSON for the specified formatted message.
+     * When the message hasn't been parsed before it will be parsed and validated.
+     * An error is logged once when the JSON is invalid.
+     *
+     * @param message The formatted message.
+     * @return The parsed JSON message.
+     */
+    static JsonMessage get(String message) {
+        JsonMessage json = cache.getIfPresent(message);
+        if (json == null) {
+            json = parse(message);
+            cache.put(message, json);
+        }
+        return json;
+    }
+
+    private static JsonMessage parse(String message) {
+        String json = new TextParser(message).getJSON();
+        if (json == null || json.isEmpty()) {
+            return new JsonMessage(json, false);
+        }
+        try {
+            new JSONParser().parse(json);
+            return new JsonMessage(json, true);
+        } catch (ParseException e) {
+            GameBoxx.get().error("Invalid JSON found for the message '" + message + "'! Error: " + e.getMessage());
+        } catch (Exception e) {
+        }
+        return new JsonMessage(json, false);
+    }
+
+    String getJSON() {
+        return json;
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+}
@@ -92,6 +92,27 @@ public enum Language {
         return null;
     }
 
+    /**
+     * Find the language for a Minecraft client locale like 'en_US' or 'nl_NL'.
+     * <p/>
+     * The language part of the locale is checked first and the country part is used when there is no language for it.
+     * For example 'cs_CZ' would give {@link #CZECH}
+     *
+     * @param locale The locale of the client.
+     * @return The {@link Language} for the locale or {@code null} when the language isn't supported.
+     */
+    public static Language fromLocale(String locale) {
+        if (locale == null || locale.isEmpty()) {
+            return null;
+        }
+        int split = locale.indexOf('_');
+        Language language = find(split < 0 ? locale : locale.substring(0, split));
+        if (language == null && split >= 0 && split + 1 < locale.length()) {
+            language = find(locale.substring(split + 1));
+        }
+        return language;
+    }
+
     public static List<String> getNames() {
         return NAMES;
     }
@@ -0,0 +1,150 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.messages;
+
+import info.gameboxx.gameboxx.GameBoxx;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * All messages for a single {@link Language} from all registered {@link MessageConfig}s.
+ * <p/>
+ * Bundles are loaded lazily the first time a message is requested for a language that isn't the server language.
+ * The English messages are used as fallback and merged in to one flat lookup so getting a message never has to check multiple maps.
+ * <p/>
+ * The templates are shared with other bundles when the message is the same. (See {@link MsgTemplate#of(String)})
+ * So messages that haven't been translated don't take up any extra memory.
+ */
+public class MessageBundle {
+
+    private static final ConcurrentMap<Language, MessageBundle> bundles = new ConcurrentHashMap<>();
+
+    private final Language language;
+    private final Map<String, MsgTemplate> templates;
+
+    private MessageBundle(Language language, Map<String, MsgTemplate> templates) {
+        this.language = language;
+        this.templates = templates;
+    }
+
+    /**
+     * Get the bundle for the specified language.
+     * The bundle will be loaded when it's not loaded yet.
+     *
+     * @param language The language to get the bundle for.
+     * @return The {@link MessageBundle} for the language.
+     */
+    public static MessageBundle get(Language language) {
+        MessageBundle bundle = bundles.get(language);
+        if (bundle == null) {
+            bundle = load(language);
+            MessageBundle existing = bundles.putIfAbsent(language, bundle);
+            if (existing != null) {
+                bundle = existing;
+            }
+        }
+        return bundle;
+    }
+
+    /**
+     * Unload all bundles so they get loaded again with the latest messages when they're used.
+     * This is called when messages are (re)loaded.
+     */
+    public static void invalidate() {
+        bundles.clear();
+    }
+
+    /**
+     * Unload the bundle for the specified language so it gets loaded again when it's used.
+     * This is called when a message file of a language that isn't loaded by a {@link MessageConfig} changes.
+     *
+     * @param language The language to unload the bundle for.
+     */
+    public static void invalidate(Language language) {
+        bundles.remove(language);
+    }
+
+    private static MessageBundle load(Language language) {
+        Map<String, MsgTemplate> templates = new HashMap<>();
+        int translated = 0;
+        for (MessageConfig config : MessageConfig.getConfigs()) {
+            put(templates, config.getMessages(Language.ENGLISH));
+            if (language != Language.ENGLISH) {
+                translated += put(templates, config.getMessages(language));
+            }
+        }
+        if (language != Language.ENGLISH && translated == 0) {
+            GameBoxx.get().warn("There are no messages for " + language.getName() + " [" + language.getID() + "], English messages will be used.");
+        }
+        return new MessageBundle(language, templates);
+    }
+
+    private static int put(Map<String, MsgTemplate> templates, Properties messages) {
+        if (messages == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Map.Entry<Object, Object> entry : messages.entrySet()) {
+            if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
+                templates.put((String)entry.getKey(), MsgTemplate.of((String)entry.getValue()));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the language of this bundle.
+     *
+     * @return The {@link Language} of the bundle.
+     */
+    public Language getLanguage() {
+        return language;
+    }
+
+    /**
+     * Get the message template for the specified key.
+     *
+     * @param key The key of the message.
+     * @return The {@link MsgTemplate} or {@code null} when there is no message with the key in this language or in English.
+     */
+    public MsgTemplate getTemplate(String key) {
+        return templates.get(key);
+    }
+
+    /**
+     * Get the amount of messages in this bundle.
+     *
+     * @return The amount of messages.
+     */
+    public int size() {
+        return templates.size();
+    }
+}
@@ -268,11 +268,21 @@ public class MessageConfig {
      * @return The {@link EProperties} config file.
      */
     private EProperties getConfigFromJar(String lang) {
+        return getConfigFromJar(lang, true);
+    }
+
+    /**
+     * @param warn When true a warning is logged when there is no file for the language in the jar.
+     * @see #getConfigFromJar(String)
+     */
+    private EProperties getConfigFromJar(String lang, boolean warn) {
         //Get the default file from the jar.
         String source = "messages/" + name + "_" + lang + ".properties";
         InputStream in = plugin.getResource(source);
         if (in == null) {
-            gb.warn("Language file '" + source + "' not found! Either a corrupt jar or " + plugin.getName() + " doesn't support the language '" + lang + "'!");
+            if (warn) {
+                gb.warn("Language file '" + source + "' not found! Either a corrupt jar or " + plugin.getName() + " doesn't support the language '" + lang + "'!");
+            }
             return null;
         }
 
@@ -349,32 +359,134 @@ public class MessageConfig {
      * Cache all the messages from this config in {@link Msg}
      * <p/>
      * The {@link Msg#setMessages(Map)} will be called with all the messages from this config.
-     * It will first set the fallback messages and then overwrite them with the messages from this config.
+     * It will first add the fallback messages and then overwrite them with the messages from this config.
+     * All messages are set with a single call so other threads never see a partially loaded config.
      */
     public void cacheMessages() {
+        MessageBundle.invalidate();
+        Map<String, String> messages = new HashMap<>();
         if (fallback != null && fallback.getConfig() != null) {
-            cacheMessages(true);
+            collectMessages(fallback.getConfig(), messages);
         }
-        cacheMessages(false);
+        collectMessages(getConfig(), messages);
+        Msg.setMessages(messages);
     }
 
     /**
+     * Put all the messages from the specified config in the map.
+     * The messages are collected first so {@link Msg#setMessages(Map)} can swap them in all at once.
+     *
      * @see #cacheMessages()
      */
-    private void cacheMessages(boolean fallback) {
-        Properties config = getConfig();
-        if (fallback) {
-            config = this.fallback.getConfig();
-        }
+    private void collectMessages(Properties config, Map<String, String> messages) {
         if (config == null) {
             return;
         }
-
         for (Map.Entry<Object, Object> entry : config.entrySet()) {
             if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
-                Msg.setMessage((String)entry.getKey(), (String)entry.getValue());
+                messages.put((String)entry.getKey(), (String)entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Read the message file from disk and get all messages that have been added or changed since the file was loaded.
+     * <p/>
+     * Messages that have been removed from the file are ignored and keep their current value.
+     * This only reads the file and doesn't change anything so it's safe to call this asynchronously.
+     * Use {@link #applyChanges(Map)} on the main thread to apply the changes.
+     *
+     * @return Map with the changed messages by key or {@code null} when the file could not be read.
+     */
+    public Map<String, String> readChanges() {
+        EProperties current = config;
+        if (current == null || file == null || !file.exists()) {
+            return null;
+        }
+
+        EProperties updated = new EProperties();
+        try (InputStream in = new FileInputStream(file)) {
+            updated.load(in);
+        } catch (Exception e) {
+            gb.error("An error occurred trying to load the language file '" + file.getAbsolutePath() + "'!");
+            gb.error(e.getMessage());
+            return null;
+        }
+
+        Map<String, String> changes = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : updated.entrySet()) {
+            if (entry.getKey() instanceof String && entry.getValue() instanceof String && !entry.getValue().equals(current.getProperty((String)entry.getKey()))) {
+                changes.put((String)entry.getKey(), (String)entry.getValue());
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Apply messages that have been changed on disk without reloading the whole config.
+     * <p/>
+     * Only the changed messages are compiled and they are swapped in to {@link Msg} all at once.
+     * The file is not saved and the changelog is not loaded again like {@link #loadFull()} does.
+     * <p/>
+     * Must be called on the main thread.
+     *
+     * @param changes The changed messages from {@link #readChanges()}
+     */
+    public void applyChanges(Map<String, String> changes) {
+        if (config == null || changes.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : changes.entrySet()) {
+            config.setProperty(entry.getKey(), entry.getValue());
+        }
+        String versionKey = name.toUpperCase() + VERSION_KEY;
+        if (changes.containsKey(versionKey)) {
+            Integer version = Parse.Int(changes.get(versionKey).trim());
+            if (version != null) {
+                this.version = version;
+            }
+        }
+
+        //The fallback messages are only used for other languages as the loaded config contains all keys.
+        if (configs.contains(this)) {
+            Msg.updateMessages(changes);
+        }
+        MessageBundle.invalidate();
+    }
+
+    /**
+     * Get the messages of this config for the specified language without changing the loaded language.
+     * <p/>
+     * For the loaded language and the English fallback the messages in memory are returned.
+     * Other languages are read from the language file on disk or from the jar when there is no file yet.
+     * Nothing will be saved so players using a different language than the server don't create any files.
+     * <p/>
+     * This is used by {@link MessageBundle} to load messages for players with a different language.
+     *
+     * @param language The language to get the messages for.
+     * @return Properties with the messages or {@code null} when this config doesn't have messages for the language.
+     */
+    public Properties getMessages(Language language) {
+        if (language == loadedLanguage) {
+            return config;
+        }
+        if (fallback != null && language == fallback.getLanguage()) {
+            return fallback.getConfig();
+        }
+
+        File file = new File(new File(new File(plugin.getDataFolder(), "messages"), language.getID()), name + "_" + language.getID() + ".properties");
+        if (file.exists()) {
+            EProperties messages = new EProperties();
+            try (InputStream in = new FileInputStream(file)) {
+                messages.load(in);
+                return messages;
+            } catch (Exception e) {
+                gb.error("An error occurred trying to load the language file '" + file.getAbsolutePath() + "'!");
+                gb.error(e.getMessage());
+                return null;
             }
         }
+        return getConfigFromJar(language.getID(), false);
     }
 
     /**
@@ -587,7 +699,9 @@ public class MessageConfig {
 
         config.setProperty(name.toUpperCase() + VERSION_KEY, Integer.toString(version));
         save();
-        cacheMessages(false);
+        Map<String, String> messages = new HashMap<>();
+        collectMessages(getConfig(), messages);
+        Msg.setMessages(messages);
     }
 
 
@@ -0,0 +1,184 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.messages;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import info.gameboxx.gameboxx.GameBoxx;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the message folders of all registered {@link MessageConfig}s and applies edited messages while the server is running.
+ * <p/>
+ * When a message file changes only that file is read again and only the messages that changed are compiled.
+ * The changes are applied on the main thread with {@link MessageConfig#applyChanges(Map)} which swaps them in all at once.
+ * Files for languages that aren't loaded by a config only unload the {@link MessageBundle} for that language.
+ * <p/>
+ * Can be disabled with 'messages.watch' in the config.
+ */
+public class MessageWatcher implements Runnable {
+
+    /** Time to wait for more events after a change as editors often write a file in multiple steps. */
+    private static final long SETTLE_DELAY = 100;
+
+    private final GameBoxx gb;
+    private final WatchService watcher;
+    private final Map<WatchKey, Path> folders = new HashMap<>();
+    private final Thread thread;
+
+    /**
+     * Start watching the message folders of all registered message configs.
+     * Configs registered after this will not be watched.
+     *
+     * @param gb The plugin used to schedule the changes on the main thread.
+     * @throws IOException When the file system doesn't support watching folders.
+     */
+    public MessageWatcher(GameBoxx gb) throws IOException {
+        this.gb = gb;
+        watcher = FileSystems.getDefault().newWatchService();
+
+        Set<File> dirs = new LinkedHashSet<>();
+        for (MessageConfig config : MessageConfig.getConfigs()) {
+            File[] languageDirs = new File(config.getPlugin().getDataFolder(), "messages").listFiles();
+            if (languageDirs == null) {
+                continue;
+            }
+            for (File dir : languageDirs) {
+                if (dir.isDirectory()) {
+                    dirs.add(dir.getAbsoluteFile());
+                }
+            }
+        }
+        for (File dir : dirs) {
+            Path path = dir.toPath();
+            folders.put(path.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY), path);
+        }
+
+        thread = new ThreadFactoryBuilder().setNameFormat("GameBoxx-MessageWatcher").setDaemon(true).build().newThread(this);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watcher.take(), changed);
+
+                WatchKey key;
+                while ((key = watcher.poll(SETTLE_DELAY, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+
+                for (Path file : changed) {
+                    reload(file);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            //Stopped by close()
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path folder = folders.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (folder == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+            Path file = folder.resolve((Path)event.context());
+            if (file.getFileName().toString().endsWith(".properties")) {
+                changed.add(file);
+            }
+        }
+        key.reset();
+    }
+
+    private void reload(Path path) {
+        File file = path.toFile();
+        for (final MessageConfig config : getConfigs()) {
+            if (config.getFile() == null || !file.equals(config.getFile().getAbsoluteFile())) {
+                continue;
+            }
+            final Map<String, String> changes = config.readChanges();
+            if (changes == null || changes.isEmpty()) {
+                return;
+            }
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    config.applyChanges(changes);
+                    gb.log("Reloaded " + changes.size() + " message(s) from " + config.getFile().getName() + "!");
+                }
+            }.runTask(gb);
+            return;
+        }
+
+        Language language = Language.find(path.getParent().getFileName().toString());
+        if (language != null) {
+            MessageBundle.invalidate(language);
+        }
+    }
+
+    /** Get all registered configs and their fallback configs. */
+    private List<MessageConfig> getConfigs() {
+        List<MessageConfig> configs = new ArrayList<>();
+        for (MessageConfig config : MessageConfig.getConfigs()) {
+            configs.add(config);
+            if (config.getFallback() != null) {
+                configs.add(config.getFallback());
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * Stop watching the message folders.
+     */
+    public void close() {
+        thread.interrupt();
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            gb.error("Failed to close the message file watcher: " + e.getMessage());
+        }
+    }
+}
@@ -32,10 +32,10 @@ import info.gameboxx.gameboxx.util.text.TextAction;
 import info.gameboxx.gameboxx.util.text.TextParser;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
+import org.json.simple.JSONValue;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -45,6 +45,7 @@ import java.util.Map;
  * <p/>
  * <p>The proper usage of this is to use the static {@link Msg#get(String, Param...)}.
  * Which will give you the {@link Msg} instance.
+ * Use {@link Msg#get(CommandSender, String, Param...)} to get the message in the language of a player. (see {@link MessageBundle})
  * You can then apply more formatting or display it using the display methods.
  * <b>By default it already colors messages!</b>
  * <p/>
@@ -67,6 +68,7 @@ import java.util.Map;
  * <p/>
  * <p>JSON Messages are cached within the {@link Msg} instance.
  * This means you can not format a JSON message after displaying it unless you manually call {@link #toJSON()}.
+ * The JSON and whether or not it's valid is also cached per formatted message so sending the same message multiple times only parses and validates it once.
  * <p/>
  * <p><b>Placeholders</b>
  * TODO: IMPLEMENT
@@ -74,20 +76,23 @@ import java.util.Map;
  * <p><b>Displaying</b>
  * Messages can be sent to a player or multiple players with {@link #send(Player...)}
  * Messages can be sent to the action bar too with {@link #sendBar(Player...)}
+ * Messages for many players at once can be broadcasted with {@link #broadcast(Collection)} which coalesces the sends per tick.
+ * For action bars, titles and boss bars that update frequently use the {@link info.gameboxx.gameboxx.hud.Hud} of the player instead.
  * You can also just use {@link #get()}, {@link #getRaw()}, {@link #getOriginal()} or {@link Msg#getString(String, Param...)} to get the message string and display it manually.
  */
 public class Msg {
 
-    private static Map<String, String> messages = new HashMap<>();
+    private static volatile Map<String, MsgTemplate> templates = new HashMap<>();
+    private static volatile int revision = 0;
 
     /** The message used when there is no message found for the specified message key. */
     public static final String UNDEFINED = "&c&nundefined";
-    private static final char PARAM_OPEN = '<';
-    private static final char PARAM_CLOSE = '>';
+    private static final MsgTemplate UNDEFINED_TEMPLATE = new MsgTemplate(UNDEFINED);
 
     private String original;
     private String message;
     private String json;
+    private Boolean validJSON;
 
     /**
      * Construct a new message with the specified string message.
@@ -109,10 +114,11 @@ public class Msg {
     /**
      * Used for cloning.
      */
-    private Msg(String original, String message, String json) {
+    private Msg(String original, String message, String json, Boolean validJSON) {
         this.original = original;
         this.message = message;
         this.json = json;
+        this.validJSON = validJSON;
     }
 
     //region Formatting
@@ -128,7 +134,7 @@ public class Msg {
      * @return This msg instance.
      */
     public Msg clr() {
-        message = Str.color(message);
+        update(Str.color(message));
         return this;
     }
 
@@ -140,7 +146,7 @@ public class Msg {
      * @return This msg instance.
      */
     public Msg removeClr() {
-        message = Str.replaceColor(message);
+        update(Str.replaceColor(message));
         return this;
     }
 
@@ -152,7 +158,7 @@ public class Msg {
      * @return This msg instance.
      */
     public Msg stripClr() {
-        message = Str.stripColor(message);
+        update(Str.stripColor(message));
         return this;
     }
 
@@ -167,7 +173,7 @@ public class Msg {
      * @return This msg instance.
      */
     public Msg wrap(int length) {
-        message = Str.wrapString(message, length);
+        update(Str.wrapString(message, length));
         return this;
     }
 
@@ -182,7 +188,7 @@ public class Msg {
      * @return This msg instance.
      */
     public Msg wrapExact(int length) {
-        message = Str.wrapStringExact(message, length);
+        update(Str.wrapStringExact(message, length));
         return this;
     }
 
@@ -193,7 +199,7 @@ public class Msg {
      * @return This msg instance.
      */
     public Msg capitalize() {
-        message = Str.capitalize(message);
+        update(Str.capitalize(message));
         return this;
     }
 
@@ -204,7 +210,7 @@ public class Msg {
      * @return This msg instance.
      */
     public Msg upper() {
-        message = message.toUpperCase();
+        update(message.toUpperCase());
         return this;
     }
 
@@ -215,7 +221,7 @@ public class Msg {
      * @return This msg instance.
      */
     public Msg lower() {
-        message = message.toLowerCase();
+        update(message.toLowerCase());
         return this;
     }
 
@@ -229,6 +235,8 @@ public class Msg {
      * <p><b>No need to call this for messages from {@link Msg#get(String, Param...)} as that already replaces the specified params using this method</b>
      * <p>It does not affect JSON messages unless used before parsing to JSON.
      * <p/>
+     * <p>Messages from a {@link MessageConfig} are compiled to a {@link MsgTemplate} so those are replaced in a single pass.
+     * <p/>
      * <p>It supports capitalization for parameters too.
      * For example if you put &lt;Name&gt; it would be replaced with Rojoss and if you put &lt;NAME&gt; it would be ROJOSS.
      * Lowercase parameter names will use the value provided in the parameter.
@@ -240,22 +248,28 @@ public class Msg {
      * @see Param
      */
     public Msg params(Param... params) {
-        if (!message.contains(Character.toString(PARAM_OPEN)) || !message.contains(Character.toString(PARAM_CLOSE))) {
-            return this;
-        }
         if (message == null) {
             message = original;
         }
-        for (Param param : params) {
-            message = message.replace(PARAM_OPEN + param.getParam().toLowerCase() + PARAM_CLOSE, param.toString());
-            message = message.replace(PARAM_OPEN + "_" + param.getParam().toLowerCase() + PARAM_CLOSE, param.toString().toLowerCase());
-            message = message.replace(PARAM_OPEN + param.getParam().toUpperCase() + PARAM_CLOSE, param.toString().toUpperCase());
-            message = message.replace(PARAM_OPEN + Str.capitalize(param.getParam().toLowerCase()) + PARAM_CLOSE, Str.capitalize(param.toString()));
-        }
-        message = message.replace("<p>", Msg.getRaw("prefix").message);
+        update(MsgTemplate.format(message, params));
         return this;
     }
 
+    /**
+     * Change the formatted message.
+     * <p/>
+     * <p>The cached JSON belongs to the previous message so it's cleared when the message changes.
+     *
+     * @param message The new formatted message.
+     */
+    private void update(String message) {
+        if (!message.equals(this.message)) {
+            this.message = message;
+            json = null;
+            validJSON = null;
+        }
+    }
+
     //TODO: Placeholder/variable replacement
 
     /**
@@ -277,7 +291,9 @@ public class Msg {
      * @return This msg instance.
      */
     public Msg toJSON() {
-        json = new TextParser(message).getJSON();
+        JsonMessage parsed = JsonMessage.get(message);
+        json = parsed.getJSON();
+        validJSON = parsed.isValid();
         return this;
     }
     //endregion
@@ -440,29 +456,55 @@ public class Msg {
         }
     }
 
+    /**
+     * Broadcast the JSON formatted message to the specified collection of {@link Player}s.
+     * <p/>
+     * <p>Unlike {@link #send(Collection)} the message isn't sent right away.
+     * It's queued in the {@link Broadcaster} and sent at the end of the tick together with other broadcasts.
+     * Use this for messages that are sent to many players at once like countdowns.
+     * <p/>
+     * <p>If the JSON is invalid the raw message is broadcasted instead, it's still queued so it keeps its order with the other broadcasts.
+     *
+     * @param players Collection with players to broadcast the message to.
+     */
+    public void broadcast(Collection<? extends Player> players) {
+        GameBoxx.get().getBroadcaster().broadcast(isValidJSON() ? json : getRawJSON(), players);
+    }
+
+    /**
+     * Broadcast the JSON formatted message to the specified collection of {@link Player}s their action bar. (above hotbar)
+     * <p/>
+     * <p>Like {@link #broadcast(Collection)} the message is sent at the end of the tick.
+     * When multiple action bar messages are broadcasted to the same players within a tick only the last one is sent.
+     *
+     * @param players Collection with players to broadcast the action bar message to.
+     */
+    public void broadcastBar(Collection<? extends Player> players) {
+        GameBoxx.get().getBroadcaster().broadcastBar(isValidJSON() ? json : getRawJSON(), players);
+    }
+
+    /** The raw message as a plain JSON text component so it can't be mistaken for JSON markup when it's broadcasted. */
+    private String getRawJSON() {
+        return "{\"text\":\"" + JSONValue.escape(message) + "\"}";
+    }
+
     /**
      * Checks whether or not the message has been parsed to JSON and if the JSON is invalid.
      * <p/>
      * <p>This is mainly used for the send methods to check whether to send a JSON message or regular message.
      * <p/>
-     * <p>If there is a JSON message but it's invalid an error will be sent to the console!
+     * <p>If there is a JSON message but it's invalid an error will be sent to the console once!
      * It will fallback to regular messages when the JSON fails for display methods.
+     * <p/>
+     * <p>The validation result is cached so this is cheap to call for every send.
      *
      * @return True when there is a valid JSON message and false if not.
      */
     public boolean isValidJSON() {
-        if (json == null || json.isEmpty()) {
+        if (validJSON == null) {
             toJSON();
         }
-        try {
-            JSONParser parser = new JSONParser();
-            parser.parse(json);
-            return true;
-        } catch (ParseException e) {
-            GameBoxx.get().error("Invalid JSON found for the message '" + original + "'! Error: " + e.getMessage());
-        } catch (Exception e) {
-        }
-        return false;
+        return validJSON;
     }
 
     //TODO: Send to title
@@ -533,12 +575,47 @@ public class Msg {
      * @param key The key of the message to retrieve.
      * @return The raw message or {@link #UNDEFINED} when there is no message with the specified key.
      */
-    private static Msg getRaw(String key) {
-        String msg = messages.get(key);
-        if (msg != null) {
-            return new Msg(msg);
+    private static MsgTemplate getTemplate(String key) {
+        MsgTemplate template = templates.get(key);
+        return template == null ? UNDEFINED_TEMPLATE : template;
+    }
+
+    /**
+     * Get the message template for the specified key in the language of the specified sender.
+     * When the sender uses the server language or an unsupported language the server messages are used.
+     */
+    private static MsgTemplate getTemplate(CommandSender sender, String key) {
+        Language language = getLanguage(sender);
+        if (language == null || language == GameBoxx.get().getLanguage()) {
+            return getTemplate(key);
+        }
+        MsgTemplate template = MessageBundle.get(language).getTemplate(key);
+        return template == null ? UNDEFINED_TEMPLATE : template;
+    }
+
+    /**
+     * Get the language of the specified sender.
+     * <p/>
+     * For players this is the language of their client locale.
+     * For the console and other senders this is {@code null} which means the server language is used.
+     *
+     * @param sender The sender to get the language from.
+     * @return The {@link Language} of the sender or {@code null} when it's not supported or not a player.
+     */
+    public static Language getLanguage(CommandSender sender) {
+        if (!(sender instanceof Player)) {
+            return null;
         }
-        return new Msg(UNDEFINED);
+        return Language.fromLocale(((Player)sender).spigot().getLocale());
+    }
+
+    /**
+     * Get the colored prefix used for the &lt;p&gt; parameter.
+     *
+     * @return The colored prefix message.
+     */
+    static String getPrefix() {
+        return getTemplate("prefix").getText();
     }
 
     /**
@@ -554,7 +631,31 @@ public class Msg {
      * @return {@link Msg} instance with the message at the specified key or {@link #UNDEFINED} when there is no message with the specified key.
      */
     public static Msg get(String key, Param... params) {
-        return getRaw(key).params(params);
+        return create(getTemplate(key), params);
+    }
+
+    /**
+     * Get the message for the specified key in the language of the specified sender.
+     * <p/>
+     * <p>Players get the message in the language of their client when it's available.
+     * Messages that haven't been translated fall back to English.
+     * See {@link #get(String, Param...)} for details.
+     *
+     * @param sender The sender that will receive the message.
+     * @param key The key of the message to retrieve.
+     * @param params optional list of parameters to replace in the message.
+     * @return {@link Msg} instance with the message at the specified key or {@link #UNDEFINED} when there is no message with the specified key.
+     */
+    public static Msg get(CommandSender sender, String key, Param... params) {
+        return create(getTemplate(sender, key), params);
+    }
+
+    private static Msg create(MsgTemplate template, Param... params) {
+        JsonMessage json = template.getJSON();
+        if (json != null) {
+            return new Msg(template.getSource(), template.getText(), json.getJSON(), json.isValid());
+        }
+        return new Msg(template.getSource(), template.render(params), null, null);
     }
 
     /**
@@ -574,14 +675,29 @@ public class Msg {
      * @return {@link String} with the message at the specified key or {@link #UNDEFINED} when there is no message with the specified key.
      */
     public static String getString(String key, Param... params) {
-        String msg = messages.get(key);
-        if (msg != null) {
-            return new Msg(msg).params(params).getRaw();
+        MsgTemplate template = templates.get(key);
+        if (template != null) {
+            return template.render(params);
         } else {
             return UNDEFINED;
         }
     }
 
+    /**
+     * Get the message for the specified key in the language of the specified sender as a {@link String}.
+     * <p/>
+     * See {@link #getString(String, Param...)} and {@link #get(CommandSender, String, Param...)} for details.
+     *
+     * @param sender The sender that will receive the message.
+     * @param key The key of the message to retrieve.
+     * @param params optional list of parameters to replace in the message.
+     * @return {@link String} with the message at the specified key or {@link #UNDEFINED} when there is no message with the specified key.
+     */
+    public static String getString(CommandSender sender, String key, Param... params) {
+        MsgTemplate template = getTemplate(sender, key);
+        return template == UNDEFINED_TEMPLATE ? UNDEFINED : template.render(params);
+    }
+
     /**
      * Get a new {@link Msg} with the specified text.
      * <p/>
@@ -613,16 +729,21 @@ public class Msg {
      * It gets called when registering a {@link MessageConfig}, when loading/reloading a message config and when updating a message config.
      * Also, when the language gets changed all messages from all configs will be updated.
      *
+     * <p/>
+     * All messages are swapped in at once, see {@link #updateMessages(Map)}.
+     *
      * @param messages The map with messages to set. Where the key is the key for the message and the value is the message itself.
      */
     public static void setMessages(Map<String, String> messages) {
-        messages.putAll(messages);
+        updateMessages(messages);
     }
 
     /**
      * Set/update the specified message.
      * When a message with the same key is already registered it will be overwritten!
      * <p/>
+     * The message is compiled to a {@link MsgTemplate} right away so it doesn't have to be colored and parsed every time it's used.
+     * <p/>
      * There should be no need to call this as the API already does this internally.
      * It gets called when registering a {@link MessageConfig}, when loading/reloading a message config and when updating a message config.
      * Also, when the language gets changed all messages from all configs will be updated.
@@ -631,7 +752,38 @@ public class Msg {
      * @param message The message itself.
      */
     public static void setMessage(String key, String message) {
-        messages.put(key, message);
+        updateMessages(Collections.singletonMap(key, message));
+    }
+
+    /**
+     * Replace the specified messages all at once.
+     * <p/>
+     * The messages are compiled first and then swapped in with a single write.
+     * This way messages that are used while updating never see a partially updated set of messages.
+     * Updates are synchronized so concurrent updates can't overwrite each other.
+     * Used by {@link MessageConfig#applyChanges(Map)} when message files are edited while the server is running.
+     *
+     * @param messages The map with messages to update. Where the key is the key for the message and the value is the message itself.
+     */
+    static synchronized void updateMessages(Map<String, String> messages) {
+        Map<String, MsgTemplate> updated = new HashMap<>(templates);
+        for (Map.Entry<String, String> entry : messages.entrySet()) {
+            updated.put(entry.getKey(), MsgTemplate.of(entry.getValue()));
+        }
+        templates = updated;
+        revision++;
+    }
+
+    /**
+     * Get the revision of the messages.
+     * The revision changes every time a message is set or updated.
+     * <p/>
+     * Use this to invalidate text that has been rendered with messages like the cached help of commands.
+     *
+     * @return The current revision of the messages.
+     */
+    public static int getRevision() {
+        return revision;
     }
     //endregion
 
@@ -642,6 +794,6 @@ public class Msg {
      */
     @Override
     public Msg clone() {
-        return new Msg(original, message, json);
+        return new Msg(original, message, json, validJSON);
     }
 }
@@ -0,0 +1,278 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.messages;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import info.gameboxx.gameboxx.util.Str;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message that has been compiled into literal parts and parameter placeholders.
+ * <p/>
+ * Messages from a {@link MessageConfig} are compiled once when they are cached.
+ * Colors are applied during compilation so rendering the message with {@link #render(Param...)} only has to append the parts to a single {@link StringBuilder}.
+ * <p/>
+ * The placeholder syntax is the same as described in {@link Msg#params(Param...)}.
+ * Placeholders without a matching {@link Param} are kept as they are, except for &lt;p&gt; which is replaced with the prefix.
+ */
+public class MsgTemplate {
+
+    private static final char PARAM_OPEN = '<';
+    private static final char PARAM_CLOSE = '>';
+    private static final String PREFIX_PARAM = "p";
+
+    /** All templates that are in use by their source so identical messages in different languages share the same template. */
+    private static final Cache<String, MsgTemplate> pool = CacheBuilder.newBuilder().weakValues().build();
+
+    private final String source;
+    private final String text;
+    private final Object[] parts;
+    private final int literalLength;
+    private JsonMessage json;
+
+    /**
+     * Compile the specified message.
+     * The message will be colored using {@link Str#color(String)}
+     * <p/>
+     * The JSON form of messages without placeholders is parsed and validated right away so invalid messages are reported on load.
+     * Messages with placeholders are parsed per rendered message so those are not parsed here.
+     *
+     * @param source The message with color codes and placeholders.
+     */
+    public MsgTemplate(String source) {
+        this(source, Str.color(source));
+        if (!hasPlaceholders()) {
+            this.json = JsonMessage.get(text);
+        }
+    }
+
+    private MsgTemplate(String source, String text) {
+        this.source = source;
+        this.text = text;
+
+        List<Object> parts = new ArrayList<>();
+        int length = 0;
+        int literalStart = 0;
+        int open = text.indexOf(PARAM_OPEN);
+        while (open >= 0) {
+            int close = text.indexOf(PARAM_CLOSE, open + 1);
+            if (close < 0) {
+                break;
+            }
+            int nextOpen = text.indexOf(PARAM_OPEN, open + 1);
+            if (nextOpen >= 0 && nextOpen < close) {
+                open = nextOpen;
+                continue;
+            }
+            Placeholder placeholder = Placeholder.parse(text.substring(open, close + 1));
+            if (placeholder != null) {
+                if (open > literalStart) {
+                    parts.add(text.substring(literalStart, open));
+                    length += open - literalStart;
+                }
+                parts.add(placeholder);
+                literalStart = close + 1;
+            }
+            open = text.indexOf(PARAM_OPEN, close + 1);
+        }
+        if (literalStart < text.length()) {
+            parts.add(literalStart == 0 ? text : text.substring(literalStart));
+            length += text.length() - literalStart;
+        }
+
+        this.parts = parts.toArray();
+        this.literalLength = length;
+    }
+
+    /**
+     * Get the compiled template for the specified message.
+     * <p/>
+     * When a template for the same message is already in use that template is returned.
+     * This way messages that are the same in multiple languages are only compiled and stored once.
+     *
+     * @param source The message with color codes and placeholders.
+     * @return The compiled {@link MsgTemplate}
+     */
+    public static MsgTemplate of(String source) {
+        MsgTemplate template = pool.getIfPresent(source);
+        if (template == null) {
+            template = new MsgTemplate(source);
+            pool.put(source, template);
+        }
+        return template;
+    }
+
+    /**
+     * Replace the placeholders in the specified text with the parameters in a single pass.
+     * <p/>
+     * Unlike {@link #MsgTemplate(String)} this does not color the text.
+     * Use this for text that isn't cached like messages that have been formatted already.
+     *
+     * @param text The text with placeholders.
+     * @param params The parameters to replace.
+     * @return The text with all placeholders replaced.
+     */
+    public static String format(String text, Param... params) {
+        if (text.indexOf(PARAM_OPEN) < 0) {
+            return text;
+        }
+        return new MsgTemplate(text, text).render(params);
+    }
+
+    /**
+     * Render the message by replacing all placeholders with the specified parameters.
+     *
+     * @param params The parameters to replace. See {@link Msg#params(Param...)} for details.
+     * @return The rendered message.
+     */
+    public String render(Param... params) {
+        if (parts.length == 1 && parts[0] instanceof String) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(literalLength + 16 * parts.length);
+        for (Object part : parts) {
+            if (part instanceof String) {
+                sb.append((String)part);
+            } else {
+                ((Placeholder)part).append(sb, params);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Get the original message without colors applied.
+     *
+     * @return The original message.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Get the colored message with the raw placeholders.
+     *
+     * @return The colored message.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the parsed JSON for messages without placeholders.
+     * Messages with placeholders are parsed per rendered message.
+     *
+     * @return The parsed JSON or {@code null} when the message has placeholders.
+     */
+    JsonMessage getJSON() {
+        return json;
+    }
+
+    /**
+     * Check whether or not the message has any placeholders.
+     *
+     * @return True when the message has at least one placeholder.
+     */
+    public boolean hasPlaceholders() {
+        return parts.length > 1 || (parts.length == 1 && !(parts[0] instanceof String));
+    }
+
+
+    private enum Case {
+        RAW,
+        LOWER,
+        UPPER,
+        CAPITALIZE
+    }
+
+    private static class Placeholder {
+        private final String name;
+        private final String raw;
+        private final Case mode;
+
+        private Placeholder(String name, String raw, Case mode) {
+            this.name = name;
+            this.raw = raw;
+            this.mode = mode;
+        }
+
+        /**
+         * Parse a placeholder including the angle brackets.
+         * Returns {@code null} when the casing doesn't match any of the supported case modes.
+         */
+        private static Placeholder parse(String raw) {
+            String key = raw.substring(1, raw.length() - 1);
+            if (key.isEmpty()) {
+                return null;
+            }
+            String lower = key.toLowerCase();
+            if (key.length() > 1 && key.charAt(0) == '_' && key.equals(lower)) {
+                return new Placeholder(key.substring(1), raw, Case.LOWER);
+            }
+            if (key.equals(lower)) {
+                return new Placeholder(lower, raw, Case.RAW);
+            }
+            if (key.equals(key.toUpperCase())) {
+                return new Placeholder(lower, raw, Case.UPPER);
+            }
+            if (key.equals(Str.capitalize(lower))) {
+                return new Placeholder(lower, raw, Case.CAPITALIZE);
+            }
+            return null;
+        }
+
+        private void append(StringBuilder sb, Param[] params) {
+            for (Param param : params) {
+                if (!param.getParam().equalsIgnoreCase(name)) {
+                    continue;
+                }
+                String value = param.toString();
+                switch (mode) {
+                    case LOWER:
+                        sb.append(value.toLowerCase());
+                        break;
+                    case UPPER:
+                        sb.append(value.toUpperCase());
+                        break;
+                    case CAPITALIZE:
+                        sb.append(Str.capitalize(value));
+                        break;
+                    default:
+                        sb.append(value);
+                }
+                return;
+            }
+            if (mode == Case.RAW && name.equals(PREFIX_PARAM)) {
+                sb.append(Msg.getPrefix());
+                return;
+            }
+            sb.append(raw);
+        }
+    }
+}
@@ -91,4 +91,27 @@ public interface Chat {
      * @return Chat instance
      */
     Chat sendBar(String message, Collection<? extends Player> players);
+
+    /**
+     * Write the message for the players without sending it yet.
+     * <p/>
+     * Use {@link #flush(Collection)} after writing all messages to actually send them.
+     * This way multiple messages to the same players are sent together and each connection is only flushed once.
+     * The chat visibility from the client settings of the players is respected just like with the send methods.
+     *
+     * @param message The message to write. Like the send methods this can be JSON or a regular text message.
+     * @param bar When true the message will be written to the action bar instead of chat.
+     * @param players The players to write the message to.
+     * @return Chat instance
+     */
+    Chat write(String message, boolean bar, Collection<? extends Player> players);
+
+    /**
+     * Send all messages that have been written with {@link #write(String, boolean, Collection)} to the players.
+     * The messages are sent in the order they have been written.
+     *
+     * @param players The players to flush the connection of.
+     * @return Chat instance
+     */
+    Chat flush(Collection<? extends Player> players);
 }
@@ -25,38 +25,57 @@
 
 package info.gameboxx.gameboxx.nms.chat;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import info.gameboxx.gameboxx.nms.util.NMSUtil_V1_10_R1;
+import net.minecraft.server.v1_10_R1.EntityHuman;
+import net.minecraft.server.v1_10_R1.IChatBaseComponent;
+import net.minecraft.server.v1_10_R1.Packet;
 import net.minecraft.server.v1_10_R1.PacketPlayOutChat;
+import org.bukkit.craftbukkit.v1_10_R1.entity.CraftPlayer;
+import org.bukkit.craftbukkit.v1_10_R1.util.CraftChatMessage;
 import org.bukkit.entity.Player;
 import org.json.simple.JSONValue;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class Chat_V1_10_R1 implements Chat {
 
+    private static final int PACKET_CACHE_SIZE = 256;
+    private static final byte CHAT = 0;
+    private static final byte SYSTEM = 1;
+    private static final byte BAR = 2;
+
+    /** Serialized packets by message, the same packet can be sent to any amount of players. */
+    private final Cache<String, PacketPlayOutChat[]> chatPackets = CacheBuilder.newBuilder().maximumSize(PACKET_CACHE_SIZE).build();
+    private final Cache<String, PacketPlayOutChat[]> barPackets = CacheBuilder.newBuilder().maximumSize(PACKET_CACHE_SIZE).build();
+
+    /** Packets written with {@link #write(String, boolean, Collection)} that haven't been flushed yet. (main thread only) */
+    private final Map<Player, List<Packet>> pending = new HashMap<>();
+
     @Override
     public Chat send(String message, Player player) {
-        if (!message.startsWith("{") && !message.startsWith("[")) {
+        if (!isJSON(message)) {
             player.sendMessage(message);
             return this;
         }
-        PacketPlayOutChat chatPacket = new PacketPlayOutChat(NMSUtil_V1_10_R1.serializeChat(message), (byte)0);
-        NMSUtil_V1_10_R1.sendPacket(player, chatPacket);
+        NMSUtil_V1_10_R1.sendPackets(player, getPackets(message, false));
         return this;
     }
 
     @Override
     public Chat send(String message, Player... players) {
-        PacketPlayOutChat packet = null;
-        if (message.startsWith("{") || message.startsWith("[")) {
-            packet = new PacketPlayOutChat(NMSUtil_V1_10_R1.serializeChat(message), (byte)0);
-        }
-
+        PacketPlayOutChat[] packets = isJSON(message) ? getPackets(message, false) : null;
         for (Player player : players) {
-            if (packet == null) {
+            if (packets == null) {
                 player.sendMessage(message);
             } else {
-                NMSUtil_V1_10_R1.sendPacket(player, packet);
+                NMSUtil_V1_10_R1.sendPackets(player, packets);
             }
         }
         return this;
@@ -64,16 +83,12 @@ public class Chat_V1_10_R1 implements Chat {
 
     @Override
     public Chat send(String message, Collection<? extends Player> players) {
-        PacketPlayOutChat packet = null;
-        if (message.startsWith("{") || message.startsWith("[")) {
-            packet = new PacketPlayOutChat(NMSUtil_V1_10_R1.serializeChat(message), (byte)0);
-        }
-
+        PacketPlayOutChat[] packets = isJSON(message) ? getPackets(message, false) : null;
         for (Player player : players) {
-            if (packet == null) {
+            if (packets == null) {
                 player.sendMessage(message);
             } else {
-                NMSUtil_V1_10_R1.sendPacket(player, packet);
+                NMSUtil_V1_10_R1.sendPackets(player, packets);
             }
         }
         return this;
@@ -81,37 +96,98 @@ public class Chat_V1_10_R1 implements Chat {
 
     @Override
     public Chat sendBar(String message, Player player) {
-        if (!message.startsWith("{") && !message.startsWith("[")) {
-            message = "{\"text\":\"" + JSONValue.escape(message) + "\"}";
-        }
-        PacketPlayOutChat packet = new PacketPlayOutChat(NMSUtil_V1_10_R1.serializeChat(message), (byte)2);
-        NMSUtil_V1_10_R1.sendPacket(player, packet);
+        NMSUtil_V1_10_R1.sendPackets(player, getPackets(message, true));
         return this;
     }
 
     @Override
     public Chat sendBar(String message, Player... players) {
-        if (!message.startsWith("{") && !message.startsWith("[")) {
-            message = "{\"text\":\"" + JSONValue.escape(message) + "\"}";
+        PacketPlayOutChat[] packets = getPackets(message, true);
+        for (Player player : players) {
+            NMSUtil_V1_10_R1.sendPackets(player, packets);
         }
-        PacketPlayOutChat packet = new PacketPlayOutChat(NMSUtil_V1_10_R1.serializeChat(message), (byte)2);
+        return this;
+    }
 
+    @Override
+    public Chat sendBar(String message, Collection<? extends Player> players) {
+        PacketPlayOutChat[] packets = getPackets(message, true);
         for (Player player : players) {
-            NMSUtil_V1_10_R1.sendPacket(player, packet);
+            NMSUtil_V1_10_R1.sendPackets(player, packets);
         }
         return this;
     }
 
     @Override
-    public Chat sendBar(String message, Collection<? extends Player> players) {
-        if (!message.startsWith("{") && !message.startsWith("[")) {
-            message = "{\"text\":\"" + JSONValue.escape(message) + "\"}";
+    public Chat write(String message, boolean bar, Collection<? extends Player> players) {
+        PacketPlayOutChat[] packets = getPackets(message, bar);
+        byte type = bar ? BAR : isJSON(message) ? CHAT : SYSTEM;
+        for (Player player : players) {
+            if (!isVisible(player, type)) {
+                continue;
+            }
+            List<Packet> written = pending.get(player);
+            if (written == null) {
+                written = new ArrayList<>();
+                pending.put(player, written);
+            }
+            Collections.addAll(written, packets);
         }
-        PacketPlayOutChat packet = new PacketPlayOutChat(NMSUtil_V1_10_R1.serializeChat(message), (byte)2);
+        return this;
+    }
 
+    @Override
+    public Chat flush(Collection<? extends Player> players) {
         for (Player player : players) {
-            NMSUtil_V1_10_R1.sendPacket(player, packet);
+            List<Packet> written = pending.remove(player);
+            if (written != null) {
+                NMSUtil_V1_10_R1.writePackets(player, written);
+            }
         }
         return this;
     }
+
+    /**
+     * Get the cached packets for the specified message or serialize the message if it's not cached.
+     * <p/>
+     * JSON messages are serialized to a single packet.
+     * Regular chat messages are converted the same way as {@link Player#sendMessage(String)} which may result in multiple system message packets.
+     */
+    private PacketPlayOutChat[] getPackets(String message, boolean bar) {
+        Cache<String, PacketPlayOutChat[]> cache = bar ? barPackets : chatPackets;
+        PacketPlayOutChat[] packets = cache.getIfPresent(message);
+        if (packets != null) {
+            return packets;
+        }
+
+        if (isJSON(message)) {
+            packets = new PacketPlayOutChat[] {new PacketPlayOutChat(NMSUtil_V1_10_R1.serializeChat(message), bar ? BAR : CHAT)};
+        } else if (bar) {
+            packets = new PacketPlayOutChat[] {new PacketPlayOutChat(NMSUtil_V1_10_R1.serializeChat("{\"text\":\"" + JSONValue.escape(message) + "\"}"), BAR)};
+        } else {
+            IChatBaseComponent[] components = CraftChatMessage.fromString(message);
+            packets = new PacketPlayOutChat[components.length];
+            for (int i = 0; i < components.length; i++) {
+                packets[i] = new PacketPlayOutChat(components[i], SYSTEM);
+            }
+        }
+        cache.put(message, packets);
+        return packets;
+    }
+
+    /**
+     * Check if the player can see chat packets of the specified type with the chat visibility from the client settings.
+     * Written packets don't go through {@link net.minecraft.server.v1_10_R1.PlayerConnection#sendPacket(Packet)} so this applies the same check.
+     */
+    private static boolean isVisible(Player player, byte type) {
+        EntityHuman.EnumChatVisibility visibility = ((CraftPlayer)player).getHandle().getChatFlags();
+        if (visibility == EntityHuman.EnumChatVisibility.HIDDEN) {
+            return false;
+        }
+        return visibility != EntityHuman.EnumChatVisibility.SYSTEM || type != CHAT;
+    }
+
+    private static boolean isJSON(String message) {
+        return message.startsWith("{") || message.startsWith("[");
+    }
 }
@@ -25,8 +25,10 @@
 
 package info.gameboxx.gameboxx.nms.util;
 
+import io.netty.channel.Channel;
 import net.minecraft.server.v1_10_R1.IChatBaseComponent;
 import net.minecraft.server.v1_10_R1.Packet;
+import net.minecraft.server.v1_10_R1.PlayerConnection;
 import org.bukkit.craftbukkit.v1_10_R1.entity.CraftPlayer;
 import org.bukkit.entity.Player;
 
@@ -47,6 +49,42 @@ public class NMSUtil_V1_10_R1 {
         ((CraftPlayer) player).getHandle().playerConnection.sendPacket(packet);
     }
 
+    /**
+     * Write multiple packets to the connection of the specified player and flush the connection once.
+     * <p/>
+     * The packets are written in a single task on the event loop of the connection.
+     * Packets sent with {@link #sendPacket(Player, Packet)} from the main thread are queued on the same event loop so the order is kept.
+     * <p/>
+     * Unlike {@link PlayerConnection#sendPacket(Packet)} this doesn't filter chat packets by the chat visibility of the player.
+     * Callers have to check that with {@link net.minecraft.server.v1_10_R1.EntityPlayer#getChatFlags()} before writing chat packets.
+     * Nothing is written when the player has been disconnected or when the connection has been closed.
+     *
+     * @param player The player to write the packets to.
+     * @param packets The {@link Packet}s to write.
+     */
+    public static void writePackets(Player player, final Collection<? extends Packet> packets) {
+        PlayerConnection connection = ((CraftPlayer) player).getHandle().playerConnection;
+        if (connection == null || connection.processedDisconnect) {
+            return;
+        }
+        final Channel channel = connection.networkManager.channel;
+        if (packets.isEmpty() || !channel.isOpen()) {
+            return;
+        }
+        channel.eventLoop().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!channel.isOpen()) {
+                    return;
+                }
+                for (Packet packet : packets) {
+                    channel.write(packet);
+                }
+                channel.flush();
+            }
+        });
+    }
+
     /**
      * Send multiple packets to the specified player.
      *
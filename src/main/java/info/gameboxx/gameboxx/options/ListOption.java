@@ -144,7 +144,7 @@ public abstract class ListOption<O, L extends ListOption, S extends SingleOption
      * It will first update the default value for all the existing values.
      * Then it will add missing values and remove values that exceed the limit.
      */
-    private void updateList() {
+    protected void updateList() {
         //Update defaults
         for (int i = 0; i < values.size(); i++) {
             values.get(i).def(getDefault(i));
@@ -438,7 +438,7 @@ public abstract class ListOption<O, L extends ListOption, S extends SingleOption
         updateList();
         if (input == null || input.length == 0) {
             if (minValues > 0) {
-                error = Msg.getString("list.min", Param.P("min", minValues));
+                error = Msg.getString(sender, "list.min", Param.P("min", minValues));
                 return false;
             }
             return true;
@@ -499,7 +499,7 @@ public abstract class ListOption<O, L extends ListOption, S extends SingleOption
      */
     public boolean parse(CommandSender sender, int index, String input) {
         if (maxValues > 0 && index > maxValues) {
-            error = Msg.getString("list.max", Param.P("max", maxValues));
+            error = Msg.getString(sender, "list.max", Param.P("max", maxValues));
             return false;
         }
         for (int i = values.size(); i <= index; i++) {
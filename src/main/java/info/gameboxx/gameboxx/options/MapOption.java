@@ -137,7 +137,7 @@ public abstract class MapOption<O, M extends MapOption, S extends SingleOption>
      * It will first update the default value for all the existing values.
      * Then it will remove values with custom keys when {@link #customKeys(boolean)} is set to false.
      */
-    private void updateMap() {
+    protected void updateMap() {
         //Update defaults
         for (Map.Entry<String, O> def : defaultValues.entrySet()) {
             if (!values.containsKey(def.getKey())) {
@@ -452,13 +452,13 @@ public abstract class MapOption<O, M extends MapOption, S extends SingleOption>
         }
         for (String key : input.keySet()) {
             if (!requiredKeys.contains(key) && !customKeys) {
-                error = Msg.getString("map.no-custom", Param.P("keys", Str.implode(requiredKeys)));
+                error = Msg.getString(sender, "map.no-custom", Param.P("keys", Str.implode(requiredKeys)));
                 return false;
             }
         }
         for (String key : requiredKeys) {
             if (!input.keySet().contains(key)) {
-                error = Msg.getString("map.missing-required", Param.P("key", key));
+                error = Msg.getString(sender, "map.missing-required", Param.P("key", key));
                 return false;
             }
         }
@@ -486,7 +486,7 @@ public abstract class MapOption<O, M extends MapOption, S extends SingleOption>
         }
         S option = values.get(key);
         if (option == null) {
-            option = values.put(key, getSingleOption(key));
+            values.put(key, option = getSingleOption(key));
         }
         if (!option.parse(input)) {
             error = getError(key);
@@ -522,11 +522,11 @@ public abstract class MapOption<O, M extends MapOption, S extends SingleOption>
      */
     public boolean parse(CommandSender sender, String key, String input) {
         if (!customKeys && !requiredKeys.contains(key)) {
-            error = Msg.getString("map.no-custom", Param.P("keys", Str.implode(requiredKeys)));
+            error = Msg.getString(sender, "map.no-custom", Param.P("keys", Str.implode(requiredKeys)));
         }
         S option = values.get(key);
         if (option == null) {
-            option = values.put(key, getSingleOption(key));
+            values.put(key, option = getSingleOption(key));
         }
         if (!option.parse(sender, input)) {
             error = getError(key);
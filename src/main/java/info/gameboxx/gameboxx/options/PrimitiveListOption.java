@@ -0,0 +1,351 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.options;
+
+import info.gameboxx.gameboxx.messages.Msg;
+import info.gameboxx.gameboxx.messages.Param;
+import org.bukkit.command.CommandSender;
+
+import java.util.*;
+
+/**
+ * A {@link ListOption} that stores the parsed values in a {@link ValueStore} instead of a {@link SingleOption} per value.
+ * <p/>
+ * Strings are parsed with a single reused {@link SingleOption} and input that already has the value type is stored directly.
+ * <p/>
+ * {@link #getValues()} returns a read only view of the values which doesn't copy anything.
+ * {@link #getOptions()} and {@link #getOption(int)} create new single options from the stored values.
+ *
+ * @param <O> The object the option parses.
+ * @param <L> The ListOption class.
+ * @param <S> The {@link SingleOption} class.
+ */
+public abstract class PrimitiveListOption<O, L extends PrimitiveListOption, S extends SingleOption> extends ListOption<O, L, S> {
+
+    protected final ValueStore<O> store;
+
+    private int size = 0;
+    private final BitSet parsed = new BitSet();
+    private final Map<Integer, String> errors = new HashMap<>();
+    private S parser = null;
+
+    private final List<O> view = new AbstractList<O>() {
+        @Override
+        public O get(int index) {
+            return getValue(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    /**
+     * Construct a new list option with the specified store for the values.
+     *
+     * @param store The {@link ValueStore} used to store the parsed values.
+     */
+    protected PrimitiveListOption(ValueStore<O> store) {
+        this.store = store;
+    }
+
+
+    /**
+     * Get the amount of values in the list.
+     * <p/>
+     * This includes values that only have a default value and values that failed parsing.
+     *
+     * @return The size of the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether or not a value has been parsed at the specified index.
+     *
+     * @param index The list index to check.
+     * @return True when there is a parsed value and false when there is only a default or no value at all.
+     */
+    protected boolean isParsed(int index) {
+        return parsed.get(index);
+    }
+
+    /**
+     * Get the {@link SingleOption} used for parsing strings.
+     * <p/>
+     * The same instance is reused for every value.
+     * Call {@link #resetParser()} when changing modifiers that are copied in {@link #getSingleOption()}
+     *
+     * @return The parser option.
+     */
+    protected S getParser() {
+        if (parser == null) {
+            parser = getSingleOption();
+        }
+        return parser;
+    }
+
+    /**
+     * Discard the parser so that the next parse creates a new one with the current modifiers.
+     */
+    protected void resetParser() {
+        parser = null;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+
+    @Override
+    protected void updateList() {
+        int newSize = Math.max(size, Math.max(defaultValues.size(), minValues));
+        if (maxValues > 0 && newSize > maxValues) {
+            newSize = maxValues;
+            parsed.clear(newSize, Math.max(size, newSize));
+        }
+        store.ensureCapacity(newSize);
+        for (int i = 0; i < newSize; i++) {
+            if (i >= size) {
+                errors.remove(i);
+            }
+            if (!parsed.get(i)) {
+                fill(i);
+            }
+        }
+        size = newSize;
+    }
+
+    /**
+     * Fill the store at the specified index with the default value or clear it when there is no default.
+     * This way views of the store contain the defaults for values that haven't been parsed.
+     */
+    private void fill(int index) {
+        O def = getDefault(index);
+        if (def != null && getFlag() != OptionFlag.REQUIRED) {
+            store.set(index, def);
+        } else {
+            store.clear(index);
+        }
+    }
+
+    private void reset() {
+        size = 0;
+        parsed.clear();
+        errors.clear();
+    }
+
+
+    /**
+     * Get new single options for all the values in the list.
+     * <p/>
+     * The options are created from the stored values so modifying them doesn't modify this list.
+     *
+     * @return List with new {@link SingleOption}s. (May be empty)
+     */
+    @Override
+    public List<S> getOptions() {
+        List<S> options = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            options.add(getOption(i));
+        }
+        return options;
+    }
+
+    /**
+     * Get a new single option for the value at the specified index.
+     * <p/>
+     * The option is created from the stored value so modifying it doesn't modify this list.
+     *
+     * @param index The list index to get the option at.
+     * @return New {@link SingleOption} for the specified index.
+     */
+    @Override
+    public S getOption(int index) {
+        checkIndex(index);
+        S option = getSingleOption(index);
+        if (parsed.get(index)) {
+            option.parse((Object)store.get(index));
+        } else if (errors.containsKey(index)) {
+            option.error = errors.get(index);
+        }
+        return option;
+    }
+
+    /**
+     * Get a read only view with the parsed object values.
+     * <p/>
+     * The view doesn't copy the values and reflects changes to this list.
+     * Values are created when accessing them so prefer the typed getters when iterating large lists.
+     *
+     * @see #getValue(int)
+     * @return Read only list with parsed values. (May be empty and contain {@code null} values)
+     */
+    @Override
+    public List<O> getValues() {
+        return view;
+    }
+
+    @Override
+    public O getValue(int index) {
+        checkIndex(index);
+        if (parsed.get(index)) {
+            return store.get(index);
+        }
+        O def = getDefault(index);
+        if (def != null && getFlag() != OptionFlag.REQUIRED) {
+            return def;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean hasValue(int index) {
+        return getValue(index) != null;
+    }
+
+    @Override
+    public boolean success(int index) {
+        return getValue(index) != null;
+    }
+
+    @Override
+    public String getError(int index) {
+        String error = errors.get(index);
+        return (error == null ? "" : error) + " " + Msg.getString("list.index", Param.P("index", index));
+    }
+
+
+    @Override
+    public List<String> serialize() {
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(serialize(i));
+        }
+        return values;
+    }
+
+    @Override
+    public String serialize(int index) {
+        S option = format(getValue(index));
+        return option == null ? null : option.serialize();
+    }
+
+    @Override
+    public List<String> getDisplayValues() {
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(getDisplayValue(i));
+        }
+        return values;
+    }
+
+    @Override
+    public String getDisplayValue(int index) {
+        S option = format(getValue(index));
+        return option == null ? null : option.getDisplayValue();
+    }
+
+    private S format(O value) {
+        if (value == null) {
+            return null;
+        }
+        S option = getParser();
+        option.parse((Object)value);
+        return option;
+    }
+
+
+    @Override
+    public boolean parse(boolean ignoreErrors, Object... input) {
+        reset();
+        return super.parse(ignoreErrors, input);
+    }
+
+    @Override
+    public boolean parse(boolean ignoreErrors, CommandSender sender, String... input) {
+        reset();
+        return super.parse(ignoreErrors, sender, input);
+    }
+
+    @Override
+    public boolean parse(int index, Object input) {
+        if (input instanceof String) {
+            return parse(null, index, (String)input);
+        }
+        if (!expand(index)) {
+            return false;
+        }
+        if (store.store(index, input)) {
+            parsed.set(index);
+            errors.remove(index);
+            return true;
+        }
+        parsed.clear(index);
+        fill(index);
+        errors.put(index, input == null ? Msg.getString("null") : Msg.getString("unsupported-type", Param.P("type", input.getClass().getSimpleName())));
+        error = getError(index);
+        return false;
+    }
+
+    @Override
+    public boolean parse(CommandSender sender, int index, String input) {
+        if (!expand(index)) {
+            return false;
+        }
+        S option = getParser();
+        if (!option.parse(sender, input)) {
+            parsed.clear(index);
+            fill(index);
+            errors.put(index, option.getError());
+            error = getError(index);
+            return false;
+        }
+        store.set(index, (O)option.getValue());
+        parsed.set(index);
+        errors.remove(index);
+        return true;
+    }
+
+    private boolean expand(int index) {
+        if (maxValues > 0 && index > maxValues) {
+            error = Msg.getString("list.max", Param.P("max", maxValues));
+            return false;
+        }
+        if (index >= size) {
+            store.ensureCapacity(index + 1);
+            for (int i = size; i <= index; i++) {
+                fill(i);
+            }
+            size = index + 1;
+        }
+        return true;
+    }
+}
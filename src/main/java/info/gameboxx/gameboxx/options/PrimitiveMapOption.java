@@ -0,0 +1,342 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.options;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Maps;
+import info.gameboxx.gameboxx.messages.Msg;
+import info.gameboxx.gameboxx.messages.Param;
+import info.gameboxx.gameboxx.util.Str;
+import org.bukkit.command.CommandSender;
+
+import java.util.*;
+
+/**
+ * A {@link MapOption} that stores the parsed values in a {@link ValueStore} instead of a {@link SingleOption} per value.
+ * <p/>
+ * Each key is assigned a slot in the store.
+ * Strings are parsed with a single reused {@link SingleOption} and input that already has the value type is stored directly.
+ * <p/>
+ * {@link #getValues()} returns a read only view of the values which doesn't copy anything.
+ * {@link #getOptions()} and {@link #getOption(String)} create new single options from the stored values.
+ *
+ * @param <O> The object the option parses.
+ * @param <M> The MapOption class.
+ * @param <S> The {@link SingleOption} class.
+ */
+public abstract class PrimitiveMapOption<O, M extends PrimitiveMapOption, S extends SingleOption> extends MapOption<O, M, S> {
+
+    protected final ValueStore<O> store;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Set<String> keys = Collections.unmodifiableSet(slots.keySet());
+    private int nextSlot = 0;
+    private final BitSet parsed = new BitSet();
+    private final Map<Integer, String> errors = new HashMap<>();
+    private S parser = null;
+
+    private final Map<String, O> view = Maps.asMap(keys, new Function<String, O>() {
+        @Override
+        public O apply(String key) {
+            return getValue(key);
+        }
+    });
+
+    /**
+     * Construct a new map option with the specified store for the values.
+     *
+     * @param store The {@link ValueStore} used to store the parsed values.
+     */
+    protected PrimitiveMapOption(ValueStore<O> store) {
+        this.store = store;
+    }
+
+
+    /**
+     * Get the keys in the map.
+     * <p/>
+     * This includes keys that only have a default value and keys that failed parsing.
+     *
+     * @return Read only set with the keys.
+     */
+    public Set<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Get the slot in the {@link ValueStore} for the specified key.
+     *
+     * @param key The map key.
+     * @return The slot of the key or -1 when the map doesn't have the key.
+     */
+    protected int getSlot(String key) {
+        Integer slot = slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Check whether or not a value has been parsed at the specified slot.
+     *
+     * @param slot The slot to check.
+     * @return True when there is a parsed value and false when there is only a default or no value at all.
+     */
+    protected boolean isParsed(int slot) {
+        return parsed.get(slot);
+    }
+
+    /**
+     * Get the {@link SingleOption} used for parsing strings.
+     * <p/>
+     * The same instance is reused for every value.
+     * Call {@link #resetParser()} when changing modifiers that are copied in {@link #getSingleOption()}
+     *
+     * @return The parser option.
+     */
+    protected S getParser() {
+        if (parser == null) {
+            parser = getSingleOption();
+        }
+        return parser;
+    }
+
+    /**
+     * Discard the parser so that the next parse creates a new one with the current modifiers.
+     */
+    protected void resetParser() {
+        parser = null;
+    }
+
+    private int addKey(String key) {
+        Integer slot = slots.get(key);
+        if (slot == null) {
+            slot = nextSlot++;
+            store.ensureCapacity(nextSlot);
+            store.clear(slot);
+            slots.put(key, slot);
+        }
+        return slot;
+    }
+
+
+    @Override
+    protected void updateMap() {
+        for (String key : defaultValues.keySet()) {
+            addKey(key);
+        }
+        if (!customKeys && requiredKeys.size() > 0) {
+            slots.keySet().retainAll(requiredKeys);
+        }
+    }
+
+    private void reset() {
+        slots.clear();
+        nextSlot = 0;
+        parsed.clear();
+        errors.clear();
+    }
+
+
+    /**
+     * Get new single options for all the values in the map.
+     * <p/>
+     * The options are created from the stored values so modifying them doesn't modify this map.
+     *
+     * @return Map with new {@link SingleOption}s. (May be empty)
+     */
+    @Override
+    public Map<String, S> getOptions() {
+        Map<String, S> options = new HashMap<>();
+        for (String key : slots.keySet()) {
+            options.put(key, getOption(key));
+        }
+        return options;
+    }
+
+    /**
+     * Get a new single option for the value at the specified key.
+     * <p/>
+     * The option is created from the stored value so modifying it doesn't modify this map.
+     *
+     * @param key The map key to get the option at.
+     * @return New {@link SingleOption} for the specified key. (May be {@code null}!)
+     */
+    @Override
+    public S getOption(String key) {
+        int slot = getSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        S option = getSingleOption(key);
+        if (parsed.get(slot)) {
+            option.parse((Object)store.get(slot));
+        } else if (errors.containsKey(slot)) {
+            option.error = errors.get(slot);
+        }
+        return option;
+    }
+
+    /**
+     * Get a read only view with the parsed object values.
+     * <p/>
+     * The view doesn't copy the values and reflects changes to this map.
+     * Values are created when accessing them so prefer the typed getters when iterating large maps.
+     *
+     * @see #getValue(String)
+     * @return Read only map with parsed values. (May be empty and contain {@code null} values)
+     */
+    @Override
+    public Map<String, O> getValues() {
+        return view;
+    }
+
+    @Override
+    public O getValue(String key) {
+        int slot = getSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        if (parsed.get(slot)) {
+            return store.get(slot);
+        }
+        O def = getDefault(key);
+        if (def != null && getFlag() != OptionFlag.REQUIRED) {
+            return def;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean hasValue(String key) {
+        return getValue(key) != null;
+    }
+
+    @Override
+    public boolean success(String key) {
+        return getValue(key) != null;
+    }
+
+    @Override
+    public String getError(String key) {
+        int slot = getSlot(key);
+        if (slot < 0) {
+            return Msg.getString("map.invalid-key", Param.P("input", key), Param.P("keys", Str.implode(slots.keySet())));
+        }
+        String error = errors.get(slot);
+        return (error == null ? "" : error) + " " + Msg.getString("map.key", Param.P("key", key));
+    }
+
+
+    @Override
+    public Map<String, String> serialize() {
+        Map<String, String> values = new HashMap<>();
+        for (String key : slots.keySet()) {
+            values.put(key, serialize(key));
+        }
+        return values;
+    }
+
+    @Override
+    public String serialize(String key) {
+        S option = format(getValue(key));
+        return option == null ? null : option.serialize();
+    }
+
+    @Override
+    public Map<String, String> getDisplayValues() {
+        Map<String, String> values = new HashMap<>();
+        for (String key : slots.keySet()) {
+            values.put(key, getDisplayValue(key));
+        }
+        return values;
+    }
+
+    @Override
+    public String getDisplayValue(String key) {
+        S option = format(getValue(key));
+        return option == null ? null : option.getDisplayValue();
+    }
+
+    private S format(O value) {
+        if (value == null) {
+            return null;
+        }
+        S option = getParser();
+        option.parse((Object)value);
+        return option;
+    }
+
+
+    @Override
+    public boolean parse(boolean ignoreErrors, Map<String, Object> input) {
+        reset();
+        return super.parse(ignoreErrors, input);
+    }
+
+    @Override
+    public boolean parse(boolean ignoreErrors, CommandSender sender, Map<String, String> input) {
+        reset();
+        return super.parse(ignoreErrors, sender, input);
+    }
+
+    @Override
+    public boolean parse(String key, Object input) {
+        if (input instanceof String) {
+            return parse(null, key, (String)input);
+        }
+        if (!customKeys && !requiredKeys.contains(key)) {
+            error = Msg.getString("map.no-custom", Param.P("keys", Str.implode(requiredKeys)));
+        }
+        int slot = addKey(key);
+        if (store.store(slot, input)) {
+            parsed.set(slot);
+            errors.remove(slot);
+            return true;
+        }
+        parsed.clear(slot);
+        errors.put(slot, input == null ? Msg.getString("null") : Msg.getString("unsupported-type", Param.P("type", input.getClass().getSimpleName())));
+        error = getError(key);
+        return false;
+    }
+
+    @Override
+    public boolean parse(CommandSender sender, String key, String input) {
+        if (!customKeys && !requiredKeys.contains(key)) {
+            error = Msg.getString(sender, "map.no-custom", Param.P("keys", Str.implode(requiredKeys)));
+        }
+        int slot = addKey(key);
+        S option = getParser();
+        if (!option.parse(sender, input)) {
+            parsed.clear(slot);
+            errors.put(slot, option.getError());
+            error = getError(key);
+            return false;
+        }
+        store.set(slot, (O)option.getValue());
+        parsed.set(slot);
+        errors.remove(slot);
+        return true;
+    }
+}
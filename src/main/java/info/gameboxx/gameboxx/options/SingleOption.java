@@ -83,6 +83,16 @@ public abstract class SingleOption<O, S extends SingleOption> extends Option<S>
     }
 
 
+    /**
+     * Clear the parsed value and the error so the option can be parsed again.
+     * The default value is kept.
+     */
+    public void reset() {
+        value = null;
+        error = "";
+    }
+
+
     /**
      * Check whether or not the option has a value.
      * <p/>
@@ -0,0 +1,457 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.options;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.Vector;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Compact storage for the values of {@link PrimitiveListOption}s and {@link PrimitiveMapOption}s.
+ * <p/>
+ * Values are stored by slot in primitive arrays instead of in a {@link SingleOption} per value.
+ * Stores don't track which slots have a value, that's done by the option using the store.
+ *
+ * @param <O> The object the store holds.
+ */
+public abstract class ValueStore<O> {
+
+    /**
+     * Make sure the store can hold the specified amount of values.
+     *
+     * @param capacity The minimum amount of slots.
+     */
+    public abstract void ensureCapacity(int capacity);
+
+    /**
+     * Get the value in the specified slot.
+     *
+     * @param slot The slot of the value.
+     * @return The value as an object.
+     */
+    public abstract O get(int slot);
+
+    /**
+     * Set the value in the specified slot.
+     *
+     * @param slot The slot to set the value in.
+     * @param value The value to set. (May not be {@code null})
+     */
+    public abstract void set(int slot, O value);
+
+    /**
+     * Reset the value in the specified slot to zero.
+     *
+     * @param slot The slot to clear.
+     */
+    public abstract void clear(int slot);
+
+    /**
+     * Copy the value from one slot to another.
+     *
+     * @param from The slot to copy the value from.
+     * @param to The slot to copy the value to.
+     */
+    public abstract void copy(int from, int to);
+
+    /**
+     * Store an input object that already has the type of the store without parsing it.
+     *
+     * @param slot The slot to set the value in.
+     * @param input The input object.
+     * @return True when the input was stored and false when it has to be parsed.
+     */
+    public abstract boolean store(int slot, Object input);
+
+    /**
+     * Get the new capacity for growing an array to the specified capacity.
+     */
+    static int grow(int current, int capacity) {
+        return Math.max(capacity, Math.max(4, current + (current >> 1)));
+    }
+
+
+    /**
+     * Stores integers in an int array.
+     */
+    public static class IntStore extends ValueStore<Integer> {
+        private int[] values = new int[0];
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        public Integer get(int slot) {
+            return values[slot];
+        }
+
+        public int getInt(int slot) {
+            return values[slot];
+        }
+
+        @Override
+        public void set(int slot, Integer value) {
+            values[slot] = value;
+        }
+
+        @Override
+        public void clear(int slot) {
+            values[slot] = 0;
+        }
+
+        @Override
+        public void copy(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        public boolean store(int slot, Object input) {
+            if (input instanceof Integer) {
+                values[slot] = (Integer)input;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Get a read only view of the values without copying them.
+         * The view reads the stored values so it changes when values are set.
+         *
+         * @param size The amount of values in the view.
+         * @return Read only {@link IntBuffer} with the values.
+         */
+        public IntBuffer view(int size) {
+            return IntBuffer.wrap(values, 0, size).slice().asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Stores doubles in a double array.
+     */
+    public static class DoubleStore extends ValueStore<Double> {
+        private double[] values = new double[0];
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        public Double get(int slot) {
+            return values[slot];
+        }
+
+        public double getDouble(int slot) {
+            return values[slot];
+        }
+
+        @Override
+        public void set(int slot, Double value) {
+            values[slot] = value;
+        }
+
+        @Override
+        public void clear(int slot) {
+            values[slot] = 0;
+        }
+
+        @Override
+        public void copy(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        public boolean store(int slot, Object input) {
+            if (input instanceof Double) {
+                values[slot] = (Double)input;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Get a read only view of the values without copying them.
+         * The view reads the stored values so it changes when values are set.
+         *
+         * @param size The amount of values in the view.
+         * @return Read only {@link DoubleBuffer} with the values.
+         */
+        public DoubleBuffer view(int size) {
+            return DoubleBuffer.wrap(values, 0, size).slice().asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Stores booleans in a {@link BitSet}.
+     */
+    public static class BoolStore extends ValueStore<Boolean> {
+        private final BitSet values = new BitSet();
+
+        @Override
+        public void ensureCapacity(int capacity) {}
+
+        @Override
+        public Boolean get(int slot) {
+            return values.get(slot);
+        }
+
+        public boolean getBoolean(int slot) {
+            return values.get(slot);
+        }
+
+        @Override
+        public void set(int slot, Boolean value) {
+            values.set(slot, value);
+        }
+
+        @Override
+        public void clear(int slot) {
+            values.clear(slot);
+        }
+
+        @Override
+        public void copy(int from, int to) {
+            values.set(to, values.get(from));
+        }
+
+        @Override
+        public boolean store(int slot, Object input) {
+            if (input instanceof Boolean) {
+                values.set(slot, (Boolean)input);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Get a copy of the values as bits.
+         *
+         * @param size The amount of values.
+         * @return {@link BitSet} with the values.
+         */
+        public BitSet bits(int size) {
+            return values.get(0, size);
+        }
+    }
+
+    /**
+     * Stores vectors packed as x, y and z in a double array.
+     */
+    public static class VectorStore extends ValueStore<Vector> {
+        private double[] coords = new double[0];
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            if (coords.length < capacity * 3) {
+                coords = Arrays.copyOf(coords, grow(coords.length / 3, capacity) * 3);
+            }
+        }
+
+        @Override
+        public Vector get(int slot) {
+            int i = slot * 3;
+            return new Vector(coords[i], coords[i + 1], coords[i + 2]);
+        }
+
+        @Override
+        public void set(int slot, Vector value) {
+            int i = slot * 3;
+            coords[i] = value.getX();
+            coords[i + 1] = value.getY();
+            coords[i + 2] = value.getZ();
+        }
+
+        @Override
+        public void clear(int slot) {
+            Arrays.fill(coords, slot * 3, slot * 3 + 3, 0);
+        }
+
+        @Override
+        public void copy(int from, int to) {
+            System.arraycopy(coords, from * 3, coords, to * 3, 3);
+        }
+
+        @Override
+        public boolean store(int slot, Object input) {
+            if (input instanceof Vector) {
+                set(slot, (Vector)input);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Get a read only view of the coordinates without copying them.
+         * The view reads the stored values so it changes when values are set.
+         * Each vector takes three values x, y and z.
+         *
+         * @param size The amount of vectors in the view.
+         * @return Read only {@link DoubleBuffer} with the coordinates.
+         */
+        public DoubleBuffer view(int size) {
+            return DoubleBuffer.wrap(coords, 0, size * 3).slice().asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Stores locations packed as x, y and z in a double array and yaw and pitch in a float array.
+     * Worlds are stored by name like in the config so unloaded worlds aren't kept in memory.
+     * <p/>
+     * Each {@link #get(int)} returns a new {@link Location} so modifying it doesn't modify the stored value.
+     * Use {@link #get(int, Location)} to copy the value in to an existing location instead.
+     */
+    public static class LocationStore extends ValueStore<Location> {
+        private double[] coords = new double[0];
+        private float[] angles = new float[0];
+        private String[] worlds = new String[0];
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            if (worlds.length < capacity) {
+                int length = grow(worlds.length, capacity);
+                coords = Arrays.copyOf(coords, length * 3);
+                angles = Arrays.copyOf(angles, length * 2);
+                worlds = Arrays.copyOf(worlds, length);
+            }
+        }
+
+        @Override
+        public Location get(int slot) {
+            return get(slot, getWorld(slot));
+        }
+
+        /**
+         * Get the location in the specified slot with the specified world instead of the stored world.
+         *
+         * @param slot The slot of the location.
+         * @param world The world for the location. (May be {@code null})
+         * @return A new {@link Location}.
+         */
+        public Location get(int slot, World world) {
+            int i = slot * 3;
+            int a = slot * 2;
+            return new Location(world, coords[i], coords[i + 1], coords[i + 2], angles[a], angles[a + 1]);
+        }
+
+        /**
+         * Copy the location in the specified slot in to the specified location without creating a new one.
+         *
+         * @param slot The slot of the location.
+         * @param target The location to set the world, coordinates and angles of.
+         * @return The target location.
+         */
+        public Location get(int slot, Location target) {
+            int i = slot * 3;
+            int a = slot * 2;
+            target.setWorld(getWorld(slot));
+            target.setX(coords[i]);
+            target.setY(coords[i + 1]);
+            target.setZ(coords[i + 2]);
+            target.setYaw(angles[a]);
+            target.setPitch(angles[a + 1]);
+            return target;
+        }
+
+        /**
+         * Get the world of the location in the specified slot.
+         *
+         * @param slot The slot of the location.
+         * @return The world or {@code null} when there is no world or when it isn't loaded.
+         */
+        public World getWorld(int slot) {
+            return worlds[slot] == null ? null : Bukkit.getWorld(worlds[slot]);
+        }
+
+        /**
+         * Get the name of the world of the location in the specified slot.
+         *
+         * @param slot The slot of the location.
+         * @return The world name. (May be {@code null})
+         */
+        public String getWorldName(int slot) {
+            return worlds[slot];
+        }
+
+        @Override
+        public void set(int slot, Location value) {
+            int i = slot * 3;
+            int a = slot * 2;
+            coords[i] = value.getX();
+            coords[i + 1] = value.getY();
+            coords[i + 2] = value.getZ();
+            angles[a] = value.getYaw();
+            angles[a + 1] = value.getPitch();
+            worlds[slot] = value.getWorld() == null ? null : value.getWorld().getName();
+        }
+
+        @Override
+        public void clear(int slot) {
+            Arrays.fill(coords, slot * 3, slot * 3 + 3, 0);
+            Arrays.fill(angles, slot * 2, slot * 2 + 2, 0);
+            worlds[slot] = null;
+        }
+
+        @Override
+        public void copy(int from, int to) {
+            System.arraycopy(coords, from * 3, coords, to * 3, 3);
+            System.arraycopy(angles, from * 2, angles, to * 2, 2);
+            worlds[to] = worlds[from];
+        }
+
+        @Override
+        public boolean store(int slot, Object input) {
+            if (input instanceof Location) {
+                set(slot, (Location)input);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Get a read only view of the coordinates without copying them.
+         * The view reads the stored values so it changes when values are set.
+         * Each location takes three values x, y and z.
+         *
+         * @param size The amount of locations in the view.
+         * @return Read only {@link DoubleBuffer} with the coordinates.
+         */
+        public DoubleBuffer view(int size) {
+            return DoubleBuffer.wrap(coords, 0, size * 3).slice().asReadOnlyBuffer();
+        }
+    }
+}
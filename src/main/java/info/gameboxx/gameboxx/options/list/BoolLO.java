@@ -25,10 +25,42 @@
 
 package info.gameboxx.gameboxx.options.list;
 
-import info.gameboxx.gameboxx.options.ListOption;
+import info.gameboxx.gameboxx.options.PrimitiveListOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.BoolO;
 
-public class BoolLO extends ListOption<Boolean, BoolLO, BoolO> {
+import java.util.BitSet;
+
+public class BoolLO extends PrimitiveListOption<Boolean, BoolLO, BoolO> {
+
+    public BoolLO() {
+        super(new ValueStore.BoolStore());
+    }
+
+    /**
+     * Get the value at the specified index without boxing it.
+     *
+     * @param index The list index to get the value at.
+     * @return The parsed or default value. (false when there is no value)
+     */
+    public boolean getBoolean(int index) {
+        if (isParsed(index)) {
+            return ((ValueStore.BoolStore)store).getBoolean(index);
+        }
+        Boolean value = getValue(index);
+        return value != null && value;
+    }
+
+    /**
+     * Get all the values in the list as bits.
+     * <p/>
+     * Indexes without a parsed value contain the default value or false.
+     *
+     * @return {@link BitSet} with the values.
+     */
+    public BitSet getBits() {
+        return ((ValueStore.BoolStore)store).bits(size());
+    }
 
     @Override
     public BoolO getSingleOption() {
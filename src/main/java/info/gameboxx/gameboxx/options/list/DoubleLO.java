@@ -25,24 +25,61 @@
 
 package info.gameboxx.gameboxx.options.list;
 
-import info.gameboxx.gameboxx.options.ListOption;
+import info.gameboxx.gameboxx.options.PrimitiveListOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.DoubleO;
 
-public class DoubleLO extends ListOption<Double, DoubleLO, DoubleO> {
+import java.nio.DoubleBuffer;
+
+public class DoubleLO extends PrimitiveListOption<Double, DoubleLO, DoubleO> {
 
     private Double min = null;
     private Double max = null;
 
+    public DoubleLO() {
+        super(new ValueStore.DoubleStore());
+    }
+
     public DoubleLO min(Double min) {
         this.min = min;
+        resetParser();
         return this;
     }
 
     public DoubleLO max(Double max) {
         this.max = max;
+        resetParser();
         return this;
     }
 
+    /**
+     * Get the value at the specified index without boxing it.
+     *
+     * @param index The list index to get the value at.
+     * @return The parsed or default value. (0 when there is no value)
+     */
+    public double getDouble(int index) {
+        if (isParsed(index)) {
+            return ((ValueStore.DoubleStore)store).getDouble(index);
+        }
+        Double value = getValue(index);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Get a read only view of all the values in the list without copying them.
+     * <p/>
+     * Indexes without a parsed value contain the default value or 0.
+     * <p/>
+     * <b>The view isn't a snapshot!</b> It reads the values of this option so it changes when the option is parsed again.
+     * Copy the values out of the buffer when they have to be kept.
+     *
+     * @return Read only {@link DoubleBuffer} with the values.
+     */
+    public DoubleBuffer getDoubles() {
+        return ((ValueStore.DoubleStore)store).view(size());
+    }
+
     @Override
     public DoubleO getSingleOption() {
         return new DoubleO().min(min).max(max);
@@ -25,26 +25,63 @@
 
 package info.gameboxx.gameboxx.options.list;
 
-import info.gameboxx.gameboxx.options.ListOption;
+import info.gameboxx.gameboxx.options.PrimitiveListOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.IntO;
 
-public class IntLO extends ListOption<Integer, IntLO, IntO> {
+import java.nio.IntBuffer;
+
+public class IntLO extends PrimitiveListOption<Integer, IntLO, IntO> {
 
     private Integer min = null;
     private Integer max = null;
 
+    public IntLO() {
+        super(new ValueStore.IntStore());
+    }
+
 
     public IntLO min(Integer min) {
         this.min = min;
+        resetParser();
         return this;
     }
 
     public IntLO max(Integer max) {
         this.max = max;
+        resetParser();
         return this;
     }
 
 
+    /**
+     * Get the value at the specified index without boxing it.
+     *
+     * @param index The list index to get the value at.
+     * @return The parsed or default value. (0 when there is no value)
+     */
+    public int getInt(int index) {
+        if (isParsed(index)) {
+            return ((ValueStore.IntStore)store).getInt(index);
+        }
+        Integer value = getValue(index);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Get a read only view of all the values in the list without copying them.
+     * <p/>
+     * Indexes without a parsed value contain the default value or 0.
+     * <p/>
+     * <b>The view isn't a snapshot!</b> It reads the values of this option so it changes when the option is parsed again.
+     * Copy the values out of the buffer when they have to be kept.
+     *
+     * @return Read only {@link IntBuffer} with the values.
+     */
+    public IntBuffer getInts() {
+        return ((ValueStore.IntStore)store).view(size());
+    }
+
     @Override
     public IntO getSingleOption() {
         return new IntO().min(min).max(max);
@@ -25,33 +25,82 @@
 
 package info.gameboxx.gameboxx.options.list;
 
-import info.gameboxx.gameboxx.options.ListOption;
+import info.gameboxx.gameboxx.options.PrimitiveListOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.LocationO;
 import org.bukkit.Location;
 import org.bukkit.World;
 
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
-public class LocationLO extends ListOption<Location, LocationLO, LocationO> {
+public class LocationLO extends PrimitiveListOption<Location, LocationLO, LocationO> {
+
+    public LocationLO() {
+        super(new ValueStore.LocationStore());
+    }
 
     public List<Location> getValues(World world) {
-        List<Location> values = new ArrayList<>();
-        for (int i = 0; i < this.values.size(); i++) {
+        List<Location> values = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
             values.add(getValue(i, world));
         }
         return values;
     }
 
     public Location getValue(int index, World world) {
+        if (world != null && isParsed(index)) {
+            return ((ValueStore.LocationStore)store).get(index, world);
+        }
         Location l = getValue(index);
         if (l == null || world == null) {
             return l;
         }
+        l = l.clone();
         l.setWorld(world);
         return l;
     }
 
+    /**
+     * Copy the location at the specified index in to the specified location without creating a new location.
+     *
+     * @param index The index of the location in the list.
+     * @param target The location to copy the value in to.
+     * @return The target location or {@code null} when there is no value at the index.
+     */
+    public Location copyValue(int index, Location target) {
+        if (isParsed(index)) {
+            return ((ValueStore.LocationStore)store).get(index, target);
+        }
+        Location l = getValue(index);
+        if (l == null) {
+            return null;
+        }
+        target.setWorld(l.getWorld());
+        target.setX(l.getX());
+        target.setY(l.getY());
+        target.setZ(l.getZ());
+        target.setYaw(l.getYaw());
+        target.setPitch(l.getPitch());
+        return target;
+    }
+
+    /**
+     * Get a read only view of the coordinates of all the locations in the list without copying them.
+     * <p/>
+     * Each location takes three values x, y and z.
+     * Indexes without a parsed value contain the default value or 0.
+     * <p/>
+     * <b>The view isn't a snapshot!</b> It reads the values of this option so it changes when the option is parsed again.
+     * Copy the values out of the buffer when they have to be kept.
+     *
+     * @return Read only {@link DoubleBuffer} with the coordinates.
+     */
+    public DoubleBuffer getCoords() {
+        return ((ValueStore.LocationStore)store).view(size());
+    }
+
     @Override
     public LocationO getSingleOption() {
         return new LocationO();
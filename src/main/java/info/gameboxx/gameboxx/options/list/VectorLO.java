@@ -25,11 +25,33 @@
 
 package info.gameboxx.gameboxx.options.list;
 
-import info.gameboxx.gameboxx.options.ListOption;
+import info.gameboxx.gameboxx.options.PrimitiveListOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.VectorO;
 import org.bukkit.util.Vector;
 
-public class VectorLO extends ListOption<Vector, VectorLO, VectorO> {
+import java.nio.DoubleBuffer;
+
+public class VectorLO extends PrimitiveListOption<Vector, VectorLO, VectorO> {
+
+    public VectorLO() {
+        super(new ValueStore.VectorStore());
+    }
+
+    /**
+     * Get a read only view of the coordinates of all the vectors in the list without copying them.
+     * <p/>
+     * Each vector takes three values x, y and z.
+     * Indexes without a parsed value contain the default value or 0.
+     * <p/>
+     * <b>The view isn't a snapshot!</b> It reads the values of this option so it changes when the option is parsed again.
+     * Copy the values out of the buffer when they have to be kept.
+     *
+     * @return Read only {@link DoubleBuffer} with the coordinates.
+     */
+    public DoubleBuffer getCoords() {
+        return ((ValueStore.VectorStore)store).view(size());
+    }
 
     @Override
     public VectorO getSingleOption() {
@@ -25,10 +25,30 @@
 
 package info.gameboxx.gameboxx.options.map;
 
-import info.gameboxx.gameboxx.options.MapOption;
+import info.gameboxx.gameboxx.options.PrimitiveMapOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.BoolO;
 
-public class BoolMO extends MapOption<Boolean, BoolMO, BoolO> {
+public class BoolMO extends PrimitiveMapOption<Boolean, BoolMO, BoolO> {
+
+    public BoolMO() {
+        super(new ValueStore.BoolStore());
+    }
+
+    /**
+     * Get the value at the specified key without boxing it.
+     *
+     * @param key The map key to get the value at.
+     * @return The parsed or default value. (false when there is no value)
+     */
+    public boolean getBoolean(String key) {
+        int slot = getSlot(key);
+        if (slot >= 0 && isParsed(slot)) {
+            return ((ValueStore.BoolStore)store).getBoolean(slot);
+        }
+        Boolean value = getValue(key);
+        return value != null && value;
+    }
 
     @Override
     public BoolO getSingleOption() {
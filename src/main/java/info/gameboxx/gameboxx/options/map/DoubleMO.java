@@ -25,24 +25,46 @@
 
 package info.gameboxx.gameboxx.options.map;
 
-import info.gameboxx.gameboxx.options.MapOption;
+import info.gameboxx.gameboxx.options.PrimitiveMapOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.DoubleO;
 
-public class DoubleMO extends MapOption<Double, DoubleMO, DoubleO> {
+public class DoubleMO extends PrimitiveMapOption<Double, DoubleMO, DoubleO> {
 
     private Double min = null;
     private Double max = null;
 
+    public DoubleMO() {
+        super(new ValueStore.DoubleStore());
+    }
+
     public DoubleMO min(Double min) {
         this.min = min;
+        resetParser();
         return this;
     }
 
     public DoubleMO max(Double max) {
         this.max = max;
+        resetParser();
         return this;
     }
 
+    /**
+     * Get the value at the specified key without boxing it.
+     *
+     * @param key The map key to get the value at.
+     * @return The parsed or default value. (0 when there is no value)
+     */
+    public double getDouble(String key) {
+        int slot = getSlot(key);
+        if (slot >= 0 && isParsed(slot)) {
+            return ((ValueStore.DoubleStore)store).getDouble(slot);
+        }
+        Double value = getValue(key);
+        return value == null ? 0 : value;
+    }
+
     @Override
     public DoubleO getSingleOption() {
         return new DoubleO().min(min).max(max);
@@ -25,26 +25,48 @@
 
 package info.gameboxx.gameboxx.options.map;
 
-import info.gameboxx.gameboxx.options.MapOption;
+import info.gameboxx.gameboxx.options.PrimitiveMapOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.IntO;
 
-public class IntMO extends MapOption<Integer, IntMO, IntO> {
+public class IntMO extends PrimitiveMapOption<Integer, IntMO, IntO> {
 
     private Integer min = null;
     private Integer max = null;
 
+    public IntMO() {
+        super(new ValueStore.IntStore());
+    }
+
 
     public IntMO min(Integer min) {
         this.min = min;
+        resetParser();
         return this;
     }
 
     public IntMO max(Integer max) {
         this.max = max;
+        resetParser();
         return this;
     }
 
 
+    /**
+     * Get the value at the specified key without boxing it.
+     *
+     * @param key The map key to get the value at.
+     * @return The parsed or default value. (0 when there is no value)
+     */
+    public int getInt(String key) {
+        int slot = getSlot(key);
+        if (slot >= 0 && isParsed(slot)) {
+            return ((ValueStore.IntStore)store).getInt(slot);
+        }
+        Integer value = getValue(key);
+        return value == null ? 0 : value;
+    }
+
     @Override
     public IntO getSingleOption() {
         return new IntO().min(min).max(max);
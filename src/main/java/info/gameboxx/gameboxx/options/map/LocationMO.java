@@ -25,28 +25,38 @@
 
 package info.gameboxx.gameboxx.options.map;
 
-import info.gameboxx.gameboxx.options.MapOption;
+import info.gameboxx.gameboxx.options.PrimitiveMapOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.LocationO;
 import org.bukkit.Location;
 import org.bukkit.World;
 
 import java.util.*;
 
-public class LocationMO extends MapOption<Location, LocationMO, LocationO> {
+public class LocationMO extends PrimitiveMapOption<Location, LocationMO, LocationO> {
+
+    public LocationMO() {
+        super(new ValueStore.LocationStore());
+    }
 
     public Map<String, Location> getValues(World world) {
         Map<String, Location> values = new HashMap<>();
-        for (String key : this.values.keySet()) {
+        for (String key : getKeys()) {
             values.put(key, getValue(key, world));
         }
         return values;
     }
 
     public Location getValue(String key, World world) {
+        int slot = getSlot(key);
+        if (world != null && slot >= 0 && isParsed(slot)) {
+            return ((ValueStore.LocationStore)store).get(slot, world);
+        }
         Location l = getValue(key);
         if (l == null || world == null) {
             return l;
         }
+        l = l.clone();
         l.setWorld(world);
         return l;
     }
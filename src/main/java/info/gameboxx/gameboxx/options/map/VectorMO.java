@@ -25,11 +25,16 @@
 
 package info.gameboxx.gameboxx.options.map;
 
-import info.gameboxx.gameboxx.options.MapOption;
+import info.gameboxx.gameboxx.options.PrimitiveMapOption;
+import info.gameboxx.gameboxx.options.ValueStore;
 import info.gameboxx.gameboxx.options.single.VectorO;
 import org.bukkit.util.Vector;
 
-public class VectorMO extends MapOption<Vector, VectorMO, VectorO> {
+public class VectorMO extends PrimitiveMapOption<Vector, VectorMO, VectorO> {
+
+    public VectorMO() {
+        super(new ValueStore.VectorStore());
+    }
 
     @Override
     public VectorO getSingleOption() {
@@ -48,14 +48,14 @@ public class BlockO extends SingleOption<Block, BlockO> {
         if (input.isEmpty() || input.equals("@")) {
             Location loc = Utils.getLocation(sender);
             if (loc == null) {
-                error = Msg.getString("selector-console-player", Param.P("type", input));
+                error = Msg.getString(sender, "selector-console-player", Param.P("type", input));
                 return false;
             }
             value = loc.getBlock();
             return true;
         }
         if ((input.equals("#") || input.equals("^")) && !(sender instanceof Player)) {
-            error = Msg.getString("selector-console-player", Param.P("type", input));
+            error = Msg.getString(sender, "selector-console-player", Param.P("type", input));
             return false;
         }
 
@@ -70,13 +70,13 @@ public class BlockO extends SingleOption<Block, BlockO> {
             if (input.startsWith("#")) {
                 value = playerOption.getValue().getTargetBlock(Utils.TRANSPARENT_MATERIALS, 128);
                 if (value == null) {
-                    error = Msg.getString("block.no-target");
+                    error = Msg.getString(sender, "block.no-target");
                 }
             } else if (input.startsWith("^")) {
                 List<Block> blocks = playerOption.getValue().getLastTwoTargetBlocks(Utils.TRANSPARENT_MATERIALS, 128);
                 Block block = blocks.get(1);
                 if (block.getType() == Material.AIR) {
-                    error = Msg.getString("block.no-target");
+                    error = Msg.getString(sender, "block.no-target");
                     return false;
                 }
                 value = block.getRelative(blocks.get(1).getFace(blocks.get(0)));
@@ -96,11 +96,11 @@ public class BlockO extends SingleOption<Block, BlockO> {
             if (data.equals("@")) {
                 location = Utils.getLocation(sender);
                 if (location == null) {
-                    error = Msg.getString("selector-console-player", Param.P("type", data));
+                    error = Msg.getString(sender, "selector-console-player", Param.P("type", data));
                     return false;
                 }
             } else if ((data.equals("#") || data.equals("^")) && !(sender instanceof Player)) {
-                error = Msg.getString("selector-console-player", Param.P("type", data));
+                error = Msg.getString(sender, "selector-console-player", Param.P("type", data));
                 return false;
             } else if (data.startsWith("@") || data.startsWith("#") || data.startsWith("^")) {
                 //Get block/location from player
@@ -113,14 +113,14 @@ public class BlockO extends SingleOption<Block, BlockO> {
                 if (data.startsWith("#")) {
                     Block b = playerOption.getValue().getTargetBlock(Utils.TRANSPARENT_MATERIALS, 128);
                     if (b == null) {
-                        error = Msg.getString("block.no-target");
+                        error = Msg.getString(sender, "block.no-target");
                     }
                     location = b.getLocation();
                 } else if (data.startsWith("^")) {
                     List<Block> blocks = playerOption.getValue().getLastTwoTargetBlocks(Utils.TRANSPARENT_MATERIALS, 128);
                     Block block = blocks.get(1);
                     if (block.getType() == Material.AIR) {
-                        error = Msg.getString("block.no-target");
+                        error = Msg.getString(sender, "block.no-target");
                         return false;
                     }
                     location = block.getRelative(blocks.get(1).getFace(blocks.get(0))).getLocation();
@@ -144,12 +144,12 @@ public class BlockO extends SingleOption<Block, BlockO> {
         //Get the coords x,y,z[,yaw,pitch]
         String[] coords = split[0].split(",");
         if (coords.length < 3) {
-            error = Msg.getString("block.missing-xyz", Param.P("input", split[0]));
+            error = Msg.getString(sender, "block.missing-xyz", Param.P("input", split[0]));
             return false;
         }
 
         if (location.getWorld() == null) {
-            error = Msg.getString("block.missing-world", Param.P("input", input));
+            error = Msg.getString(sender, "block.missing-world", Param.P("input", input));
             return false;
         }
 
@@ -169,7 +169,7 @@ public class BlockO extends SingleOption<Block, BlockO> {
             //Parse the value.
             Integer val = Parse.Int(value);
             if (val == null && !value.isEmpty()) {
-                error = Msg.getString("axis-invalid-int", Param.P("input", value), Param.P("axis", mapKeys[i]));
+                error = Msg.getString(sender, "axis-invalid-int", Param.P("input", value), Param.P("axis", mapKeys[i]));
                 return false;
             }
 
@@ -187,7 +187,7 @@ public class BlockO extends SingleOption<Block, BlockO> {
         //Convert the location map back to a location.
         value = Location.deserialize(locMap).getBlock();
         if (value == null) {
-            error = Msg.getString("block.invalid", Param.P("input", input));
+            error = Msg.getString(sender, "block.invalid", Param.P("input", input));
             return false;
         }
         return true;
@@ -51,7 +51,7 @@ public class BoolO extends SingleOption<Boolean, BoolO> {
             return true;
         }
 
-        error = Msg.getString("boolean.invalid", Param.P("input", input));
+        error = Msg.getString(sender, "boolean.invalid", Param.P("input", input));
         return false;
     }
 
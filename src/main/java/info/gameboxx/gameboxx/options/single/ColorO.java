@@ -88,11 +88,11 @@ public class ColorO extends SingleOption<Color, ColorO> {
             clrs.put("blue", getColorValue(split[2]));
             for (Map.Entry<String, Integer> clr : clrs.entrySet()) {
                 if (clr.getValue() == null) {
-                    error = Msg.getString("color.not-number", Param.P("input", input), Param.P("color", clr.getKey()));
+                    error = Msg.getString(sender, "color.not-number", Param.P("input", input), Param.P("color", clr.getKey()));
                     return false;
                 }
                 if (clr.getValue() < 0 || clr.getValue() > 255) {
-                    error = Msg.getString("color.minmax", Param.P("input", clr.getValue()), Param.P("color", clr.getKey()));
+                    error = Msg.getString(sender, "color.minmax", Param.P("input", clr.getValue()), Param.P("color", clr.getKey()));
                 }
             }
             if (hsb) {
@@ -107,7 +107,7 @@ public class ColorO extends SingleOption<Color, ColorO> {
         }
 
         if (value == null) {
-            error = Msg.getString("color.invalid", Param.P("input", input));
+            error = Msg.getString(sender, "color.invalid", Param.P("input", input));
             return false;
         }
         return true;
@@ -53,9 +53,9 @@ public class CuboidO extends SingleOption<Cuboid, CuboidO> {
             value = SelectionManager.inst().getSelection(playerOption.getValue());
             if (!hasValue()) {
                 if (playerOption.getValue().equals(sender)) {
-                    error = Msg.getString("cuboid.no-selection");
+                    error = Msg.getString(sender, "cuboid.no-selection");
                 } else {
-                    error = Msg.getString("cuboid.no-selection-other", Param.P("player", playerOption.getValue().getName()));
+                    error = Msg.getString(sender, "cuboid.no-selection-other", Param.P("player", playerOption.getValue().getName()));
                 }
                 return false;
             }
@@ -74,7 +74,7 @@ public class CuboidO extends SingleOption<Cuboid, CuboidO> {
             if (data.equals("@")) {
                 pos1 = Utils.getLocation(sender);
                 if (pos1 == null) {
-                    error = Msg.getString("selector-console-player", Param.P("type", data));
+                    error = Msg.getString(sender, "selector-console-player", Param.P("type", data));
                     return false;
                 }
                 pos2 = pos1.clone();
@@ -102,7 +102,7 @@ public class CuboidO extends SingleOption<Cuboid, CuboidO> {
         }
 
         if (pos1.getWorld() == null || pos2.getWorld() == null) {
-            error = Msg.getString("cuboid.missing-world", Param.P("input", input));
+            error = Msg.getString(sender, "cuboid.missing-world", Param.P("input", input));
             return false;
         }
 
@@ -111,7 +111,7 @@ public class CuboidO extends SingleOption<Cuboid, CuboidO> {
             String[] coords = split[i].split(",");
 
             if (coords.length < 3) {
-                error = Msg.getString("cuboid.missing-coords", Param.P("input", split[i]));
+                error = Msg.getString(sender, "cuboid.missing-coords", Param.P("input", split[i]));
                 return false;
             }
 
@@ -137,7 +137,7 @@ public class CuboidO extends SingleOption<Cuboid, CuboidO> {
                 //Parse the value.
                 Integer val = Parse.Int(value);
                 if (val == null && !value.isEmpty()) {
-                    error = Msg.getString("axis-invalid-int", Param.P("axis", mapKeys[i]), Param.P("input", value));
+                    error = Msg.getString(sender, "axis-invalid-int", Param.P("axis", mapKeys[i]), Param.P("input", value));
                     return false;
                 }
 
@@ -160,7 +160,7 @@ public class CuboidO extends SingleOption<Cuboid, CuboidO> {
         }
 
         if (pos1 == null || pos2 == null) {
-            error = Msg.getString("cuboid.invalid", Param.P("input", input));
+            error = Msg.getString(sender, "cuboid.invalid", Param.P("input", input));
             return false;
         }
 
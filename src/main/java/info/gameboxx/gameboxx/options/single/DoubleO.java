@@ -29,6 +29,7 @@ import info.gameboxx.gameboxx.messages.Msg;
 import info.gameboxx.gameboxx.messages.Param;
 import info.gameboxx.gameboxx.options.SingleOption;
 import info.gameboxx.gameboxx.util.Numbers;
+import info.gameboxx.gameboxx.util.Parse;
 import org.bukkit.command.CommandSender;
 
 public class DoubleO extends SingleOption<Double, DoubleO> {
@@ -48,20 +49,20 @@ public class DoubleO extends SingleOption<Double, DoubleO> {
 
     @Override
     public boolean parse(CommandSender sender, String input) {
-        try {
-            value = Double.parseDouble(input);
-        } catch (Exception e) {
-            error = Msg.getString("double.invalid", Param.P("input", input));
+        double parsed = Parse.scanDouble(input);
+        if (Double.isNaN(parsed)) {
+            error = Msg.getString(sender, "double.invalid", Param.P("input", input));
             return false;
         }
+        value = parsed;
 
         if (min != null && (Double)value < min) {
-            error = Msg.getString("number-too-low", Param.P("input", input), Param.P("min", min));
+            error = Msg.getString(sender, "number-too-low", Param.P("input", input), Param.P("min", min));
             return false;
         }
 
         if (max != null && (Double)value > max) {
-            error = Msg.getString("number-too-high", Param.P("input", input), Param.P("max", max));
+            error = Msg.getString(sender, "number-too-high", Param.P("input", input), Param.P("max", max));
             return false;
         }
 
@@ -55,18 +55,19 @@ public class EnchantO extends SingleOption<Enchant, EnchantO> {
 
         Enchantment enchant = Enchantments.get(split[0]);
         if (enchant == null) {
-            error = Msg.getString("enchant.invalid-type", Param.P("input", split[0]), Param.P("types", Utils.getAliasesString("enchant.entry", Enchantments.getAliasMap())));
+            error = Msg.getString(sender, "enchant.invalid-type", Param.P("input", split[0]), Param.P("types", Utils.getAliasesString("enchant.entry", Enchantments.getAliasMap())))
+                    + Utils.getSuggestion(Enchantments.getDisplayName(Enchantments.instance()._getBestMatch(split[0])));
             return false;
         }
 
         if (split.length > 1) {
             level = Parse.Int(split[1]);
             if (level == null) {
-                error = Msg.getString("enchant.invalid-level", Param.P("input", split[0]));
+                error = Msg.getString(sender, "enchant.invalid-level", Param.P("input", split[0]));
                 return false;
             }
             if (!ignoreMax && level > enchant.getMaxLevel()) {
-                error = Msg.getString("enchant.level-too-high", Param.P("input", split[0]), Param.P("max", enchant.getMaxLevel()));
+                error = Msg.getString(sender, "enchant.level-too-high", Param.P("input", split[0]), Param.P("max", enchant.getMaxLevel()));
                 return false;
             }
         }
@@ -104,21 +105,8 @@ public class EnchantO extends SingleOption<Enchant, EnchantO> {
 
         String[] data = input.split(":", -1);
         if (data.length <= 1) {
-            for (String key : Enchantments.getAliasMap().keySet()) {
-                String name = key.replace(" ", "");
-                if (name.toLowerCase().startsWith(data[0].toLowerCase())) {
-                    suggestions.add(prefix + name);
-                }
-            }
-            if (data[0].length() > 0) {
-                for (List<String> aliases : Enchantments.getAliasMap().values()) {
-                    for (String alias : aliases) {
-                        String name = alias.replace(" ", "");
-                        if (name.toLowerCase().startsWith(data[0].toLowerCase())) {
-                            suggestions.add(prefix + name);
-                        }
-                    }
-                }
+            for (String name : Enchantments.instance()._complete(data[0])) {
+                suggestions.add(prefix + name);
             }
         } else if (data.length <= 2) {
             if (data[1].isEmpty()) {
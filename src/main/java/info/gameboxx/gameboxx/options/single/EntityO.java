@@ -64,7 +64,7 @@ public class EntityO extends SingleOption<EEntity, EntityO> {
                         }
                     }
                 }
-                error = Msg.getString("entity.not-looking");
+                error = Msg.getString(sender, "entity.not-looking");
                 return false;
             }
 
@@ -83,7 +83,7 @@ public class EntityO extends SingleOption<EEntity, EntityO> {
                     }
                 }
                 if (match == null) {
-                    error = Msg.getString("entity.none-nearby");
+                    error = Msg.getString(sender, "entity.none-nearby");
                     return false;
                 }
                 value = new EEntity(match);
@@ -54,14 +54,15 @@ public class FireworkO extends SingleOption<FireworkEffect, FireworkO> {
                 type = FireworkEffects.get(split[0]);
             }
             if (type == null) {
-                error = Msg.getString("firework.invalid-type", Param.P("input", split[0]), Param.P("types", Utils.getAliasesString("firework.entry", FireworkEffects.getAliasMap())));
+                error = Msg.getString(sender, "firework.invalid-type", Param.P("input", split[0]), Param.P("types", Utils.getAliasesString("firework.entry", FireworkEffects.getAliasMap())))
+                        + Utils.getSuggestion(FireworkEffects.getDisplayName(FireworkEffects.instance()._getBestMatch(split[0])));
                 return false;
             }
             builder.with(type);
         }
 
         if (split.length < 2 || split[1].isEmpty()) {
-            error = Msg.getString("firework.no-color");
+            error = Msg.getString(sender, "firework.no-color");
             return false;
         } else {
             String[] splitColors = split[1].split(";");
@@ -28,6 +28,7 @@ package info.gameboxx.gameboxx.options.single;
 import info.gameboxx.gameboxx.messages.Msg;
 import info.gameboxx.gameboxx.messages.Param;
 import info.gameboxx.gameboxx.options.SingleOption;
+import info.gameboxx.gameboxx.util.Parse;
 import org.bukkit.command.CommandSender;
 
 public class IntO extends SingleOption<Integer, IntO> {
@@ -47,20 +48,20 @@ public class IntO extends SingleOption<Integer, IntO> {
 
     @Override
     public boolean parse(CommandSender sender, String input) {
-        try {
-            value = Integer.parseInt(input);
-        } catch (Exception e) {
-            error = Msg.getString("integer.invalid", Param.P("input", input));
+        long parsed = Parse.scanInt(input);
+        if (parsed == Parse.INVALID) {
+            error = Msg.getString(sender, "integer.invalid", Param.P("input", input));
             return false;
         }
+        value = (int)parsed;
 
         if (min != null && (Integer)value < min) {
-            error = Msg.getString("number-too-low", Param.P("input", input), Param.P("min", min));
+            error = Msg.getString(sender, "number-too-low", Param.P("input", input), Param.P("min", min));
             return false;
         }
 
         if (max != null && (Integer)value > max) {
-            error = Msg.getString("number-too-high", Param.P("input", input), Param.P("max", max));
+            error = Msg.getString(sender, "number-too-high", Param.P("input", input), Param.P("max", max));
             return false;
         }
 
@@ -39,7 +39,6 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import java.util.List;
-import java.util.Map;
 
 public class LocationO extends SingleOption<Location, LocationO> {
 
@@ -49,13 +48,13 @@ public class LocationO extends SingleOption<Location, LocationO> {
         if (input.isEmpty() || input.equals("@")) {
             value = Utils.getLocation(sender);
             if (value == null) {
-                error = Msg.getString("selector-console-player", Param.P("type", input));
+                error = Msg.getString(sender, "selector-console-player", Param.P("type", input));
                 return false;
             }
             return true;
         }
         if (input.equals("#") && !(sender instanceof Player)) {
-            error = Msg.getString("selector-console-player", Param.P("type", input));
+            error = Msg.getString(sender, "selector-console-player", Param.P("type", input));
             return false;
         }
 
@@ -71,7 +70,7 @@ public class LocationO extends SingleOption<Location, LocationO> {
                 List<Block> blocks = playerOption.getValue().getLastTwoTargetBlocks(Utils.TRANSPARENT_MATERIALS, 128);
                 Block block = blocks.get(1);
                 if (block.getType() == Material.AIR) {
-                    error = Msg.getString("location.no-target");
+                    error = Msg.getString(sender, "location.no-target");
                     return false;
                 }
                 value = block.getRelative(blocks.get(1).getFace(blocks.get(0))).getLocation().add(0.5f, 0.5f, 0.5f);
@@ -91,11 +90,11 @@ public class LocationO extends SingleOption<Location, LocationO> {
             if (data.equals("@")) {
                 location = Utils.getLocation(sender);
                 if (location == null) {
-                    error = Msg.getString("selector-console-player", Param.P("type", data));
+                    error = Msg.getString(sender, "selector-console-player", Param.P("type", data));
                     return false;
                 }
             } else if (data.equals("#") && !(sender instanceof Player)) {
-                error = Msg.getString("selector-console-player", Param.P("type", data));
+                error = Msg.getString(sender, "selector-console-player", Param.P("type", data));
                 return false;
             } else if (data.startsWith("@") || data.startsWith("#")) {
                 //Get world/location from player
@@ -109,7 +108,7 @@ public class LocationO extends SingleOption<Location, LocationO> {
                     List<Block> blocks = playerOption.getValue().getLastTwoTargetBlocks(Utils.TRANSPARENT_MATERIALS, 128);
                     Block block = blocks.get(1);
                     if (block.getType() == Material.AIR) {
-                        error = Msg.getString("location.no-target");
+                        error = Msg.getString(sender, "location.no-target");
                         return false;
                     }
                     location = block.getRelative(blocks.get(1).getFace(blocks.get(0))).getLocation().add(0.5f, 0.5f, 0.5f);
@@ -129,55 +128,57 @@ public class LocationO extends SingleOption<Location, LocationO> {
         }
 
 
-        //Get the coords x,y,z[,yaw,pitch]
-        String[] coords = split[0].split(",");
-        if (coords.length < 3) {
-            error = Msg.getString("location.missing-xyz", Param.P("input", split[0]));
+        //Get the coords x,y,z[,yaw,pitch] (Trailing empty values are ignored just like String#split)
+        String coords = split[0];
+        int length = coords.length();
+        while (length > 0 && coords.charAt(length - 1) == ',') {
+            length--;
+        }
+        int count = 1;
+        for (int i = coords.indexOf(','); i >= 0 && i < length; i = coords.indexOf(',', i + 1)) {
+            count++;
+        }
+        if (count < 3) {
+            error = Msg.getString(sender, "location.missing-xyz", Param.P("input", split[0]));
             return false;
         }
 
         if (location.getWorld() == null) {
-            error = Msg.getString("location.missing-world", Param.P("input", input));
+            error = Msg.getString(sender, "location.missing-world", Param.P("input", input));
             return false;
         }
 
-        //Convert the location in a map so we can easily modify the values.
-        Map<String, Object> locMap = location.serialize();
-        String[] mapKeys = new String[] {"x", "y", "z", "yaw", "pitch"};
-
         //Go through all the values.
-        for (int i = 0; i < coords.length && i < mapKeys.length; i++) {
-            String value = coords[i];
+        double[] values = new double[] {location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch()};
+        String[] keys = new String[] {"x", "y", "z", "yaw", "pitch"};
+        int start = 0;
+        for (int i = 0; i < count && i < keys.length; i++) {
+            int end = coords.indexOf(',', start);
+            if (end < 0 || end > length) {
+                end = length;
+            }
             //Check if it's a relative value or not.
-            boolean relative = false;
-            if (value.startsWith("~") || value.isEmpty()) {
-                value = value.isEmpty() ? value : value.substring(1);
+            boolean relative = start == end;
+            if (!relative && coords.charAt(start) == '~') {
+                start++;
                 relative = true;
             }
             //Parse the value.
-            Double val = Parse.Double(value);
-            if (val == null && !value.isEmpty()) {
-                error = Msg.getString("axis-invalid-double", Param.P("input", value), Param.P("axis", mapKeys[i]));
-                return false;
-            }
-
-            //Add relative coords to the value.
-            if (relative) {
-                if (val == null) {
-                    val = 0d;
+            double val = 0;
+            if (start < end) {
+                val = Parse.scanDouble(coords, start, end);
+                if (Double.isNaN(val)) {
+                    error = Msg.getString(sender, "axis-invalid-double", Param.P("input", coords.substring(start, end)), Param.P("axis", keys[i]));
+                    return false;
                 }
-                val += (Double)locMap.get(mapKeys[i]);
             }
 
-            locMap.put(mapKeys[i], val);
+            //Add relative coords to the value.
+            values[i] = relative ? values[i] + val : val;
+            start = end + 1;
         }
 
-        //Convert the location map back to a location.
-        value = Location.deserialize(locMap);
-        if (value == null) {
-            error = Msg.getString("location.invalid", Param.P("input", input));
-            return false;
-        }
+        value = new Location(location.getWorld(), values[0], values[1], values[2], (float)values[3], (float)values[4]);
         return true;
     }
 
@@ -66,12 +66,12 @@ public class MaterialO extends SingleOption<MaterialData, MaterialO> {
 
         ItemData item = Items.getItem(input);
         if (item == null) {
-            error = Msg.getString("material.invalid", Param.P("input", input));
+            error = Msg.getString(sender, "material.invalid", Param.P("input", input));
             return false;
         }
 
         if (blocks && !item.getType().isBlock()) {
-            error = Msg.getString("material.block", Param.P("input", input));
+            error = Msg.getString(sender, "material.block", Param.P("input", input));
             return false;
         }
 
@@ -110,14 +110,8 @@ public class MaterialO extends SingleOption<MaterialData, MaterialO> {
             return suggestions;
         }
 
-        for (ItemData item : Items.getItems()) {
-            if (blocks && !item.getType().isBlock()) {
-                continue;
-            }
-            String name = item.getName().replace(" ", "");
-            if (name.toLowerCase().startsWith(input.toLowerCase())) {
-                suggestions.add(prefix + name);
-            }
+        for (String name : Items.complete(input, blocks)) {
+            suggestions.add(prefix + name);
         }
 
         Collections.sort(suggestions);
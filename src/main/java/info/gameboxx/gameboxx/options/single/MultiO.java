@@ -49,7 +49,7 @@ public class MultiO extends SingleOption<SingleOption[], MultiO> {
 
         String[] split = input.split(splitString, options.length);
         if (split.length < options.length) {
-            error = Msg.getString("mixed.invalid", Param.P("format", format));
+            error = Msg.getString(sender, "mixed.invalid", Param.P("format", format));
             return false;
         }
 
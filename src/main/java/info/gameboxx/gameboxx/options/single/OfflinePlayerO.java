@@ -25,9 +25,11 @@
 
 package info.gameboxx.gameboxx.options.single;
 
+import info.gameboxx.gameboxx.GameBoxx;
 import info.gameboxx.gameboxx.messages.Msg;
 import info.gameboxx.gameboxx.messages.Param;
 import info.gameboxx.gameboxx.options.SingleOption;
+import info.gameboxx.gameboxx.user.NameDirectory;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
@@ -49,7 +51,7 @@ public class OfflinePlayerO extends SingleOption<OfflinePlayer, OfflinePlayerO>
         if (input.isEmpty() || input.equals("@")) {
             value = (sender != null && sender instanceof OfflinePlayer) ? (OfflinePlayer)sender : null;
             if (value == null) {
-                error = Msg.getString("offline-player.non-player");
+                error = Msg.getString(sender, "offline-player.non-player");
                 return false;
             }
             return true;
@@ -63,15 +65,29 @@ public class OfflinePlayerO extends SingleOption<OfflinePlayer, OfflinePlayerO>
         if (input.length() == 36 && components.length == 5 && !components[0].isEmpty()) {
             value = Bukkit.getOfflinePlayer(UUID.fromString(input));
             if (value == null) {
-                error = Msg.getString("offline-player.invalid", Param.P("input", input));
+                error = Msg.getString(sender, "offline-player.invalid", Param.P("input", input));
                 return false;
             }
         } else {
-            value = Bukkit.getOfflinePlayer(input);
+            value = Bukkit.getPlayerExact(input);
+            if (value == null) {
+                //Only use known names to avoid a blocking profile lookup on the main thread.
+                UUID uuid = GameBoxx.get().getNames().getUUID(input);
+                if (uuid == null) {
+                    if (NameDirectory.isValidName(input)) {
+                        GameBoxx.get().getUM().resolveUser(input);
+                        error = Msg.getString(sender, "offline-player.lookup", Param.P("input", input));
+                    } else {
+                        error = Msg.getString(sender, "offline-player.invalid", Param.P("input", input));
+                    }
+                    return false;
+                }
+                value = Bukkit.getOfflinePlayer(uuid);
+            }
         }
 
         if (value == null) {
-            error = Msg.getString("offline-player.invalid", Param.P("input", input));
+            error = Msg.getString(sender, "offline-player.invalid", Param.P("input", input));
             return false;
         }
 
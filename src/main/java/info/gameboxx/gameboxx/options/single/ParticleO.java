@@ -55,14 +55,15 @@ public class ParticleO extends SingleOption<ParticleEffect, ParticleO> {
 
         Particle particle = Particles.get(split[0]);
         if (particle == null) {
-            error = Msg.getString("particle.invalid-type", Param.P("input", split[0]), Param.P("types", Utils.getAliasesString("particle.entry", Particles.getAliasMap())));
+            error = Msg.getString(sender, "particle.invalid-type", Param.P("input", split[0]), Param.P("types", Utils.getAliasesString("particle.entry", Particles.getAliasMap())))
+                    + Utils.getSuggestion(Particles.getDisplayName(Particles.instance()._getBestMatch(split[0])));
             return false;
         }
 
         if (split.length > 1 && !split[1].isEmpty()) {
             amount = Parse.Int(split[1]);
             if (amount == null) {
-                error = Msg.getString("particle.invalid-amount", Param.P("input", split[1]));
+                error = Msg.getString(sender, "particle.invalid-amount", Param.P("input", split[1]));
                 return false;
             }
         }
@@ -70,7 +71,7 @@ public class ParticleO extends SingleOption<ParticleEffect, ParticleO> {
         if (split.length > 2 && !split[2].isEmpty()) {
             speed = Parse.Double(split[2]);
             if (speed == null) {
-                error = Msg.getString("particle.invalid-speed", Param.P("input", split[2]));
+                error = Msg.getString(sender, "particle.invalid-speed", Param.P("input", split[2]));
                 return false;
             }
         }
@@ -86,7 +87,7 @@ public class ParticleO extends SingleOption<ParticleEffect, ParticleO> {
 
         if (split.length > 4 && !split[4].isEmpty()) {
             if (particle.getDataType() == null) {
-                error = Msg.getString("particle.invalid-data", Param.P("input", split[5]));
+                error = Msg.getString(sender, "particle.invalid-data", Param.P("input", split[5]));
                 return false;
             }
             if (particle.getDataType().equals(MaterialData.class)) {
@@ -105,7 +106,7 @@ public class ParticleO extends SingleOption<ParticleEffect, ParticleO> {
                 data = (ItemStack)itemOption.getValue();
             }
             if (data == null) {
-                error = Msg.getString("particle.invalid-data", Param.P("input", split[5]));
+                error = Msg.getString(sender, "particle.invalid-data", Param.P("input", split[5]));
                 return false;
             }
         }
@@ -143,21 +144,8 @@ public class ParticleO extends SingleOption<ParticleEffect, ParticleO> {
 
         String[] data = input.split(":", -1);
         if (data.length <= 1) {
-            for (String key : Particles.getAliasMap().keySet()) {
-                String name = key.replace(" ", "");
-                if (name.toLowerCase().startsWith(data[0].toLowerCase())) {
-                    suggestions.add(prefix + name);
-                }
-            }
-            if (data[0].length() > 0) {
-                for (List<String> aliases : Particles.getAliasMap().values()) {
-                    for (String alias : aliases) {
-                        String name = alias.replace(" ", "");
-                        if (name.toLowerCase().startsWith(data[0].toLowerCase())) {
-                            suggestions.add(prefix + name);
-                        }
-                    }
-                }
+            for (String name : Particles.instance()._complete(data[0])) {
+                suggestions.add(prefix + name);
             }
         } else if (data.length <= 2) {
             int[] amounts = new int[] {0, 1, 10, 20, 30, 40, 50, 100};
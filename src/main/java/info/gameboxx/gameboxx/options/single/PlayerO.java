@@ -25,9 +25,12 @@
 
 package info.gameboxx.gameboxx.options.single;
 
+import com.google.common.base.Predicate;
+import info.gameboxx.gameboxx.GameBoxx;
 import info.gameboxx.gameboxx.messages.Msg;
 import info.gameboxx.gameboxx.messages.Param;
 import info.gameboxx.gameboxx.options.SingleOption;
+import info.gameboxx.gameboxx.util.CompletionIndex;
 import info.gameboxx.gameboxx.util.Str;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
@@ -50,7 +53,7 @@ public class PlayerO extends SingleOption<Player, PlayerO> {
         if (input.isEmpty() || input.equals("@")) {
             value = (sender != null && sender instanceof Player) ? (Player)sender : null;
             if (value == null) {
-                error = Msg.getString("player.non-player");
+                error = Msg.getString(sender, "player.non-player");
                 return false;
             }
             return true;
@@ -64,7 +67,7 @@ public class PlayerO extends SingleOption<Player, PlayerO> {
         if (input.length() == 36 && components.length == 5 && !components[0].isEmpty()) {
             value = Bukkit.getPlayer(UUID.fromString(input));
             if (value == null) {
-                error = Msg.getString("player.invalid", Param.P("input", input));
+                error = Msg.getString(sender, "player.invalid", Param.P("input", input));
                 return false;
             }
         } else {
@@ -81,7 +84,7 @@ public class PlayerO extends SingleOption<Player, PlayerO> {
         }
 
         if (value == null) {
-            error = Msg.getString("player.invalid", Param.P("input", input));
+            error = Msg.getString(sender, "player.invalid", Param.P("input", input));
             return false;
         }
 
@@ -112,18 +115,24 @@ public class PlayerO extends SingleOption<Player, PlayerO> {
     }
 
     @Override
-    public List<String> onComplete(CommandSender sender, String prefix, String input) {
+    public List<String> onComplete(final CommandSender sender, String prefix, String input) {
         List<String> suggestions = new ArrayList<>();
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (input.trim().isEmpty() || player.getName().toLowerCase().startsWith(input) || Str.stripColor(player.getDisplayName()).startsWith(input)) {
-                if (sender instanceof Player) {
-                    if (!((Player)sender).canSee(player)) {
-                        continue;
-                    }
+        final String search = input.trim().toLowerCase();
+        //Filtered before the limit is applied so hidden players don't take the place of visible players.
+        Predicate<String> filter = new Predicate<String>() {
+            @Override
+            public boolean apply(String name) {
+                Player player = Bukkit.getPlayerExact(name);
+                if (player == null || (sender instanceof Player && !((Player)sender).canSee(player))) {
+                    return false;
                 }
-                suggestions.add(prefix + player.getName());
+                //The indexed display name may be outdated so check the current one.
+                return name.toLowerCase().startsWith(search) || Str.stripColor(player.getDisplayName()).toLowerCase().startsWith(search);
             }
+        };
+        for (String name : GameBoxx.get().getUM().getOnlineNames().complete(search, CompletionIndex.LIMIT, filter)) {
+            suggestions.add(prefix + name);
         }
 
         Collections.sort(suggestions);
@@ -57,14 +57,15 @@ public class PotionO extends SingleOption<PotionEffect, PotionO> {
 
         PotionEffectType type = PotionEffects.get(split[0]);
         if (type == null) {
-            error = Msg.getString("potion.invalid-type", Param.P("input", split[0]), Param.P("types", Utils.getAliasesString("potion.entry", PotionEffects.getAliasMap())));
+            error = Msg.getString(sender, "potion.invalid-type", Param.P("input", split[0]), Param.P("types", Utils.getAliasesString("potion.entry", PotionEffects.getAliasMap())))
+                    + Utils.getSuggestion(PotionEffects.getDisplayName(PotionEffects.instance()._getBestMatch(split[0])));
             return false;
         }
 
         if (split.length > 1 && !split[1].isEmpty()) {
             amplifier = Parse.Int(split[1]);
             if (amplifier == null) {
-                error = Msg.getString("potion.invalid-amplifier", Param.P("input", split[0]));
+                error = Msg.getString(sender, "potion.invalid-amplifier", Param.P("input", split[0]));
                 return false;
             }
         }
@@ -72,7 +73,7 @@ public class PotionO extends SingleOption<PotionEffect, PotionO> {
         if (split.length > 2 && !split[2].isEmpty()) {
             duration = Parse.Int(split[2]);
             if (duration == null) {
-                error = Msg.getString("potion.invalid-duration", Param.P("input", split[1]));
+                error = Msg.getString(sender, "potion.invalid-duration", Param.P("input", split[1]));
                 return false;
             }
             if (duration < 0) {
@@ -124,21 +125,8 @@ public class PotionO extends SingleOption<PotionEffect, PotionO> {
 
         String[] data = input.split(":", -1);
         if (data.length <= 1) {
-            for (String key : PotionEffects.getAliasMap().keySet()) {
-                String name = key.replace(" ", "");
-                if (name.toLowerCase().startsWith(data[0].toLowerCase())) {
-                    suggestions.add(prefix + name);
-                }
-            }
-            if (data[0].length() > 0) {
-                for (List<String> aliases : PotionEffects.getAliasMap().values()) {
-                    for (String alias : aliases) {
-                        String name = alias.replace(" ", "");
-                        if (name.toLowerCase().startsWith(data[0].toLowerCase())) {
-                            suggestions.add(prefix + name);
-                        }
-                    }
-                }
+            for (String name : PotionEffects.instance()._complete(data[0])) {
+                suggestions.add(prefix + name);
             }
         } else if (data.length <= 2) {
             if (data[1].isEmpty()) {
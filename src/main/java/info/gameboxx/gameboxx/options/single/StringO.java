@@ -28,6 +28,7 @@ package info.gameboxx.gameboxx.options.single;
 import info.gameboxx.gameboxx.messages.Msg;
 import info.gameboxx.gameboxx.messages.Param;
 import info.gameboxx.gameboxx.options.SingleOption;
+import info.gameboxx.gameboxx.util.CompletionIndex;
 import info.gameboxx.gameboxx.util.Pair;
 import info.gameboxx.gameboxx.util.Str;
 import info.gameboxx.gameboxx.util.Utils;
@@ -45,6 +46,8 @@ public class StringO extends SingleOption<String, StringO> {
 
     private List<String> matchList = null;
     private Map<String, List<String>> matchMap = null;
+    private CompletionIndex keyCompletions = null;
+    private CompletionIndex completions = null;
 
     private String typeName = "String";
 
@@ -81,6 +84,7 @@ public class StringO extends SingleOption<String, StringO> {
         for (String str : strings) {
             matchList.add(str.toLowerCase());
         }
+        completions = null;
         return this;
     }
 
@@ -93,6 +97,7 @@ public class StringO extends SingleOption<String, StringO> {
             strings.set(i++, str.toLowerCase());
         }
         matchList = strings;
+        completions = null;
         return this;
     }
 
@@ -106,6 +111,7 @@ public class StringO extends SingleOption<String, StringO> {
             }
             matchMap.put(pair.first.toLowerCase(), pair.second);
         }
+        completions = null;
         return this;
     }
 
@@ -121,6 +127,7 @@ public class StringO extends SingleOption<String, StringO> {
             }
             matchMap.put(entry.getKey().toLowerCase(), entry.getValue());
         }
+        completions = null;
         return this;
     }
 
@@ -136,7 +143,7 @@ public class StringO extends SingleOption<String, StringO> {
     public boolean parse(CommandSender sender, String input) {
         if (matchList != null && !matchList.isEmpty()) {
             if (!matchList.contains(input.toLowerCase())) {
-                error = Msg.getString("string.match-list", Param.P("input", input), Param.P("values", Str.implode(matchList)));
+                error = Msg.getString(sender, "string.match-list", Param.P("input", input), Param.P("values", Str.implode(matchList)));
                 return false;
             }
             value = input;
@@ -149,7 +156,7 @@ public class StringO extends SingleOption<String, StringO> {
                         return true;
                     }
                 }
-                error = Msg.getString("string.match-map", Param.P("input", input), Param.P("values", Utils.getAliasesString("string.match-map-entry", matchMap)));
+                error = Msg.getString(sender, "string.match-map", Param.P("input", input), Param.P("values", Utils.getAliasesString("string.match-map-entry", matchMap)));
                 return false;
             }
             value = input;
@@ -157,20 +164,20 @@ public class StringO extends SingleOption<String, StringO> {
         } else {
             if (regex != null && !input.matches(regex)) {
                 if (regexFormat == null || regexFormat.isEmpty()) {
-                    error = Msg.getString("string.match-regex", Param.P("input", input), Param.P("regex", regex));
+                    error = Msg.getString(sender, "string.match-regex", Param.P("input", input), Param.P("regex", regex));
                 } else {
-                    error = Msg.getString("string.match-regex-format", Param.P("input", input), Param.P("format", regexFormat));
+                    error = Msg.getString(sender, "string.match-regex-format", Param.P("input", input), Param.P("format", regexFormat));
                 }
                 return false;
             }
 
             if (minChars != null && input.length() < minChars) {
-                error = Msg.getString("string.chars-min", Param.P("input", input), Param.P("chars", minChars));
+                error = Msg.getString(sender, "string.chars-min", Param.P("input", input), Param.P("chars", minChars));
                 return false;
             }
 
             if (maxChars != null && input.length() > maxChars) {
-                error = Msg.getString("string.chars-max", Param.P("input", input), Param.P("chars", maxChars));
+                error = Msg.getString(sender, "string.chars-max", Param.P("input", input), Param.P("chars", maxChars));
                 return false;
             }
             value = input;
@@ -196,27 +203,26 @@ public class StringO extends SingleOption<String, StringO> {
     public List<String> onComplete(CommandSender sender, String prefix, String input) {
         List<String> suggestions = new ArrayList<>();
 
-        if (matchList != null && !matchList.isEmpty()) {
-            for (String match : matchList) {
-                if (match.toLowerCase().startsWith(input.toLowerCase())) {
-                    suggestions.add(prefix + match);
+        if (completions == null) {
+            CompletionIndex.Builder keys = CompletionIndex.builder();
+            CompletionIndex.Builder all = CompletionIndex.builder();
+            if (matchList != null) {
+                keys.addAll(matchList);
+                all.addAll(matchList);
+            }
+            if (matchMap != null) {
+                keys.addAll(matchMap.keySet());
+                all.addAll(matchMap.keySet());
+                for (List<String> matches : matchMap.values()) {
+                    all.addAll(matches);
                 }
             }
+            keyCompletions = keys.build();
+            completions = all.build();
         }
 
-        if (matchMap != null && !matchMap.isEmpty()) {
-            for (String match : matchMap.keySet()) {
-                if (match.toLowerCase().startsWith(input.toLowerCase())) {
-                    suggestions.add(prefix + match);
-                }
-            }
-            for (List<String> matches : matchMap.values()) {
-                for (String match : matches) {
-                    if ((suggestions.size() < 20 || input.length() > 1) && match.toLowerCase().startsWith(input)) {
-                        suggestions.add(prefix + match);
-                    }
-                }
-            }
+        for (String match : input.isEmpty() ? keyCompletions.complete(input) : completions.complete(input)) {
+            suggestions.add(prefix + match);
         }
 
         Collections.sort(suggestions);
@@ -225,6 +231,10 @@ public class StringO extends SingleOption<String, StringO> {
 
     @Override
     public StringO clone() {
-        return super.cloneData(new StringO().minChars(minChars).maxChars(maxChars).match(matchList).match(matchMap).matchRegex(regex));
+        StringO clone = new StringO().minChars(minChars).maxChars(maxChars).match(matchList).match(matchMap).matchRegex(regex);
+        //The indexes are immutable so the clone can use the same ones instead of building them again.
+        clone.keyCompletions = keyCompletions;
+        clone.completions = completions;
+        return super.cloneData(clone);
     }
 }
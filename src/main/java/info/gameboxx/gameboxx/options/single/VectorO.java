@@ -45,24 +45,32 @@ public class VectorO extends SingleOption<Vector, VectorO> {
         Vector v = new Vector(0, 0, 0);
 
         //Get the components x,y,z
-        String[] components = input.split(",");
-        if (components.length < 3) {
-            error = Msg.getString("vector.invalid", Param.P("input", input));
-            return false;
-        }
-
         String[] axisKeys = new String[] {"x", "y", "z"};
+        int start = 0;
         for (int i = 0; i < axisKeys.length; i++) {
-            if (Parse.Double(components[0]) == null) {
-                error = Msg.getString("axis-invalid-double", Param.P("input", value), Param.P("axis", axisKeys[i]));
+            int end = input.indexOf(',', start);
+            if (end < 0) {
+                if (i < axisKeys.length - 1) {
+                    error = Msg.getString(sender, "vector.invalid", Param.P("input", input));
+                    return false;
+                }
+                end = input.length();
+            }
+            double component = Parse.scanDouble(input, start, end);
+            if (Double.isNaN(component)) {
+                error = Msg.getString(sender, "axis-invalid-double", Param.P("input", input.substring(start, end)), Param.P("axis", axisKeys[i]));
                 return false;
             }
+            if (i == 0) {
+                v.setX(component);
+            } else if (i == 1) {
+                v.setY(component);
+            } else {
+                v.setZ(component);
+            }
+            start = end + 1;
         }
 
-        v.setX(Parse.Double(components[0]));
-        v.setY(Parse.Double(components[1]));
-        v.setZ(Parse.Double(components[2]));
-
         value = v;
         return true;
     }
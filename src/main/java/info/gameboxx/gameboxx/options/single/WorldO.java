@@ -44,7 +44,7 @@ public class WorldO extends SingleOption<World, WorldO> {
         if (input.isEmpty() || input.equals("@")) {
             Location location = Utils.getLocation(sender);
             if (location == null) {
-                error = Msg.getString("selector-console-player", Param.P("type", input));
+                error = Msg.getString(sender, "selector-console-player", Param.P("type", input));
                 return false;
             }
             value = location.getWorld();
@@ -70,7 +70,7 @@ public class WorldO extends SingleOption<World, WorldO> {
         }
 
         if (value == null) {
-            error = Msg.getString("world.invalid", Param.P("input", input));
+            error = Msg.getString(sender, "world.invalid", Param.P("input", input));
             return false;
         }
         return true;
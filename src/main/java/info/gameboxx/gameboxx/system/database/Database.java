@@ -0,0 +1,324 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.system.database;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.zaxxer.hikari.HikariDataSource;
+import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.config.PluginCfg;
+import org.bukkit.Bukkit;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes all database work for GameBoxx.
+ * <p/>
+ * Queries run on a dedicated thread pool with one thread per pooled connection.
+ * The queue in front of the pool is bounded so the database can't fall behind without anybody noticing.
+ * When the queue is full async callers will block until there is room.
+ * Calls from the main thread never block or run queries themselves, their queries are rejected and the returned future fails right away.
+ * <p/>
+ * Failed queries are retried with an exponential backoff when the error is transient (connection loss, deadlocks etc).
+ * The execution time of each query is recorded in {@link QueryStats} per query name and slow queries are logged.
+ * <p/>
+ * Use {@link #submit(String, Query)} to run a query and {@link #callback(ListenableFuture, FutureCallback)} to handle the result on the main thread.
+ */
+public class Database {
+
+    private final GameBoxx gb;
+    private final HikariDataSource dataSource = new HikariDataSource();
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String, QueryStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final int maxRetries;
+    private final long retryDelay;
+    private final long slowQueryMillis;
+
+    private final Executor mainThread = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            if (Bukkit.isPrimaryThread()) {
+                command.run();
+            } else if (gb.isEnabled()) {
+                Bukkit.getScheduler().runTask(gb, command);
+            }
+        }
+    };
+
+    public Database(GameBoxx gb, PluginCfg cfg) {
+        this.gb = gb;
+        this.maxRetries = Math.max(0, cfg.database__maxRetries);
+        this.retryDelay = Math.max(1, cfg.database__retryDelay);
+        this.slowQueryMillis = cfg.database__slowQueryMillis;
+
+        int poolSize = Math.max(1, cfg.database__poolSize);
+        dataSource.setPoolName("GameBoxx");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setConnectionTimeout(cfg.database__connectionTimeout);
+        dataSource.setDataSourceClassName(cfg.database__dataSourceClass);
+        dataSource.addDataSourceProperty("serverName", cfg.database__server);
+        dataSource.addDataSourceProperty("port", cfg.database__port);
+        dataSource.addDataSourceProperty("databaseName", cfg.database__databaseName);
+        dataSource.addDataSourceProperty("user", cfg.database__username);
+        dataSource.addDataSourceProperty("password", cfg.database__password);
+
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(poolSize * Math.max(1, cfg.database__queuePerConnection)),
+                new ThreadFactoryBuilder().setNameFormat("GameBoxx-DB-%d").setDaemon(true).build(),
+                new BackPressurePolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submit a query to be executed on the database thread pool.
+     * <p/>
+     * When the queue is full and this is called from the main thread the query is rejected so the server never waits for the database.
+     * From any other thread this will block until the query can be queued.
+     * The returned future fails with a {@link RejectedExecutionException} when the query has been rejected or when the database has been shut down.
+     *
+     * @param name The name of the query used for statistics and logging. (e.g. points.load)
+     * @param query The {@link Query} to execute.
+     * @param <T> The type of the result.
+     * @return Future which completes with the result of the query or with the {@link SQLException} when it failed.
+     */
+    public <T> ListenableFuture<T> submit(final String name, final Query<T> query) {
+        final SettableFuture<T> future = SettableFuture.create();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    execute(name, query, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            getStats(name).record(0, true);
+            gb.error("Query '" + name + "' has been rejected: " + e.getMessage());
+            future.setException(e);
+        }
+        return future;
+    }
+
+    /**
+     * Handle the result of a query on the main thread.
+     * When the future is already completed and this is called from the main thread the callback runs immediately.
+     *
+     * @param future The future returned by {@link #submit(String, Query)}.
+     * @param callback The callback to run on the main thread.
+     * @param <T> The type of the result.
+     */
+    public <T> void callback(ListenableFuture<T> future, FutureCallback<? super T> callback) {
+        Futures.addCallback(future, callback, mainThread);
+    }
+
+    /**
+     * Get an executor which runs tasks on the main server thread.
+     * Useful to chain Guava future transformations that need to access the Bukkit API.
+     *
+     * @return Main thread executor.
+     */
+    public Executor getMainThreadExecutor() {
+        return mainThread;
+    }
+
+    private <T> void execute(String name, Query<T> query, SettableFuture<T> future) {
+        QueryStats queryStats = getStats(name);
+        long start = System.nanoTime();
+        int attempt = 0;
+        while (true) {
+            Connection connection = null;
+            try {
+                connection = dataSource.getConnection();
+                T result = query.execute(connection);
+                long time = System.nanoTime() - start;
+                queryStats.record(time, false);
+                logSlow(name, time);
+                future.set(result);
+                return;
+            } catch (SQLException e) {
+                if (attempt < maxRetries && isTransient(e)) {
+                    queryStats.retry();
+                    try {
+                        Thread.sleep(retryDelay << attempt);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        queryStats.record(System.nanoTime() - start, true);
+                        future.setException(e);
+                        return;
+                    }
+                    attempt++;
+                    continue;
+                }
+                queryStats.record(System.nanoTime() - start, true);
+                gb.error("Query '" + name + "' failed" + (attempt > 0 ? " after " + attempt + " retries" : "") + ": " + e.getMessage() + " [" + e.getSQLState() + "]");
+                future.setException(e);
+                return;
+            } catch (RuntimeException e) {
+                queryStats.record(System.nanoTime() - start, true);
+                gb.error("Query '" + name + "' failed: " + e.getMessage());
+                future.setException(e);
+                return;
+            } finally {
+                if (connection != null) {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        gb.error("Could not close connection!");
+                    }
+                }
+            }
+        }
+    }
+
+    private void logSlow(String name, long nanos) {
+        if (slowQueryMillis <= 0) {
+            return;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis >= slowQueryMillis) {
+            gb.warn("Slow query '" + name + "' took " + millis + "ms! (queued: " + executor.getQueue().size() + ")");
+        }
+    }
+
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        //08 = connection exceptions, 40 = transaction rollback (deadlocks/serialization failures)
+        if (state != null && (state.startsWith("08") || state.startsWith("40"))) {
+            return true;
+        }
+        //MySQL lock wait timeout and deadlock
+        return e.getErrorCode() == 1205 || e.getErrorCode() == 1213;
+    }
+
+    private QueryStats getStats(String name) {
+        QueryStats queryStats = stats.get(name);
+        if (queryStats == null) {
+            queryStats = new QueryStats(name);
+            QueryStats existing = stats.putIfAbsent(name, queryStats);
+            if (existing != null) {
+                queryStats = existing;
+            }
+        }
+        return queryStats;
+    }
+
+    /**
+     * Get the execution statistics for all queries that have been executed.
+     *
+     * @return Collection with {@link QueryStats} for each query name.
+     */
+    public Collection<QueryStats> getStats() {
+        return Collections.unmodifiableCollection(stats.values());
+    }
+
+    /**
+     * Get the amount of queries waiting for a free connection.
+     *
+     * @return The size of the query queue.
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Get the amount of queries that have been rejected because the queue was full or the database was shut down.
+     *
+     * @return The amount of rejected queries.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Get the Hikari data source used by the executor.
+     * Prefer {@link #submit(String, Query)} over using the data source directly.
+     *
+     * @return The {@link HikariDataSource}.
+     */
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Stop accepting new queries, wait for the queued queries to finish and close the connection pool.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                gb.warn("Not all database queries finished in time! " + executor.shutdownNow().size() + " queries have been cancelled.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dataSource.close();
+    }
+
+
+    /**
+     * Queues rejected tasks again and blocks the caller while the queue is full.
+     * The main thread never waits for the queue, the task is rejected instead so the server doesn't stall.
+     */
+    private static class BackPressurePolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("The database has been shut down!");
+            }
+            if (Bukkit.isPrimaryThread()) {
+                throw new RejectedExecutionException("The database queue is full!");
+            }
+            try {
+                executor.getQueue().put(runnable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(e);
+            }
+        }
+    }
+}
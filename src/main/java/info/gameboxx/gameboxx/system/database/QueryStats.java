@@ -0,0 +1,136 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.system.database;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Execution statistics for queries with the same name.
+ * Execution times are recorded in a fixed bucket histogram so recording never allocates.
+ */
+public class QueryStats {
+
+    /** Upper bounds of the histogram buckets in milliseconds. The last bucket has no upper bound. */
+    public static final long[] BUCKETS = new long[] {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500};
+
+    private final String name;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS.length + 1);
+
+    public QueryStats(String name) {
+        this.name = name;
+    }
+
+    void record(long nanos, boolean error) {
+        count.incrementAndGet();
+        if (error) {
+            errors.incrementAndGet();
+        }
+        totalNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxNanos.get())) {
+            if (maxNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BUCKETS.length && millis >= BUCKETS[bucket]) {
+            bucket++;
+        }
+        histogram.incrementAndGet(bucket);
+    }
+
+    void retry() {
+        retries.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The amount of executed queries. (including failed queries)
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return The amount of queries that failed after all retries.
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * @return The amount of times a query was retried because of a transient error.
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * @return The average execution time in milliseconds.
+     */
+    public double getAverageMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : totalNanos.get() / (double)count / 1000000D;
+    }
+
+    /**
+     * @return The longest execution time in milliseconds.
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / 1000000D;
+    }
+
+    /**
+     * Get the amount of queries in each histogram bucket.
+     * The value at index {@code i} is the amount of queries that took less than {@code BUCKETS[i]} milliseconds.
+     * The last value is the amount of queries that took longer than the last bucket.
+     *
+     * @return Array with the query count for each bucket.
+     */
+    public long[] getHistogram() {
+        long[] values = new long[histogram.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = histogram.get(i);
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d errors=%d retries=%d avg=%.2fms max=%.2fms", name, getCount(), getErrors(), getRetries(), getAverageMillis(), getMaxMillis());
+    }
+}
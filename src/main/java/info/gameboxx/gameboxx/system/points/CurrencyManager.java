@@ -26,18 +26,60 @@
 package info.gameboxx.gameboxx.system.points;
 
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
+import com.google.common.util.concurrent.Striped;
 import info.gameboxx.gameboxx.system.points.model.Currency;
 import info.gameboxx.gameboxx.system.points.model.CurrencyHolder;
+import info.gameboxx.gameboxx.user.User;
+import info.gameboxx.gameboxx.util.Leaderboard;
+import org.apache.commons.lang.Validate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
 
 
 /**
  * Manages currency transactions within the server.
+ * <p/>
+ * All balance changes go through {@link Transaction}s which are committed atomically.
+ * Holders are guarded by striped locks so transactions on different holders never block each other.
+ * Reading a balance never locks.
+ * <p/>
+ * Every committed transaction is queued as a {@link Transaction.Record} which the persistence layer can read with {@link #peekRecords()}
+ * and remove with {@link #removeRecords(int)} once they have been written.
+ * <p/>
+ * Each currency has a {@link Leaderboard} which is updated incrementally whenever the balance of a {@link User} changes.
  */
 public class CurrencyManager {
 
-    private Table<CurrencyHolder, Currency, Double> currencyTable = HashBasedTable.create();
+    private final ConcurrentMap<CurrencyHolder, Account> accounts = new ConcurrentHashMap<>();
+    private final Striped<Lock> locks = Striped.lock(64);
+    private final Cache<String, Boolean> committedKeys = CacheBuilder.newBuilder().maximumSize(10000).expireAfterWrite(1, TimeUnit.HOURS).build();
+    private final Queue<Transaction.Record> records = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<Currency, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    /**
+     * Start a new {@link Transaction}.
+     * Add operations to the transaction and call {@link Transaction#commit()} to apply them all at once.
+     *
+     * @return A new empty transaction.
+     */
+    public Transaction transaction() {
+        return new Transaction(this);
+    }
 
     /**
      * Adds a an certain amount of {@link Currency} to {@link CurrencyHolder} account.
@@ -48,11 +90,7 @@ public class CurrencyManager {
      * @param amount         Amount to give
      */
     public void give(CurrencyHolder currencyHolder, String currency, double amount) {
-        if (currencyTable.get(currencyHolder, Currency.forName(currency)) != null) {
-            currencyTable.put(currencyHolder, Currency.forName(currency), currencyTable.get(currencyHolder, Currency.forName(currency)) + amount);
-        } else {
-            currencyTable.put(currencyHolder, Currency.forName(currency), amount);
-        }
+        transaction().give(currencyHolder, currency, amount).commit();
     }
 
     /**
@@ -63,12 +101,13 @@ public class CurrencyManager {
      * @return Amount of currency
      */
     public double get(CurrencyHolder currencyHolder, String currency) {
-        return currencyTable.get(currencyHolder, Currency.forName(currency));
+        return getBalance(currencyHolder, Currency.forName(currency));
     }
 
     /**
      * Subtracts a specified amount from a {@link CurrencyHolder} account.
      * If the {@link Currency} value after subtraction is less then 0, no amount will be taken from the {@link CurrencyHolder} account.
+     * The check and the subtraction happen atomically.
      *
      * @param currencyHolder Holder of currency
      * @param currency Currency type
@@ -76,11 +115,7 @@ public class CurrencyManager {
      * @return {@link Boolean} value
      */
     public boolean take(CurrencyHolder currencyHolder, String currency, double amount) {
-        if (currencyTable.get(currencyHolder, Currency.forName(currency)) - amount < 0) {
-            return false;
-        }
-        currencyTable.put(currencyHolder, Currency.forName(currency), currencyTable.get(currencyHolder, Currency.forName(currency)) - amount);
-        return true;
+        return transaction().take(currencyHolder, currency, amount).commit().isSuccess();
     }
 
     /**
@@ -91,7 +126,266 @@ public class CurrencyManager {
      * @param amount Amount to set
      */
     public void set(CurrencyHolder currencyHolder, String currency, double amount) {
-        currencyTable.put(currencyHolder, Currency.forName(currency), amount);
+        Currency type = Currency.forName(currency);
+        Validate.notNull(type, "Invalid currency specified!");
+        Lock lock = locks.get(currencyHolder);
+        lock.lock();
+        try {
+            getAccount(currencyHolder).set(type.getIndex(), amount);
+            updateLeaderboard(currencyHolder, type, amount);
+            //Queued while locked so records for the same holder are queued in the order they were applied.
+            List<Transaction.Entry> entries = new ArrayList<>(1);
+            entries.add(new Transaction.Entry(currencyHolder, type, amount));
+            records.add(new Transaction.Record(null, entries));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the value of the {@link CurrencyHolder} account to the amount loaded from storage.
+     * Unlike {@link #set(CurrencyHolder, String, double)} this change is not recorded for persistence.
+     *
+     * @param currencyHolder Holder of currency
+     * @param currency Currency type
+     * @param amount Amount loaded from storage
+     */
+    public void load(CurrencyHolder currencyHolder, String currency, double amount) {
+        Currency type = Currency.forName(currency);
+        Validate.notNull(type, "Invalid currency specified!");
+        Lock lock = locks.get(currencyHolder);
+        lock.lock();
+        try {
+            getAccount(currencyHolder).set(type.getIndex(), amount);
+            updateLeaderboard(currencyHolder, type, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the {@link Leaderboard} for the specified currency.
+     * The leaderboard contains all users that have a balance loaded or seeded with {@link #seedLeaderboard(String, UUID, double)}.
+     *
+     * @param currency Currency type
+     * @return The leaderboard for the currency or {@code null} when the currency doesn't exist.
+     */
+    public Leaderboard getLeaderboard(String currency) {
+        Currency type = Currency.forName(currency);
+        if (type == null) {
+            return null;
+        }
+        return getLeaderboard(type);
+    }
+
+    /**
+     * Add a stored balance to the {@link Leaderboard} of the specified currency.
+     * This is used to fill the leaderboards from storage when the server starts.
+     * The balance is ignored when the player already has a balance on the leaderboard.
+     *
+     * @param currency Currency type
+     * @param uuid The player the balance belongs to.
+     * @param amount The stored balance.
+     */
+    public void seedLeaderboard(String currency, UUID uuid, double amount) {
+        Currency type = Currency.forName(currency);
+        Validate.notNull(type, "Invalid currency specified!");
+        getLeaderboard(type).updateIfAbsent(uuid, amount);
+    }
+
+    /**
+     * Get all {@link Transaction.Record}s that have been committed without removing them.
+     * <p/>
+     * Use this together with {@link #removeRecords(int)} to only remove the records once they have been written.
+     * The records are returned in commit order.
+     *
+     * @return List with committed records. (empty list when there are no changes)
+     */
+    public List<Transaction.Record> peekRecords() {
+        return new ArrayList<>(records);
+    }
+
+    /**
+     * Remove the oldest records from the queue after they have been written.
+     * <p/>
+     * Only one writer may peek and remove records at the same time,
+     * otherwise the removed records might not be the ones that were written.
+     *
+     * @param count The amount of records returned by {@link #peekRecords()} that have been written.
+     */
+    public void removeRecords(int count) {
+        for (int i = 0; i < count; i++) {
+            if (records.poll() == null) {
+                return;
+            }
+        }
+    }
+
+    Transaction.Result commit(Transaction transaction) {
+        List<Transaction.Operation> operations = transaction.getOperations();
+        Set<CurrencyHolder> holders = new HashSet<>();
+        for (Transaction.Operation operation : operations) {
+            if (operation.currency == null) {
+                return Transaction.Result.INVALID_CURRENCY;
+            }
+            holders.add(operation.holder);
+        }
+
+        //The key is locked too so transactions with the same key are never checked at the same time, even with different holders.
+        String key = transaction.getKey();
+        Set<Object> lockKeys = new HashSet<Object>(holders);
+        if (key != null) {
+            lockKeys.add(key);
+        }
+
+        //Striped#bulkGet returns the locks in a consistent order so concurrent transfers can't deadlock.
+        Iterable<Lock> held = locks.bulkGet(lockKeys);
+        for (Lock lock : held) {
+            lock.lock();
+        }
+        try {
+            if (key != null && committedKeys.getIfPresent(key) != null) {
+                return Transaction.Result.DUPLICATE;
+            }
+
+            List<Transaction.Entry> entries = new ArrayList<>();
+            Table<CurrencyHolder, Currency, Double> pending = HashBasedTable.create();
+            for (Transaction.Operation operation : operations) {
+                Double balance = pending.get(operation.holder, operation.currency);
+                if (balance == null) {
+                    balance = getBalance(operation.holder, operation.currency);
+                }
+                double result = balance + operation.delta;
+                if (operation.delta < 0 && result < 0) {
+                    return Transaction.Result.INSUFFICIENT_FUNDS;
+                }
+                pending.put(operation.holder, operation.currency, result);
+            }
+
+            for (Table.Cell<CurrencyHolder, Currency, Double> cell : pending.cellSet()) {
+                getAccount(cell.getRowKey()).set(cell.getColumnKey().getIndex(), cell.getValue());
+                updateLeaderboard(cell.getRowKey(), cell.getColumnKey(), cell.getValue());
+                entries.add(new Transaction.Entry(cell.getRowKey(), cell.getColumnKey(), cell.getValue()));
+            }
+            //Queued while locked so records for the same holder are queued in the order they were applied.
+            if (!entries.isEmpty()) {
+                records.add(new Transaction.Record(key, entries));
+            }
+            //Only successful transactions record the key so failed ones can be retried with the same key.
+            if (key != null) {
+                committedKeys.put(key, Boolean.TRUE);
+            }
+        } finally {
+            for (Lock lock : held) {
+                lock.unlock();
+            }
+        }
+        return Transaction.Result.SUCCESS;
+    }
+
+    /**
+     * Check if the {@link CurrencyHolder} has at least the specified amounts of currency.
+     * This is a single lock free pass over the balances of the holder used to evaluate compiled costs.
+     *
+     * @param currencyHolder Holder of currency
+     * @param indices The currency indexes to check. (see {@link Currency#getIndex()})
+     * @param amounts The required amount for each currency index.
+     * @return True when the holder has enough of all currencies.
+     */
+    public boolean has(CurrencyHolder currencyHolder, int[] indices, double[] amounts) {
+        Account account = accounts.get(currencyHolder);
+        for (int i = 0; i < indices.length; i++) {
+            double balance = account == null ? 0 : account.get(indices[i]);
+            if (balance < amounts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the {@link CurrencyHolder} has at least the specified amount of currency.
+     *
+     * @param currencyHolder Holder of currency
+     * @param index The currency index to check. (see {@link Currency#getIndex()})
+     * @param amount The required amount.
+     * @return True when the holder has enough of the currency.
+     */
+    public boolean has(CurrencyHolder currencyHolder, int index, double amount) {
+        Account account = accounts.get(currencyHolder);
+        return (account == null ? 0 : account.get(index)) >= amount;
+    }
+
+    /**
+     * Get the balance of the {@link CurrencyHolder} for the currency with the specified index.
+     *
+     * @param currencyHolder Holder of currency
+     * @param index The currency index. (see {@link Currency#getIndex()})
+     * @return The balance of the holder.
+     */
+    public double get(CurrencyHolder currencyHolder, int index) {
+        Account account = accounts.get(currencyHolder);
+        return account == null ? 0 : account.get(index);
+    }
+
+    private double getBalance(CurrencyHolder currencyHolder, Currency currency) {
+        Account account = accounts.get(currencyHolder);
+        if (account == null || currency == null) {
+            return 0;
+        }
+        return account.get(currency.getIndex());
+    }
+
+    private Leaderboard getLeaderboard(Currency currency) {
+        Leaderboard leaderboard = leaderboards.get(currency);
+        if (leaderboard == null) {
+            leaderboard = new Leaderboard();
+            Leaderboard existing = leaderboards.putIfAbsent(currency, leaderboard);
+            if (existing != null) {
+                leaderboard = existing;
+            }
+        }
+        return leaderboard;
+    }
+
+    private void updateLeaderboard(CurrencyHolder currencyHolder, Currency currency, double amount) {
+        if (currencyHolder instanceof User && ((User)currencyHolder).getUuid() != null) {
+            getLeaderboard(currency).update(((User)currencyHolder).getUuid(), amount);
+        }
+    }
+
+    private Account getAccount(CurrencyHolder currencyHolder) {
+        Account account = accounts.get(currencyHolder);
+        if (account == null) {
+            account = new Account(Currency.count());
+            Account existing = accounts.putIfAbsent(currencyHolder, account);
+            if (existing != null) {
+                account = existing;
+            }
+        }
+        return account;
+    }
+
+
+    /**
+     * The balances of a single holder indexed by {@link Currency#getIndex()}.
+     * Balances are stored as raw double bits so they can be read without locking.
+     * Writes only happen while holding the lock of the holder.
+     */
+    private static class Account {
+        private final AtomicLongArray balances;
+
+        private Account(int size) {
+            balances = new AtomicLongArray(size);
+        }
+
+        private double get(int index) {
+            return Double.longBitsToDouble(balances.get(index));
+        }
+
+        private void set(int index, double balance) {
+            balances.set(index, Double.doubleToRawLongBits(balance));
+        }
     }
 
 }
@@ -0,0 +1,249 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.system.points;
+
+
+import info.gameboxx.gameboxx.system.points.model.Currency;
+import info.gameboxx.gameboxx.system.points.model.CurrencyHolder;
+import org.apache.commons.lang.Validate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set of currency operations that is committed as a whole.
+ * Either all operations in the transaction are applied or none of them are.
+ * <p/>
+ * Create transactions with {@link CurrencyManager#transaction()} and finish them with {@link #commit()}.
+ * <pre>
+ * Result result = cm.transaction().key(orderId).take(buyer, "coins", 50).give(seller, "coins", 50).commit();
+ * </pre>
+ */
+public class Transaction {
+
+    private final CurrencyManager manager;
+    private final List<Operation> operations = new ArrayList<>();
+    private String key = null;
+    private boolean committed = false;
+
+    Transaction(CurrencyManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Set the idempotency key for this transaction.
+     * When a transaction with the same key has already been committed successfully the transaction won't be applied again and {@link Result#DUPLICATE} is returned.
+     * Use this for operations that may be retried like rewards from async tasks.
+     *
+     * @param key Unique key for the operation. (e.g. an order id)
+     * @return This transaction.
+     */
+    public Transaction key(String key) {
+        this.key = key;
+        return this;
+    }
+
+    /**
+     * Give the specified amount of currency to the holder.
+     *
+     * @param holder   Holder of currency
+     * @param currency Currency type
+     * @param amount   Amount to give (must be positive)
+     * @return This transaction.
+     */
+    public Transaction give(CurrencyHolder holder, String currency, double amount) {
+        return give(holder, Currency.forName(currency), amount);
+    }
+
+    /**
+     * Give the specified amount of currency to the holder.
+     *
+     * @param holder   Holder of currency
+     * @param currency Currency type
+     * @param amount   Amount to give (must be positive)
+     * @return This transaction.
+     */
+    public Transaction give(CurrencyHolder holder, Currency currency, double amount) {
+        Validate.isTrue(amount >= 0, "Amount can't be negative!");
+        return add(holder, currency, amount);
+    }
+
+    /**
+     * Take the specified amount of currency from the holder.
+     * The transaction will fail with {@link Result#INSUFFICIENT_FUNDS} if the holder doesn't have enough currency.
+     *
+     * @param holder   Holder of currency
+     * @param currency Currency type
+     * @param amount   Amount to take (must be positive)
+     * @return This transaction.
+     */
+    public Transaction take(CurrencyHolder holder, String currency, double amount) {
+        return take(holder, Currency.forName(currency), amount);
+    }
+
+    /**
+     * Take the specified amount of currency from the holder.
+     * The transaction will fail with {@link Result#INSUFFICIENT_FUNDS} if the holder doesn't have enough currency.
+     *
+     * @param holder   Holder of currency
+     * @param currency Currency type
+     * @param amount   Amount to take (must be positive)
+     * @return This transaction.
+     */
+    public Transaction take(CurrencyHolder holder, Currency currency, double amount) {
+        Validate.isTrue(amount >= 0, "Amount can't be negative!");
+        return add(holder, currency, -amount);
+    }
+
+    /**
+     * Transfer the specified amount of currency from one holder to another.
+     * Call this multiple times with different currencies for multi currency transfers.
+     *
+     * @param from     Holder to take the currency from
+     * @param to       Holder to give the currency to
+     * @param currency Currency type
+     * @param amount   Amount to transfer (must be positive)
+     * @return This transaction.
+     */
+    public Transaction transfer(CurrencyHolder from, CurrencyHolder to, String currency, double amount) {
+        return take(from, currency, amount).give(to, currency, amount);
+    }
+
+    private Transaction add(CurrencyHolder holder, Currency currency, double delta) {
+        Validate.notNull(holder, "Holder can't be null!");
+        Validate.isTrue(!committed, "Transaction has already been committed!");
+        operations.add(new Operation(holder, currency, delta));
+        return this;
+    }
+
+    /**
+     * Apply all operations in this transaction atomically.
+     * A transaction can only be committed once.
+     *
+     * @return The {@link Result} of the transaction.
+     */
+    public Result commit() {
+        Validate.isTrue(!committed, "Transaction has already been committed!");
+        committed = true;
+        return manager.commit(this);
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    List<Operation> getOperations() {
+        return operations;
+    }
+
+
+    /**
+     * The result of a committed {@link Transaction}.
+     */
+    public enum Result {
+        /** All operations have been applied. */
+        SUCCESS,
+        /** One of the holders doesn't have enough currency, nothing has been applied. */
+        INSUFFICIENT_FUNDS,
+        /** One of the currencies isn't registered, nothing has been applied. */
+        INVALID_CURRENCY,
+        /** A transaction with the same key was already committed, nothing has been applied. */
+        DUPLICATE;
+
+        public boolean isSuccess() {
+            return this == SUCCESS;
+        }
+    }
+
+    static class Operation {
+        final CurrencyHolder holder;
+        final Currency currency;
+        final double delta;
+
+        Operation(CurrencyHolder holder, Currency currency, double delta) {
+            this.holder = holder;
+            this.currency = currency;
+            this.delta = delta;
+        }
+    }
+
+    /**
+     * A single balance change from a committed transaction.
+     * All entries of one transaction are recorded together in a {@link Record}.
+     */
+    public static class Entry {
+        private final CurrencyHolder holder;
+        private final Currency currency;
+        private final double balance;
+
+        Entry(CurrencyHolder holder, Currency currency, double balance) {
+            this.holder = holder;
+            this.currency = currency;
+            this.balance = balance;
+        }
+
+        public CurrencyHolder getHolder() {
+            return holder;
+        }
+
+        public Currency getCurrency() {
+            return currency;
+        }
+
+        /**
+         * @return The balance of the holder after the transaction was applied.
+         */
+        public double getBalance() {
+            return balance;
+        }
+    }
+
+    /**
+     * The balance changes of a single committed transaction.
+     * Records are queued by the {@link CurrencyManager} so the persistence layer can write them in batches.
+     */
+    public static class Record {
+        private final String key;
+        private final List<Entry> entries;
+
+        Record(String key, List<Entry> entries) {
+            this.key = key;
+            this.entries = Collections.unmodifiableList(entries);
+        }
+
+        /**
+         * @return The idempotency key of the transaction or {@code null} when no key was set.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public List<Entry> getEntries() {
+            return entries;
+        }
+    }
+}
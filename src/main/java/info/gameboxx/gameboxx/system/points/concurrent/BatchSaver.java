@@ -0,0 +1,105 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.system.points.concurrent;
+
+
+import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.system.database.Query;
+import info.gameboxx.gameboxx.system.points.Transaction;
+import info.gameboxx.gameboxx.system.points.model.Currency;
+import info.gameboxx.gameboxx.user.User;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes all committed {@link Transaction}s from the {@link info.gameboxx.gameboxx.system.points.CurrencyManager} to the database.
+ * Only the latest balance of each user is written and all updates for a currency are sent in one batch.
+ */
+public class BatchSaver implements Query<Void> {
+
+    /** Savers run one at a time so the records that are removed after a save are always the ones that were written. */
+    private static final Object LOCK = new Object();
+
+    @Override
+    public Void execute(Connection connection) throws SQLException {
+        synchronized (LOCK) {
+            //Records are only removed after the batch is committed so nothing is lost when the save fails.
+            List<Transaction.Record> records = GameBoxx.get().getCM().peekRecords();
+            if (records.isEmpty()) {
+                return null;
+            }
+            save(connection, records);
+            GameBoxx.get().getCM().removeRecords(records.size());
+        }
+        return null;
+    }
+
+    private void save(Connection connection, List<Transaction.Record> records) throws SQLException {
+        Map<Currency, Map<UUID, Double>> balances = new LinkedHashMap<>();
+        for (Transaction.Record record : records) {
+            for (Transaction.Entry entry : record.getEntries()) {
+                if (!(entry.getHolder() instanceof User)) {
+                    continue;
+                }
+                Map<UUID, Double> currencyBalances = balances.get(entry.getCurrency());
+                if (currencyBalances == null) {
+                    currencyBalances = new LinkedHashMap<>();
+                    balances.put(entry.getCurrency(), currencyBalances);
+                }
+                currencyBalances.put(((User)entry.getHolder()).getUuid(), entry.getBalance());
+            }
+        }
+
+        connection.setAutoCommit(false);
+        try {
+            for (Map.Entry<Currency, Map<UUID, Double>> currencyEntry : balances.entrySet()) {
+                PreparedStatement preparedStatement = connection.prepareStatement("UPDATE " + currencyEntry.getKey().getName().toLowerCase() + " SET amount=? WHERE uuid=?");
+                try {
+                    for (Map.Entry<UUID, Double> balance : currencyEntry.getValue().entrySet()) {
+                        preparedStatement.setDouble(1, balance.getValue());
+                        preparedStatement.setString(2, balance.getKey().toString());
+                        preparedStatement.addBatch();
+                    }
+                    preparedStatement.executeBatch();
+                } finally {
+                    preparedStatement.close();
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
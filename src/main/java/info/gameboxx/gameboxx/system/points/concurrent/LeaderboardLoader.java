@@ -0,0 +1,72 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.system.points.concurrent;
+
+
+import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.system.database.Query;
+import info.gameboxx.gameboxx.system.points.CurrencyManager;
+import info.gameboxx.gameboxx.system.points.model.Currency;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Fills the currency leaderboards with all the balances stored in the database.
+ * Rows are streamed into the leaderboards so the balances never have to be loaded all at once.
+ */
+public class LeaderboardLoader implements Query<Void> {
+
+    private static final int FETCH_SIZE = 500;
+
+    @Override
+    public Void execute(Connection connection) throws SQLException {
+        CurrencyManager cm = GameBoxx.get().getCM();
+        for (Currency currency : Currency.values()) {
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT uuid, amount FROM " + currency.getName().toLowerCase());
+            try {
+                preparedStatement.setFetchSize(FETCH_SIZE);
+                ResultSet resultSet = preparedStatement.executeQuery();
+                while (resultSet.next()) {
+                    UUID uuid;
+                    try {
+                        uuid = UUID.fromString(resultSet.getString("uuid"));
+                    } catch (IllegalArgumentException e) {
+                        continue;
+                    }
+                    cm.seedLeaderboard(currency.getName(), uuid, resultSet.getDouble("amount"));
+                }
+                resultSet.close();
+            } finally {
+                preparedStatement.close();
+            }
+        }
+        return null;
+    }
+}
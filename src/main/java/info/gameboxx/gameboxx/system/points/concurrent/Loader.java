@@ -27,16 +27,16 @@ package info.gameboxx.gameboxx.system.points.concurrent;
 
 
 import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.system.database.Query;
 import info.gameboxx.gameboxx.system.points.model.Currency;
 import info.gameboxx.gameboxx.user.User;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-public class Loader extends BukkitRunnable {
+public class Loader implements Query<Void> {
 
     private User user;
     private Currency currency;
@@ -47,34 +47,29 @@ public class Loader extends BukkitRunnable {
     }
 
     @Override
-    public void run() {
-        Connection connection = null;
+    public Void execute(Connection connection) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO " + currency.getName().toLowerCase() + " VALUES(?,?,?) ON DUPLICATE KEY UPDATE name=?");
         try {
-            connection = GameBoxx.get().getHikariDataSource().getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO " + currency.getName().toLowerCase() + " VALUES(?,?,?) ON DUPLICATE KEY UPDATE name=?");
             preparedStatement.setString(1, user.getUuid().toString());
             preparedStatement.setString(2, user.getName());
             preparedStatement.setDouble(3, 0);
             preparedStatement.setString(4, user.getName());
             preparedStatement.execute();
-            preparedStatement = connection.prepareStatement("SELECT amount FROM " + currency.getName().toLowerCase() + " WHERE uuid=?");
+        } finally {
+            preparedStatement.close();
+        }
+
+        preparedStatement = connection.prepareStatement("SELECT amount FROM " + currency.getName().toLowerCase() + " WHERE uuid=?");
+        try {
             preparedStatement.setString(1, user.getUuid().toString());
             ResultSet resultSet = preparedStatement.executeQuery();
             if (resultSet.next()) {
-                GameBoxx.get().getCM().set(user, currency.getName(), resultSet.getInt("amount"));
+                GameBoxx.get().getCM().load(user, currency.getName(), resultSet.getDouble("amount"));
             }
-            preparedStatement.close();
             resultSet.close();
-        } catch (SQLException e) {
-            e.printStackTrace();
         } finally {
-            if (connection != null) {
-                try {
-                    connection.close();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-            }
+            preparedStatement.close();
         }
+        return null;
     }
 }
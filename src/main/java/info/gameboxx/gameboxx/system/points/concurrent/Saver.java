@@ -27,15 +27,15 @@ package info.gameboxx.gameboxx.system.points.concurrent;
 
 
 import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.system.database.Query;
 import info.gameboxx.gameboxx.system.points.model.Currency;
 import info.gameboxx.gameboxx.user.User;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
-public class Saver extends BukkitRunnable {
+public class Saver implements Query<Void> {
 
     private User user;
     private Currency currency;
@@ -46,25 +46,15 @@ public class Saver extends BukkitRunnable {
     }
 
     @Override
-    public void run() {
-        Connection connection = null;
+    public Void execute(Connection connection) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement("UPDATE " + currency.getName().toLowerCase() + " SET amount=? WHERE uuid=?");
         try {
-            connection = GameBoxx.get().getHikariDataSource().getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement("UPDATE " + currency.getName().toLowerCase() + " SET amount=? WHERE uuid=?");
-            //preparedStatement.setDouble(1, user.get(currency.getName())); //TODO: Fix this (User#get is unknown)
+            preparedStatement.setDouble(1, GameBoxx.get().getCM().get(user, currency.getName()));
             preparedStatement.setString(2, user.getUuid().toString());
             preparedStatement.execute();
-            preparedStatement.close();
-        } catch (SQLException e) {
-            e.printStackTrace();
         } finally {
-            if (connection != null) {
-                try {
-                    connection.close();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-            }
+            preparedStatement.close();
         }
+        return null;
     }
 }
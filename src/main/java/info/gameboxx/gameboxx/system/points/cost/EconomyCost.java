@@ -26,8 +26,11 @@
 package info.gameboxx.gameboxx.system.points.cost;
 
 
+import info.gameboxx.gameboxx.GameBoxx;
 import info.gameboxx.gameboxx.system.points.model.Cost;
 import info.gameboxx.gameboxx.user.User;
+import net.milkbowl.vault.economy.Economy;
+import org.bukkit.Bukkit;
 
 public class EconomyCost extends Cost {
 
@@ -37,11 +40,13 @@ public class EconomyCost extends Cost {
 
     @Override
     public boolean canAfford(User user) {
-        return false;
+        Economy economy = GameBoxx.get().getEco();
+        return economy != null && economy.has(Bukkit.getOfflinePlayer(user.getUuid()), getCost());
     }
 
     @Override
-    public void apply(User user) {
-
+    public boolean apply(User user) {
+        Economy economy = GameBoxx.get().getEco();
+        return economy != null && economy.withdrawPlayer(Bukkit.getOfflinePlayer(user.getUuid()), getCost()).transactionSuccess();
     }
 }
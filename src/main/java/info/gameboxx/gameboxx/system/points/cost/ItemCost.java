@@ -41,7 +41,7 @@ public class ItemCost extends Cost {
     }
 
     @Override
-    public void apply(User user) {
-
+    public boolean apply(User user) {
+        return false;
     }
 }
@@ -26,27 +26,31 @@
 package info.gameboxx.gameboxx.system.points.cost;
 
 
+import info.gameboxx.gameboxx.system.points.model.Cost;
 import info.gameboxx.gameboxx.system.points.model.Currency;
-import info.gameboxx.gameboxx.system.points.model.MultiOptionalCost;
 import info.gameboxx.gameboxx.user.User;
 
-public class PointCost extends MultiOptionalCost<Currency> {
+public class PointCost extends Cost {
 
-    private String currency;
+    private final Currency currency;
 
-    public PointCost(String currency, double amount) {
-        super("points", amount, Currency.values());
+    public PointCost(Currency currency, double amount) {
+        super("points", amount);
 
         this.currency = currency;
     }
 
+    public Currency getCurrency() {
+        return currency;
+    }
+
     @Override
     public boolean canAfford(User user) {
-        return user.getCurrency(currency) >= getCost();
+        return user.getCurrency(currency.getName()) >= getCost();
     }
 
     @Override
-    public void apply(User user) {
-        user.takeCurrency(currency, getCost());
+    public boolean apply(User user) {
+        return user.takeCurrency(currency.getName(), getCost());
     }
 }
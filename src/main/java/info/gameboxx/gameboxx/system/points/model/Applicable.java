@@ -31,7 +31,13 @@ import org.bukkit.entity.Player;
 
 public interface Applicable<T> {
 
-    void apply(T t);
+    /**
+     * Apply this to the specified target.
+     *
+     * @param t The target to apply this to.
+     * @return {@code true} when it has been applied and {@code false} when nothing has changed.
+     */
+    boolean apply(T t);
 
     interface PlayerApplicable extends Applicable<Player> {}
 
@@ -26,68 +26,49 @@
 package info.gameboxx.gameboxx.system.points.model;
 
 
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import info.gameboxx.gameboxx.user.User;
-import org.apache.commons.lang.Validate;
-import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
-
-import java.math.BigDecimal;
-import java.util.Map;
-import java.util.Set;
 
+/**
+ * An immutable cost like an amount of points or money.
+ * <p/>
+ * Use {@link #build(String)} to compile a cost string into a {@link CostPlan}.
+ */
 public abstract class Cost implements Applicable.UserApplicable {
 
-    private static final Map<String, Cost> costRegistration = Maps.newHashMap();
-    private BigDecimal bigDecimal;
-
-    public Cost(String id) {
-        costRegistration.put(id, this);
-        bigDecimal = BigDecimal.valueOf(0);
-    }
+    private final String id;
+    private final double amount;
 
     public Cost(String id, double amount) {
-        costRegistration.put(id, this);
-        bigDecimal = BigDecimal.valueOf(amount);
+        this.id = id;
+        this.amount = amount;
     }
 
-    //economy:10 points:[gems:5, dollars:10]
-    public static Cost[] build(String input) {
-        Validate.notNull(input);
-        String[] split = input.split(" ");
-        Cost[] res = new Cost[split.length];
-        int i = 0;
-        for (String part : input.split(" ")) {
-            String[] partSplit = part.split(":", 2);
-            Cost cost = costRegistration.get(partSplit[0]);
-            Validate.notNull(cost);
-            if (!cost.isMultiOptional()) {
-                cost.setCost(Double.parseDouble(partSplit[1]));
-            } else {
-                if (partSplit[1].startsWith("[")) {
-                    partSplit[1] = partSplit[1].substring(1);
-                    String[] optionSplit = partSplit[1].split(", ");
-                    MultiOptionalCost multiOptionalCost = (MultiOptionalCost) cost;
-                    int j = 0;
-                    for (Object object : multiOptionalCost.getOptions()) {
-                        if (object.toString().toLowerCase().equals(optionSplit[j].split(":")[0])) {
-
-                        }
-                    }
-                }
-            }
-            res[i++] = cost;
-        }
-        return res;
+    /**
+     * Compile the specified cost string into a {@link CostPlan}.
+     * Plans are cached by their source string so building the same string twice returns the same plan.
+     * <p/>
+     * Example: {@code economy:10 points:[gems:5, dollars:10]}
+     *
+     * @param input The cost string.
+     * @return The compiled {@link CostPlan}.
+     * @throws IllegalArgumentException When the cost string is invalid.
+     * @see CostPlan#compile(String)
+     */
+    public static CostPlan build(String input) {
+        return CostPlan.compile(input);
     }
 
-    public double getCost() {
-        return bigDecimal.doubleValue();
+    /**
+     * Get the type of this cost. (e.g. economy or points)
+     *
+     * @return The type id of the cost.
+     */
+    public String getId() {
+        return id;
     }
 
-    public void setCost(double cost) {
-        bigDecimal = BigDecimal.valueOf(cost);
+    public double getCost() {
+        return amount;
     }
 
     public abstract boolean canAfford(User user);
@@ -0,0 +1,350 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.system.points.model;
+
+
+import info.gameboxx.gameboxx.GameBoxx;
+import info.gameboxx.gameboxx.system.points.CurrencyManager;
+import info.gameboxx.gameboxx.system.points.Transaction;
+import info.gameboxx.gameboxx.system.points.cost.EconomyCost;
+import info.gameboxx.gameboxx.system.points.cost.PointCost;
+import info.gameboxx.gameboxx.user.User;
+import org.apache.commons.lang.Validate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A compiled, immutable cost string.
+ * <p/>
+ * Syntax: {@code economy:10 points:[gems:5, dollars:10] coins:3}
+ * <ul>
+ *     <li>{@code economy:<amount>} costs money from the Vault economy.</li>
+ *     <li>{@code points:<currency>:<amount>} or {@code <currency>:<amount>} costs the amount of the currency.</li>
+ *     <li>{@code points:[<currency>:<amount>, ...]} costs one of the listed options. The first option the user can afford is used.</li>
+ * </ul>
+ * Required amounts of the same currency are merged when compiling and all currencies are resolved to their index.
+ * This way {@link #canAfford(User)} and {@link #apply(User)} only do a single pass over a few primitive arrays.
+ * Options are chosen with the amounts already reserved by the required costs and the other groups taken into account,
+ * so two groups can't both be paid with the same points.
+ * <p/>
+ * Plans are interned by their source string with {@link #compile(String)} so each cost string is only parsed once.
+ */
+public final class CostPlan {
+
+    private static final ConcurrentMap<String, CostPlan> plans = new ConcurrentHashMap<>();
+
+    private final String source;
+    private final List<Cost> costs;
+
+    private final double economy;
+    private final EconomyCost economyCost;
+    private final int[] indices;
+    private final double[] amounts;
+    private final int[][] optionIndices;
+    private final double[][] optionAmounts;
+
+    private CostPlan(String source, double economy, Map<Currency, Double> required, List<List<PointCost>> options) {
+        this.source = source;
+        this.economy = economy;
+
+        List<Cost> costs = new ArrayList<>();
+        economyCost = new EconomyCost(economy);
+        if (economy > 0) {
+            costs.add(economyCost);
+        }
+
+        indices = new int[required.size()];
+        amounts = new double[required.size()];
+        int i = 0;
+        for (Map.Entry<Currency, Double> entry : required.entrySet()) {
+            indices[i] = entry.getKey().getIndex();
+            amounts[i++] = entry.getValue();
+            costs.add(new PointCost(entry.getKey(), entry.getValue()));
+        }
+
+        optionIndices = new int[options.size()][];
+        optionAmounts = new double[options.size()][];
+        for (int g = 0; g < options.size(); g++) {
+            List<PointCost> group = options.get(g);
+            optionIndices[g] = new int[group.size()];
+            optionAmounts[g] = new double[group.size()];
+            for (int o = 0; o < group.size(); o++) {
+                PointCost option = group.get(o);
+                optionIndices[g][o] = option.getCurrency().getIndex();
+                optionAmounts[g][o] = option.getCost();
+            }
+            costs.add(new MultiOptionalCost<>("points", group.toArray(new PointCost[group.size()])));
+        }
+        this.costs = Collections.unmodifiableList(costs);
+    }
+
+    /**
+     * Compile the specified cost string into a {@link CostPlan}.
+     * When the same string has been compiled before the cached plan is returned.
+     *
+     * @param input The cost string. (e.g. {@code economy:10 points:[gems:5, dollars:10]})
+     * @return The compiled {@link CostPlan}.
+     * @throws IllegalArgumentException When the cost string is invalid.
+     */
+    public static CostPlan compile(String input) {
+        Validate.notNull(input);
+        String source = input.trim();
+        CostPlan plan = plans.get(source);
+        if (plan != null) {
+            return plan;
+        }
+        plan = parse(source);
+        CostPlan existing = plans.putIfAbsent(source, plan);
+        return existing == null ? plan : existing;
+    }
+
+    private static CostPlan parse(String source) {
+        double economy = 0;
+        Map<Currency, Double> required = new LinkedHashMap<>();
+        List<List<PointCost>> options = new ArrayList<>();
+
+        for (String part : split(source)) {
+            String[] split = part.split(":", 2);
+            if (split.length < 2) {
+                throw new IllegalArgumentException("Invalid cost '" + part + "' it should be formatted like type:amount!");
+            }
+            String type = split[0].toLowerCase();
+            String value = split[1].trim();
+            if (type.equals("economy") || type.equals("eco") || type.equals("money")) {
+                economy += parseAmount(value);
+            } else if (type.equals("points")) {
+                if (value.startsWith("[") && value.endsWith("]")) {
+                    List<PointCost> group = new ArrayList<>();
+                    for (String option : value.substring(1, value.length() - 1).split(",")) {
+                        if (!option.trim().isEmpty()) {
+                            group.add(parsePoints(option.trim()));
+                        }
+                    }
+                    if (group.size() == 1) {
+                        addRequired(required, group.get(0));
+                    } else if (group.size() > 1) {
+                        options.add(group);
+                    }
+                } else {
+                    addRequired(required, parsePoints(value));
+                }
+            } else {
+                addRequired(required, parsePoints(part));
+            }
+        }
+        return new CostPlan(source, economy, required, options);
+    }
+
+    /** Split the input on whitespace that isn't inside brackets. */
+    private static List<String> split(String source) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            } else if (depth == 0 && Character.isWhitespace(c)) {
+                if (i > start) {
+                    parts.add(source.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        if (start < source.length()) {
+            parts.add(source.substring(start));
+        }
+        return parts;
+    }
+
+    private static PointCost parsePoints(String input) {
+        String[] split = input.split(":", 2);
+        Currency currency = Currency.forName(split[0].trim().toLowerCase());
+        if (currency == null) {
+            throw new IllegalArgumentException("Invalid cost '" + input + "' there is no currency with the name '" + split[0] + "'!");
+        }
+        if (split.length < 2) {
+            throw new IllegalArgumentException("Invalid cost '" + input + "' no amount specified!");
+        }
+        return new PointCost(currency, parseAmount(split[1].trim()));
+    }
+
+    private static double parseAmount(String input) {
+        double amount;
+        try {
+            amount = Double.parseDouble(input);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cost amount '" + input + "'!");
+        }
+        if (amount < 0) {
+            throw new IllegalArgumentException("Invalid cost amount '" + input + "' it can't be negative!");
+        }
+        return amount;
+    }
+
+    private static void addRequired(Map<Currency, Double> required, PointCost cost) {
+        Double amount = required.get(cost.getCurrency());
+        required.put(cost.getCurrency(), amount == null ? cost.getCost() : amount + cost.getCost());
+    }
+
+
+    /**
+     * Check if the specified user can afford this cost.
+     *
+     * @param user The user to check.
+     * @return True when the user has enough money and points to pay all costs.
+     */
+    public boolean canAfford(User user) {
+        CurrencyManager cm = GameBoxx.get().getCM();
+        if (getAffordableOptions(cm, user) == null) {
+            return false;
+        }
+        return economy <= 0 || economyCost.canAfford(user);
+    }
+
+    /**
+     * Take this cost from the specified user.
+     * All points are taken in one {@link Transaction} so nothing is taken when the user can't afford everything.
+     * When the economy payment fails the points will be refunded.
+     *
+     * @param user The user to take the cost from.
+     * @return True when the cost has been paid and false if nothing has been taken.
+     */
+    public boolean apply(User user) {
+        CurrencyManager cm = GameBoxx.get().getCM();
+        int[] options = getAffordableOptions(cm, user);
+        if (options == null) {
+            return false;
+        }
+        Transaction transaction = cm.transaction();
+        Transaction refund = cm.transaction();
+        for (int i = 0; i < indices.length; i++) {
+            transaction.take(user, Currency.forIndex(indices[i]), amounts[i]);
+            refund.give(user, Currency.forIndex(indices[i]), amounts[i]);
+        }
+        for (int g = 0; g < optionIndices.length; g++) {
+            int option = options[g];
+            transaction.take(user, Currency.forIndex(optionIndices[g][option]), optionAmounts[g][option]);
+            refund.give(user, Currency.forIndex(optionIndices[g][option]), optionAmounts[g][option]);
+        }
+        if (!transaction.commit().isSuccess()) {
+            return false;
+        }
+        if (economy > 0 && !economyCost.apply(user)) {
+            refund.commit();
+            return false;
+        }
+        return true;
+    }
+
+    private int[] getAffordableOptions(CurrencyManager cm, User user) {
+        if (!cm.has(user, indices, amounts)) {
+            return null;
+        }
+        if (optionIndices.length == 0) {
+            return new int[0];
+        }
+        double[] available = new double[Currency.count()];
+        for (int[] group : optionIndices) {
+            for (int index : group) {
+                available[index] = cm.get(user, index);
+            }
+        }
+        for (int i = 0; i < indices.length; i++) {
+            available[indices[i]] -= amounts[i];
+        }
+        return selectOptions(optionIndices, optionAmounts, available);
+    }
+
+    /**
+     * Select one option from every option group that can be paid with the available amounts.
+     * <p/>
+     * The amount of a selected option is reserved before the next group is checked.
+     * When a later group can't be paid anymore the previous groups will try their next option.
+     * Options that come first in a group are preferred.
+     *
+     * @param optionIndices The currency index of every option per group.
+     * @param optionAmounts The amount of every option per group.
+     * @param available The available amount for each currency index. (The array is modified while selecting!)
+     * @return The selected option index for every group or {@code null} when not all groups can be paid.
+     */
+    public static int[] selectOptions(int[][] optionIndices, double[][] optionAmounts, double[] available) {
+        int[] selected = new int[optionIndices.length];
+        return selectOptions(optionIndices, optionAmounts, available, selected, 0) ? selected : null;
+    }
+
+    private static boolean selectOptions(int[][] optionIndices, double[][] optionAmounts, double[] available, int[] selected, int group) {
+        if (group >= optionIndices.length) {
+            return true;
+        }
+        for (int o = 0; o < optionIndices[group].length; o++) {
+            int index = optionIndices[group][o];
+            double amount = optionAmounts[group][o];
+            if (available[index] < amount) {
+                continue;
+            }
+            available[index] -= amount;
+            selected[group] = o;
+            if (selectOptions(optionIndices, optionAmounts, available, selected, group + 1)) {
+                return true;
+            }
+            available[index] += amount;
+        }
+        return false;
+    }
+
+    /**
+     * Get the source string this plan was compiled from.
+     *
+     * @return The cost string.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Get all the costs in this plan.
+     * Useful to display the costs, use {@link #canAfford(User)} and {@link #apply(User)} to evaluate them.
+     *
+     * @return Unmodifiable list with costs.
+     */
+    public List<Cost> getCosts() {
+        return costs;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
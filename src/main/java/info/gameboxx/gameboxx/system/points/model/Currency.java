@@ -35,15 +35,22 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 public class Currency {
 
     private static Map<String, Currency> forName = Maps.newHashMap();
+    private static Currency[] byIndex;
 
     static {
-        for (String configurationSection : Config.yamlConfiguration.getKeys(false)) {
+        Set<String> keys = Config.yamlConfiguration.getKeys(false);
+        byIndex = new Currency[keys.size()];
+        int index = 0;
+        for (String configurationSection : keys) {
             ConfigurationSection current = Config.yamlConfiguration.getConfigurationSection(configurationSection);
-            forName.put(configurationSection, new Currency(configurationSection, current.getString("singular"), current.getString("plural"), current.getString("syntax")));
+            Currency currency = new Currency(index, configurationSection, current.getString("singular"), current.getString("plural"), current.getString("syntax"));
+            forName.put(configurationSection, currency);
+            byIndex[index++] = currency;
         }
     }
 
@@ -51,22 +58,59 @@ public class Currency {
         return forName.get(name);
     }
 
+    /**
+     * Get the currency with the specified index.
+     *
+     * @param index The index of the currency. (see {@link #getIndex()})
+     * @return The currency with the index.
+     */
+    public static Currency forIndex(int index) {
+        return byIndex[index];
+    }
+
+    /**
+     * Get all registered currencies ordered by their index.
+     *
+     * @return Array with all currencies.
+     */
     public static Currency[] values() {
-        return forName.values().toArray(new Currency[forName.values().size()]);
+        return Arrays.copyOf(byIndex, byIndex.length);
+    }
+
+    /**
+     * Get the amount of registered currencies.
+     * All currency indexes are between 0 (inclusive) and this value (exclusive).
+     *
+     * @return The amount of registered currencies.
+     */
+    public static int count() {
+        return byIndex.length;
     }
 
+    private final int index;
     private String name;
     private String singular;
     private String plural;
     private String syntax;
 
-    private Currency(String name, String singular, String plural, String syntax) {
+    private Currency(int index, String name, String singular, String plural, String syntax) {
+        this.index = index;
         this.name = name;
         this.singular = singular;
         this.plural = plural;
         this.syntax = syntax;
     }
 
+    /**
+     * Get the unique index of this currency.
+     * Indexes are assigned when the currencies are loaded and can be used for array based lookups.
+     *
+     * @return The index of the currency.
+     */
+    public int getIndex() {
+        return index;
+    }
+
     public String getName() {
         return name;
     }
@@ -32,7 +32,7 @@ public interface CurrencyHolder {
 
     double getCurrency(String currency);
 
-    void takeCurrency(String currency, double amount);
+    boolean takeCurrency(String currency, double amount);
 
     void setCurrency(String currency, double amount);
 }
@@ -26,22 +26,53 @@
 package info.gameboxx.gameboxx.system.points.model;
 
 
-public abstract class MultiOptionalCost<T> extends Cost {
+import info.gameboxx.gameboxx.user.User;
+
+import java.util.Arrays;
+
+/**
+ * A cost that can be paid with one of multiple options.
+ * The first option that the user can afford will be applied.
+ *
+ * @param <T> The type of the cost options.
+ */
+public class MultiOptionalCost<T extends Cost> extends Cost {
 
     private final T[] options;
 
     public MultiOptionalCost(String id, T[] options) {
-        super(id);
-        this.options = options;
+        super(id, 0);
+        this.options = Arrays.copyOf(options, options.length);
     }
 
-    public MultiOptionalCost(String id, double amount, T[] options) {
-        super(id, amount);
-        this.options = options;
+    public T[] getOptions() {
+        return Arrays.copyOf(options, options.length);
     }
 
-    public T[] getOptions() {
-        return options;
+    /**
+     * Get the first option that the specified user can afford.
+     *
+     * @param user The user to check.
+     * @return The first affordable option or {@code null} when the user can't afford any of the options.
+     */
+    public T getAffordable(User user) {
+        for (T option : options) {
+            if (option.canAfford(user)) {
+                return option;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean canAfford(User user) {
+        return getAffordable(user) != null;
+    }
+
+    @Override
+    public boolean apply(User user) {
+        T option = getAffordable(user);
+        return option != null && option.apply(user);
     }
 
     @Override
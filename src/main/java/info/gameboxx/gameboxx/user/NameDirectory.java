@@ -0,0 +1,429 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.user;
+
+import info.gameboxx.gameboxx.GameBoxx;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A local directory of player names and UUIDs.
+ * <p/>
+ * Looking up an unknown name with {@link org.bukkit.Bukkit#getOfflinePlayer(String)} does a blocking web request.
+ * This directory remembers every name/UUID pair the server has seen so names can be resolved without that lookup.
+ * It's fed by players joining, by the server usercache and by async lookups from the {@link UserManager}.
+ * <p/>
+ * The directory is stored in a memory mapped file which is an open addressing hash table keyed by the lowercase name.
+ * Each slot has a fixed size so lookups are a few reads from the mapped buffer and nothing has to be loaded at startup except a UUID index.
+ * <p/>
+ * Slot layout: [name length (1)] [name (16)] [padding (7)] [uuid most sig bits (8)] [uuid least sig bits (8)] [last seen (8)]
+ * A name length of 0 marks an empty slot and -1 marks a removed slot.
+ */
+public class NameDirectory {
+
+    private static final int MAGIC = 0x47424E44;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 48;
+    private static final int NAME_LENGTH = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte EMPTY = 0;
+    private static final byte REMOVED = -1;
+
+    private static final int UUID_OFFSET = 24;
+    private static final int SEEN_OFFSET = 40;
+
+    private final File file;
+    private RandomAccessFile raf = null;
+    private ByteBuffer buffer;
+    private int capacity;
+    private int count = 0;
+    private int removed = 0;
+    private final Map<UUID, Integer> slots = new HashMap<>();
+
+    /**
+     * Open the directory stored in the specified file.
+     * When the file doesn't exist or is invalid a new directory will be created.
+     * When the file can't be mapped the directory will only be kept in memory.
+     *
+     * @param file The file to store the directory in.
+     */
+    public NameDirectory(File file) {
+        this.file = file;
+        try {
+            open();
+        } catch (IOException e) {
+            GameBoxx.get().warn("Failed to open the name directory '" + file.getPath() + "' names will only be stored in memory! (" + e.getMessage() + ")");
+            close();
+            capacity = INITIAL_CAPACITY;
+            buffer = ByteBuffer.allocate(HEADER_SIZE + capacity * SLOT_SIZE);
+            writeHeader();
+        }
+    }
+
+    private void open() throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        raf = new RandomAccessFile(file, "rw");
+        if (raf.length() >= HEADER_SIZE) {
+            buffer = map(raf.length());
+            int size = buffer.getInt(8);
+            if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && Integer.bitCount(size) == 1 && raf.length() == HEADER_SIZE + (long)size * SLOT_SIZE) {
+                capacity = size;
+                for (int slot = 0; slot < capacity; slot++) {
+                    byte length = buffer.get(offset(slot));
+                    if (length == REMOVED) {
+                        removed++;
+                    } else if (length != EMPTY) {
+                        slots.put(readUUID(slot), slot);
+                        count++;
+                    }
+                }
+                return;
+            }
+            GameBoxx.get().warn("The name directory '" + file.getPath() + "' is invalid and will be recreated.");
+        }
+        capacity = INITIAL_CAPACITY;
+        raf.setLength(0);
+        raf.setLength(HEADER_SIZE + (long)capacity * SLOT_SIZE);
+        buffer = map(raf.length());
+        writeHeader();
+    }
+
+    private MappedByteBuffer map(long size) throws IOException {
+        return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, capacity);
+        buffer.putInt(12, count);
+    }
+
+    /**
+     * Add or update the name of a player.
+     * When the player had a different name the old name will be removed.
+     * When another player had this name before the name will be moved to the specified player.
+     *
+     * @param uuid The UUID of the player.
+     * @param name The current name of the player.
+     * @return True when the name was stored and false when it's not a valid player name.
+     */
+    public synchronized boolean put(UUID uuid, String name) {
+        if (uuid == null || !isValidName(name)) {
+            return false;
+        }
+        Integer current = slots.get(uuid);
+        if (current != null) {
+            if (readName(current).equalsIgnoreCase(name)) {
+                writeSlot(current, name, uuid);
+                return true;
+            }
+            remove(current);
+        }
+
+        int taken = find(name);
+        if (taken >= 0) {
+            remove(taken);
+        }
+
+        if ((count + removed + 1) * 4 > capacity * 3) {
+            resize(count * 4 + 4 > capacity * 2 ? capacity * 2 : capacity);
+        }
+        insert(name, uuid);
+        buffer.putInt(12, count);
+        return true;
+    }
+
+    /**
+     * Get the UUID of the player with the specified name.
+     *
+     * @param name The name of the player. (case insensitive)
+     * @return The UUID of the player or {@code null} when the name isn't in the directory.
+     */
+    public synchronized UUID getUUID(String name) {
+        if (!isValidName(name)) {
+            return null;
+        }
+        int slot = find(name);
+        return slot < 0 ? null : readUUID(slot);
+    }
+
+    /**
+     * Get the last known name of the player with the specified UUID.
+     *
+     * @param uuid The UUID of the player.
+     * @return The name of the player or {@code null} when the UUID isn't in the directory.
+     */
+    public synchronized String getName(UUID uuid) {
+        Integer slot = slots.get(uuid);
+        return slot == null ? null : readName(slot);
+    }
+
+    /**
+     * Get the amount of players in the directory.
+     *
+     * @return The amount of players.
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Import all the names from a server usercache.json file.
+     *
+     * @param userCache The usercache.json file.
+     * @return The amount of names that have been imported.
+     */
+    public int importUserCache(File userCache) {
+        if (!userCache.exists()) {
+            return 0;
+        }
+        int imported = 0;
+        FileReader reader = null;
+        try {
+            reader = new FileReader(userCache);
+            Object json = new JSONParser().parse(reader);
+            if (!(json instanceof JSONArray)) {
+                return 0;
+            }
+            for (Object entry : (JSONArray)json) {
+                if (!(entry instanceof JSONObject)) {
+                    continue;
+                }
+                Object name = ((JSONObject)entry).get("name");
+                Object uuid = ((JSONObject)entry).get("uuid");
+                if (name == null || uuid == null) {
+                    continue;
+                }
+                try {
+                    UUID id = UUID.fromString(uuid.toString());
+                    if (getName(id) == null && put(id, name.toString())) {
+                        imported++;
+                    }
+                } catch (IllegalArgumentException e) {
+                    //Invalid UUID
+                }
+            }
+        } catch (Exception e) {
+            GameBoxx.get().warn("Failed to import the names from '" + userCache.getPath() + "'! (" + e.getMessage() + ")");
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    //Ignore
+                }
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Write all changes to disk and close the file.
+     */
+    public synchronized void close() {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer)buffer).force();
+        }
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (IOException e) {
+                GameBoxx.get().warn("Failed to close the name directory! (" + e.getMessage() + ")");
+            }
+            raf = null;
+        }
+    }
+
+
+    private int find(String name) {
+        int mask = capacity - 1;
+        int slot = hash(name) & mask;
+        for (int probe = 0; probe < capacity; probe++) {
+            byte length = buffer.get(offset(slot));
+            if (length == EMPTY) {
+                return -1;
+            }
+            if (length == name.length() && nameEquals(slot, name)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(String name, UUID uuid) {
+        int mask = capacity - 1;
+        int slot = hash(name) & mask;
+        while (true) {
+            byte length = buffer.get(offset(slot));
+            if (length == EMPTY || length == REMOVED) {
+                if (length == REMOVED) {
+                    removed--;
+                }
+                writeSlot(slot, name, uuid);
+                slots.put(uuid, slot);
+                count++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void remove(int slot) {
+        slots.remove(readUUID(slot));
+        buffer.put(offset(slot), REMOVED);
+        count--;
+        removed++;
+    }
+
+    private void resize(int newCapacity) {
+        List<Object[]> entries = new ArrayList<>(count);
+        for (Map.Entry<UUID, Integer> entry : slots.entrySet()) {
+            entries.add(new Object[] {readName(entry.getValue()), entry.getKey(), buffer.getLong(offset(entry.getValue()) + SEEN_OFFSET)});
+        }
+
+        long size = HEADER_SIZE + (long)newCapacity * SLOT_SIZE;
+        if (raf != null) {
+            try {
+                raf.setLength(size);
+                buffer = map(size);
+            } catch (IOException e) {
+                GameBoxx.get().warn("Failed to resize the name directory! (" + e.getMessage() + ")");
+                close();
+                buffer = ByteBuffer.allocate((int)size);
+            }
+        } else {
+            buffer = ByteBuffer.allocate((int)size);
+        }
+        byte[] empty = new byte[SLOT_SIZE];
+        for (int slot = 0; slot < newCapacity; slot++) {
+            buffer.position(offset(slot));
+            buffer.put(empty);
+        }
+
+        capacity = newCapacity;
+        count = 0;
+        removed = 0;
+        slots.clear();
+        for (Object[] entry : entries) {
+            insert((String)entry[0], (UUID)entry[1]);
+            buffer.putLong(offset(slots.get(entry[1])) + SEEN_OFFSET, (Long)entry[2]);
+        }
+        writeHeader();
+    }
+
+    private void writeSlot(int slot, String name, UUID uuid) {
+        int offset = offset(slot);
+        buffer.put(offset, (byte)name.length());
+        for (int i = 0; i < NAME_LENGTH; i++) {
+            buffer.put(offset + 1 + i, i < name.length() ? (byte)name.charAt(i) : 0);
+        }
+        buffer.putLong(offset + UUID_OFFSET, uuid.getMostSignificantBits());
+        buffer.putLong(offset + UUID_OFFSET + 8, uuid.getLeastSignificantBits());
+        buffer.putLong(offset + SEEN_OFFSET, System.currentTimeMillis());
+    }
+
+    private String readName(int slot) {
+        int offset = offset(slot);
+        int length = buffer.get(offset);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char)buffer.get(offset + 1 + i);
+        }
+        return new String(chars);
+    }
+
+    private UUID readUUID(int slot) {
+        int offset = offset(slot);
+        return new UUID(buffer.getLong(offset + UUID_OFFSET), buffer.getLong(offset + UUID_OFFSET + 8));
+    }
+
+    private boolean nameEquals(int slot, String name) {
+        int offset = offset(slot) + 1;
+        for (int i = 0; i < name.length(); i++) {
+            if (lower((char)buffer.get(offset + i)) != lower(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static int hash(String name) {
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < name.length(); i++) {
+            hash ^= lower(name.charAt(i));
+            hash *= 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char)(c + 32) : c;
+    }
+
+    /**
+     * Check if the specified name can be a Minecraft player name.
+     * Player names are 1-16 characters long and only contain letters, digits and underscores.
+     *
+     * @param name The name to check.
+     * @return True when the name is a valid player name.
+     */
+    public static boolean isValidName(String name) {
+        if (name == null || name.isEmpty() || name.length() > NAME_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9') && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -45,7 +45,7 @@ import java.util.UUID;
 
 public class User implements CurrencyHolder {
 
-    private UUID uuid;
+    private final UUID uuid;
     private String name;
 
     private Arena selectedArena = null;
@@ -55,6 +55,11 @@ public class User implements CurrencyHolder {
         this.name = player.getName();
     }
 
+    public User(UUID uuid, String name) {
+        this.uuid = uuid;
+        this.name = name;
+    }
+
     public User(UUID uuid) {
         this.uuid = uuid;
         OfflinePlayer player = Bukkit.getServer().getOfflinePlayer(uuid);
@@ -63,14 +68,6 @@ public class User implements CurrencyHolder {
         }
     }
 
-    public User(String name) {
-        this.name = name;
-        OfflinePlayer player = Bukkit.getServer().getOfflinePlayer(name);
-        if (player != null) {
-            this.uuid = player.getUniqueId();
-        }
-    }
-
     public Player getPlayer() {
         return Bukkit.getServer().getPlayer(uuid);
     }
@@ -154,8 +151,8 @@ public class User implements CurrencyHolder {
     }
 
     @Override
-    public void takeCurrency(String currency, double amount) {
-        GameBoxx.get().getCM().take(this, currency, amount);
+    public boolean takeCurrency(String currency, double amount) {
+        return GameBoxx.get().getCM().take(this, currency, amount);
     }
 
     @Override
@@ -163,6 +160,22 @@ public class User implements CurrencyHolder {
         GameBoxx.get().getCM().set(this, currency, amount);
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass() || uuid == null) {
+            return false;
+        }
+        return uuid.equals(((User)obj).uuid);
+    }
+
+    @Override
+    public int hashCode() {
+        return uuid == null ? System.identityHashCode(this) : uuid.hashCode();
+    }
+
     private GameSession getOptimalSession(Arena arena) {
         Map<Integer, GameSession> sessionMap = Maps.newHashMap();
         for (GameSession gameSession : arena.getSessions().values()) {
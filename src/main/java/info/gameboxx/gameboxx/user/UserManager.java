@@ -25,17 +25,143 @@
 
 package info.gameboxx.gameboxx.user;
 
-import com.google.common.collect.Maps;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import info.gameboxx.gameboxx.config.PluginCfg;
+import info.gameboxx.gameboxx.util.NameIndex;
+import info.gameboxx.gameboxx.util.Str;
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
 
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 
+/**
+ * Manages {@link User} instances.
+ * <p/>
+ * Users of online players are pinned in memory until they quit.
+ * Users of offline players are kept in a bounded cache and evicted when the cache is full or when they haven't been used for a while.
+ * <p/>
+ * Looking up users never blocks on a Mojang profile lookup.
+ * Names are resolved with the {@link NameDirectory} first.
+ * Names that aren't known yet can be resolved asynchronously with {@link #resolveUser(String)}.
+ * Concurrent lookups for the same name share the same lookup and names that don't belong to a player are remembered for a while.
+ */
 public class UserManager {
 
-    private final Map<UUID, User> usersById = Maps.newHashMap();
-    private final Map<String, User> usersByName = Maps.newHashMap();
+    private final ConcurrentMap<UUID, User> online = new ConcurrentHashMap<>();
+    private final LoadingCache<UUID, User> offline;
+    private final ConcurrentMap<String, UUID> names = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> unknownNames;
+    private final ConcurrentMap<String, ListenableFuture<User>> lookups = new ConcurrentHashMap<>();
+    private final ExecutorService lookupExecutor;
+    private final NameDirectory directory;
+    private final NameIndex onlineNames = new NameIndex();
+    private final ConcurrentMap<String, String> displayNames = new ConcurrentHashMap<>();
+
+    public UserManager(PluginCfg cfg, NameDirectory directory) {
+        this.directory = directory;
+        offline = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(0, cfg.users__cacheSize))
+                .expireAfterAccess(Math.max(1, cfg.users__expireMinutes), TimeUnit.MINUTES)
+                .removalListener(new RemovalListener<UUID, User>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<UUID, User> notification) {
+                        User user = notification.getValue();
+                        if (user != null && user.getName() != null && !online.containsKey(notification.getKey())) {
+                            names.remove(user.getName().toLowerCase(), notification.getKey());
+                        }
+                    }
+                })
+                .build(new CacheLoader<UUID, User>() {
+                    @Override
+                    public User load(UUID uuid) {
+                        return new User(uuid);
+                    }
+                });
+        unknownNames = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(0, cfg.users__cacheSize))
+                .expireAfterWrite(Math.max(1, cfg.users__unknownNameExpireMinutes), TimeUnit.MINUTES)
+                .build();
+        lookupExecutor = Executors.newFixedThreadPool(2, new ThreadFactoryBuilder().setNameFormat("GameBoxx-UserLookup-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Pin the {@link User} of the specified player in memory.
+     * Called when a player joins the server.
+     *
+     * @param player The player that joined.
+     * @return The {@link User} instance of the player.
+     */
+    public User join(Player player) {
+        User user = offline.getIfPresent(player.getUniqueId());
+        if (user == null || user.getName() == null) {
+            user = new User(player);
+        }
+        online.put(player.getUniqueId(), user);
+        offline.invalidate(player.getUniqueId());
+        names.put(player.getName().toLowerCase(), player.getUniqueId());
+        unknownNames.invalidate(player.getName().toLowerCase());
+        directory.put(player.getUniqueId(), player.getName());
+        updateDisplayName(player);
+        return user;
+    }
+
+    /**
+     * Update the display name of the specified player in the {@link #getOnlineNames()} index when it changed.
+     * There is no event for display name changes so this is called for all online players periodically.
+     *
+     * @param player The player to update the display name of.
+     */
+    public void updateDisplayName(Player player) {
+        String displayName = Str.stripColor(player.getDisplayName());
+        if (!displayName.equals(displayNames.put(player.getName(), displayName))) {
+            onlineNames.add(player.getName(), displayName);
+        }
+    }
+
+    /**
+     * Unpin the {@link User} of the specified player.
+     * The user will be kept in the offline cache until it gets evicted.
+     * Called when a player quits the server.
+     *
+     * @param player The player that quit.
+     */
+    public void quit(Player player) {
+        onlineNames.remove(player.getName());
+        displayNames.remove(player.getName());
+        User user = online.remove(player.getUniqueId());
+        if (user != null) {
+            offline.put(player.getUniqueId(), user);
+        }
+    }
+
+    /**
+     * Get the {@link NameIndex} with the names of all online players for tab completion.
+     * Players can be completed by their name and by their display name.
+     * Display names are updated periodically with {@link #updateDisplayName(Player)} so a changed display name may be missing for a moment.
+     *
+     * @return The {@link NameIndex} with online player names.
+     */
+    public NameIndex getOnlineNames() {
+        return onlineNames;
+    }
 
     /**
      * Register a new {@link User}
@@ -43,11 +169,19 @@ public class UserManager {
      * @param user {@link User} instance.
      */
     public void register(User user) {
-        if (usersById.containsKey(user.getUuid()) || usersByName.containsKey(user.getName())) {
+        if (user.getUuid() == null) {
             return;
         }
-        usersById.put(user.getUuid(), user);
-        usersByName.put(user.getName(), user);
+        if (Bukkit.getPlayer(user.getUuid()) != null) {
+            if (online.putIfAbsent(user.getUuid(), user) != null) {
+                return;
+            }
+        } else if (offline.asMap().putIfAbsent(user.getUuid(), user) != null) {
+            return;
+        }
+        if (user.getName() != null) {
+            names.put(user.getName().toLowerCase(), user.getUuid());
+        }
     }
 
     /**
@@ -56,10 +190,9 @@ public class UserManager {
      * @param name {@link User} name
      */
     public void unregister(String name) {
-        name = name.trim();
-        if (usersByName.containsKey(name)) {
-            usersByName.remove(name);
-            usersById.remove(getUser(name).getUuid());
+        UUID uuid = names.get(name.trim().toLowerCase());
+        if (uuid != null) {
+            unregister(uuid);
         }
     }
 
@@ -69,9 +202,13 @@ public class UserManager {
      * @param uuid {@link User} id
      */
     public void unregister(UUID uuid) {
-        if (usersById.containsKey(uuid)) {
-            usersById.remove(uuid);
-            usersByName.remove(getUser(uuid).getName());
+        User user = online.remove(uuid);
+        if (user == null) {
+            user = offline.getIfPresent(uuid);
+        }
+        offline.invalidate(uuid);
+        if (user != null && user.getName() != null) {
+            names.remove(user.getName().toLowerCase(), uuid);
         }
     }
 
@@ -87,29 +224,129 @@ public class UserManager {
 
     /**
      * Get the {@link User} instance for the specified player {@link UUID}.
+     * Users of offline players are loaded in to the cache when they aren't cached yet.
      *
      * @param uuid The players UUID to get the {@link User} from.
      * @return The {@link User} instance that belongs to the player.
      */
     public User getUser(UUID uuid) {
-        if (!usersById.containsKey(uuid)) {
-            register(new User(uuid));
+        User user = online.get(uuid);
+        if (user != null) {
+            return user;
+        }
+        user = offline.getUnchecked(uuid);
+        if (user.getName() != null) {
+            names.putIfAbsent(user.getName().toLowerCase(), uuid);
         }
-        return usersById.get(uuid);
+        return user;
     }
 
     /**
      * Get the {@link User} instance for the specified player name.
      * Only use this for user input and such.
+     * <p/>
+     * This only returns users of players that are online or that are in the {@link NameDirectory} so it never blocks.
+     * Use {@link #resolveUser(String)} to look up players that aren't known yet.
      *
-     * @param name The players name to get the {@link User} from.
-     * @return The {@link User} instance that belongs to the player.
+     * @param name The players name to get the {@link User} from. (case insensitive)
+     * @return The {@link User} instance that belongs to the player or {@code null} if the name isn't known.
      */
     public User getUser(String name) {
-        if (!usersByName.containsKey(name)) {
-            register(new User(name));
+        name = name.trim();
+        UUID uuid = names.get(name.toLowerCase());
+        if (uuid != null) {
+            return getUser(uuid);
+        }
+        Player player = Bukkit.getPlayerExact(name);
+        if (player != null) {
+            return getUser(player);
+        }
+        uuid = directory.getUUID(name);
+        if (uuid != null) {
+            return getUser(uuid);
+        }
+        return null;
+    }
+
+    /**
+     * Resolve the {@link User} for the specified player name asynchronously.
+     * <p/>
+     * When the name is already known the returned future is completed immediately.
+     * Otherwise the player profile is looked up on a separate thread.
+     * Lookups for the same name are shared and names without a player are cached so they won't be looked up again for a while.
+     *
+     * @param name The players name to get the {@link User} from. (case insensitive)
+     * @return Future with the {@link User} instance or {@code null} when no player with the name exists.
+     */
+    public ListenableFuture<User> resolveUser(final String name) {
+        User user = getUser(name);
+        if (user != null) {
+            return Futures.immediateFuture(user);
+        }
+        final String key = name.trim().toLowerCase();
+        if (unknownNames.getIfPresent(key) != null) {
+            return Futures.immediateFuture(null);
+        }
+
+        ListenableFutureTask<User> task = ListenableFutureTask.create(new Callable<User>() {
+            @Override
+            public User call() throws Exception {
+                try {
+                    return lookup(name.trim(), key);
+                } finally {
+                    lookups.remove(key);
+                }
+            }
+        });
+        ListenableFuture<User> existing = lookups.putIfAbsent(key, task);
+        if (existing != null) {
+            return existing;
         }
-        return usersByName.get(name);
+        try {
+            lookupExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            lookups.remove(key);
+            return Futures.immediateFailedFuture(e);
+        }
+        return task;
+    }
+
+    private User lookup(String name, String key) {
+        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        if (player == null || player.getUniqueId() == null || (!player.isOnline() && !player.hasPlayedBefore())) {
+            unknownNames.put(key, Boolean.TRUE);
+            return null;
+        }
+        User user = online.get(player.getUniqueId());
+        if (user == null) {
+            user = offline.asMap().get(player.getUniqueId());
+        }
+        if (user == null) {
+            user = new User(player.getUniqueId(), player.getName() == null ? name : player.getName());
+            User existing = offline.asMap().putIfAbsent(player.getUniqueId(), user);
+            if (existing != null) {
+                user = existing;
+            }
+        }
+        names.put(key, player.getUniqueId());
+        directory.put(player.getUniqueId(), user.getName());
+        return user;
+    }
+
+    /**
+     * Get the amount of users of offline players that are cached.
+     *
+     * @return The amount of cached offline users.
+     */
+    public long getCachedCount() {
+        return offline.size();
+    }
+
+    /**
+     * Stop all pending name lookups.
+     */
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
     }
 
 }
@@ -0,0 +1,182 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable index to complete user input like names and aliases for tab completion.
+ * <p/>
+ * The keys are lowercased and stored in a sorted array.
+ * Completing input finds the first key with the input as prefix with a binary search and then reads the matching keys in order.
+ * This way completing only costs the length of the input and the amount of results instead of a scan over all keys.
+ * <p/>
+ * Create an index with a {@link Builder} and rebuild it when the keys change.
+ * Use {@link NameIndex} for keys that change frequently like player names.
+ */
+public class CompletionIndex {
+
+    /** The maximum amount of results returned by {@link #complete(String)} */
+    public static final int LIMIT = 100;
+
+    private final String[] keys;
+    private final String[] values;
+
+    private CompletionIndex(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Create a new {@link Builder} to add keys to.
+     *
+     * @return A new empty {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the values of all keys that start with the specified input.
+     * At most {@link #LIMIT} values are returned.
+     *
+     * @param input The input to complete. (Casing doesn't matter)
+     * @return List with the values of the matching keys ordered by key. (Empty when there are no matches)
+     * @see #complete(String, int)
+     */
+    public List<String> complete(String input) {
+        return complete(input, LIMIT);
+    }
+
+    /**
+     * Get the values of all keys that start with the specified input.
+     * When multiple keys have the same value the value is only returned once.
+     *
+     * @param input The input to complete. (Casing doesn't matter)
+     * @param limit The maximum amount of values to return.
+     * @return List with the values of the matching keys ordered by key. (Empty when there are no matches)
+     */
+    public List<String> complete(String input, int limit) {
+        String prefix = input.toLowerCase();
+        Set<String> results = new LinkedHashSet<>();
+        int index = Arrays.binarySearch(keys, prefix);
+        for (int i = index < 0 ? -index - 1 : index; i < keys.length && results.size() < limit; i++) {
+            if (!keys[i].startsWith(prefix)) {
+                break;
+            }
+            results.add(values[i]);
+        }
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * Get the amount of keys in the index.
+     *
+     * @return The amount of keys.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+
+    /**
+     * Collects the keys for a {@link CompletionIndex}
+     * <p/>
+     * Keys are unique without casing so when a key is added multiple times only the first value is kept.
+     */
+    public static class Builder {
+        private final List<String[]> entries = new ArrayList<>();
+        private final Set<String> added = new HashSet<>();
+
+        private Builder() {}
+
+        /**
+         * Add a value that is completed by its own name.
+         *
+         * @param value The value to complete.
+         * @return This builder.
+         */
+        public Builder add(String value) {
+            return add(value, value);
+        }
+
+        /**
+         * Add a key with the value it completes to.
+         *
+         * @param key The key to match the input with.
+         * @param value The value returned when the input is a prefix of the key.
+         * @return This builder.
+         */
+        public Builder add(String key, String value) {
+            String lower = key.toLowerCase();
+            if (added.add(lower)) {
+                entries.add(new String[] {lower, value});
+            }
+            return this;
+        }
+
+        /**
+         * Add all the values that are completed by their own names.
+         *
+         * @param values The values to complete.
+         * @return This builder.
+         */
+        public Builder addAll(Iterable<String> values) {
+            for (String value : values) {
+                add(value);
+            }
+            return this;
+        }
+
+        /**
+         * Build the immutable {@link CompletionIndex} with all the added keys.
+         *
+         * @return The new {@link CompletionIndex}
+         */
+        public CompletionIndex build() {
+            String[][] sorted = entries.toArray(new String[entries.size()][]);
+            Arrays.sort(sorted, new Comparator<String[]>() {
+                @Override
+                public int compare(String[] a, String[] b) {
+                    return a[0].compareTo(b[0]);
+                }
+            });
+            String[] keys = new String[sorted.length];
+            String[] values = new String[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i][0];
+                values[i] = sorted[i][1];
+            }
+            return new CompletionIndex(keys, values);
+        }
+    }
+}
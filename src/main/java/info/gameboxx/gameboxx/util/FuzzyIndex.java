@@ -0,0 +1,256 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Index to find values by approximate keys like "did you mean" suggestions for user input.
+ * <p/>
+ * The keys are stored in a BK-tree using the levenshtein distance.
+ * Searches only compare the input with a small part of the keys so lookups stay fast for large sets like all item aliases.
+ * <p/>
+ * Build the index once and reuse it for all lookups. Adding keys is not thread safe but searching is.
+ *
+ * @param <T> The type of values stored in the index.
+ */
+public class FuzzyIndex<T> {
+
+    private Node<T> root = null;
+    private int size = 0;
+    private int maxLength = 0;
+
+    /**
+     * Add a key with the value it should return.
+     * When the key is already in the index the existing value will be kept.
+     *
+     * @param key The key to match the input with.
+     * @param value The value returned when the key matches.
+     */
+    public void add(String key, T value) {
+        if (root == null) {
+            root = new Node<>(key, value);
+        } else {
+            int[] row = new int[Math.max(maxLength, key.length()) + 1];
+            int[] prev = new int[row.length];
+            Node<T> node = root;
+            while (true) {
+                int distance = distance(key, node.key, Math.max(key.length(), node.key.length()), prev, row);
+                if (distance == 0) {
+                    return;
+                }
+                Node<T> child = node.getChild(distance);
+                if (child == null) {
+                    node.setChild(distance, new Node<>(key, value));
+                    break;
+                }
+                node = child;
+            }
+        }
+        size++;
+        maxLength = Math.max(maxLength, key.length());
+    }
+
+    /**
+     * Get the value for the key closest to the input.
+     * <p/>
+     * Just like {@link Str#bestMatch(String, String...)} a key only matches when it equals the input or when the distance is less than the length of the input minus one.
+     *
+     * @param input The input to find a match for.
+     * @return The value of the closest key or {@code null} when there is no key close enough.
+     */
+    public T bestMatch(String input) {
+        return bestMatch(input, Math.max(input.length() - 2, 0));
+    }
+
+    /**
+     * Get the value for the key closest to the input.
+     *
+     * @param input The input to find a match for.
+     * @param maxDistance The maximum levenshtein distance between the input and a key.
+     * @return The value of the closest key or {@code null} when there is no key within the max distance.
+     */
+    public T bestMatch(String input, int maxDistance) {
+        if (root == null || maxDistance < 0) {
+            return null;
+        }
+        int[] row = new int[Math.max(maxLength, input.length()) + 1];
+        int[] prev = new int[row.length];
+
+        Node<T> best = null;
+        int limit = maxDistance;
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            int distance = distance(input, node.key, limit + node.getMaxDistance(), prev, row);
+            if (distance <= limit) {
+                if (distance == 0) {
+                    return node.value;
+                }
+                best = node;
+                limit = distance - 1;
+            }
+            pushChildren(stack, node, distance, limit);
+        }
+        return best == null ? null : best.value;
+    }
+
+    /**
+     * Get the values for all keys within the specified distance of the input.
+     * The values are ordered by distance with the closest match first.
+     *
+     * @param input The input to find matches for.
+     * @param maxDistance The maximum levenshtein distance between the input and a key.
+     * @return List with matching values. (Empty when there are no matches)
+     */
+    public List<T> matches(String input, int maxDistance) {
+        List<List<T>> byDistance = new ArrayList<>();
+        if (root != null && maxDistance >= 0) {
+            int[] row = new int[Math.max(maxLength, input.length()) + 1];
+            int[] prev = new int[row.length];
+            Deque<Node<T>> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Node<T> node = stack.pop();
+                int distance = distance(input, node.key, maxDistance + node.getMaxDistance(), prev, row);
+                if (distance <= maxDistance) {
+                    while (byDistance.size() <= distance) {
+                        byDistance.add(new ArrayList<T>());
+                    }
+                    byDistance.get(distance).add(node.value);
+                }
+                pushChildren(stack, node, distance, maxDistance);
+            }
+        }
+        List<T> matches = new ArrayList<>();
+        for (List<T> values : byDistance) {
+            matches.addAll(values);
+        }
+        return matches;
+    }
+
+    /**
+     * Get the amount of keys in the index.
+     *
+     * @return The amount of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Push all children that can contain keys within the max distance of the input.
+     * Because of the triangle inequality only children with a distance between distance-max and distance+max to the node can.
+     * <p/>
+     * The children closest to the distance of the input are pushed last so they are searched first.
+     * This way {@link #bestMatch(String, int)} finds close matches early and can skip more of the tree.
+     */
+    private static <T> void pushChildren(Deque<Node<T>> stack, Node<T> node, int distance, int maxDistance) {
+        if (node.children == null) {
+            return;
+        }
+        for (int offset = maxDistance; offset >= 0; offset--) {
+            int above = distance + offset;
+            if (above < node.children.length && node.children[above] != null) {
+                stack.push(node.children[above]);
+            }
+            int below = distance - offset;
+            if (offset > 0 && below >= 1 && below < node.children.length && node.children[below] != null) {
+                stack.push(node.children[below]);
+            }
+        }
+    }
+
+    /**
+     * Get the levenshtein distance between two strings.
+     * When the distance is more than the max distance the calculation is stopped early and max+1 is returned.
+     * The two row arrays are reused between calls and must be longer than the second string.
+     */
+    private static int distance(String a, String b, int max, int[] prev, int[] row) {
+        int lengthA = a.length();
+        int lengthB = b.length();
+        if (Math.abs(lengthA - lengthB) > max) {
+            return max + 1;
+        }
+        for (int j = 0; j <= lengthB; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= lengthA; i++) {
+            char c = a.charAt(i - 1);
+            row[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= lengthB; j++) {
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = prev;
+            prev = row;
+            row = swap;
+        }
+        return Math.min(prev[lengthB], max + 1);
+    }
+
+
+    private static class Node<T> {
+        private final String key;
+        private final T value;
+        private Node<T>[] children;
+
+        private Node(String key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /** Get the highest distance of the children or zero when there are none. */
+        private int getMaxDistance() {
+            return children == null ? 0 : children.length - 1;
+        }
+
+        private Node<T> getChild(int distance) {
+            return children == null || distance >= children.length ? null : children[distance];
+        }
+
+        @SuppressWarnings("unchecked")
+        private void setChild(int distance, Node<T> child) {
+            if (children == null || distance >= children.length) {
+                Node<T>[] expanded = new Node[distance + 1];
+                if (children != null) {
+                    System.arraycopy(children, 0, expanded, 0, children.length);
+                }
+                children = expanded;
+            }
+            children[distance] = child;
+        }
+    }
+}
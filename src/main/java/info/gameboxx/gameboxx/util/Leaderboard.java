@@ -0,0 +1,372 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Ranks players by a score like a currency balance or a game statistic.
+ * <p/>
+ * Entries are ordered by score (highest first) and then by {@link UUID} so every player has a unique rank.
+ * The board is backed by a treap where each node stores the size of its subtree.
+ * Updating a score, looking up the rank of a player and getting the player at a rank all take O(log n).
+ * Getting the top N takes O(log n + N) so the board never has to be sorted.
+ * <p/>
+ * All methods are thread safe.
+ */
+public class Leaderboard {
+
+    private final Map<UUID, Double> scores = new HashMap<>();
+    private final Random random = new Random();
+    private Node root = null;
+
+    /**
+     * Set the score for the specified player.
+     * When the player already has a score it will be replaced and the player is re-ranked.
+     *
+     * @param uuid The player to set the score for.
+     * @param score The new score.
+     */
+    public synchronized void update(UUID uuid, double score) {
+        Double previous = scores.put(uuid, score);
+        if (previous != null) {
+            if (previous == score) {
+                return;
+            }
+            root = delete(root, previous, uuid);
+        }
+        root = insert(root, new Node(score, uuid, random.nextInt()));
+    }
+
+    /**
+     * Set the score for the specified player only if the player isn't on the leaderboard yet.
+     * Used to seed the leaderboard from storage without overriding scores that changed in the meantime.
+     *
+     * @param uuid The player to set the score for.
+     * @param score The score to set.
+     * @return True when the score was set and false if the player already had a score.
+     */
+    public synchronized boolean updateIfAbsent(UUID uuid, double score) {
+        if (scores.containsKey(uuid)) {
+            return false;
+        }
+        update(uuid, score);
+        return true;
+    }
+
+    /**
+     * Remove the specified player from the leaderboard.
+     *
+     * @param uuid The player to remove.
+     * @return True when the player was removed and false if the player wasn't on the leaderboard.
+     */
+    public synchronized boolean remove(UUID uuid) {
+        Double previous = scores.remove(uuid);
+        if (previous == null) {
+            return false;
+        }
+        root = delete(root, previous, uuid);
+        return true;
+    }
+
+    /**
+     * Remove all players from the leaderboard.
+     */
+    public synchronized void clear() {
+        scores.clear();
+        root = null;
+    }
+
+    /**
+     * Get the score for the specified player.
+     *
+     * @param uuid The player to get the score from.
+     * @return The score of the player or {@code null} if the player is not on the leaderboard.
+     */
+    public synchronized Double getScore(UUID uuid) {
+        return scores.get(uuid);
+    }
+
+    /**
+     * Get the rank of the specified player.
+     * The player with the highest score has rank 1.
+     *
+     * @param uuid The player to get the rank from.
+     * @return The rank of the player or -1 if the player is not on the leaderboard.
+     */
+    public synchronized int getRank(UUID uuid) {
+        Double score = scores.get(uuid);
+        if (score == null) {
+            return -1;
+        }
+        int rank = 1;
+        Node node = root;
+        while (node != null) {
+            int compare = compare(score, uuid, node);
+            if (compare == 0) {
+                return rank + size(node.left);
+            }
+            if (compare < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the entry at the specified rank.
+     *
+     * @param rank The rank to get the entry from. (1 is the highest score)
+     * @return The {@link Entry} at the rank or {@code null} if the rank is out of bounds.
+     */
+    public synchronized Entry getEntry(int rank) {
+        if (rank < 1 || rank > size(root)) {
+            return null;
+        }
+        int index = rank - 1;
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return new Entry(node.uuid, node.score, rank);
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the top entries of the leaderboard.
+     *
+     * @param amount The maximum amount of entries to get.
+     * @return List with entries ordered by rank. (highest score first)
+     */
+    public List<Entry> getTop(int amount) {
+        return getRange(1, amount);
+    }
+
+    /**
+     * Get a range of entries from the leaderboard.
+     * Useful for paged leaderboards.
+     *
+     * @param fromRank The first rank to get. (1 is the highest score)
+     * @param amount The maximum amount of entries to get.
+     * @return List with entries ordered by rank. (highest score first)
+     */
+    public synchronized List<Entry> getRange(int fromRank, int amount) {
+        fromRank = Math.max(fromRank, 1);
+        amount = Math.min(amount, size(root) - fromRank + 1);
+        if (amount <= 0) {
+            return Collections.emptyList();
+        }
+        List<Entry> entries = new ArrayList<>(amount);
+
+        //Walk down to the first rank and keep the path so we can continue the in-order walk from there.
+        List<Node> stack = new ArrayList<>();
+        int index = fromRank - 1;
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                stack.add(node);
+                node = node.left;
+            } else if (index == leftSize) {
+                stack.add(node);
+                break;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+
+        int rank = fromRank;
+        while (!stack.isEmpty() && entries.size() < amount) {
+            node = stack.remove(stack.size() - 1);
+            entries.add(new Entry(node.uuid, node.score, rank++));
+            node = node.right;
+            while (node != null) {
+                stack.add(node);
+                node = node.left;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Get the amount of players on the leaderboard.
+     *
+     * @return The amount of players on the leaderboard.
+     */
+    public synchronized int size() {
+        return size(root);
+    }
+
+
+    private static int compare(double score, UUID uuid, Node node) {
+        int compare = Double.compare(node.score, score);
+        if (compare != 0) {
+            return compare;
+        }
+        return uuid.compareTo(node.uuid);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node insert(Node node, Node insert) {
+        if (node == null) {
+            return insert;
+        }
+        if (compare(insert.score, insert.uuid, node) < 0) {
+            node.left = insert(node.left, insert);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, insert);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, double score, UUID uuid) {
+        if (node == null) {
+            return null;
+        }
+        int compare = compare(score, uuid, node);
+        if (compare < 0) {
+            node.left = delete(node.left, score, uuid);
+        } else if (compare > 0) {
+            node.right = delete(node.right, score, uuid);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+
+    private static class Node {
+        private final double score;
+        private final UUID uuid;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(double score, UUID uuid, int priority) {
+            this.score = score;
+            this.uuid = uuid;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+
+    /**
+     * A ranked player on a {@link Leaderboard}.
+     */
+    public static class Entry {
+        private final UUID uuid;
+        private final double score;
+        private final int rank;
+
+        private Entry(UUID uuid, double score, int rank) {
+            this.uuid = uuid;
+            this.score = score;
+            this.rank = rank;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        /**
+         * @return The rank of the player at the time the entry was created. (1 is the highest score)
+         */
+        public int getRank() {
+            return rank;
+        }
+    }
+}
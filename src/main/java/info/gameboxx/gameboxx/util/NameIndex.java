@@ -0,0 +1,147 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx.util;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index to complete names that are added and removed frequently like the names of online players.
+ * <p/>
+ * Unlike the {@link CompletionIndex} names can be added and removed without rebuilding the index.
+ * The keys are stored in a sorted skip list so completing input only costs the length of the input and the amount of results.
+ * <p/>
+ * The index is thread safe so it can be updated from events and used for completion at the same time.
+ */
+public class NameIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentNavigableMap<String, String> entries = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, String[]> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Add a name with the keys it should be completed by.
+     * When the name is already in the index the old keys are replaced.
+     * <p/>
+     * The name itself is always used as key.
+     *
+     * @param name The name to complete.
+     * @param aliases Additional keys to complete the name by like a display name. (Casing doesn't matter)
+     */
+    public void add(String name, String... aliases) {
+        remove(name);
+        String[] names = new String[aliases.length + 1];
+        names[0] = name.toLowerCase();
+        for (int i = 0; i < aliases.length; i++) {
+            names[i + 1] = aliases[i].toLowerCase();
+        }
+        keys.put(name, names);
+        for (String key : names) {
+            entries.put(key + SEPARATOR + name, name);
+        }
+    }
+
+    /**
+     * Remove a name with all its keys from the index.
+     *
+     * @param name The name to remove.
+     */
+    public void remove(String name) {
+        String[] names = keys.remove(name);
+        if (names == null) {
+            return;
+        }
+        for (String key : names) {
+            entries.remove(key + SEPARATOR + name);
+        }
+    }
+
+    /**
+     * Get all the names with a key that starts with the specified input.
+     * At most {@link CompletionIndex#LIMIT} names are returned.
+     *
+     * @param input The input to complete. (Casing doesn't matter)
+     * @return List with the matching names ordered by key. (Empty when there are no matches)
+     * @see #complete(String, int)
+     */
+    public List<String> complete(String input) {
+        return complete(input, CompletionIndex.LIMIT);
+    }
+
+    /**
+     * Get all the names with a key that starts with the specified input.
+     *
+     * @param input The input to complete. (Casing doesn't matter)
+     * @param limit The maximum amount of names to return.
+     * @return List with the matching names ordered by key. (Empty when there are no matches)
+     */
+    public List<String> complete(String input, int limit) {
+        return complete(input, limit, Predicates.<String>alwaysTrue());
+    }
+
+    /**
+     * Get all the names with a key that starts with the specified input and that match the filter.
+     * Names that don't match the filter don't count towards the limit.
+     *
+     * @param input The input to complete. (Casing doesn't matter)
+     * @param limit The maximum amount of names to return.
+     * @param filter The filter names have to match like names of players that are visible.
+     * @return List with the matching names ordered by key. (Empty when there are no matches)
+     */
+    public List<String> complete(String input, int limit, Predicate<String> filter) {
+        String prefix = input.toLowerCase();
+        Set<String> results = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entry : entries.tailMap(prefix).entrySet()) {
+            if (results.size() >= limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (!results.contains(entry.getValue()) && filter.apply(entry.getValue())) {
+                results.add(entry.getValue());
+            }
+        }
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * Get the amount of names in the index.
+     *
+     * @return The amount of names.
+     */
+    public int size() {
+        return keys.size();
+    }
+}
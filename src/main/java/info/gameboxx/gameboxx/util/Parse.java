@@ -172,6 +172,248 @@ public class Parse {
     }
 
 
+    /**
+     * Returned by {@link #scanInt(CharSequence, int, int)} and {@link #scanLong(CharSequence, int, int)} when the input isn't a valid number.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final float[] FLOAT_POW10 = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    /**
+     * Scan a whole string for an int.
+     *
+     * @see #scanInt(CharSequence, int, int)
+     */
+    public static long scanInt(CharSequence str) {
+        return scanInt(str, 0, str == null ? 0 : str.length());
+    }
+
+    /**
+     * Scan a range of characters for an int without creating a substring or throwing exceptions.
+     * <p/>
+     * The range may only contain an optional sign followed by digits, just like {@link Integer#parseInt(String)}.
+     *
+     * @param str The characters to scan. (May be {@code null})
+     * @param start The index of the first character. (inclusive)
+     * @param end The index after the last character. (exclusive)
+     * @return The int value or {@link #INVALID} when the range isn't a valid int.
+     */
+    public static long scanInt(CharSequence str, int start, int end) {
+        long value = scanLong(str, start, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return INVALID;
+        }
+        return value;
+    }
+
+    /**
+     * Scan a whole string for a long.
+     *
+     * @see #scanLong(CharSequence, int, int)
+     */
+    public static long scanLong(CharSequence str) {
+        return scanLong(str, 0, str == null ? 0 : str.length());
+    }
+
+    /**
+     * Scan a range of characters for a long without creating a substring or throwing exceptions.
+     * <p/>
+     * The range may only contain an optional sign followed by digits, just like {@link Long#parseLong(String)}.
+     * Because {@link Long#MIN_VALUE} is used as {@link #INVALID} that value can't be scanned, use {@link #Long(String)} for it.
+     *
+     * @param str The characters to scan. (May be {@code null})
+     * @param start The index of the first character. (inclusive)
+     * @param end The index after the last character. (exclusive)
+     * @return The long value or {@link #INVALID} when the range isn't a valid long.
+     */
+    public static long scanLong(CharSequence str, int start, int end) {
+        if (str == null || start < 0 || end > str.length() || start >= end) {
+            return INVALID;
+        }
+        boolean negative = false;
+        char c = str.charAt(start);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            if (++start == end) {
+                return INVALID;
+            }
+        }
+
+        long result = scanDigits(str, start, end, negative ? Long.MIN_VALUE : -Long.MAX_VALUE);
+        if (result > 0) {
+            return INVALID;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Accumulate the digits negatively like {@link Long#parseLong(String)} so the full range fits.
+     *
+     * @return The negated value or {@code 1} when the range has non digit characters or the value is below the limit.
+     */
+    private static long scanDigits(CharSequence str, int start, int end, long limit) {
+        long multMin = limit / 10;
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = str.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multMin) {
+                return 1;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return 1;
+            }
+            result -= digit;
+        }
+        return result;
+    }
+
+    /**
+     * Scan a whole string for a double.
+     *
+     * @see #scanDouble(CharSequence, int, int)
+     */
+    public static double scanDouble(CharSequence str) {
+        return scanDouble(str, 0, str == null ? 0 : str.length());
+    }
+
+    /**
+     * Scan a range of characters for a double without throwing exceptions.
+     * <p/>
+     * Accepts decimal numbers with an optional sign, fraction, exponent and d/f suffix like {@link Double#parseDouble(String)}.
+     * Surrounding whitespace is ignored. NaN, Infinity and hexadecimal values are not accepted.
+     * <p/>
+     * Numbers with up to 15 significant digits and a small exponent are calculated directly.
+     * Other valid numbers are passed on to {@link Double#parseDouble(String)} so the result is always correctly rounded.
+     *
+     * @param str The characters to scan. (May be {@code null})
+     * @param start The index of the first character. (inclusive)
+     * @param end The index after the last character. (exclusive)
+     * @return The double value or {@link Double#NaN} when the range isn't a valid double.
+     */
+    public static double scanDouble(CharSequence str, int start, int end) {
+        return scan(str, start, end, false);
+    }
+
+    /**
+     * Scan a range of characters for a float without throwing exceptions.
+     * <p/>
+     * Accepts the same format as {@link #scanDouble(CharSequence, int, int)}.
+     * Numbers with up to 7 significant digits and a small exponent are calculated directly.
+     *
+     * @param str The characters to scan. (May be {@code null})
+     * @param start The index of the first character. (inclusive)
+     * @param end The index after the last character. (exclusive)
+     * @return The float value or {@link Float#NaN} when the range isn't a valid float.
+     */
+    public static float scanFloat(CharSequence str, int start, int end) {
+        return (float)scan(str, start, end, true);
+    }
+
+    private static double scan(CharSequence str, int start, int end, boolean single) {
+        if (str == null || start < 0 || end > str.length()) {
+            return Double.NaN;
+        }
+        while (start < end && str.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && str.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start >= end) {
+            return Double.NaN;
+        }
+
+        int i = start;
+        char c = str.charAt(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            i++;
+        }
+
+        //Mantissa digits with the exponent shifted for the fraction.
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            c = str.charAt(i);
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                if (digits <= 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (fraction) {
+                        exponent--;
+                    }
+                } else if (!fraction) {
+                    exponent++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (!anyDigit) {
+            return Double.NaN;
+        }
+
+        //Exponent
+        if (i < end && (str.charAt(i) == 'e' || str.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < end && (str.charAt(i) == '-' || str.charAt(i) == '+')) {
+                negativeExp = str.charAt(i) == '-';
+                i++;
+            }
+            int exp = 0;
+            boolean anyExpDigit = false;
+            for (; i < end && (c = str.charAt(i)) >= '0' && c <= '9'; i++) {
+                anyExpDigit = true;
+                if (exp < 10000) {
+                    exp = exp * 10 + (c - '0');
+                }
+            }
+            if (!anyExpDigit) {
+                return Double.NaN;
+            }
+            exponent += negativeExp ? -exp : exp;
+        }
+
+        //Type suffix
+        if (i < end) {
+            c = str.charAt(i);
+            if (c == 'd' || c == 'D' || c == 'f' || c == 'F') {
+                i++;
+            }
+        }
+        if (i != end) {
+            return Double.NaN;
+        }
+
+        //Fast path when both the mantissa and the power of ten are exact floats/doubles.
+        if (single) {
+            if (digits <= 7 && exponent >= -10 && exponent <= 10) {
+                float value = mantissa;
+                value = exponent < 0 ? value / FLOAT_POW10[-exponent] : value * FLOAT_POW10[exponent];
+                return negative ? -value : value;
+            }
+            return Float.parseFloat(str.subSequence(start, end).toString());
+        }
+        if (digits <= 15 && exponent >= -22 && exponent <= 22) {
+            double value = mantissa;
+            value = exponent < 0 ? value / POW10[-exponent] : value * POW10[exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(str.subSequence(start, end).toString());
+    }
+
     /**
      * Convert a string like '1' to a int. Returns null if it's invalid.
      *
@@ -179,11 +421,8 @@ public class Parse {
      * @return int
      */
     public static Integer Int(String str) {
-        try {
-            return Integer.parseInt(str);
-        } catch (NumberFormatException e) {
-        }
-        return null;
+        long value = scanInt(str);
+        return value == INVALID ? null : (int)value;
     }
 
     /**
@@ -193,11 +432,8 @@ public class Parse {
      * @return short
      */
     public static Short Short(String str) {
-        try {
-            return Short.parseShort(str);
-        } catch (NumberFormatException e) {
-        }
-        return null;
+        long value = scanInt(str);
+        return value < Short.MIN_VALUE || value > Short.MAX_VALUE ? null : (short)value;
     }
 
     /**
@@ -207,11 +443,8 @@ public class Parse {
      * @return byte
      */
     public static Byte Byte(String str) {
-        try {
-            return Byte.parseByte(str);
-        } catch (NumberFormatException e) {
-        }
-        return null;
+        long value = scanInt(str);
+        return value < Byte.MIN_VALUE || value > Byte.MAX_VALUE ? null : (byte)value;
     }
 
     /**
@@ -221,11 +454,12 @@ public class Parse {
      * @return int
      */
     public static Long Long(String str) {
-        try {
-            return Long.parseLong(str);
-        } catch (NumberFormatException e) {
+        long value = scanLong(str);
+        if (value == INVALID) {
+            //INVALID is Long.MIN_VALUE so check if the input is that value.
+            return str != null && str.startsWith("-") && scanDigits(str, 1, str.length(), Long.MIN_VALUE) == Long.MIN_VALUE ? Long.MIN_VALUE : null;
         }
-        return null;
+        return value;
     }
 
     /**
@@ -235,11 +469,8 @@ public class Parse {
      * @return double
      */
     public static Double Double(String str) {
-        try {
-            return Double.parseDouble(str);
-        } catch (NumberFormatException e) {
-        }
-        return null;
+        double value = scanDouble(str);
+        return Double.isNaN(value) ? null : value;
     }
 
     /**
@@ -249,13 +480,11 @@ public class Parse {
      * @return float
      */
     public static Float Float(String str) {
-        if (str != null && str != "") {
-            try {
-                return Float.parseFloat(str);
-            } catch (NumberFormatException e) {
-            }
+        if (str == null) {
+            return null;
         }
-        return null;
+        float value = scanFloat(str, 0, str.length());
+        return Float.isNaN(value) ? null : value;
     }
 
     /**
@@ -371,19 +600,25 @@ public class Parse {
             return null;
         }
 
-        Double x = Double(coords[0]);
-        Double y = Double(coords[1]);
-        Double z = Double(coords[2]);
-        if (x == null || y == null || z == null) {
+        double x = scanDouble(coords[0]);
+        double y = scanDouble(coords[1]);
+        double z = scanDouble(coords[2]);
+        if (Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(z)) {
             return null;
         }
 
         Location loc = new Location(world, x, y, z);
-        if (coords.length >= 4 && Float(coords[3]) != null) {
-            loc.setYaw(Float(coords[3]));
+        if (coords.length >= 4) {
+            float yaw = scanFloat(coords[3], 0, coords[3].length());
+            if (!Float.isNaN(yaw)) {
+                loc.setYaw(yaw);
+            }
         }
-        if (coords.length >= 5 && Float(coords[4]) != null) {
-            loc.setPitch(Float(coords[4]));
+        if (coords.length >= 5) {
+            float pitch = scanFloat(coords[4], 0, coords[4].length());
+            if (!Float.isNaN(pitch)) {
+                loc.setPitch(pitch);
+            }
         }
 
         return loc;
@@ -188,12 +188,22 @@ public class Str {
      * Get the best matching value for the specified input out of the array of values.
      * This uses the levenshtein distance from {@link StringUtils}
      * If an exact match is found that match will be returned.
+     * <p/>
+     * This compares the input with every value.
+     * When matching against the same large set of values multiple times build a {@link FuzzyIndex} once instead.
      *
      * @param input The input string to find a match for.
      * @param values Array of values to match with input string.
      * @return The best match from the specified values. (May be empty when there are no values or no match)
      */
     public static String bestMatch(String input, String... values) {
+        return bestMatch(input, Arrays.asList(values));
+    }
+
+    /**
+     * @see Str#bestMatch(String, String...)
+     */
+    public static String bestMatch(String input, Collection<? extends String> values) {
         String bestMatch = "";
         int lowestDiff = input.length() - 1;
         for (String value : values) {
@@ -209,13 +219,6 @@ public class Str {
         return bestMatch;
     }
 
-    /**
-     * @see Str#bestMatch(String, String...)
-     */
-    public static String bestMatch(String input, Collection<? extends String> values) {
-        return bestMatch(input, values.toArray(new String[values.size()]));
-    }
-
 
 
     /**
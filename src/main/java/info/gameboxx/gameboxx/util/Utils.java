@@ -300,6 +300,17 @@ public class Utils {
         return Str.implode(formats, "&8, &r");
     }
 
+    /**
+     * Get the message that suggests the specified match for invalid input.
+     * Append it to error messages when the closest match has been found with a {@link FuzzyIndex}.
+     *
+     * @param match The display name of the closest match. (May be {@code null})
+     * @return The suggestion message or an empty string when there is no match.
+     */
+    public static String getSuggestion(String match) {
+        return match == null ? "" : Msg.getString("did-you-mean", Param.P("match", match));
+    }
+
     public static Location getLocation(CommandSender sender) {
         if (sender instanceof Entity) {
             return ((Entity)sender).getLocation();
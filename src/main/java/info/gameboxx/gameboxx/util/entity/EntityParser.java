@@ -155,7 +155,8 @@ public class EntityParser {
                 if (i == 0) {
                     EntityType type = EntityTypes.get(section);
                     if (type == null) {
-                        error = Msg.getString("entityparser.invalid-entity", Param.P("input", section), Param.P("entities", Utils.getAliasesString("entityparser.entities.entry", EntityTypes.getAliasMap())));
+                        error = Msg.getString("entityparser.invalid-entity", Param.P("input", section), Param.P("entities", Utils.getAliasesString("entityparser.entities.entry", EntityTypes.getAliasMap())))
+                                + Utils.getSuggestion(EntityTypes.getDisplayName(EntityTypes.instance()._getBestMatch(section)));
                         stack.killAll();
                         return;
                     }
@@ -74,7 +74,8 @@ public class ItemParser {
             if (i == 0) {
                 ItemData item = Items.getItem(section);
                 if (item == null) {
-                    error = Msg.getString("itemparser.invalid-item", Param.P("input", section));
+                    ItemData match = Items.getBestMatch(section);
+                    error = Msg.getString("itemparser.invalid-item", Param.P("input", section)) + Utils.getSuggestion(match == null ? null : match.getName());
                     return;
                 }
                 this.item = new EItem(item.getType(), item.getData());
@@ -82,9 +83,9 @@ public class ItemParser {
             }
 
             //Set amount if it's a number
-            Integer amount = Parse.Int(section);
-            if (amount != null) {
-                item.setAmount(amount);
+            long amount = Parse.scanInt(section);
+            if (amount != Parse.INVALID) {
+                item.setAmount((int)amount);
                 continue;
             }
 
@@ -25,17 +25,14 @@
 
 package info.gameboxx.gameboxx.util.text;
 
-import info.gameboxx.gameboxx.util.Pair;
-import info.gameboxx.gameboxx.util.Str;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONValue;
 import org.json.simple.parser.JSONParser;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Parser to format {@link TextAction} syntax to JSON text.
@@ -52,6 +49,11 @@ import java.util.regex.Pattern;
  */
 public class TextParser {
 
+    private static final char COLOR_CHAR = '§';
+    private static final String CLR_CHARS = "0123456789AaBbCcDdEeFfKkLlMmNnOoRr";
+    private static final String SPLIT = "||";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
     private String text;
     private String json;
 
@@ -67,67 +69,56 @@ public class TextParser {
     public TextParser(String text) {
         this.text = text;
 
-        Map<Integer, Pair<Integer, String>> parsedSections = new HashMap<>();
-
-        //Parse all the actions by replacing the syntax regex match.
+        //Find the syntax for all actions. Actions listed first take priority over the ones after it.
+        //Matches that are within a section parsed for a previous action are skipped. (for example inherited hover messages and such)
+        //Matches of the same action never overlap so only the sections of previous actions have to be checked.
+        TreeMap<Integer, Match> sections = new TreeMap<>();
         for (TextAction action : TextAction.values()) {
+            int[] starts = new int[sections.size()];
+            int[] ends = new int[sections.size()];
+            int index = 0;
+            int maxEnd = -1;
+            for (Match section : sections.values()) {
+                maxEnd = Math.max(maxEnd, section.end);
+                starts[index] = section.start;
+                ends[index++] = maxEnd;
+            }
 
-            //Get the syntax from action out of the text string.
-            Pattern p = Pattern.compile(action.getRegex(), Pattern.DOTALL);
-            Matcher m = p.matcher(text);
-
-            //All the matches found.
-            int lastMatchIndex = 0;
-            while (m.find(lastMatchIndex)) {
-                //Get the proper start/end position of the syntax.
-                int start = m.start(2) - action.getPrefix().length();
-                int end = m.end(3) + 2;
-                lastMatchIndex = end;
-
-                //This shouldn't happen but just to be safe.
-                if (m.group(1).length() < 2 || m.group(4).length() < 2) {
-                    continue;
-                }
-
-                //Skip matches that are already parsed. (for example inherited hover messages and such)
-                boolean match = false;
-                for (Map.Entry<Integer, Pair<Integer, String>> entry : parsedSections.entrySet()) {
-                    if (start >= entry.getKey() && end <= entry.getValue().first) {
-                        match = true;
-                        break;
-                    }
-                }
-                if (match) {
-                    continue;
+            int from = 0;
+            Match match;
+            while ((match = find(action, text, from)) != null) {
+                from = match.end;
+                if (!isParsed(starts, ends, match.start, match.end)) {
+                    sections.put(match.start, match);
                 }
-
-                parsedSections.put(start, Pair.P(end, "{" + getJsonComponent(action, m.group(2), m.group(3)) + "}"));
             }
         }
 
-        //Add regular text in between parsed sections.
-        Map<Integer, Pair<Integer, String>> sections = new TreeMap<>(parsedSections);
+        //Output the parsed sections in order with the regular text in between.
+        StringBuilder sb = new StringBuilder(text.length() * 2 + 16);
+        sb.append('[');
         int lastIndex = 0;
-        for (Map.Entry<Integer, Pair<Integer, String>> entry : sections.entrySet()) {
-            if ((lastIndex == 0 && entry.getKey() > 0) || lastIndex < entry.getKey()) {
-                String str = text.substring(lastIndex, entry.getKey());
-                parsedSections.put(lastIndex, Pair.P(entry.getKey(), "{" + getJsonText(str) + "}"));
+        for (Match match : sections.values()) {
+            if (lastIndex < match.start) {
+                sb.append('{');
+                appendJsonText(sb, text, lastIndex, match.start);
+                sb.append("},");
             }
-            lastIndex = entry.getValue().first;
+            sb.append('{');
+            appendJsonComponent(sb, match);
+            sb.append("},");
+            lastIndex = match.end;
         }
 
         //Get remaining text on the end
         if (lastIndex < text.length()) {
-            String endText = text.substring(lastIndex, text.length());
-            parsedSections.put(lastIndex, Pair.P(text.length(), "{" + getJsonText(endText) + "}"));
+            sb.append('{');
+            appendJsonText(sb, text, lastIndex, text.length());
+            sb.append("},");
         }
 
-        json = "[";
-        sections = new TreeMap<>(parsedSections);
-        for (Pair<Integer, String> pair : sections.values()) {
-            json += pair.second + ",";
-        }
-        json = json.substring(0,json.length()-1) + "]";
+        sb.setLength(sb.length() - 1);
+        json = sb.append(']').toString();
     }
 
     /**
@@ -145,121 +136,268 @@ public class TextParser {
      * @return JSON text with tellraw format. (No { in front and no } on the end!)
      */
     public static String getJsonText(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        appendJsonText(sb, text, 0, text.length());
+        return sb.toString();
+    }
+
+    /**
+     * Append the JSON text for the specified part of the text.
+     * See {@link #getJsonText(String)} for details.
+     */
+    private static void appendJsonText(StringBuilder sb, String text, int start, int end) {
         //When the text doesn't have color codes we just return the text as JSON but without any formatting.
-        if (!text.contains("§") || Str.stripColor(text).trim().isEmpty()) {
-            return "\"text\":\"" + JSONValue.escape(text) + "\"";
+        if (text.indexOf(COLOR_CHAR, start) < 0 || text.indexOf(COLOR_CHAR, start) >= end || isBlank(text, start, end)) {
+            sb.append("\"text\":\"");
+            appendEscaped(sb, text, start, end);
+            sb.append('"');
+            return;
         }
 
-        //Find all color codes within the string.
-        //For example '§a' or '§a§l' '§c§l§n' will mitch.
-        Pattern p = Pattern.compile("(§[\\da-fA-Fk-oK-OrR])+");
-        Matcher m = p.matcher(text);
-
-        StringBuilder JSON = new StringBuilder("\"text\":\"\",\"extra\":[");
-        int lastIndex = 0;
-        String lastMatch = "";
-        while (m.find()) {
-            //Create a text section for each set of color codes.
-            //Using the #getJsonFormat method to get the formatting for the colors in the current match.
-            //We ignore the first match because we want to color the matches with the previous color.
-            if (m.start() > lastIndex) {
-                JSON.append("{\"text\":\"" + JSONValue.escape(text.substring(lastIndex, m.start())) + "\"" + getJsonFormat(lastMatch) + "}");
-                JSON.append(",");
+        //Create a text section for each set of color codes. For example '§a' or '§a§l' '§c§l§n'
+        //The text is colored with the color codes in front of it.
+        int mark = sb.length();
+        sb.append("\"text\":\"\",\"extra\":[");
+        int lastIndex = start;
+        int codeStart = -1;
+        int codeEnd = -1;
+        for (int i = start; i < end; ) {
+            if (!isColorCode(text, i, end)) {
+                i++;
+                continue;
             }
-            lastIndex = m.end();
-            lastMatch = m.group();
+            int runStart = i;
+            while (isColorCode(text, i, end)) {
+                i += 2;
+            }
+            if (runStart > lastIndex) {
+                sb.append("{\"text\":\"");
+                appendEscaped(sb, text, lastIndex, runStart);
+                sb.append('"');
+                appendJsonFormat(sb, text, codeStart, codeEnd);
+                sb.append("},");
+            }
+            lastIndex = i;
+            codeStart = runStart;
+            codeEnd = i;
         }
 
-        //Color the last match result if we haven't done it. (Will only be the case when there is one match)
-        if (lastIndex < text.length()) {
-            JSON.append("{\"text\": \"" + JSONValue.escape(text.substring(lastIndex, text.length())) + "\"" + getJsonFormat(lastMatch) + "}");
+        //Color the remaining text after the last color codes.
+        if (lastIndex < end) {
+            sb.append("{\"text\": \"");
+            appendEscaped(sb, text, lastIndex, end);
+            sb.append('"');
+            appendJsonFormat(sb, text, codeStart, codeEnd);
+            sb.append('}');
         }
 
         //Remove trailing comma if it's there
-        if (JSON.lastIndexOf(",") == JSON.length() - 1) {
-            JSON.setLength(JSON.length() - 1);
+        if (sb.length() > mark && sb.charAt(sb.length() - 1) == ',') {
+            sb.setLength(sb.length() - 1);
         }
-
-        //Finalize
-        JSON.append("]");
-        return JSON.toString();
+        sb.append(']');
     }
 
     /**
-     * Used for {@link #getJsonText(String)} to get JSON values for color codes.
+     * Used for {@link #appendJsonText(StringBuilder, String, int, int)} to append JSON values for color codes.
      * It supports all {@link Format} colors and other formatting codes.
      * <p/>
-     * For example: if you provide '§a§l' this would return '"color":"green","bold":true'
-     *
-     * @param color String with color codes only. Like '§c§l§n' (red bold strikethrough)
-     * @return String with format for the specified color codes or an empty string if there are no color codes. (see example)
+     * For example: if you provide '§a§l' this would append ',"color":"green","bold":true'
+     * Nothing is appended when there are no color codes. (start is -1)
      */
-    private static String getJsonFormat(String color) {
-        if (color.trim().isEmpty()) {
-            return "";
-        }
-        //Get string with color characters only like '§a§l' becomes 'al'
-        String colorChars = color.replace("§", "").toLowerCase();
-
-        //Go through all the color codes in the color string and get the format/color string.
-        StringBuilder JSON = new StringBuilder(",");
-        String clrString = "";
-        for (char c : colorChars.toCharArray()) {
-            Format format = Format.getByChar(c);
+    private static void appendJsonFormat(StringBuilder sb, String text, int start, int end) {
+        if (start < 0) {
+            return;
+        }
+        int mark = sb.length();
+        sb.append(',');
+        Format color = null;
+        for (int i = start + 1; i < end; i += 2) {
+            Format format = Format.getByChar(Character.toLowerCase(text.charAt(i)));
             if (format != null) {
-                String name = format.toString().toLowerCase();
                 if (format.isFormat()) {
-                    JSON.append("\"" + name + "\":true,");
+                    sb.append('"').append(format.getKey()).append("\":true,");
                 } else {
-                    clrString = name;
+                    color = format;
                 }
             }
         }
         //Set the color if there was a color code.
         //We manually set this as last because there can only be one color and the last color in the color string should be used.
         //Like '§a§l§c' would be red and not green.
-        if (!clrString.isEmpty()) {
-            JSON.append("\"color\":\"" + clrString + "\"");
+        if (color != null) {
+            sb.append("\"color\":\"").append(color.getKey()).append('"');
         }
 
         //Remove trailing comma if it's there
-        if (JSON.lastIndexOf(",") == JSON.length() - 1) {
-            JSON.setLength(JSON.length() - 1);
+        if (sb.length() > mark && sb.charAt(sb.length() - 1) == ',') {
+            sb.setLength(sb.length() - 1);
         }
-
-        //Finalize
-        return JSON.toString();
     }
 
-    private String getJsonComponent(TextAction action, String value, String display) {
+    private static void appendJsonComponent(StringBuilder sb, Match match) {
+        TextAction action = match.action;
+        String text = match.text;
         if (action == TextAction.HOVER) {
             //Just a hover text message.
-            return getJsonText(display) + ",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{" + getJsonText(value) + "}]}}";
+            appendJsonText(sb, text, match.displayStart, match.displayEnd);
+            appendHover(sb, text, match.valueStart, match.valueEnd);
+            return;
+        }
+
+        //Check for inherited hover message like <<cmd||[[hover||text]]>> it will then display text, on hover display hover and on click run the command cmd.
+        //When there is hover text change the display text to use the value from hover and set the hover text component.
+        String display = text.substring(match.displayStart, match.displayEnd);
+        Match hover = find(TextAction.HOVER, display, 0);
+        if (hover != null) {
+            appendJsonText(sb, display, hover.displayStart, hover.displayEnd);
         } else {
-            //Check for inherited hover message like <<cmd||[[hover||text]]>> it will then display text, on hover display hover and on click run the command cmd.
-            Pattern p = Pattern.compile(TextAction.HOVER.getRegex(), Pattern.DOTALL);
-            Matcher m = p.matcher(display);
-
-            //When there is hover text change the display text to use the value from hover and set the hover text component.
-            String hover = "";
-            if (m.find()) {
-                hover = ",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{" + getJsonText(m.group(2)) + "}]}}";
-                display = m.group(3);
-            }
+            appendJsonText(sb, display, 0, display.length());
+        }
 
+        String value = text.substring(match.valueStart, match.valueEnd);
+        if (action == TextAction.INSERT) {
             //Insertion doesn't use clickEvent
-            if (action == TextAction.INSERT) {
-                //We set obfuscated to false to fix the bug where it doesn't work. Bug: [MC-82425]
-                return getJsonText(display) + ",\"obfuscated\":false,\"insertion\": \"" + JSONValue.escape(value) + "\"" + hover;
-            }
-
+            //We set obfuscated to false to fix the bug where it doesn't work. Bug: [MC-82425]
+            sb.append(",\"obfuscated\":false,\"insertion\": \"");
+            appendEscaped(sb, value, 0, value.length());
+            sb.append('"');
+        } else {
             //Append slash for commands if it's not there.
             if (action == TextAction.CMD || action == TextAction.CMD_SUGGEST && !value.trim().startsWith("/")) {
                 value = "/" + value.trim();
             }
 
-            //Return the JSON for general click events.
-            return getJsonText(display) + ",\"clickEvent\": {\"action\": \"" + JSONValue.escape(action.getName()) + "\",\"value\": \"" + value + "\"}" + hover;
+            //General click events.
+            sb.append(",\"clickEvent\": {\"action\": \"");
+            appendEscaped(sb, action.getName(), 0, action.getName().length());
+            sb.append("\",\"value\": \"").append(value).append("\"}");
+        }
+
+        if (hover != null) {
+            appendHover(sb, display, hover.valueStart, hover.valueEnd);
+        }
+    }
+
+    private static void appendHover(StringBuilder sb, String text, int start, int end) {
+        sb.append(",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{");
+        appendJsonText(sb, text, start, end);
+        sb.append("}]}}");
+    }
+
+    /**
+     * Find the first match of the syntax for the specified action starting at the specified index.
+     * <p/>
+     * The syntax is {prefix}{value}||{display}{suffix} like [[value||display]]
+     * The prefix may not directly follow the first prefix character and the suffix may not be followed by the last suffix character.
+     * This matches the same text as the regex from {@link TextAction#getRegex()} but without backtracking.
+     */
+    private static Match find(TextAction action, String text, int from) {
+        String prefix = action.getPrefix();
+        String suffix = action.getSuffix();
+        char open = prefix.charAt(0);
+        char close = suffix.charAt(suffix.length() - 1);
+
+        int start = text.indexOf(prefix, from);
+        while (start >= 0 && !(start == 0 || (start > from && text.charAt(start - 1) != open))) {
+            start = text.indexOf(prefix, start + 1);
+        }
+        if (start < 0) {
+            return null;
+        }
+
+        int valueStart = start + prefix.length();
+        int split = text.indexOf(SPLIT, valueStart);
+        if (split < 0) {
+            return null;
+        }
+
+        int displayStart = split + SPLIT.length();
+        int displayEnd = text.indexOf(suffix, displayStart);
+        while (displayEnd >= 0 && displayEnd + suffix.length() < text.length() && text.charAt(displayEnd + suffix.length()) == close) {
+            displayEnd = text.indexOf(suffix, displayEnd + 1);
+        }
+        if (displayEnd < 0) {
+            return null;
+        }
+        return new Match(action, text, start, valueStart, split, displayStart, displayEnd, displayEnd + suffix.length());
+    }
+
+    /**
+     * Check if the specified range is within a section that has already been parsed.
+     *
+     * @param starts The sorted start indexes of the parsed sections.
+     * @param ends The highest end index of all sections up to and including the section at the same index.
+     */
+    private static boolean isParsed(int[] starts, int[] ends, int start, int end) {
+        int index = Arrays.binarySearch(starts, start);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index >= 0 && end <= ends[index];
+    }
+
+    private static boolean isColorCode(String text, int index, int end) {
+        return index + 1 < end && text.charAt(index) == COLOR_CHAR && CLR_CHARS.indexOf(text.charAt(index + 1)) >= 0;
+    }
+
+    /**
+     * Check if the text is empty or only whitespace after stripping & and § color codes.
+     */
+    private static boolean isBlank(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if ((c == COLOR_CHAR || c == '&') && i + 1 < end && CLR_CHARS.indexOf(text.charAt(i + 1)) >= 0) {
+                i++;
+            } else if (c > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Append the text escaped for a JSON string.
+     * Escapes the same characters as {@link JSONValue#escape(String)}
+     */
+    private static void appendEscaped(StringBuilder sb, String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '/':
+                    sb.append("\\/");
+                    break;
+                default:
+                    if (c <= '\u001F' || (c >= '\u007F' && c <= '\u009F') || (c >= '\u2000' && c <= '\u20FF')) {
+                        sb.append("\\u");
+                        for (int shift = 12; shift >= 0; shift -= 4) {
+                            sb.append(HEX[(c >> shift) & 0xF]);
+                        }
+                    } else {
+                        sb.append(c);
+                    }
+            }
         }
     }
 
@@ -363,15 +501,16 @@ public class TextParser {
 
         private char c;
         private boolean format;
+        private String key;
 
         Format(char c) {
-            this.c = c;
-            this.format = false;
+            this(c, false);
         }
 
         Format(char c, boolean format) {
             this.c = c;
             this.format = format;
+            this.key = name().toLowerCase();
         }
 
         /**
@@ -393,6 +532,15 @@ public class TextParser {
             return format;
         }
 
+        /**
+         * Get the key used for the format in JSON like 'green' or 'bold'.
+         *
+         * @return The JSON key for the format.
+         */
+        public String getKey() {
+            return key;
+        }
+
         /**
          * Get a {@link Format} by character.
          * Whe no format is found for the character this will be null.
@@ -404,4 +552,29 @@ public class TextParser {
             return BY_CHAR.get(Character.valueOf(c));
         }
     }
+
+    /**
+     * A match of the syntax of a {@link TextAction} within a text.
+     */
+    private static class Match {
+        private final TextAction action;
+        private final String text;
+        private final int start;
+        private final int valueStart;
+        private final int valueEnd;
+        private final int displayStart;
+        private final int displayEnd;
+        private final int end;
+
+        private Match(TextAction action, String text, int start, int valueStart, int valueEnd, int displayStart, int displayEnd, int end) {
+            this.action = action;
+            this.text = text;
+            this.start = start;
+            this.valueStart = valueStart;
+            this.valueEnd = valueEnd;
+            this.displayStart = displayStart;
+            this.displayEnd = displayEnd;
+            this.end = end;
+        }
+    }
 }
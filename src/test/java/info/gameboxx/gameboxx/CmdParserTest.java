@@ -0,0 +1,166 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx;
+
+import info.gameboxx.gameboxx.commands.api.BaseCmd;
+import info.gameboxx.gameboxx.commands.api.CmdData;
+import info.gameboxx.gameboxx.commands.api.SubCmd;
+import info.gameboxx.gameboxx.commands.api.data.ArgRequirement;
+import info.gameboxx.gameboxx.commands.api.parse.CmdCompleter;
+import info.gameboxx.gameboxx.commands.api.parse.CmdParser;
+import info.gameboxx.gameboxx.commands.api.parse.SubCmdO;
+import info.gameboxx.gameboxx.options.single.IntO;
+import info.gameboxx.gameboxx.options.single.StringO;
+import org.bukkit.command.CommandSender;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+public class CmdParserTest {
+
+    private static final CommandSender SENDER = (CommandSender)Proxy.newProxyInstance(CommandSender.class.getClassLoader(), new Class[] {CommandSender.class}, new InvocationHandler() {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("hasPermission")) {
+                return true;
+            }
+            if (method.getName().equals("getName")) {
+                return "Tester";
+            }
+            return null;
+        }
+    });
+
+    @Test
+    public void testParse() {
+        TestCmd cmd = new TestCmd(3);
+
+        CmdParser parser = parse(cmd, "sub1 foo 5 -s speed:3 some more text");
+        Assert.assertTrue(parser.getError(), parser.success());
+        Assert.assertEquals("sub1", ((SubCmd)parser.getCmd()).getSubName());
+        CmdData data = parser.getData();
+        Assert.assertEquals("foo", data.getArg("target"));
+        Assert.assertEquals(5, data.getArg("amount"));
+        Assert.assertEquals("some more text", data.getArg("text"));
+        Assert.assertEquals(3, data.getMod("speed"));
+        Assert.assertTrue(data.hasFlag("s"));
+
+        //Skippable argument
+        parser = parse(cmd, "s2 foo bar");
+        Assert.assertTrue(parser.getError(), parser.success());
+        Assert.assertEquals("sub2", ((SubCmd)parser.getCmd()).getSubName());
+        Assert.assertFalse(parser.getData().hasArg("amount"));
+        Assert.assertEquals("bar", parser.getData().getArg("text"));
+
+        //Remove link for the amount argument when the -n flag is specified
+        parser = parse(cmd, "sub0 -n foo 5");
+        Assert.assertTrue(parser.getError(), parser.success());
+        Assert.assertFalse(parser.getData().hasArg("amount"));
+        Assert.assertEquals("5", parser.getData().getArg("text"));
+
+        //Missing required argument
+        parser = parse(cmd, "sub1");
+        Assert.assertFalse(parser.success());
+    }
+
+    @Test
+    public void testComplete() {
+        TestCmd cmd = new TestCmd(3);
+
+        Assert.assertEquals(Arrays.asList("sub0", "sub1", "sub2"), complete(cmd, ""));
+        Assert.assertEquals(Arrays.asList("sub2"), complete(cmd, "sub2"));
+
+        List<String> flags = complete(cmd, "s1 foo -");
+        Assert.assertTrue(flags.toString(), flags.contains("-n") && flags.contains("-s"));
+
+        List<String> modifiers = complete(cmd, "s1 -n foo sp");
+        Assert.assertTrue(modifiers.toString(), modifiers.contains("speed:"));
+    }
+
+    @Test
+    @Ignore ("Debug")
+    public void benchmarkParse() {
+        TestCmd cmd = new TestCmd(50);
+        String[][] inputs = new String[50][];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = ("sub" + i + " target" + i + " " + i + " -s speed:" + i + " text for the span argument").split(" ");
+        }
+
+        for (int round = 0; round < 5; round++) {
+            int amount = 100000;
+            long start = System.nanoTime();
+            for (int i = 0; i < amount; i++) {
+                new CmdParser(cmd, SENDER, "test", inputs[i % inputs.length]);
+            }
+            System.out.println("CmdParser: " + (System.nanoTime() - start) / amount + "ns per command");
+        }
+    }
+
+    private static CmdParser parse(BaseCmd cmd, String input) {
+        return new CmdParser(cmd, SENDER, "test", input.split(" "));
+    }
+
+    private static List<String> complete(BaseCmd cmd, String input) {
+        return CmdCompleter.complete(cmd, SENDER, input.split(" ", -1));
+    }
+
+
+    private static class TestCmd extends BaseCmd {
+        private TestCmd(int subCmds) {
+            super("test");
+            TestSubCmd[] subs = new TestSubCmd[subCmds];
+            for (int i = 0; i < subCmds; i++) {
+                subs[i] = new TestSubCmd(this, "sub" + i, "s" + i);
+            }
+            addArgument("action", ArgRequirement.REQUIRED, new SubCmdO(subs));
+            addFlag("s");
+            addModifier("speed", new IntO());
+        }
+
+        @Override
+        public void onCommand(CmdData data) {}
+    }
+
+    private static class TestSubCmd extends SubCmd<TestCmd> {
+        private TestSubCmd(TestCmd parent, String name, String... aliases) {
+            super(parent, name, aliases);
+            addArgument("target", ArgRequirement.REQUIRED, new StringO());
+            addArgument("amount", ArgRequirement.OPTIONAL, new IntO()).skippable(true);
+            addArgument("text", ArgRequirement.OPTIONAL, new StringO()).span(-1);
+            addFlag("n");
+            addRemoveLink("amount", "n");
+        }
+
+        @Override
+        public void onCommand(CmdData data) {}
+    }
+}
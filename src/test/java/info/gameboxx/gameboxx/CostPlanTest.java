@@ -0,0 +1,67 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+
+package info.gameboxx.gameboxx;
+
+import info.gameboxx.gameboxx.system.points.model.CostPlan;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CostPlanTest {
+
+    private static final int GEMS = 0;
+    private static final int COINS = 1;
+    private static final int DOLLARS = 2;
+
+    @Test
+    public void testSelectReserved() {
+        //points:[gems:5, coins:5] points:[gems:5, dollars:5]
+        int[][] indices = new int[][] {{GEMS, COINS}, {GEMS, DOLLARS}};
+        double[][] amounts = new double[][] {{5, 5}, {5, 5}};
+
+        //Both groups can't use the same 5 gems.
+        Assert.assertNull(CostPlan.selectOptions(indices, amounts, new double[] {5, 0, 0}));
+        Assert.assertArrayEquals(new int[] {0, 1}, CostPlan.selectOptions(indices, amounts, new double[] {5, 0, 5}));
+        Assert.assertArrayEquals(new int[] {1, 0}, CostPlan.selectOptions(indices, amounts, new double[] {5, 5, 0}));
+        Assert.assertArrayEquals(new int[] {0, 0}, CostPlan.selectOptions(indices, amounts, new double[] {10, 0, 0}));
+    }
+
+    @Test
+    public void testSelectBacktrack() {
+        //points:[gems:5, coins:5] points:[gems:5]
+        int[][] indices = new int[][] {{GEMS, COINS}, {GEMS}};
+        double[][] amounts = new double[][] {{5, 5}, {5}};
+
+        //The first group has to fall back to coins so the second group can use the gems.
+        Assert.assertArrayEquals(new int[] {1, 0}, CostPlan.selectOptions(indices, amounts, new double[] {5, 5, 0}));
+        Assert.assertNull(CostPlan.selectOptions(indices, amounts, new double[] {4, 5, 0}));
+    }
+
+    @Test
+    public void testSelectNoGroups() {
+        Assert.assertArrayEquals(new int[0], CostPlan.selectOptions(new int[0][], new double[0][], new double[] {0, 0, 0}));
+    }
+}
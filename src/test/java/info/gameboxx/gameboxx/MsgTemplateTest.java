@@ -0,0 +1,97 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx;
+
+import info.gameboxx.gameboxx.messages.Msg;
+import info.gameboxx.gameboxx.messages.MsgTemplate;
+import info.gameboxx.gameboxx.messages.Param;
+import info.gameboxx.gameboxx.util.Str;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class MsgTemplateTest {
+
+    private static final String PREFIX = "&8[&6GameBoxx&8] ";
+    private static final String MESSAGE = "<p>&aPlayer &e<name> &7(<_name>, <NAME>) &ajoined &e<Arena> &a[<players>/<max>] <unknown> < notaparam <Value>";
+
+    private static final Param[] PARAMS = new Param[] {Param.P("name", "RoJoss"), Param.P("arena", "the pit"), Param.P("players", 4), Param.P("max", 16), Param.P("value", "x")};
+
+    @Test
+    public void testRender() {
+        Msg.setMessage("prefix", PREFIX);
+        MsgTemplate template = new MsgTemplate(MESSAGE);
+        Assert.assertEquals(replace(MESSAGE, PARAMS), template.render(PARAMS));
+        Assert.assertEquals(replace(MESSAGE), template.render());
+        Assert.assertEquals(Str.color("&aNo params"), new MsgTemplate("&aNo params").render(PARAMS));
+        Assert.assertEquals("<a<b> c>", MsgTemplate.format("<a<b> c>", Param.P("b", "<b>")));
+        Assert.assertEquals("<a<B> c>", MsgTemplate.format("<a<B> c>", Param.P("b", "<b>")));
+        Assert.assertEquals("<NaMe> x", MsgTemplate.format("<NaMe> <_name>", Param.P("name", "X")));
+    }
+
+    @Test
+    public void testFormatCachedMessage() {
+        Msg.setMessage("test.cached", "&aHello world, this is a cached message");
+        Msg cached = Msg.get("test.cached");
+        Assert.assertEquals(new Msg("&aHello world, this is a cached message").get(), cached.get());
+        Assert.assertEquals(new Msg("&aHELLO WORLD, THIS IS A CACHED MESSAGE").get(), Msg.get("test.cached").upper().get());
+        Assert.assertEquals(new Msg("&aHello world, this is a cached message").wrap(20).get(), Msg.get("test.cached").wrap(20).get());
+        Assert.assertEquals(new Msg("Hello world, this is a cached message").get(), Msg.get("test.cached").stripClr().get());
+        Assert.assertEquals(cached.get(), Msg.get("test.cached").get());
+    }
+
+    @Test
+    @Ignore ("Debug")
+    public void benchmarkRender() {
+        Msg.setMessage("prefix", PREFIX);
+        MsgTemplate template = new MsgTemplate(MESSAGE);
+        int amount = 500000;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < amount; i++) {
+            replace(MESSAGE, PARAMS);
+        }
+        System.out.println("String#replace: " + (System.nanoTime() - start) / amount + "ns per message");
+
+        start = System.nanoTime();
+        for (int i = 0; i < amount; i++) {
+            template.render(PARAMS);
+        }
+        System.out.println("MsgTemplate: " + (System.nanoTime() - start) / amount + "ns per message");
+    }
+
+    /** Color the message and replace every form of each parameter with {@link String#replace(CharSequence, CharSequence)} */
+    private static String replace(String message, Param... params) {
+        message = Str.color(message);
+        for (Param param : params) {
+            message = message.replace("<" + param.getParam().toLowerCase() + ">", param.toString());
+            message = message.replace("<_" + param.getParam().toLowerCase() + ">", param.toString().toLowerCase());
+            message = message.replace("<" + param.getParam().toUpperCase() + ">", param.toString().toUpperCase());
+            message = message.replace("<" + Str.capitalize(param.getParam().toLowerCase()) + ">", Str.capitalize(param.toString()));
+        }
+        return message.replace("<p>", Str.color(PREFIX));
+    }
+}
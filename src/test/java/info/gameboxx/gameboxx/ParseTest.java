@@ -0,0 +1,123 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx;
+
+import info.gameboxx.gameboxx.util.Parse;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class ParseTest {
+
+    private static final String[] VALID = new String[] {"1", "-1", "+7", "2147483647", "-2147483648", "64", "0.5", "-12.25", "1e3", "2.5E-4", ".5", "3.", " 4.5 ", "1.5f", "123456789.123456789"};
+    private static final String[] INVALID = new String[] {"", "-", "+", "abc", "1a", "2147483648", "1e", ".", "1..2", "NaN", "Infinity", "0x10", "--1", "diamond_sword", "@p"};
+
+    @Test
+    public void testInt() {
+        Assert.assertEquals(Integer.valueOf(1), Parse.Int("1"));
+        Assert.assertEquals(Integer.valueOf(-2147483648), Parse.Int("-2147483648"));
+        Assert.assertEquals(Integer.valueOf(7), Parse.Int("+7"));
+        Assert.assertNull(Parse.Int("2147483648"));
+        Assert.assertNull(Parse.Int(" 1"));
+        Assert.assertNull(Parse.Int(null));
+        Assert.assertEquals(Long.valueOf(Long.MIN_VALUE), Parse.Long("-9223372036854775808"));
+        Assert.assertEquals(Long.valueOf(Long.MIN_VALUE), Parse.Long("-09223372036854775808"));
+        Assert.assertNull(Parse.Long("-9223372036854775809"));
+        Assert.assertNull(Parse.Long("9223372036854775808"));
+        Assert.assertNull(Parse.Byte("128"));
+        Assert.assertEquals(Short.valueOf((short)-32768), Parse.Short("-32768"));
+        Assert.assertEquals(42, Parse.scanInt("x=42;", 2, 4));
+        Assert.assertEquals(Parse.INVALID, Parse.scanInt("x=42;", 2, 5));
+    }
+
+    @Test
+    public void testDouble() {
+        for (String input : VALID) {
+            Assert.assertEquals(input, Double.parseDouble(input), Parse.Double(input), 0);
+        }
+        for (String input : INVALID) {
+            Assert.assertNull(input, Parse.Double(input));
+        }
+        Assert.assertEquals(0.1 + 0.2, Parse.scanDouble("0.30000000000000004"), 0);
+        Assert.assertEquals(Double.MIN_VALUE, Parse.scanDouble("4.9e-324"), 0);
+        Assert.assertEquals(-1.5, Parse.scanDouble("1,-1.5,2", 2, 6), 0);
+        Assert.assertEquals(Float.valueOf(90.5f), Parse.Float("90.5"));
+        for (String input : VALID) {
+            Assert.assertEquals(input, Float.parseFloat(input), Parse.Float(input), 0);
+        }
+        Assert.assertNull(Parse.Float("yaw"));
+    }
+
+    @Test
+    @Ignore ("Debug")
+    public void benchmarkParse() {
+        int amount = 200000;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < amount; i++) {
+            parseInt(VALID[i % VALID.length]);
+            parseInt(INVALID[i % INVALID.length]);
+        }
+        System.out.println("Integer#parseInt: " + (System.nanoTime() - start) / amount + "ns per valid and invalid input");
+
+        start = System.nanoTime();
+        for (int i = 0; i < amount; i++) {
+            Parse.scanInt(VALID[i % VALID.length]);
+            Parse.scanInt(INVALID[i % INVALID.length]);
+        }
+        System.out.println("Parse#scanInt: " + (System.nanoTime() - start) / amount + "ns per valid and invalid input");
+
+        start = System.nanoTime();
+        for (int i = 0; i < amount; i++) {
+            parseDouble(VALID[i % VALID.length]);
+            parseDouble(INVALID[i % INVALID.length]);
+        }
+        System.out.println("Double#parseDouble: " + (System.nanoTime() - start) / amount + "ns per valid and invalid input");
+
+        start = System.nanoTime();
+        for (int i = 0; i < amount; i++) {
+            Parse.scanDouble(VALID[i % VALID.length]);
+            Parse.scanDouble(INVALID[i % INVALID.length]);
+        }
+        System.out.println("Parse#scanDouble: " + (System.nanoTime() - start) / amount + "ns per valid and invalid input");
+    }
+
+    private static Integer parseInt(String str) {
+        try {
+            return Integer.parseInt(str);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(String str) {
+        try {
+            return Double.parseDouble(str);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
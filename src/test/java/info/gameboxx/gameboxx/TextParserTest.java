@@ -33,85 +33,104 @@ public class TextParserTest extends TestCase {
 
     private static final boolean DEBUG = false;
 
-    private void parse(String text) {
+    private void parse(String text, String expected) {
         TextParser parser = new TextParser(text);
         if (DEBUG) {
             System.out.println("=== PARSING: " + text);
             System.out.println(parser.getJSON());
             System.out.println();
         }
+        Assert.assertEquals(expected, parser.getJSON());
         Assert.assertTrue(parser.isValid());
     }
 
     public void testHoverMultiple() {
-        parse("test [[hover1||text1]]. &a[[hover2||text2]]");
+        parse("test [[hover1||text1]]. &a[[hover2||text2]]",
+                "[{\"text\":\"test \"},{\"text\":\"text1\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"hover1\"}]}}},{\"text\":\". &a\"},{\"text\":\"text2\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"hover2\"}]}}}]");
     }
 
     public void testHover() {
-        parse("[[hover||text]]");
+        parse("[[hover||text]]",
+                "[{\"text\":\"text\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"hover\"}]}}}]");
     }
 
     public void testCmd() {
-        parse("<<cmd arg||text>>");
+        parse("<<cmd arg||text>>",
+                "[{\"text\":\"text\",\"clickEvent\": {\"action\": \"run_command\",\"value\": \"/cmd arg\"}}]");
     }
 
     public void testCmdSuggest() {
-        parse("<<!cmd arg||text>>");
+        parse("<<!cmd arg||text>>",
+                "[{\"text\":\"text\",\"clickEvent\": {\"action\": \"run_command\",\"value\": \"/!cmd arg\"}}]");
     }
 
     public void testUrl() {
-        parse("{{http://gameboxx.info||text}}");
+        parse("{{http://gameboxx.info||text}}",
+                "[{\"text\":\"text\",\"clickEvent\": {\"action\": \"open_url\",\"value\": \"http://gameboxx.info\"}}]");
     }
 
     public void testInsert() {
-        parse("((insert||text))");
+        parse("((insert||text))",
+                "[{\"text\":\"text\",\"obfuscated\":false,\"insertion\": \"insert\"}]");
     }
 
     public void testPage() {
-        parse("<<#1||text>>");
+        parse("<<#1||text>>",
+                "[{\"text\":\"text\",\"clickEvent\": {\"action\": \"change_page\",\"value\": \"1\"}}]");
     }
 
     public void testHoverCmd() {
-        parse("<<cmd arg||[[hover||text]]>>");
+        parse("<<cmd arg||[[hover||text]]>>",
+                "[{\"text\":\"text\",\"clickEvent\": {\"action\": \"run_command\",\"value\": \"/cmd arg\"},\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"hover\"}]}}}]");
     }
 
     public void testHoverUrl() {
-        parse("{{http://gameboxx.info||[[&7Go to the wiki!||&9&lGameBoxx]]}}");
+        parse("{{http://gameboxx.info||[[&7Go to the wiki!||&9&lGameBoxx]]}}",
+                "[{\"text\":\"&9&lGameBoxx\",\"clickEvent\": {\"action\": \"open_url\",\"value\": \"http://gameboxx.info\"},\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"&7Go to the wiki!\"}]}}}]");
     }
 
     public void testHoverInsert() {
-        parse("((&ainsert text||[[&7Shift click to insert text!||&9&linsert]]))");
+        parse("((&ainsert text||[[&7Shift click to insert text!||&9&linsert]]))",
+                "[{\"text\":\"&9&linsert\",\"obfuscated\":false,\"insertion\": \"&ainsert text\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"&7Shift click to insert text!\"}]}}}]");
     }
 
     public void testHoverClickColored() {
-        parse("<<heal||[[&eClick &7to &cheal &7yourself!||&a&lheal]]>>");
+        parse("<<heal||[[&eClick &7to &cheal &7yourself!||&a&lheal]]>>",
+                "[{\"text\":\"&a&lheal\",\"clickEvent\": {\"action\": \"run_command\",\"value\": \"/heal\"},\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"&eClick &7to &cheal &7yourself!\"}]}}}]");
     }
 
     public void testColored() {
-        parse("&aThis &bis &ca test &d&lwith colors&e.");
+        parse("&aThis &bis &ca test &d&lwith colors&e.",
+                "[{\"text\":\"&aThis &bis &ca test &d&lwith colors&e.\"}]");
     }
 
     public void testColoredHover() {
-        parse("[[&ahover&5&ltext||&adisplay &5&ltext]]");
+        parse("[[&ahover&5&ltext||&adisplay &5&ltext]]",
+                "[{\"text\":\"&adisplay &5&ltext\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"&ahover&5&ltext\"}]}}}]");
     }
 
     public void testNewLinesHover() {
-        parse("[[&aline1\nline2\n&bline3||text]]");
+        parse("[[&aline1\nline2\n&bline3||text]]",
+                "[{\"text\":\"text\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"&aline1\\nline2\\n&bline3\"}]}}}]");
     }
 
     public void testNewLinesText() {
-        parse("[[hover||&aline1\nline2\n&bline3]]");
+        parse("[[hover||&aline1\nline2\n&bline3]]",
+                "[{\"text\":\"&aline1\\nline2\\n&bline3\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"hover\"}]}}}]");
     }
 
     public void testCharacters() {
-        parse("[[h.!@#$%^&*(){}:|<>?/.,;'][-=_+over||text]]");
+        parse("[[h.!@#$%^&*(){}:|<>?/.,;'][-=_+over||text]]",
+                "[{\"text\":\"text\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"h.!@#$%^&*(){}:|<>?\\/.,;'][-=_+over\"}]}}}]");
     }
 
     public void testLongMessage() {
-        parse("[[&a&lhover!||&aThis is a very long hover message that should span multiple lines and keep the coloring.]]");
+        parse("[[&a&lhover!||&aThis is a very long hover message that should span multiple lines and keep the coloring.]]",
+                "[{\"text\":\"&aThis is a very long hover message that should span multiple lines and keep the coloring.\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"&a&lhover!\"}]}}}]");
     }
 
     public void testExample() {
-        parse("§8[§9GameBoxx§8] [[§8Permission node: §7gameboxx.cmd.reload||§cInsufficient permissions.]] test ((gameboxx.cmd.reload||[[§7Shift click to copy the permission!||§4§l+]]))");
+        parse("§8[§9GameBoxx§8] [[§8Permission node: §7gameboxx.cmd.reload||§cInsufficient permissions.]] test ((gameboxx.cmd.reload||[[§7Shift click to copy the permission!||§4§l+]]))",
+                "[{\"text\":\"\",\"extra\":[{\"text\":\"[\",\"color\":\"dark_gray\"},{\"text\":\"GameBoxx\",\"color\":\"blue\"},{\"text\": \"] \",\"color\":\"dark_gray\"}]},{\"text\":\"\",\"extra\":[{\"text\": \"Insufficient permissions.\",\"color\":\"red\"}],\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"\",\"extra\":[{\"text\":\"Permission node: \",\"color\":\"dark_gray\"},{\"text\": \"gameboxx.cmd.reload\",\"color\":\"gray\"}]}]}}},{\"text\":\" test \"},{\"text\":\"\",\"extra\":[{\"text\": \"+\",\"bold\":true,\"color\":\"dark_red\"}],\"obfuscated\":false,\"insertion\": \"gameboxx.cmd.reload\",\"hoverEvent\": {\"action\": \"show_text\",\"value\": {\"text\": \"\",\"extra\": [{\"text\":\"\",\"extra\":[{\"text\": \"Shift click to copy the permission!\",\"color\":\"gray\"}]}]}}}]");
     }
 }
@@ -0,0 +1,128 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2016 GameBoxx <http://gameboxx.info>
+ Copyright (c) 2016 contributors
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in
+ all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ THE SOFTWARE.
+ */
+
+package info.gameboxx.gameboxx;
+
+import info.gameboxx.gameboxx.system.points.CurrencyManager;
+import info.gameboxx.gameboxx.system.points.Transaction;
+import info.gameboxx.gameboxx.system.points.model.Currency;
+import info.gameboxx.gameboxx.system.points.model.CurrencyHolder;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TransactionTest {
+
+    @BeforeClass
+    public static void loadCurrencies() throws Exception {
+        //Currencies are normally loaded from the points config of the plugin.
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString("coins:\n  singular: coin\n  plural: coins\n  syntax: '%amount% coins'\n");
+        Field field = Currency.Config.class.getDeclaredField("yamlConfiguration");
+        field.setAccessible(true);
+        field.set(null, config);
+    }
+
+    @Test
+    public void testKey() {
+        CurrencyManager cm = new CurrencyManager();
+        CurrencyHolder holder = new Holder();
+
+        Assert.assertEquals(Transaction.Result.INSUFFICIENT_FUNDS, cm.transaction().key("order").take(holder, "coins", 10).commit());
+        //A failed transaction doesn't use up the key.
+        cm.give(holder, "coins", 10);
+        Assert.assertEquals(Transaction.Result.SUCCESS, cm.transaction().key("order").take(holder, "coins", 10).commit());
+        cm.give(holder, "coins", 10);
+        Assert.assertEquals(Transaction.Result.DUPLICATE, cm.transaction().key("order").take(holder, "coins", 10).commit());
+        Assert.assertEquals(10, cm.get(holder, "coins"), 0);
+    }
+
+    @Test
+    public void testConcurrentKeyUnderfunded() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 1000; round++) {
+                CurrencyManager cm = new CurrencyManager();
+                CurrencyHolder holder = new Holder();
+                String key = "order-" + round;
+
+                //Both attempts fail and neither of them may be rejected as duplicate of the other.
+                Transaction.Result[] results = commitTwice(executor, cm, holder, key);
+                Assert.assertEquals(Transaction.Result.INSUFFICIENT_FUNDS, results[0]);
+                Assert.assertEquals(Transaction.Result.INSUFFICIENT_FUNDS, results[1]);
+
+                //With enough funds only one of the attempts is applied.
+                cm.give(holder, "coins", 15);
+                results = commitTwice(executor, cm, holder, key);
+                Assert.assertTrue(results[0] == Transaction.Result.SUCCESS ^ results[1] == Transaction.Result.SUCCESS);
+                Assert.assertTrue(results[0] == Transaction.Result.DUPLICATE ^ results[1] == Transaction.Result.DUPLICATE);
+                Assert.assertEquals(5, cm.get(holder, "coins"), 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Transaction.Result[] commitTwice(ExecutorService executor, final CurrencyManager cm, final CurrencyHolder holder, final String key) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        Callable<Transaction.Result> commit = new Callable<Transaction.Result>() {
+            @Override
+            public Transaction.Result call() throws Exception {
+                start.await();
+                return cm.transaction().key(key).take(holder, "coins", 10).commit();
+            }
+        };
+        Future<Transaction.Result> first = executor.submit(commit);
+        Future<Transaction.Result> second = executor.submit(commit);
+        start.countDown();
+        return new Transaction.Result[] {first.get(), second.get()};
+    }
+
+    private static class Holder implements CurrencyHolder {
+        @Override
+        public void giveCurrency(String currency, double amount) {}
+
+        @Override
+        public double getCurrency(String currency) {
+            return 0;
+        }
+
+        @Override
+        public boolean takeCurrency(String currency, double amount) {
+            return false;
+        }
+
+        @Override
+        public void setCurrency(String currency, double amount) {}
+    }
+}
@@ -25,11 +25,26 @@
 
 package info.gameboxx.gameboxx;
 
+import info.gameboxx.gameboxx.util.CompletionIndex;
+import info.gameboxx.gameboxx.util.FuzzyIndex;
+import info.gameboxx.gameboxx.util.Leaderboard;
+import info.gameboxx.gameboxx.util.NameIndex;
 import info.gameboxx.gameboxx.util.Str;
+import org.apache.commons.lang.StringUtils;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
 public class UtilsTest {
 
     @Test
@@ -64,4 +79,179 @@ public class UtilsTest {
         System.out.println(Str.implode(values, ", ", " & ", 2, 4));
     }
 
+    @Test
+    public void testFuzzyIndex() {
+        Random random = new Random(0);
+        List<String> values = randomWords(random, 1000);
+        FuzzyIndex<String> index = new FuzzyIndex<>();
+        for (String value : values) {
+            index.add(value, value);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            String input = i % 4 == 0 ? values.get(random.nextInt(values.size())) : randomWord(random);
+            String expected = Str.bestMatch(input, values);
+            String match = index.bestMatch(input);
+            if (expected.isEmpty()) {
+                Assert.assertNull(input, match);
+            } else {
+                Assert.assertNotNull(input, match);
+                Assert.assertEquals(input, StringUtils.getLevenshteinDistance(input, expected), StringUtils.getLevenshteinDistance(input, match));
+            }
+            for (String value : index.matches(input, 2)) {
+                Assert.assertTrue(input, StringUtils.getLevenshteinDistance(input, value) <= 2);
+            }
+        }
+    }
+
+    @Test
+    public void testCompletionIndex() {
+        List<String> words = randomWords(new Random(7), 2000);
+        CompletionIndex index = CompletionIndex.builder().addAll(words).build();
+        for (String prefix : new String[] {"", "a", "ab", "Ka", "xyz", "zzzzzzzzzz"}) {
+            List<String> expected = new ArrayList<>();
+            for (String word : words) {
+                if (word.toLowerCase().startsWith(prefix.toLowerCase()) && !expected.contains(word)) {
+                    expected.add(word);
+                }
+            }
+            Collections.sort(expected);
+            List<String> result = index.complete(prefix, Integer.MAX_VALUE);
+            Collections.sort(result);
+            Assert.assertEquals(expected, result);
+        }
+        Assert.assertEquals(5, index.complete("", 5).size());
+
+        NameIndex names = new NameIndex();
+        names.add("Steve", "Captain");
+        names.add("Alex", "alexander");
+        Assert.assertEquals(Arrays.asList("Alex"), names.complete("al"));
+        Assert.assertEquals(Arrays.asList("Steve"), names.complete("CAP"));
+        names.remove("Steve");
+        Assert.assertTrue(names.complete("s").isEmpty());
+        Assert.assertEquals(1, names.size());
+    }
+
+    @Test
+    public void testLeaderboard() {
+        UUID a = new UUID(0, 1);
+        UUID b = new UUID(0, 2);
+        UUID c = new UUID(0, 3);
+        UUID d = new UUID(0, 4);
+        Leaderboard board = new Leaderboard();
+        board.update(c, 10);
+        board.update(a, 30);
+        board.update(d, 20);
+        board.update(b, 20);
+
+        //Highest score first and ties ordered by uuid.
+        Assert.assertEquals(1, board.getRank(a));
+        Assert.assertEquals(2, board.getRank(b));
+        Assert.assertEquals(3, board.getRank(d));
+        Assert.assertEquals(4, board.getRank(c));
+        Assert.assertEquals(Arrays.asList(a, b, d, c), uuids(board.getTop(10)));
+        Assert.assertEquals(Arrays.asList(b, d), uuids(board.getRange(2, 2)));
+        Assert.assertEquals(d, board.getEntry(3).getUuid());
+        Assert.assertEquals(3, board.getEntry(3).getRank());
+        Assert.assertNull(board.getEntry(5));
+
+        //Updates re-rank the player without adding a second entry.
+        board.update(c, 40);
+        board.update(a, 20);
+        Assert.assertEquals(Arrays.asList(c, a, b, d), uuids(board.getTop(10)));
+        Assert.assertEquals(4, board.size());
+        Assert.assertFalse(board.updateIfAbsent(c, 0));
+        Assert.assertEquals(Double.valueOf(40), board.getScore(c));
+
+        Assert.assertTrue(board.remove(a));
+        Assert.assertFalse(board.remove(a));
+        Assert.assertEquals(-1, board.getRank(a));
+        Assert.assertEquals(Arrays.asList(c, b, d), uuids(board.getTop(10)));
+        Assert.assertTrue(board.getRange(4, 10).isEmpty());
+    }
+
+    @Test
+    public void testLeaderboardRandom() {
+        Random random = new Random(0);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            players.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        final Map<UUID, Double> scores = new HashMap<>();
+        Leaderboard board = new Leaderboard();
+        for (int i = 0; i < 5000; i++) {
+            UUID uuid = players.get(random.nextInt(players.size()));
+            if (random.nextInt(10) == 0) {
+                scores.remove(uuid);
+                board.remove(uuid);
+            } else {
+                //Few distinct scores so there are plenty of ties.
+                double score = random.nextInt(20);
+                scores.put(uuid, score);
+                board.update(uuid, score);
+            }
+        }
+
+        List<UUID> expected = new ArrayList<>(scores.keySet());
+        Collections.sort(expected, new Comparator<UUID>() {
+            @Override
+            public int compare(UUID o1, UUID o2) {
+                int compare = Double.compare(scores.get(o2), scores.get(o1));
+                return compare != 0 ? compare : o1.compareTo(o2);
+            }
+        });
+        Assert.assertEquals(expected, uuids(board.getTop(Integer.MAX_VALUE)));
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(i + 1, board.getRank(expected.get(i)));
+        }
+        Assert.assertEquals(expected.subList(100, 150), uuids(board.getRange(101, 50)));
+    }
+
+    @Test
+    @Ignore ("Debug")
+    public void benchmarkFuzzyIndex() {
+        Random random = new Random(0);
+        List<String> values = randomWords(random, 1000);
+        FuzzyIndex<String> index = new FuzzyIndex<>();
+        for (String value : values) {
+            index.add(value, value);
+        }
+        List<String> inputs = randomWords(random, 10000);
+
+        long start = System.nanoTime();
+        for (String input : inputs) {
+            Str.bestMatch(input, values);
+        }
+        System.out.println("Str.bestMatch: " + (System.nanoTime() - start) / inputs.size() + "ns per lookup");
+
+        start = System.nanoTime();
+        for (String input : inputs) {
+            index.bestMatch(input);
+        }
+        System.out.println("FuzzyIndex: " + (System.nanoTime() - start) / inputs.size() + "ns per lookup");
+    }
+
+    private static List<UUID> uuids(List<Leaderboard.Entry> entries) {
+        List<UUID> uuids = new ArrayList<>();
+        for (Leaderboard.Entry entry : entries) {
+            uuids.add(entry.getUuid());
+        }
+        return uuids;
+    }
+
+    private static List<String> randomWords(Random random, int amount) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            words.add(randomWord(random));
+        }
+        return words;
+    }
+
+    private static String randomWord(Random random) {
+        char[] chars = new char[3 + random.nextInt(10)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char)('a' + random.nextInt(8));
+        }
+        return new String(chars);
+    }
 }